@@ -1,11 +1,15 @@
 package com.project.suporte.ai.config;
 
+import com.project.suporte.ai.support.BoundedVirtualThreadExecutor;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 
 @Configuration
 @EnableConfigurationProperties(DiagnosticsProperties.class)
@@ -13,9 +17,56 @@ public class AppConfig {
 
     @Bean(name = "portScanExecutor", destroyMethod = "shutdown")
     public Executor portScanExecutor(DiagnosticsProperties properties) {
+        if (properties.getAsync().isVirtualThreads()) {
+            return new BoundedVirtualThreadExecutor("portscan-", properties.getPortscan().getMaxConcurrency());
+        }
+
         return Executors.newFixedThreadPool(
                 properties.getPortscan().getThreadPoolSize(),
                 Thread.ofPlatform().name("portscan-", 0).factory()
         );
     }
+
+    @Bean(name = "tracerouteEnrichmentExecutor", destroyMethod = "shutdown")
+    public Executor tracerouteEnrichmentExecutor(DiagnosticsProperties properties) {
+        if (properties.getAsync().isVirtualThreads()) {
+            return new BoundedVirtualThreadExecutor("enrichment-", properties.getTraceroute().getEnrichmentThreads());
+        }
+
+        return Executors.newFixedThreadPool(
+                properties.getTraceroute().getEnrichmentThreads(),
+                Thread.ofPlatform().name("enrichment-", 0).factory()
+        );
+    }
+
+    /**
+     * Timed flushes of batched command output. Kept apart from {@code diagnosticsExecutor}, whose
+     * threads sit in {@code readLine} for the whole command, so a flush never waits behind them.
+     */
+    @Bean(name = "commandFlushExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService commandFlushExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("output-flush-", 0).factory());
+    }
+
+    @Bean(name = "monitorScheduler", destroyMethod = "shutdownNow")
+    public ScheduledExecutorService monitorScheduler(DiagnosticsProperties properties) {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(
+                properties.getMonitor().getSchedulerThreads(),
+                Thread.ofPlatform().name("monitor-timer-", 0).daemon().factory()
+        );
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    @Bean(name = "monitorProbeExecutor", destroyMethod = "shutdown")
+    public Executor monitorProbeExecutor(DiagnosticsProperties properties) {
+        if (properties.getAsync().isVirtualThreads()) {
+            return new BoundedVirtualThreadExecutor("monitor-", properties.getMonitor().getMaxConcurrentProbes());
+        }
+
+        return Executors.newFixedThreadPool(
+                properties.getMonitor().getWorkerThreads(),
+                Thread.ofPlatform().name("monitor-", 0).factory()
+        );
+    }
 }
@@ -1,5 +1,6 @@
 package com.project.suporte.ai.config;
 
+import com.project.suporte.ai.support.BoundedVirtualThreadExecutor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
@@ -9,11 +10,25 @@ import java.util.concurrent.Executor;
 @Configuration
 public class AsyncConfig {
 
+    /**
+     * Runs the commands admitted by {@code CommandRunner}, one thread per process. The pool is sized to
+     * {@code diagnostics.commands.max-processes} (core equal to max), so every admitted command starts at
+     * once instead of waiting in the queue behind idle core threads.
+     */
     @Bean(name = "diagnosticsExecutor")
     public Executor diagnosticsExecutor(DiagnosticsProperties properties) {
+        int processes = properties.getCommands().getMaxProcesses();
+        if (properties.getAsync().isVirtualThreads()) {
+            return new BoundedVirtualThreadExecutor(
+                    "diagnostics-",
+                    processes,
+                    properties.getAsync().getQueueCapacity()
+            );
+        }
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(properties.getAsync().getCorePoolSize());
-        executor.setMaxPoolSize(properties.getAsync().getMaxPoolSize());
+        executor.setCorePoolSize(processes);
+        executor.setMaxPoolSize(processes);
         executor.setQueueCapacity(properties.getAsync().getQueueCapacity());
         executor.setThreadNamePrefix("diagnostics-");
         executor.initialize();
@@ -11,10 +11,15 @@ public class DiagnosticsProperties {
 
     private final Sse sse = new Sse();
     private final Async async = new Async();
+    private final Commands commands = new Commands();
+    private final Traceroute traceroute = new Traceroute();
     private final Portscan portscan = new Portscan();
     private final Geolocation geolocation = new Geolocation();
     private final Cache cache = new Cache();
     private final Whois whois = new Whois();
+    private final Monitor monitor = new Monitor();
+    private final History history = new History();
+    private final Registry registry = new Registry();
 
     public Sse getSse() {
         return sse;
@@ -24,6 +29,14 @@ public class DiagnosticsProperties {
         return async;
     }
 
+    public Commands getCommands() {
+        return commands;
+    }
+
+    public Traceroute getTraceroute() {
+        return traceroute;
+    }
+
     public Portscan getPortscan() {
         return portscan;
     }
@@ -40,9 +53,25 @@ public class DiagnosticsProperties {
         return whois;
     }
 
+    public Monitor getMonitor() {
+        return monitor;
+    }
+
+    public History getHistory() {
+        return history;
+    }
+
+    public Registry getRegistry() {
+        return registry;
+    }
+
     public static class Sse {
         @Min(1_000)
         private long timeoutMs = 180_000;
+        @Min(1)
+        private int outputBatchLines = 32;
+        @Min(1)
+        private long outputBatchMs = 100;
 
         public long getTimeoutMs() {
             return timeoutMs;
@@ -51,38 +80,132 @@ public class DiagnosticsProperties {
         public void setTimeoutMs(long timeoutMs) {
             this.timeoutMs = timeoutMs;
         }
+
+        public int getOutputBatchLines() {
+            return outputBatchLines;
+        }
+
+        public void setOutputBatchLines(int outputBatchLines) {
+            this.outputBatchLines = outputBatchLines;
+        }
+
+        public long getOutputBatchMs() {
+            return outputBatchMs;
+        }
+
+        public void setOutputBatchMs(long outputBatchMs) {
+            this.outputBatchMs = outputBatchMs;
+        }
     }
 
     public static class Async {
+        @Min(0)
+        private int queueCapacity = 100;
+        private String mode = "platform";
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public String getMode() {
+            return mode;
+        }
+
+        public void setMode(String mode) {
+            this.mode = mode;
+        }
+
+        public boolean isVirtualThreads() {
+            return "virtual".equalsIgnoreCase(mode);
+        }
+    }
+
+    public static class Commands {
         @Min(1)
-        private int corePoolSize = 4;
+        private int maxProcesses = 16;
         @Min(1)
-        private int maxPoolSize = 12;
+        private int maxPerTarget = 2;
         @Min(0)
-        private int queueCapacity = 100;
+        private int maxQueued = 64;
+        @Min(1)
+        private long queueTimeoutMs = 15_000;
+        @Min(1)
+        private int retryAfterSeconds = 5;
 
-        public int getCorePoolSize() {
-            return corePoolSize;
+        public int getMaxProcesses() {
+            return maxProcesses;
         }
 
-        public void setCorePoolSize(int corePoolSize) {
-            this.corePoolSize = corePoolSize;
+        public void setMaxProcesses(int maxProcesses) {
+            this.maxProcesses = maxProcesses;
         }
 
-        public int getMaxPoolSize() {
-            return maxPoolSize;
+        public int getMaxPerTarget() {
+            return maxPerTarget;
         }
 
-        public void setMaxPoolSize(int maxPoolSize) {
-            this.maxPoolSize = maxPoolSize;
+        public void setMaxPerTarget(int maxPerTarget) {
+            this.maxPerTarget = maxPerTarget;
         }
 
-        public int getQueueCapacity() {
-            return queueCapacity;
+        public int getMaxQueued() {
+            return maxQueued;
         }
 
-        public void setQueueCapacity(int queueCapacity) {
-            this.queueCapacity = queueCapacity;
+        public void setMaxQueued(int maxQueued) {
+            this.maxQueued = maxQueued;
+        }
+
+        public long getQueueTimeoutMs() {
+            return queueTimeoutMs;
+        }
+
+        public void setQueueTimeoutMs(long queueTimeoutMs) {
+            this.queueTimeoutMs = queueTimeoutMs;
+        }
+
+        public int getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+
+        public void setRetryAfterSeconds(int retryAfterSeconds) {
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+    }
+
+    public static class Traceroute {
+        private boolean enrichmentEnabled = true;
+        @Min(1)
+        private int enrichmentThreads = 8;
+        @Min(1)
+        private long enrichmentTimeoutMs = 5_000;
+
+        public boolean isEnrichmentEnabled() {
+            return enrichmentEnabled;
+        }
+
+        public void setEnrichmentEnabled(boolean enrichmentEnabled) {
+            this.enrichmentEnabled = enrichmentEnabled;
+        }
+
+        public int getEnrichmentThreads() {
+            return enrichmentThreads;
+        }
+
+        public void setEnrichmentThreads(int enrichmentThreads) {
+            this.enrichmentThreads = enrichmentThreads;
+        }
+
+        public long getEnrichmentTimeoutMs() {
+            return enrichmentTimeoutMs;
+        }
+
+        public void setEnrichmentTimeoutMs(long enrichmentTimeoutMs) {
+            this.enrichmentTimeoutMs = enrichmentTimeoutMs;
         }
     }
 
@@ -94,7 +217,39 @@ public class DiagnosticsProperties {
         @Min(1)
         private int maxPorts = 64;
         @Min(1)
+        private int maxRangePorts = 65_535;
+        @Min(1)
+        private int scanWindow = 1_024;
+        @Min(1)
         private int threadPoolSize = 32;
+        @Min(1)
+        private int maxConcurrency = 4_096;
+        private String engine = "selector";
+        @Min(1)
+        private int maxInFlight = 4_096;
+        @Min(1)
+        private int timerTickMs = 10;
+        private boolean adaptiveTimeout = false;
+        @Min(1)
+        private int adaptiveMinTimeoutMs = 50;
+        @Min(1)
+        private int maxHosts = 256;
+        @Min(1)
+        private int maxBatchProbes = 262_144;
+        @Min(1)
+        private int globalMaxInFlight = 2_048;
+        private boolean serviceDetection = false;
+        @Min(50)
+        private int bannerTimeoutMs = 1_500;
+        @Min(1)
+        private int bannerBuffers = 256;
+        @Min(1)
+        private int maxJobs = 100;
+        @Min(1)
+        private long jobRetentionSeconds = 600;
+        private boolean dualStack = false;
+        @Min(10)
+        private int connectionAttemptDelayMs = 250;
 
         public int getDefaultTimeoutMs() {
             return defaultTimeoutMs;
@@ -120,6 +275,22 @@ public class DiagnosticsProperties {
             this.maxPorts = maxPorts;
         }
 
+        public int getMaxRangePorts() {
+            return maxRangePorts;
+        }
+
+        public void setMaxRangePorts(int maxRangePorts) {
+            this.maxRangePorts = maxRangePorts;
+        }
+
+        public int getScanWindow() {
+            return scanWindow;
+        }
+
+        public void setScanWindow(int scanWindow) {
+            this.scanWindow = scanWindow;
+        }
+
         public int getThreadPoolSize() {
             return threadPoolSize;
         }
@@ -127,6 +298,134 @@ public class DiagnosticsProperties {
         public void setThreadPoolSize(int threadPoolSize) {
             this.threadPoolSize = threadPoolSize;
         }
+
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        public void setMaxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        public String getEngine() {
+            return engine;
+        }
+
+        public void setEngine(String engine) {
+            this.engine = engine;
+        }
+
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+
+        public void setMaxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+        }
+
+        public int getTimerTickMs() {
+            return timerTickMs;
+        }
+
+        public void setTimerTickMs(int timerTickMs) {
+            this.timerTickMs = timerTickMs;
+        }
+
+        public boolean isAdaptiveTimeout() {
+            return adaptiveTimeout;
+        }
+
+        public void setAdaptiveTimeout(boolean adaptiveTimeout) {
+            this.adaptiveTimeout = adaptiveTimeout;
+        }
+
+        public int getAdaptiveMinTimeoutMs() {
+            return adaptiveMinTimeoutMs;
+        }
+
+        public void setAdaptiveMinTimeoutMs(int adaptiveMinTimeoutMs) {
+            this.adaptiveMinTimeoutMs = adaptiveMinTimeoutMs;
+        }
+
+        public int getMaxHosts() {
+            return maxHosts;
+        }
+
+        public void setMaxHosts(int maxHosts) {
+            this.maxHosts = maxHosts;
+        }
+
+        public int getMaxBatchProbes() {
+            return maxBatchProbes;
+        }
+
+        public void setMaxBatchProbes(int maxBatchProbes) {
+            this.maxBatchProbes = maxBatchProbes;
+        }
+
+        public int getGlobalMaxInFlight() {
+            return globalMaxInFlight;
+        }
+
+        public void setGlobalMaxInFlight(int globalMaxInFlight) {
+            this.globalMaxInFlight = globalMaxInFlight;
+        }
+
+        public boolean isServiceDetection() {
+            return serviceDetection;
+        }
+
+        public void setServiceDetection(boolean serviceDetection) {
+            this.serviceDetection = serviceDetection;
+        }
+
+        public int getBannerTimeoutMs() {
+            return bannerTimeoutMs;
+        }
+
+        public void setBannerTimeoutMs(int bannerTimeoutMs) {
+            this.bannerTimeoutMs = bannerTimeoutMs;
+        }
+
+        public int getBannerBuffers() {
+            return bannerBuffers;
+        }
+
+        public void setBannerBuffers(int bannerBuffers) {
+            this.bannerBuffers = bannerBuffers;
+        }
+
+        public int getMaxJobs() {
+            return maxJobs;
+        }
+
+        public void setMaxJobs(int maxJobs) {
+            this.maxJobs = maxJobs;
+        }
+
+        public long getJobRetentionSeconds() {
+            return jobRetentionSeconds;
+        }
+
+        public void setJobRetentionSeconds(long jobRetentionSeconds) {
+            this.jobRetentionSeconds = jobRetentionSeconds;
+        }
+
+        public boolean isDualStack() {
+            return dualStack;
+        }
+
+        public void setDualStack(boolean dualStack) {
+            this.dualStack = dualStack;
+        }
+
+        public int getConnectionAttemptDelayMs() {
+            return connectionAttemptDelayMs;
+        }
+
+        public void setConnectionAttemptDelayMs(int connectionAttemptDelayMs) {
+            this.connectionAttemptDelayMs = connectionAttemptDelayMs;
+        }
     }
 
     public static class Geolocation {
@@ -168,6 +467,16 @@ public class DiagnosticsProperties {
         private long geolocationTtlSeconds = 300;
         @Min(0)
         private long whoisTtlSeconds = 600;
+        @Min(0)
+        private long tracerouteTtlSeconds = 60;
+        @Min(0)
+        private long portscanOpenTtlSeconds = 60;
+        @Min(0)
+        private long portscanClosedTtlSeconds = 60;
+        @Min(0)
+        private long portscanFilteredTtlSeconds = 15;
+        @Min(1)
+        private int portscanMaxEntries = 100_000;
 
         public long getDnsTtlSeconds() {
             return dnsTtlSeconds;
@@ -192,6 +501,46 @@ public class DiagnosticsProperties {
         public void setWhoisTtlSeconds(long whoisTtlSeconds) {
             this.whoisTtlSeconds = whoisTtlSeconds;
         }
+
+        public long getTracerouteTtlSeconds() {
+            return tracerouteTtlSeconds;
+        }
+
+        public void setTracerouteTtlSeconds(long tracerouteTtlSeconds) {
+            this.tracerouteTtlSeconds = tracerouteTtlSeconds;
+        }
+
+        public long getPortscanOpenTtlSeconds() {
+            return portscanOpenTtlSeconds;
+        }
+
+        public void setPortscanOpenTtlSeconds(long portscanOpenTtlSeconds) {
+            this.portscanOpenTtlSeconds = portscanOpenTtlSeconds;
+        }
+
+        public long getPortscanClosedTtlSeconds() {
+            return portscanClosedTtlSeconds;
+        }
+
+        public void setPortscanClosedTtlSeconds(long portscanClosedTtlSeconds) {
+            this.portscanClosedTtlSeconds = portscanClosedTtlSeconds;
+        }
+
+        public long getPortscanFilteredTtlSeconds() {
+            return portscanFilteredTtlSeconds;
+        }
+
+        public void setPortscanFilteredTtlSeconds(long portscanFilteredTtlSeconds) {
+            this.portscanFilteredTtlSeconds = portscanFilteredTtlSeconds;
+        }
+
+        public int getPortscanMaxEntries() {
+            return portscanMaxEntries;
+        }
+
+        public void setPortscanMaxEntries(int portscanMaxEntries) {
+            this.portscanMaxEntries = portscanMaxEntries;
+        }
     }
 
     public static class Whois {
@@ -216,4 +565,222 @@ public class DiagnosticsProperties {
             this.readTimeoutMs = readTimeoutMs;
         }
     }
+
+    public static class Monitor {
+        private String mode = "single";
+        private String defaultProbe = "icmp";
+        @Min(1)
+        private int tcpPort = 443;
+        @Min(1)
+        private int schedulerThreads = 2;
+        @Min(1)
+        private int workerThreads = 32;
+        @Min(1)
+        private int maxConcurrentProbes = 1_000;
+        @Min(0)
+        private int lingerMs = 30_000;
+        @Min(1)
+        private int replayBufferSize = 256;
+        @Min(1)
+        private int maxChannelTargets = 200;
+
+        public String getMode() {
+            return mode;
+        }
+
+        public void setMode(String mode) {
+            this.mode = mode;
+        }
+
+        public String getDefaultProbe() {
+            return defaultProbe;
+        }
+
+        public void setDefaultProbe(String defaultProbe) {
+            this.defaultProbe = defaultProbe;
+        }
+
+        public int getTcpPort() {
+            return tcpPort;
+        }
+
+        public void setTcpPort(int tcpPort) {
+            this.tcpPort = tcpPort;
+        }
+
+        public int getSchedulerThreads() {
+            return schedulerThreads;
+        }
+
+        public void setSchedulerThreads(int schedulerThreads) {
+            this.schedulerThreads = schedulerThreads;
+        }
+
+        public int getWorkerThreads() {
+            return workerThreads;
+        }
+
+        public void setWorkerThreads(int workerThreads) {
+            this.workerThreads = workerThreads;
+        }
+
+        public int getMaxConcurrentProbes() {
+            return maxConcurrentProbes;
+        }
+
+        public void setMaxConcurrentProbes(int maxConcurrentProbes) {
+            this.maxConcurrentProbes = maxConcurrentProbes;
+        }
+
+        public int getLingerMs() {
+            return lingerMs;
+        }
+
+        public void setLingerMs(int lingerMs) {
+            this.lingerMs = lingerMs;
+        }
+
+        public int getReplayBufferSize() {
+            return replayBufferSize;
+        }
+
+        public void setReplayBufferSize(int replayBufferSize) {
+            this.replayBufferSize = replayBufferSize;
+        }
+
+        public int getMaxChannelTargets() {
+            return maxChannelTargets;
+        }
+
+        public void setMaxChannelTargets(int maxChannelTargets) {
+            this.maxChannelTargets = maxChannelTargets;
+        }
+
+        public boolean isContinuous() {
+            return "continuous".equalsIgnoreCase(mode);
+        }
+    }
+
+    public static class History {
+        private boolean enabled = true;
+        private String directory = "data/monitor-history";
+        @Min(16)
+        private int segmentRecords = 65_536;
+        @Min(1)
+        private int queueCapacity = 65_536;
+        @Min(10)
+        private long flushIntervalMs = 1_000;
+        @Min(1)
+        private int maxQueryPoints = 20_000;
+        @Min(1)
+        private long idleCloseMs = 300_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public int getSegmentRecords() {
+            return segmentRecords;
+        }
+
+        public void setSegmentRecords(int segmentRecords) {
+            this.segmentRecords = segmentRecords;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public long getFlushIntervalMs() {
+            return flushIntervalMs;
+        }
+
+        public void setFlushIntervalMs(long flushIntervalMs) {
+            this.flushIntervalMs = flushIntervalMs;
+        }
+
+        public int getMaxQueryPoints() {
+            return maxQueryPoints;
+        }
+
+        public void setMaxQueryPoints(int maxQueryPoints) {
+            this.maxQueryPoints = maxQueryPoints;
+        }
+
+        public long getIdleCloseMs() {
+            return idleCloseMs;
+        }
+
+        public void setIdleCloseMs(long idleCloseMs) {
+            this.idleCloseMs = idleCloseMs;
+        }
+    }
+
+    public static class Registry {
+        @Min(1)
+        private int maxMonitors = 200;
+        private String file = "data/monitors.json";
+        @Min(0)
+        private long restoreSpreadMs = 10_000;
+        @Min(1)
+        private long restartDelayMs = 5_000;
+        @Min(1)
+        private long restartMaxDelayMs = 300_000;
+
+        public int getMaxMonitors() {
+            return maxMonitors;
+        }
+
+        public void setMaxMonitors(int maxMonitors) {
+            this.maxMonitors = maxMonitors;
+        }
+
+        public String getFile() {
+            return file;
+        }
+
+        public void setFile(String file) {
+            this.file = file;
+        }
+
+        public long getRestoreSpreadMs() {
+            return restoreSpreadMs;
+        }
+
+        public void setRestoreSpreadMs(long restoreSpreadMs) {
+            this.restoreSpreadMs = restoreSpreadMs;
+        }
+
+        public long getRestartDelayMs() {
+            return restartDelayMs;
+        }
+
+        public void setRestartDelayMs(long restartDelayMs) {
+            this.restartDelayMs = restartDelayMs;
+        }
+
+        public long getRestartMaxDelayMs() {
+            return restartMaxDelayMs;
+        }
+
+        public void setRestartMaxDelayMs(long restartMaxDelayMs) {
+            this.restartMaxDelayMs = restartMaxDelayMs;
+        }
+    }
 }
@@ -0,0 +1,27 @@
+package com.project.suporte.ai.controller;
+
+import com.project.suporte.ai.dto.CommandRunnerMetricsDTO;
+import com.project.suporte.ai.service.CommandRunner;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/commands")
+@Tag(name = "Comandos", description = "Capacidade dos comandos ping e traceroute")
+public class CommandController {
+
+    private final CommandRunner commandRunner;
+
+    public CommandController(CommandRunner commandRunner) {
+        this.commandRunner = commandRunner;
+    }
+
+    @GetMapping("/metrics")
+    @Operation(summary = "Consulta a fila de comandos", description = "Retorna processos em execucao, tamanho da fila, admissoes, rejeicoes, expiracoes na fila e o tempo de espera medio e maximo.")
+    public CommandRunnerMetricsDTO metrics() {
+        return commandRunner.metrics();
+    }
+}
@@ -0,0 +1,77 @@
+package com.project.suporte.ai.controller;
+
+import com.project.suporte.ai.dto.MonitorRegistrationRequestDTO;
+import com.project.suporte.ai.dto.RegisteredMonitorDTO;
+import com.project.suporte.ai.service.MonitorRegistryService;
+import com.project.suporte.ai.support.SseEmitterFactory;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/monitors")
+@Tag(name = "Monitores", description = "Monitores cadastrados que continuam rodando no servidor")
+public class MonitorController {
+
+    private final MonitorRegistryService registryService;
+    private final SseEmitterFactory emitterFactory;
+
+    public MonitorController(MonitorRegistryService registryService, SseEmitterFactory emitterFactory) {
+        this.registryService = registryService;
+        this.emitterFactory = emitterFactory;
+    }
+
+    @PostMapping
+    @Operation(summary = "Cadastra um monitor", description = "O monitor continua rodando no servidor mesmo sem nenhum cliente conectado e e restaurado apos reinicios.")
+    public ResponseEntity<RegisteredMonitorDTO> register(@Valid @RequestBody MonitorRegistrationRequestDTO request) {
+        RegisteredMonitorDTO monitor = registryService.register(request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .location(URI.create("/api/v1/monitors/" + monitor.id()))
+                .body(monitor);
+    }
+
+    @GetMapping
+    @Operation(summary = "Lista os monitores cadastrados")
+    public List<RegisteredMonitorDTO> list() {
+        return registryService.list();
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Consulta um monitor cadastrado")
+    public RegisteredMonitorDTO get(@PathVariable String id) {
+        return registryService.get(id);
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Remove um monitor cadastrado", description = "Encerra o monitor quando nenhum outro cadastro ou cliente usa o mesmo alvo.")
+    public ResponseEntity<Void> remove(@PathVariable String id) {
+        registryService.remove(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping(value = "/{id}/stream", produces = "text/event-stream")
+    @Operation(summary = "Acompanha os eventos de um monitor cadastrado", description = "Fechar o stream apenas desconecta o cliente; o monitor continua rodando.")
+    public SseEmitter stream(
+            @PathVariable String id,
+            @Parameter(description = "Enviado pelo EventSource ao reconectar; reenvia apenas os eventos perdidos.") @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        SseEmitter emitter = emitterFactory.createContinuous();
+        registryService.attach(id, emitter, lastEventId);
+        return emitter;
+    }
+}
@@ -1,20 +1,37 @@
 package com.project.suporte.ai.controller;
 
+import com.project.suporte.ai.dto.MonitorChannelTargetDTO;
+import com.project.suporte.ai.dto.MonitorChannelTargetRequestDTO;
+import com.project.suporte.ai.dto.MonitorHistoryDTO;
 import com.project.suporte.ai.exceptions.ApiException;
+import com.project.suporte.ai.service.MonitorChannelService;
+import com.project.suporte.ai.service.MonitorHistoryResolution;
+import com.project.suporte.ai.service.MonitorProbeType;
 import com.project.suporte.ai.service.PingMonitorService;
 import com.project.suporte.ai.service.PingService;
 import com.project.suporte.ai.support.SseEmitterFactory;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/ping")
 @Tag(name = "Ping", description = "Endpoints para Ping")
@@ -22,11 +39,18 @@ public class PingController {
 
     private final PingService pingService;
     private final PingMonitorService pingMonitorService;
+    private final MonitorChannelService monitorChannelService;
     private final SseEmitterFactory emitterFactory;
 
-    public PingController(PingService pingService, PingMonitorService pingMonitorService, SseEmitterFactory emitterFactory) {
+    public PingController(
+            PingService pingService,
+            PingMonitorService pingMonitorService,
+            MonitorChannelService monitorChannelService,
+            SseEmitterFactory emitterFactory
+    ) {
         this.pingService = pingService;
         this.pingMonitorService = pingMonitorService;
+        this.monitorChannelService = monitorChannelService;
         this.emitterFactory = emitterFactory;
     }
 
@@ -52,14 +76,80 @@ public class PingController {
     public SseEmitter monitor(
             @Parameter(example = "cliente.exemplo.com.br") @RequestParam String target,
             @Parameter(example = "5000") @RequestParam(defaultValue = "5000") int intervalMs,
-            @Parameter(example = "2000") @RequestParam(defaultValue = "2000") int timeoutMs
+            @Parameter(example = "2000") @RequestParam(defaultValue = "2000") int timeoutMs,
+            @Parameter(example = "tcp", description = "icmp (processo ping), tcp (tempo de conexao TCP) ou reachable (InetAddress.isReachable).") @RequestParam(required = false) String probe,
+            @Parameter(example = "443", description = "Porta usada pelo probe tcp.") @RequestParam(required = false) Integer port,
+            @Parameter(description = "Enviado pelo EventSource ao reconectar; reanexa ao monitor existente e reenvia apenas os eventos perdidos.") @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        validateMonitorParameters(intervalMs, timeoutMs);
+        MonitorProbeType probeType = probe != null ? MonitorProbeType.parse(probe) : null;
+        validatePort(port);
+        SseEmitter emitter = emitterFactory.createContinuous();
+        pingMonitorService.monitor(emitter, target, intervalMs, timeoutMs, probeType, port, lastEventId);
+        return emitter;
+    }
+
+    @GetMapping(value = "/monitor/channels", produces = "text/event-stream")
+    @Operation(summary = "Abre um canal com varios monitores", description = "Uma unica conexao SSE transporta os eventos de todos os alvos do canal. O primeiro evento 'channel' informa o id usado para adicionar ou remover alvos sem reconectar; os demais trazem a tag do monitor em 'monitor'.")
+    public SseEmitter monitorChannel(
+            @Parameter(example = "cliente.exemplo.com.br", description = "Alvos iniciais; pode repetir o parametro ou deixar vazio.") @RequestParam(required = false) List<String> target,
+            @Parameter(example = "5000") @RequestParam(defaultValue = "5000") int intervalMs,
+            @Parameter(example = "2000") @RequestParam(defaultValue = "2000") int timeoutMs,
+            @Parameter(example = "tcp") @RequestParam(required = false) String probe,
+            @Parameter(example = "443") @RequestParam(required = false) Integer port
     ) {
         validateMonitorParameters(intervalMs, timeoutMs);
+        validatePort(port);
+        List<MonitorChannelTargetRequestDTO> targets = target == null ? List.of() : target.stream()
+                .map(value -> new MonitorChannelTargetRequestDTO(null, value, intervalMs, timeoutMs, probe, port))
+                .toList();
         SseEmitter emitter = emitterFactory.createContinuous();
-        pingMonitorService.monitor(emitter, target, intervalMs, timeoutMs);
+        monitorChannelService.open(emitter, targets);
         return emitter;
     }
 
+    @PostMapping("/monitor/channels/{channelId}/targets")
+    @Operation(summary = "Adiciona um alvo ao canal", description = "O monitor passa a enviar eventos pela conexao ja aberta do canal.")
+    public ResponseEntity<MonitorChannelTargetDTO> addChannelTarget(
+            @PathVariable String channelId,
+            @Valid @RequestBody MonitorChannelTargetRequestDTO request
+    ) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(monitorChannelService.add(channelId, request));
+    }
+
+    @GetMapping("/monitor/channels/{channelId}/targets")
+    @Operation(summary = "Lista os alvos do canal")
+    public List<MonitorChannelTargetDTO> channelTargets(@PathVariable String channelId) {
+        return monitorChannelService.targets(channelId);
+    }
+
+    @DeleteMapping("/monitor/channels/{channelId}/targets/{tag}")
+    @Operation(summary = "Remove um alvo do canal", description = "O canal continua aberto; o monitor compartilhado so encerra quando nao restar nenhum espectador.")
+    public ResponseEntity<Void> removeChannelTarget(@PathVariable String channelId, @PathVariable String tag) {
+        monitorChannelService.remove(channelId, tag);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/history")
+    @Operation(summary = "Consulta o historico de um monitor", description = "Retorna as amostras gravadas do monitor do alvo entre 'from' e 'to' (padrao: ultimas 6 horas). A resolucao raw devolve cada amostra; 1m e 1h devolvem minimo, media, maximo e perda por janela.")
+    public MonitorHistoryDTO history(
+            @Parameter(example = "cliente.exemplo.com.br") @RequestParam String target,
+            @Parameter(example = "icmp") @RequestParam(required = false) String probe,
+            @Parameter(example = "443") @RequestParam(required = false) Integer port,
+            @Parameter(example = "2026-10-17T06:00:00Z") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @Parameter(example = "2026-10-17T12:00:00Z") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @Parameter(example = "1m", description = "raw, 1m ou 1h.") @RequestParam(defaultValue = "1m") String resolution
+    ) {
+        MonitorProbeType probeType = probe != null ? MonitorProbeType.parse(probe) : null;
+        validatePort(port);
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(Duration.ofHours(6));
+        if (!start.isBefore(end)) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "invalid_range", "O inicio do intervalo deve ser anterior ao fim.");
+        }
+        return pingMonitorService.history(target, probeType, port, start, end, MonitorHistoryResolution.parse(resolution));
+    }
+
     private SseEmitter startPing(String host, int count) {
         SseEmitter emitter = emitterFactory.create();
         pingService.executePing(emitter, host, count);
@@ -72,6 +162,12 @@ public class PingController {
         }
     }
 
+    private void validatePort(Integer port) {
+        if (port != null && (port < 1 || port > 65535)) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "invalid_port", "A porta deve estar entre 1 e 65535.");
+        }
+    }
+
     private void validateMonitorParameters(int intervalMs, int timeoutMs) {
         if (intervalMs < 1000 || intervalMs > 60000) {
             throw new ApiException(HttpStatus.BAD_REQUEST, "invalid_interval", "O intervalo deve estar entre 1000 ms e 60000 ms.");
@@ -1,16 +1,26 @@
 package com.project.suporte.ai.controller;
 
+import com.project.suporte.ai.dto.PortScanBatchRequestDTO;
+import com.project.suporte.ai.dto.PortScanJobDTO;
 import com.project.suporte.ai.dto.PortScanRequestDTO;
 import com.project.suporte.ai.dto.PortScanResponseDTO;
 import com.project.suporte.ai.service.PortScanService;
+import com.project.suporte.ai.support.SseEmitterFactory;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.net.URI;
 
 @RestController
 @RequestMapping("/api/v1/portscan")
@@ -18,14 +28,53 @@ import org.springframework.web.bind.annotation.RestController;
 public class PortScanController {
 
     private final PortScanService portScanService;
+    private final SseEmitterFactory emitterFactory;
 
-    public PortScanController(PortScanService portScanService) {
+    public PortScanController(PortScanService portScanService, SseEmitterFactory emitterFactory) {
         this.portScanService = portScanService;
+        this.emitterFactory = emitterFactory;
     }
 
     @PostMapping
-    @Operation(summary = "Verifica portas em um determinado host", description = "Aceita host público e até 64 portas por requisição. O sistema rejeita localhost e redes privadas para reduzir risco operacional.")
+    @Operation(summary = "Verifica portas em um determinado host", description = "Aceita host público e até 64 portas explícitas ou uma faixa como 1-1024, top100 ou all. Portas abertas, fechadas e filtradas voltam agrupadas em faixas. O sistema rejeita localhost e redes privadas para reduzir risco operacional.")
     public ResponseEntity<PortScanResponseDTO> scanPorts(@Valid @RequestBody PortScanRequestDTO request) {
         return ResponseEntity.ok(portScanService.scanPorts(request));
     }
+
+    @PostMapping(value = "/stream", produces = "text/event-stream")
+    @Operation(summary = "Verifica portas com streaming SSE", description = "Mesmas regras de /api/v1/portscan, mas publica um evento open, closed ou filtered assim que cada porta responde e um evento completed com o resumo final.")
+    public SseEmitter streamScan(@Valid @RequestBody PortScanRequestDTO request) {
+        SseEmitter emitter = emitterFactory.create();
+        portScanService.streamScan(emitter, request);
+        return emitter;
+    }
+
+    @PostMapping(value = "/batch", produces = "text/event-stream")
+    @Operation(summary = "Verifica portas em vários hosts com streaming SSE", description = "Aceita uma lista de hosts públicos e/ou um bloco CIDR. Cada endereço passa pelas mesmas restrições do port scan simples e todas as sondagens dividem um único orçamento global de concorrência, intercalado entre os hosts. Publica eventos por porta com o host correspondente, um host_completed por host e um completed com o total.")
+    public SseEmitter streamBatchScan(@Valid @RequestBody PortScanBatchRequestDTO request) {
+        SseEmitter emitter = emitterFactory.create();
+        portScanService.streamBatchScan(emitter, request);
+        return emitter;
+    }
+
+    @PostMapping("/jobs")
+    @Operation(summary = "Inicia uma varredura em segundo plano", description = "Mesmas regras de /api/v1/portscan, mas responde 202 imediatamente com o id da varredura. Consulte o progresso e os resultados parciais com GET e cancele com DELETE.")
+    public ResponseEntity<PortScanJobDTO> submitJob(@Valid @RequestBody PortScanRequestDTO request) {
+        PortScanJobDTO job = portScanService.submitJob(request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/v1/portscan/jobs/" + job.id()))
+                .body(job);
+    }
+
+    @GetMapping("/jobs/{id}")
+    @Operation(summary = "Consulta uma varredura em segundo plano", description = "Retorna status, progresso e os resultados parciais ou finais da varredura.")
+    public ResponseEntity<PortScanJobDTO> getJob(@PathVariable String id) {
+        return ResponseEntity.ok(portScanService.getJob(id));
+    }
+
+    @DeleteMapping("/jobs/{id}")
+    @Operation(summary = "Cancela uma varredura em segundo plano", description = "Interrompe as sondagens pendentes, fecha as conexoes em andamento e retorna o estado parcial da varredura.")
+    public ResponseEntity<PortScanJobDTO> cancelJob(@PathVariable String id) {
+        return ResponseEntity.ok(portScanService.cancelJob(id));
+    }
 }
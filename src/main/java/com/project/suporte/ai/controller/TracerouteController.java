@@ -26,20 +26,23 @@ public class TracerouteController {
     }
 
     @GetMapping(produces = "text/event-stream")
-    @Operation(summary = "Executa traceroute com streaming SSE", description = "Aceita host, IP ou URL via query param 'target' e retorna eventos estruturados.")
-    public SseEmitter traceroute(@Parameter(example = "1.1.1.1") @RequestParam String target) {
-        return startTraceroute(target);
+    @Operation(summary = "Executa traceroute com streaming SSE", description = "Aceita host, IP ou URL via query param 'target' e retorna eventos estruturados, incluindo um evento 'hop' por salto. Um resultado recente do mesmo alvo é reenviado do cache com cached=true, a menos que 'fresh' seja verdadeiro.")
+    public SseEmitter traceroute(
+            @Parameter(example = "1.1.1.1") @RequestParam String target,
+            @Parameter(description = "Ignora o resultado em cache e executa um novo traceroute.") @RequestParam(defaultValue = "false") boolean fresh
+    ) {
+        return startTraceroute(target, fresh);
     }
 
     @GetMapping(value = "/{host}", produces = "text/event-stream")
     @Operation(summary = "Executa um comando traceroute e transmite a saída", description = "Rota legada mantida por compatibilidade. Prefira /api/v1/traceroute?target=host.")
     public SseEmitter tracerouteLegacy(@PathVariable String host) {
-        return startTraceroute(host);
+        return startTraceroute(host, false);
     }
 
-    private SseEmitter startTraceroute(String host) {
+    private SseEmitter startTraceroute(String host, boolean fresh) {
         SseEmitter emitter = emitterFactory.create();
-        tracerouteService.executeTraceroute(emitter, host);
+        tracerouteService.executeTraceroute(emitter, host, fresh);
         return emitter;
     }
 }
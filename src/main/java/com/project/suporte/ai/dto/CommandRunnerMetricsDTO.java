@@ -0,0 +1,38 @@
+package com.project.suporte.ai.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record CommandRunnerMetricsDTO(
+    @Schema(example = "3")
+    @JsonProperty("processos_em_execucao")
+    int running,
+    @Schema(example = "16")
+    @JsonProperty("limite_processos")
+    int maxProcesses,
+    @Schema(example = "2")
+    @JsonProperty("limite_por_alvo")
+    int maxPerTarget,
+    @Schema(example = "0")
+    @JsonProperty("na_fila")
+    int queued,
+    @Schema(example = "64")
+    @JsonProperty("limite_fila")
+    int maxQueued,
+    @Schema(example = "1520")
+    @JsonProperty("admitidos")
+    long admitted,
+    @Schema(example = "4")
+    @JsonProperty("rejeitados")
+    long rejected,
+    @Schema(example = "1")
+    @JsonProperty("expirados_na_fila")
+    long expired,
+    @Schema(example = "12.5")
+    @JsonProperty("espera_media_ms")
+    double averageWaitMs,
+    @Schema(example = "2310.4")
+    @JsonProperty("espera_maxima_ms")
+    double maxWaitMs
+) {
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.time.Instant;
+import java.util.List;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @Schema(name = "CommandStreamEvent")
@@ -11,9 +12,11 @@ public record CommandStreamEventDTO(
         @Schema(example = "output") String type,
         @Schema(example = "ping") String operation,
         @Schema(example = "scanme.nmap.org") String target,
-        @Schema(example = "Resposta de 8.8.8.8: bytes=32 tempo=19ms TTL=119") String message,
+        @Schema(example = "Execução iniciada.") String message,
+        @Schema(example = "[\"Resposta de 8.8.8.8: bytes=32 tempo=19ms TTL=119\"]", description = "Linhas de saída agrupadas nos eventos output.") List<String> lines,
         @Schema(example = "0") Integer exitCode,
         boolean finished,
+        @Schema(description = "Presente quando o traceroute foi respondido com um resultado recente em cache.") Boolean cached,
         Instant timestamp
 ) {
 }
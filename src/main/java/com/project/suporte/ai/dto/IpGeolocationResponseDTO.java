@@ -22,6 +22,9 @@ public record IpGeolocationResponseDTO(
     @Schema(example = "Google LLC")
     @JsonProperty("organizacao")
     String org,
+    @Schema(example = "AS15169 Google LLC")
+    @JsonProperty("asn")
+    String as,
     @Schema(example = "America/Los_Angeles")
     @JsonProperty("fuso_horario")
     String timezone,
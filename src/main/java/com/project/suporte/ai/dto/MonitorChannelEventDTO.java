@@ -0,0 +1,17 @@
+package com.project.suporte.ai.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Event of a multiplexed monitor stream: the first one carries only the channel id, every other one the
+ * tag of the monitor it belongs to and the regular monitor event.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(name = "MonitorChannelEvent")
+public record MonitorChannelEventDTO(
+        @Schema(example = "6b1f0c9e-3d0a-4a55-9a77-8f1c2f5a0b3d") String channel,
+        @Schema(example = "gateway") String monitor,
+        PingMonitorEventDTO event
+) {
+}
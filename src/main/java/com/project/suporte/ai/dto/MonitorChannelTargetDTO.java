@@ -0,0 +1,22 @@
+package com.project.suporte.ai.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MonitorChannelTargetDTO(
+    @Schema(example = "gateway")
+    @JsonProperty("monitor")
+    String tag,
+    @Schema(example = "cliente.exemplo.com.br")
+    @JsonProperty("alvo")
+    String target,
+    @Schema(example = "tcp")
+    @JsonProperty("probe")
+    String probe,
+    @Schema(example = "443")
+    @JsonProperty("porta")
+    Integer port
+) {
+}
@@ -0,0 +1,31 @@
+package com.project.suporte.ai.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record MonitorChannelTargetRequestDTO(
+    @Schema(example = "gateway", description = "Identifica o monitor nos eventos do canal; sem valor usa o alvo.")
+    @Size(max = 80, message = "A tag deve ter no máximo 80 caracteres.")
+    String tag,
+    @Schema(example = "cliente.exemplo.com.br")
+    @NotBlank(message = "O alvo não pode estar em branco.")
+    String target,
+    @Schema(example = "5000")
+    @Min(value = 1000, message = "O intervalo deve estar entre 1000 ms e 60000 ms.")
+    @Max(value = 60000, message = "O intervalo deve estar entre 1000 ms e 60000 ms.")
+    Integer intervalMs,
+    @Schema(example = "2000")
+    @Min(value = 500, message = "O timeout deve estar entre 500 ms e 10000 ms.")
+    @Max(value = 10000, message = "O timeout deve estar entre 500 ms e 10000 ms.")
+    Integer timeoutMs,
+    @Schema(example = "tcp", description = "icmp, tcp ou reachable; sem valor usa o probe padrão.")
+    String probe,
+    @Schema(example = "443", description = "Porta usada pelo probe tcp.")
+    @Min(value = 1, message = "A porta deve estar entre 1 e 65535.")
+    @Max(value = 65535, message = "A porta deve estar entre 1 e 65535.")
+    Integer port
+) {
+}
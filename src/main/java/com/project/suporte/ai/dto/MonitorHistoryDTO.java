@@ -0,0 +1,28 @@
+package com.project.suporte.ai.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.List;
+
+public record MonitorHistoryDTO(
+    @Schema(example = "8.8.8.8")
+    @JsonProperty("alvo")
+    String target,
+    @Schema(example = "icmp")
+    @JsonProperty("probe")
+    String probe,
+    @Schema(example = "1m")
+    @JsonProperty("resolucao")
+    String resolution,
+    @Schema(example = "2026-10-17T06:00:00Z")
+    @JsonProperty("inicio")
+    Instant from,
+    @Schema(example = "2026-10-17T12:00:00Z")
+    @JsonProperty("fim")
+    Instant to,
+    @JsonProperty("pontos")
+    List<MonitorHistoryPointDTO> points
+) {
+}
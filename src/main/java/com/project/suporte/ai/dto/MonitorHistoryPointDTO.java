@@ -0,0 +1,33 @@
+package com.project.suporte.ai.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MonitorHistoryPointDTO(
+    @Schema(example = "2026-10-17T12:00:00Z")
+    @JsonProperty("instante")
+    Instant timestamp,
+    @Schema(example = "60")
+    @JsonProperty("amostras")
+    long samples,
+    @Schema(example = "2")
+    @JsonProperty("falhas")
+    long failures,
+    @Schema(example = "3.33")
+    @JsonProperty("perda_percentual")
+    double packetLossPercent,
+    @Schema(example = "18.2")
+    @JsonProperty("latencia_minima_ms")
+    Double minLatencyMs,
+    @Schema(example = "23.9")
+    @JsonProperty("latencia_media_ms")
+    Double averageLatencyMs,
+    @Schema(example = "71.4")
+    @JsonProperty("latencia_maxima_ms")
+    Double maxLatencyMs
+) {
+}
@@ -14,6 +14,12 @@ public record PingMonitorEventDTO(
         boolean connected,
         @Schema(example = "23.0") Double currentLatencyMs,
         @Schema(example = "27.4") Double averageLatencyMs,
+        @Schema(example = "24.1") Double p50LatencyMs,
+        @Schema(example = "61.8") Double p95LatencyMs,
+        @Schema(example = "118.0") Double p99LatencyMs,
+        @Schema(example = "131.2") Double maxLatencyMs,
+        @Schema(example = "4.37") Double jitterMs,
+        @Schema(example = "25.9") Double ewmaLatencyMs,
         @Schema(example = "15") long attempts,
         @Schema(example = "13") long successfulAttempts,
         @Schema(example = "2") long failedAttempts,
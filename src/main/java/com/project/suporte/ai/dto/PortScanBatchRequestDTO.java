@@ -0,0 +1,50 @@
+package com.project.suporte.ai.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public record PortScanBatchRequestDTO(
+    @Schema(example = "[\"scanme.nmap.org\", \"example.com\"]")
+    @Size(max = 256, message = "Informe no máximo 256 hosts por requisição.")
+    List<@NotBlank(message = "O host não pode estar em branco.") String> hosts,
+    @Schema(example = "203.0.113.0/28")
+    @Size(max = 64, message = "O bloco CIDR deve ter no máximo 64 caracteres.")
+    String cidr,
+    @Size(min = 1, max = 64, message = "Informe entre 1 e 64 portas por requisição.")
+    List<@Min(value = 1, message = "As portas devem estar entre 1 e 65535.")
+         @Max(value = 65535, message = "As portas devem estar entre 1 e 65535.") Integer> ports,
+    @Schema(example = "800")
+    @Min(value = 50, message = "O timeout mínimo é 50 ms.")
+    @Max(value = 5000, message = "O timeout máximo é 5000 ms.")
+    Integer timeout,
+    @Schema(example = "22,80,443")
+    @Size(max = 256, message = "A faixa de portas deve ter no máximo 256 caracteres.")
+    String range,
+    @Schema(example = "true", description = "Ajusta o timeout de cada porta ao RTT medido em cada host.")
+    Boolean adaptiveTimeout,
+    @Schema(example = "true", description = "Lê o banner de cada porta aberta e identifica o serviço.")
+    Boolean detectServices,
+    @Schema(example = "false", description = "Ignora resultados recentes em cache e sonda todas as portas novamente.")
+    Boolean bypassCache,
+    @Schema(example = "false", description = "Varre o primeiro endereço IPv6 e o primeiro IPv4 do alvo e reporta o resultado por família.")
+    Boolean dualStack
+) {
+
+    @JsonIgnore
+    @AssertTrue(message = "Informe a lista de hosts ou um bloco CIDR.")
+    public boolean isTargetSelectionPresent() {
+        return (hosts != null && !hosts.isEmpty()) || (cidr != null && !cidr.isBlank());
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "Informe a lista de portas ou uma faixa de portas.")
+    public boolean isPortSelectionPresent() {
+        return ports != null || (range != null && !range.isBlank());
+    }
+}
@@ -0,0 +1,106 @@
+package com.project.suporte.ai.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(name = "PortScanEvent")
+public record PortScanEventDTO(
+        @Schema(example = "open") String type,
+        @Schema(example = "scanme.nmap.org") String host,
+        @Schema(example = "443") Integer port,
+        @Schema(example = "18.42") Double connectMs,
+        @Schema(example = "http") String service,
+        @Schema(example = "HTTP/1.1 200 OK | nginx/1.24.0") String banner,
+        @Schema(example = "true") Boolean cached,
+        @Schema(example = "[22, 80]") List<Integer> openPorts,
+        @Schema(example = "[\"22\", \"80\"]") List<String> openRanges,
+        @Schema(example = "[\"1-21\", \"23-79\"]") List<String> closedRanges,
+        @Schema(example = "[\"81-1024\"]") List<String> filteredRanges,
+        List<PortScanFamilyDTO> families,
+        @Schema(example = "64") Integer totalPorts,
+        @Schema(example = "16") Integer totalHosts,
+        @Schema(example = "2") Integer openCount,
+        @Schema(example = "40") Integer closedCount,
+        @Schema(example = "22") Integer filteredCount,
+        @Schema(example = "40") Integer cachedCount,
+        @Schema(example = "23.5") Double smoothedRttMs,
+        @Schema(example = "Porta 443 aberta.") String message,
+        boolean finished,
+        Instant timestamp
+) {
+
+    public static PortScanEventDTO started(String host, int totalPorts, Integer totalHosts, String message) {
+        return new PortScanEventDTO(
+                "started", host, null, null, null, null, null, null, null, null, null, null, totalPorts, totalHosts,
+                null, null, null, null, null, message, false, Instant.now()
+        );
+    }
+
+    /**
+     * One probed port; {@code type} is the port state ({@code open}, {@code closed} or {@code filtered}).
+     */
+    public static PortScanEventDTO port(
+            String type,
+            String host,
+            int port,
+            Double connectMs,
+            String service,
+            String banner,
+            Boolean cached,
+            String message
+    ) {
+        return new PortScanEventDTO(
+                type, host, port, connectMs, service, banner, cached,
+                null, null, null, null, null, null, null, null, null, null, null, null, message, false, Instant.now()
+        );
+    }
+
+    /**
+     * Result of one host: {@code completed} for a single-host scan, {@code host_completed} inside a batch.
+     */
+    public static PortScanEventDTO summary(
+            String type,
+            String host,
+            List<Integer> openPorts,
+            List<String> openRanges,
+            List<String> closedRanges,
+            List<String> filteredRanges,
+            List<PortScanFamilyDTO> families,
+            int totalPorts,
+            int openCount,
+            int closedCount,
+            int filteredCount,
+            int cachedCount,
+            Double smoothedRttMs,
+            String message,
+            boolean finished
+    ) {
+        return new PortScanEventDTO(
+                type, host, null, null, null, null, null,
+                openPorts, openRanges, closedRanges, filteredRanges, families,
+                totalPorts, null, openCount, closedCount, filteredCount, cachedCount, smoothedRttMs, message, finished, Instant.now()
+        );
+    }
+
+    /**
+     * Final event of a batch scan, with the counts summed over every host.
+     */
+    public static PortScanEventDTO batchCompleted(
+            int totalPorts,
+            int totalHosts,
+            int openCount,
+            int closedCount,
+            int filteredCount,
+            int cachedCount,
+            String message
+    ) {
+        return new PortScanEventDTO(
+                "completed", null, null, null, null, null, null, null, null, null, null, null, totalPorts, totalHosts,
+                openCount, closedCount, filteredCount, cachedCount, null, message, true, Instant.now()
+        );
+    }
+}
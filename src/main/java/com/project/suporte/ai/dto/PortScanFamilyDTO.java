@@ -0,0 +1,30 @@
+package com.project.suporte.ai.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PortScanFamilyDTO(
+    @Schema(example = "ipv6")
+    @JsonProperty("familia")
+    String family,
+    @Schema(example = "2600:3c01::f03c:91ff:fe18:bb2f")
+    @JsonProperty("endereco")
+    String address,
+    @Schema(example = "[22, 80]")
+    @JsonProperty("portas_abertas")
+    List<Integer> openPorts,
+    @Schema(example = "[\"22\", \"80\"]")
+    @JsonProperty("faixas_abertas")
+    List<String> openRanges,
+    @Schema(example = "[\"1-21\", \"23-79\"]")
+    @JsonProperty("faixas_fechadas")
+    List<String> closedRanges,
+    @Schema(example = "[\"81-1024\"]")
+    @JsonProperty("faixas_filtradas")
+    List<String> filteredRanges
+) {
+}
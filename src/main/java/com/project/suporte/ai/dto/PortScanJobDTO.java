@@ -0,0 +1,52 @@
+package com.project.suporte.ai.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PortScanJobDTO(
+    @Schema(example = "5f0c6d2e-8a4b-4c43-9a57-0f6f1f4c2b9e")
+    @JsonProperty("id")
+    String id,
+    @Schema(example = "running", allowableValues = {"running", "completed", "cancelled"})
+    @JsonProperty("status")
+    String status,
+    @Schema(example = "scanme.nmap.org")
+    @JsonProperty("host")
+    String host,
+    @Schema(example = "1024")
+    @JsonProperty("total_portas")
+    int totalPorts,
+    @Schema(example = "512")
+    @JsonProperty("portas_concluidas")
+    int completedPorts,
+    @Schema(example = "50.0")
+    @JsonProperty("progresso_percentual")
+    double progressPercent,
+    @Schema(example = "[22, 80]")
+    @JsonProperty("portas_abertas")
+    List<Integer> openPorts,
+    @Schema(example = "[\"22\", \"80\"]")
+    @JsonProperty("faixas_abertas")
+    List<String> openRanges,
+    @Schema(example = "[\"1-21\", \"23-79\"]")
+    @JsonProperty("faixas_fechadas")
+    List<String> closedRanges,
+    @Schema(example = "[\"81-512\"]")
+    @JsonProperty("faixas_filtradas")
+    List<String> filteredRanges,
+    @JsonProperty("servicos")
+    List<PortServiceDTO> services,
+    @Schema(example = "23.5")
+    @JsonProperty("rtt_suavizado_ms")
+    Double smoothedRttMs,
+    @JsonProperty("criado_em")
+    Instant createdAt,
+    @JsonProperty("finalizado_em")
+    Instant finishedAt
+) {
+}
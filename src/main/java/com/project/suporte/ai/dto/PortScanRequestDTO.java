@@ -1,10 +1,11 @@
 package com.project.suporte.ai.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
-import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import java.util.List;
 
@@ -12,12 +13,33 @@ public record PortScanRequestDTO(
     @Schema(example = "scanme.nmap.org")
     @NotBlank(message = "O host não pode estar em branco.")
     String host,
-    @NotNull(message = "A lista de portas não pode ser nula.")
     @Size(min = 1, max = 64, message = "Informe entre 1 e 64 portas por requisição.")
     List<@Min(value = 1, message = "As portas devem estar entre 1 e 65535.")
          @Max(value = 65535, message = "As portas devem estar entre 1 e 65535.") Integer> ports,
     @Schema(example = "800")
     @Min(value = 50, message = "O timeout mínimo é 50 ms.")
     @Max(value = 5000, message = "O timeout máximo é 5000 ms.")
-    Integer timeout
-) {}
+    Integer timeout,
+    @Schema(example = "1-1024,3389,top100")
+    @Size(max = 256, message = "A faixa de portas deve ter no máximo 256 caracteres.")
+    String range,
+    @Schema(example = "true", description = "Ajusta o timeout de cada porta ao RTT medido no alvo.")
+    Boolean adaptiveTimeout,
+    @Schema(example = "true", description = "Lê o banner de cada porta aberta e identifica o serviço.")
+    Boolean detectServices,
+    @Schema(example = "false", description = "Ignora resultados recentes em cache e sonda todas as portas novamente.")
+    Boolean bypassCache,
+    @Schema(example = "false", description = "Varre o primeiro endereço IPv6 e o primeiro IPv4 do alvo e reporta o resultado por família.")
+    Boolean dualStack
+) {
+
+    public PortScanRequestDTO(String host, List<Integer> ports, Integer timeout) {
+        this(host, ports, timeout, null, null, null, null, null);
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "Informe a lista de portas ou uma faixa de portas.")
+    public boolean isPortSelectionPresent() {
+        return ports != null || (range != null && !range.isBlank());
+    }
+}
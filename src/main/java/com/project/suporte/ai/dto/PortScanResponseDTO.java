@@ -1,15 +1,44 @@
 package com.project.suporte.ai.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.util.List;
 
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record PortScanResponseDTO(
     @Schema(example = "scanme.nmap.org")
     @JsonProperty("host")
     String host,
     @Schema(example = "[80, 443]")
     @JsonProperty("portas_abertas")
-    List<Integer> openPorts
-) {}
+    List<Integer> openPorts,
+    @Schema(example = "1024")
+    @JsonProperty("total_portas")
+    Integer totalPorts,
+    @Schema(example = "[\"80\", \"443\"]")
+    @JsonProperty("faixas_abertas")
+    List<String> openRanges,
+    @Schema(example = "[\"1-79\", \"81-442\"]")
+    @JsonProperty("faixas_fechadas")
+    List<String> closedRanges,
+    @Schema(example = "[\"444-1024\"]")
+    @JsonProperty("faixas_filtradas")
+    List<String> filteredRanges,
+    @Schema(example = "23.5")
+    @JsonProperty("rtt_suavizado_ms")
+    Double smoothedRttMs,
+    @JsonProperty("servicos")
+    List<PortServiceDTO> services,
+    @Schema(example = "40")
+    @JsonProperty("portas_em_cache")
+    Integer cachedPorts,
+    @JsonProperty("por_familia")
+    List<PortScanFamilyDTO> families
+) {
+
+    public PortScanResponseDTO(String host, List<Integer> openPorts) {
+        this(host, openPorts, null, null, null, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,19 @@
+package com.project.suporte.ai.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PortServiceDTO(
+    @Schema(example = "22")
+    @JsonProperty("porta")
+    int port,
+    @Schema(example = "ssh")
+    @JsonProperty("servico")
+    String service,
+    @Schema(example = "SSH-2.0-OpenSSH_9.6p1 Ubuntu-3ubuntu13")
+    @JsonProperty("banner")
+    String banner
+) {
+}
@@ -0,0 +1,41 @@
+package com.project.suporte.ai.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RegisteredMonitorDTO(
+    @Schema(example = "3f9a1c2b")
+    @JsonProperty("id")
+    String id,
+    @Schema(example = "Gateway do cliente")
+    @JsonProperty("nome")
+    String name,
+    @Schema(example = "cliente.exemplo.com.br")
+    @JsonProperty("alvo")
+    String target,
+    @Schema(example = "5000")
+    @JsonProperty("intervalo_ms")
+    int intervalMs,
+    @Schema(example = "2000")
+    @JsonProperty("timeout_ms")
+    int timeoutMs,
+    @Schema(example = "tcp")
+    @JsonProperty("probe")
+    String probe,
+    @Schema(example = "443")
+    @JsonProperty("porta")
+    Integer port,
+    @JsonProperty("criado_em")
+    Instant createdAt,
+    @Schema(example = "true")
+    @JsonProperty("em_execucao")
+    boolean running,
+    @Schema(example = "1")
+    @JsonProperty("espectadores")
+    int viewers
+) {
+}
@@ -0,0 +1,28 @@
+package com.project.suporte.ai.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(name = "TracerouteHopEnrichmentEvent")
+public record TracerouteHopEnrichmentEventDTO(
+        @Schema(example = "enriched") String type,
+        @Schema(example = "8.8.8.8") String target,
+        @Schema(example = "6") int hop,
+        @Schema(example = "8.8.8.8") String address,
+        @Schema(example = "dns.google", description = "Nome informado pelo traceroute ou obtido por DNS reverso.") String hostname,
+        @Schema(example = "AS15169 Google LLC") String asn,
+        @Schema(example = "United States") String country,
+        @Schema(example = "California") String region,
+        @Schema(example = "Mountain View") String city,
+        @Schema(example = "Google LLC") String isp,
+        @Schema(example = "Google LLC") String organization,
+        @Schema(example = "37.4056") Double latitude,
+        @Schema(example = "-122.0775") Double longitude,
+        @Schema(example = "A geolocalização requer um IP público ou domínio resolvível para IP público.", description = "Motivo quando a geolocalização do salto não está disponível.") String message,
+        @Schema(description = "Verdadeiro quando o salto vem de um traceroute recente em cache.") boolean cached,
+        Instant timestamp
+) {
+}
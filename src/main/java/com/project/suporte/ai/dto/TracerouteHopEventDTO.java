@@ -0,0 +1,22 @@
+package com.project.suporte.ai.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(name = "TracerouteHopEvent")
+public record TracerouteHopEventDTO(
+        @Schema(example = "hop") String type,
+        @Schema(example = "1.1.1.1") String target,
+        @Schema(example = "2") int hop,
+        @Schema(example = "10.20.0.1", description = "Ausente quando nenhuma sonda do salto respondeu.") String address,
+        @Schema(example = "gw.isp.net") String hostname,
+        @Schema(example = "[5.1, 5.0, null]", description = "Um valor por sonda, na ordem da saída; null indica sonda sem resposta.") List<Double> rttsMs,
+        @Schema(example = "1") int timeouts,
+        @Schema(description = "Verdadeiro quando o salto vem de um traceroute recente em cache.") boolean cached,
+        Instant timestamp
+) {
+}
@@ -2,6 +2,8 @@ package com.project.suporte.ai.exceptions;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.suporte.ai.config.DiagnosticsProperties;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -24,9 +26,11 @@ import java.util.Map;
 public class GlobalExceptionHandler {
 
     private final ObjectMapper objectMapper;
+    private final long retryAfterSeconds;
 
-    public GlobalExceptionHandler(ObjectMapper objectMapper) {
+    public GlobalExceptionHandler(ObjectMapper objectMapper, DiagnosticsProperties properties) {
         this.objectMapper = objectMapper;
+        this.retryAfterSeconds = properties.getCommands().getRetryAfterSeconds();
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -44,6 +48,19 @@ public class GlobalExceptionHandler {
         return buildResponse(ex.getStatus(), ex.getCode(), ex.getMessage(), request, Map.of());
     }
 
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<?> handleServiceBusy(ServiceBusyException ex, WebRequest request) {
+        return withRetryAfter(buildResponse(ex.getStatus(), ex.getCode(), ex.getMessage(), request, Map.of()), ex.getRetryAfterSeconds());
+    }
+
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<?> handleTaskRejected(TaskRejectedException ex, WebRequest request) {
+        return withRetryAfter(
+                buildResponse(HttpStatus.TOO_MANY_REQUESTS, "server_busy", "O servidor esta ocupado. Tente novamente em instantes.", request, Map.of()),
+                retryAfterSeconds
+        );
+    }
+
     @ExceptionHandler({
             MissingServletRequestParameterException.class,
             MethodArgumentTypeMismatchException.class,
@@ -96,6 +113,13 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, status);
     }
 
+    private ResponseEntity<?> withRetryAfter(ResponseEntity<?> response, long seconds) {
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                .body(response.getBody());
+    }
+
     private boolean isSseRequest(WebRequest request) {
         String accept = request.getHeader(HttpHeaders.ACCEPT);
         return accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
@@ -0,0 +1,20 @@
+package com.project.suporte.ai.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Capacity rejection answered with {@code 429} and a {@code Retry-After} header.
+ */
+public class ServiceBusyException extends ApiException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceBusyException(String code, String message, long retryAfterSeconds) {
+        super(HttpStatus.TOO_MANY_REQUESTS, code, message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,123 @@
+package com.project.suporte.ai.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Groups command output lines into one event per {@code maxLines} lines or {@code delayMs} milliseconds,
+ * whichever comes first. The first line goes out on its own right away, so the stream still looks
+ * immediate; later lines wait at most {@code delayMs}. The sink is only ever called under this lock, so
+ * batches reach the emitter in order and never interleave with {@link #close()}. The timer only fires on
+ * the shared scheduler; the timed flush itself runs on {@code flushExecutor}, which must not queue behind
+ * the command threads (they block in {@code readLine}); if it rejects, the batch is left due for the
+ * reader thread's next line or {@link #close()}.
+ */
+final class CommandOutputBatch {
+
+    private final int maxLines;
+    private final long delayMs;
+    private final ScheduledExecutorService scheduler;
+    private final Executor flushExecutor;
+    private final Consumer<List<String>> sink;
+    private List<String> lines;
+    private ScheduledFuture<?> pendingFlush;
+    private boolean flushDue;
+    private boolean first = true;
+    private boolean closed;
+
+    CommandOutputBatch(
+            int maxLines,
+            long delayMs,
+            ScheduledExecutorService scheduler,
+            Executor flushExecutor,
+            Consumer<List<String>> sink
+    ) {
+        this.maxLines = maxLines;
+        this.delayMs = delayMs;
+        this.scheduler = scheduler;
+        this.flushExecutor = flushExecutor;
+        this.sink = sink;
+        this.lines = new ArrayList<>(maxLines);
+    }
+
+    synchronized void add(String line) {
+        if (closed) {
+            return;
+        }
+        if (first) {
+            first = false;
+            sink.accept(List.of(line));
+            return;
+        }
+        lines.add(line);
+        if (lines.size() >= maxLines || flushDue) {
+            flush();
+        } else if (pendingFlush == null) {
+            pendingFlush = scheduler.schedule(this::handOffFlush, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Sends whatever is still buffered and stops accepting lines; called before the terminal event.
+     */
+    synchronized void close() {
+        if (closed) {
+            return;
+        }
+        flush();
+        closed = true;
+    }
+
+    /**
+     * Drops buffered lines without sending them, for streams the client already left.
+     */
+    synchronized void discard() {
+        closed = true;
+        lines = List.of();
+        cancelPendingFlush();
+    }
+
+    private void handOffFlush() {
+        try {
+            flushExecutor.execute(this::flushOnTimer);
+        } catch (RejectedExecutionException exception) {
+            markFlushDue();
+        }
+    }
+
+    private synchronized void markFlushDue() {
+        pendingFlush = null;
+        flushDue = true;
+    }
+
+    private synchronized void flushOnTimer() {
+        pendingFlush = null;
+        if (!closed) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        cancelPendingFlush();
+        flushDue = false;
+        if (lines.isEmpty()) {
+            return;
+        }
+        List<String> batch = lines;
+        lines = new ArrayList<>(maxLines);
+        sink.accept(batch);
+    }
+
+    private void cancelPendingFlush() {
+        if (pendingFlush != null) {
+            pendingFlush.cancel(false);
+            pendingFlush = null;
+        }
+    }
+}
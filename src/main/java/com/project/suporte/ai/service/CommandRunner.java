@@ -0,0 +1,215 @@
+package com.project.suporte.ai.service;
+
+import com.project.suporte.ai.config.DiagnosticsProperties;
+import com.project.suporte.ai.dto.CommandRunnerMetricsDTO;
+import com.project.suporte.ai.exceptions.ServiceBusyException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for {@code ping}/{@code traceroute} processes. At most
+ * {@code diagnostics.commands.max-processes} run at once, and at most {@code max-per-target} per target.
+ * Extra requests wait in a FIFO queue of {@code max-queued} entries without holding a thread; one that is
+ * still queued after {@code queue-timeout-ms} ends with an SSE error. When the queue (or the executor) is
+ * full the request is rejected on the spot with 429 and {@code Retry-After}.
+ */
+@Service
+public class CommandRunner {
+
+    private final CommandStreamingService commandStreamingService;
+    private final Executor executor;
+    private final ScheduledExecutorService scheduler;
+    private final int maxProcesses;
+    private final int maxPerTarget;
+    private final int maxQueued;
+    private final long queueTimeoutMs;
+    private final long retryAfterSeconds;
+
+    private final Deque<Pending> queue = new ArrayDeque<>();
+    private final Map<String, Integer> runningByTarget = new HashMap<>();
+    private int running;
+    private long admitted;
+    private long rejected;
+    private long expired;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+
+    public CommandRunner(
+            CommandStreamingService commandStreamingService,
+            @Qualifier("diagnosticsExecutor") Executor executor,
+            @Qualifier("monitorScheduler") ScheduledExecutorService scheduler,
+            DiagnosticsProperties properties
+    ) {
+        this.commandStreamingService = commandStreamingService;
+        this.executor = executor;
+        this.scheduler = scheduler;
+        this.maxProcesses = properties.getCommands().getMaxProcesses();
+        this.maxPerTarget = properties.getCommands().getMaxPerTarget();
+        this.maxQueued = properties.getCommands().getMaxQueued();
+        this.queueTimeoutMs = properties.getCommands().getQueueTimeoutMs();
+        this.retryAfterSeconds = properties.getCommands().getRetryAfterSeconds();
+    }
+
+    public void run(SseEmitter emitter, String operation, String target, List<String> command) {
+        Pending pending = new Pending(emitter, operation, target, command, System.nanoTime());
+        synchronized (this) {
+            if (!canStart(target)) {
+                if (queue.size() >= maxQueued) {
+                    rejected++;
+                    throw busy();
+                }
+                queue.addLast(pending);
+                pending.expiry = scheduler.schedule(() -> expire(pending), queueTimeoutMs, TimeUnit.MILLISECONDS);
+                emitter.onCompletion(() -> abandon(pending));
+                emitter.onError(error -> abandon(pending));
+                return;
+            }
+            acquire(pending);
+        }
+
+        if (!dispatch(pending)) {
+            throw busy();
+        }
+    }
+
+    public synchronized CommandRunnerMetricsDTO metrics() {
+        return new CommandRunnerMetricsDTO(
+                running,
+                maxProcesses,
+                maxPerTarget,
+                queue.size(),
+                maxQueued,
+                admitted,
+                rejected,
+                expired,
+                admitted == 0 ? 0 : round(totalWaitNanos / (double) admitted / 1_000_000),
+                round(maxWaitNanos / 1_000_000.0)
+        );
+    }
+
+    private void execute(Pending pending) {
+        try {
+            commandStreamingService.stream(pending.emitter, pending.operation, pending.target, pending.command);
+        } finally {
+            release(pending.target);
+        }
+    }
+
+    private void release(String target) {
+        List<Pending> startable = new ArrayList<>();
+        synchronized (this) {
+            running--;
+            runningByTarget.computeIfPresent(target, (key, count) -> count == 1 ? null : count - 1);
+            Iterator<Pending> iterator = queue.iterator();
+            while (iterator.hasNext() && running < maxProcesses) {
+                Pending next = iterator.next();
+                if (canStart(next.target)) {
+                    iterator.remove();
+                    next.expiry.cancel(false);
+                    acquire(next);
+                    startable.add(next);
+                }
+            }
+        }
+
+        for (Pending next : startable) {
+            if (!dispatch(next)) {
+                commandStreamingService.fail(next.emitter, next.operation, next.target, busy().getMessage());
+            }
+        }
+    }
+
+    /**
+     * Hands an admitted command to the executor; a full executor gives the slot back and counts as a
+     * rejection.
+     */
+    private boolean dispatch(Pending pending) {
+        try {
+            executor.execute(() -> execute(pending));
+            return true;
+        } catch (RejectedExecutionException exception) {
+            synchronized (this) {
+                admitted--;
+                rejected++;
+            }
+            release(pending.target);
+            return false;
+        }
+    }
+
+    private void expire(Pending pending) {
+        synchronized (this) {
+            if (!queue.remove(pending)) {
+                return;
+            }
+            expired++;
+        }
+        commandStreamingService.fail(pending.emitter, pending.operation, pending.target,
+                "Tempo de espera na fila esgotado; muitas execuções em andamento.");
+    }
+
+    private void abandon(Pending pending) {
+        synchronized (this) {
+            if (queue.remove(pending)) {
+                pending.expiry.cancel(false);
+            }
+        }
+    }
+
+    private boolean canStart(String target) {
+        return running < maxProcesses && runningByTarget.getOrDefault(target, 0) < maxPerTarget;
+    }
+
+    private void acquire(Pending pending) {
+        running++;
+        runningByTarget.merge(pending.target, 1, Integer::sum);
+        long waitNanos = System.nanoTime() - pending.enqueuedAt;
+        admitted++;
+        totalWaitNanos += waitNanos;
+        maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+    }
+
+    private ServiceBusyException busy() {
+        return new ServiceBusyException(
+                "too_many_commands",
+                "Muitas execuções em andamento. Tente novamente em instantes.",
+                retryAfterSeconds
+        );
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private static final class Pending {
+
+        private final SseEmitter emitter;
+        private final String operation;
+        private final String target;
+        private final List<String> command;
+        private final long enqueuedAt;
+        private ScheduledFuture<?> expiry;
+
+        private Pending(SseEmitter emitter, String operation, String target, List<String> command, long enqueuedAt) {
+            this.emitter = emitter;
+            this.operation = operation;
+            this.target = target;
+            this.command = command;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.project.suporte.ai.service;
 
+import com.project.suporte.ai.config.DiagnosticsProperties;
 import com.project.suporte.ai.dto.CommandStreamEventDTO;
 import com.project.suporte.ai.support.ProcessLauncher;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
@@ -10,30 +12,51 @@ import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 public class CommandStreamingService {
 
     private final ProcessLauncher processLauncher;
-
-    public CommandStreamingService(ProcessLauncher processLauncher) {
+    private final ScheduledExecutorService scheduler;
+    private final Executor flushExecutor;
+    private final int batchLines;
+    private final long batchDelayMs;
+
+    public CommandStreamingService(
+            ProcessLauncher processLauncher,
+            DiagnosticsProperties properties,
+            @Qualifier("monitorScheduler") ScheduledExecutorService scheduler,
+            @Qualifier("commandFlushExecutor") Executor flushExecutor
+    ) {
         this.processLauncher = processLauncher;
+        this.scheduler = scheduler;
+        this.flushExecutor = flushExecutor;
+        this.batchLines = properties.getSse().getOutputBatchLines();
+        this.batchDelayMs = properties.getSse().getOutputBatchMs();
     }
 
+    /**
+     * Output lines are sent as {@code output} events whose {@code lines} hold one batch (see
+     * {@link CommandOutputBatch}); the first line is always sent alone and immediately.
+     */
     public void stream(SseEmitter emitter, String operation, String target, List<String> command) {
         AtomicBoolean completed = new AtomicBoolean(false);
+        CommandOutputBatch batch = new CommandOutputBatch(batchLines, batchDelayMs, scheduler, flushExecutor,
+                lines -> safeSend(emitter, "output", operation, target, null, lines, null, false));
 
         try {
             Process process = processLauncher.start(command);
-            registerCallbacks(emitter, process, operation, target, completed);
+            registerCallbacks(emitter, process, operation, target, completed, batch);
             safeSend(emitter, "started", operation, target, "Execução iniciada.", null, false);
 
             try (BufferedReader reader = new BufferedReader(
                     new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
                 String line;
                 while (!completed.get() && (line = reader.readLine()) != null) {
-                    safeSend(emitter, "output", operation, target, line, null, false);
+                    batch.add(line);
                 }
             }
 
@@ -42,6 +65,7 @@ public class CommandStreamingService {
             }
 
             int exitCode = process.waitFor();
+            batch.close();
             if (exitCode == 0) {
                 safeSend(emitter, "completed", operation, target, "Execução concluída.", exitCode, true);
             } else {
@@ -52,22 +76,32 @@ public class CommandStreamingService {
             emitter.complete();
         } catch (InterruptedException exception) {
             Thread.currentThread().interrupt();
-            finishWithError(emitter, completed, operation, target, "Execução interrompida.");
+            finishWithError(emitter, completed, batch, operation, target, "Execução interrompida.");
         } catch (Exception exception) {
-            finishWithError(emitter, completed, operation, target, "Falha ao executar o comando: " + exception.getMessage());
+            finishWithError(emitter, completed, batch, operation, target, "Falha ao executar o comando: " + exception.getMessage());
         }
     }
 
+    /**
+     * Ends a stream whose command never started, e.g. because it timed out waiting for a process slot.
+     */
+    void fail(SseEmitter emitter, String operation, String target, String message) {
+        safeSend(emitter, "error", operation, target, message, null, true);
+        emitter.complete();
+    }
+
     private void registerCallbacks(
             SseEmitter emitter,
             Process process,
             String operation,
             String target,
-            AtomicBoolean completed
+            AtomicBoolean completed,
+            CommandOutputBatch batch
     ) {
         emitter.onTimeout(() -> {
             if (completed.compareAndSet(false, true)) {
                 destroyProcess(process);
+                batch.close();
                 safeSend(emitter, "timeout", operation, target, "Tempo limite excedido.", null, true);
                 emitter.complete();
             }
@@ -75,11 +109,13 @@ public class CommandStreamingService {
 
         emitter.onCompletion(() -> {
             completed.set(true);
+            batch.discard();
             destroyProcess(process);
         });
 
         emitter.onError(error -> {
             if (completed.compareAndSet(false, true)) {
+                batch.discard();
                 destroyProcess(process);
             }
         });
@@ -88,11 +124,13 @@ public class CommandStreamingService {
     private void finishWithError(
             SseEmitter emitter,
             AtomicBoolean completed,
+            CommandOutputBatch batch,
             String operation,
             String target,
             String message
     ) {
         if (completed.compareAndSet(false, true)) {
+            batch.close();
             safeSend(emitter, "error", operation, target, message, null, true);
             emitter.complete();
         }
@@ -112,11 +150,24 @@ public class CommandStreamingService {
             String message,
             Integer exitCode,
             boolean finished
+    ) {
+        safeSend(emitter, type, operation, target, message, null, exitCode, finished);
+    }
+
+    private void safeSend(
+            SseEmitter emitter,
+            String type,
+            String operation,
+            String target,
+            String message,
+            List<String> lines,
+            Integer exitCode,
+            boolean finished
     ) {
         try {
             emitter.send(SseEmitter.event()
                     .name(type)
-                    .data(new CommandStreamEventDTO(type, operation, target, message, exitCode, finished, Instant.now())));
+                    .data(new CommandStreamEventDTO(type, operation, target, message, lines, exitCode, finished, null, Instant.now())));
         } catch (Exception ignored) {
             emitter.complete();
         }
@@ -6,6 +6,8 @@ import com.project.suporte.ai.support.ExpiringCache;
 import com.project.suporte.ai.support.TargetValidator;
 import org.springframework.stereotype.Service;
 
+import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.time.Duration;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -15,10 +17,12 @@ public class DnsLookupService {
 
     private final TargetValidator targetValidator;
     private final ExpiringCache<String, DnsLookupResponseDTO> cache;
+    private final ExpiringCache<String, String> reverseCache;
 
     public DnsLookupService(TargetValidator targetValidator, DiagnosticsProperties properties) {
         this.targetValidator = targetValidator;
         this.cache = new ExpiringCache<>(Duration.ofSeconds(properties.getCache().getDnsTtlSeconds()));
+        this.reverseCache = new ExpiringCache<>(Duration.ofSeconds(properties.getCache().getDnsTtlSeconds()));
     }
 
     public DnsLookupResponseDTO lookup(String hostname) {
@@ -32,4 +36,19 @@ public class DnsLookupService {
             return new DnsLookupResponseDTO(target, ipAddresses);
         });
     }
+
+    /**
+     * PTR name of an IP literal, or null when it has none; misses are cached as well.
+     */
+    public String reverseLookup(String ipAddress) {
+        return reverseCache.get(ipAddress, () -> {
+            try {
+                InetAddress address = InetAddress.getByName(ipAddress);
+                String hostname = address.getCanonicalHostName();
+                return hostname.equals(address.getHostAddress()) ? null : hostname;
+            } catch (UnknownHostException exception) {
+                return null;
+            }
+        });
+    }
 }
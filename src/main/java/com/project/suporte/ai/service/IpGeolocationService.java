@@ -66,6 +66,7 @@ public class IpGeolocationService {
                 dto.city(),
                 dto.isp(),
                 dto.org(),
+                dto.as(),
                 dto.timezone(),
                 dto.lat(),
                 dto.lon()
@@ -0,0 +1,182 @@
+package com.project.suporte.ai.service;
+
+import com.project.suporte.ai.dto.MonitorChannelEventDTO;
+import com.project.suporte.ai.dto.MonitorChannelTargetDTO;
+import com.project.suporte.ai.dto.PingMonitorEventDTO;
+import com.project.suporte.ai.exceptions.ApiException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * One SSE connection carrying many monitors. Each target joins its shared {@link PingMonitorSession} as a
+ * {@link Member}, which tags the session events before writing them to the common emitter. Sends from
+ * different sessions are serialized on the channel; close callbacks always run outside its lock.
+ */
+class MonitorChannel {
+
+    private final String id;
+    private final SseEmitter emitter;
+    private final int maxTargets;
+    private final Consumer<MonitorChannel> onClosed;
+    private final Map<String, Member> members = new LinkedHashMap<>();
+    private boolean closed;
+
+    MonitorChannel(String id, SseEmitter emitter, int maxTargets, Consumer<MonitorChannel> onClosed) {
+        this.id = id;
+        this.emitter = emitter;
+        this.maxTargets = maxTargets;
+        this.onClosed = onClosed;
+    }
+
+    String id() {
+        return id;
+    }
+
+    void open() throws IOException {
+        send("channel", new MonitorChannelEventDTO(id, null, null));
+    }
+
+    synchronized Member join(String tag, PingMonitorService.MonitorKey key) {
+        if (closed) {
+            throw notFound();
+        }
+        if (members.containsKey(tag)) {
+            throw new ApiException(HttpStatus.CONFLICT, "duplicate_monitor", "Já existe um monitor com a tag " + tag + " neste canal.");
+        }
+        if (members.size() >= maxTargets) {
+            throw new ApiException(
+                    HttpStatus.TOO_MANY_REQUESTS,
+                    "too_many_targets",
+                    "O canal já acompanha o limite de " + maxTargets + " alvos."
+            );
+        }
+        Member member = new Member(tag, key);
+        members.put(tag, member);
+        return member;
+    }
+
+    void leave(String tag) {
+        Member member;
+        synchronized (this) {
+            member = members.remove(tag);
+        }
+        if (member == null) {
+            throw new ApiException(HttpStatus.NOT_FOUND, "monitor_not_found", "Monitor não encontrado neste canal.");
+        }
+        member.close();
+    }
+
+    synchronized List<MonitorChannelTargetDTO> targets() {
+        return members.values().stream().map(Member::toDto).toList();
+    }
+
+    void close() {
+        List<Member> leaving;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            leaving = new ArrayList<>(members.values());
+            members.clear();
+        }
+        leaving.forEach(Member::close);
+        onClosed.accept(this);
+    }
+
+    static ApiException notFound() {
+        return new ApiException(HttpStatus.NOT_FOUND, "channel_not_found", "Canal de monitoramento não encontrado ou já encerrado.");
+    }
+
+    private void send(String eventName, MonitorChannelEventDTO payload) throws IOException {
+        boolean failed = false;
+        synchronized (this) {
+            if (closed) {
+                throw new IOException("channel closed");
+            }
+            try {
+                emitter.send(SseEmitter.event().name(eventName).data(payload));
+            } catch (IOException | IllegalStateException exception) {
+                failed = true;
+            }
+        }
+        if (failed) {
+            close();
+            emitter.complete();
+            throw new IOException("channel closed");
+        }
+    }
+
+    final class Member implements MonitorSubscriber {
+
+        private final String tag;
+        private final PingMonitorService.MonitorKey key;
+        private Runnable closeCallback;
+        private volatile boolean left;
+
+        private Member(String tag, PingMonitorService.MonitorKey key) {
+            this.tag = tag;
+            this.key = key;
+        }
+
+        @Override
+        public void send(String eventName, String id, PingMonitorEventDTO payload) throws IOException {
+            if (left) {
+                throw new IOException("monitor left the channel");
+            }
+            MonitorChannel.this.send(eventName, new MonitorChannelEventDTO(null, tag, payload));
+        }
+
+        /**
+         * The session ended for this target (its error event was already sent); the channel stays open.
+         */
+        @Override
+        public void complete() {
+            synchronized (MonitorChannel.this) {
+                members.remove(tag, this);
+            }
+            close();
+        }
+
+        /**
+         * A member that already left before its session subscribed runs the callback right away.
+         */
+        @Override
+        public void onClose(Runnable callback) {
+            boolean alreadyLeft;
+            synchronized (this) {
+                closeCallback = callback;
+                alreadyLeft = left;
+            }
+            if (alreadyLeft) {
+                callback.run();
+            }
+        }
+
+        MonitorChannelTargetDTO toDto() {
+            return new MonitorChannelTargetDTO(tag, key.target(), key.type().name().toLowerCase(Locale.ROOT), key.port());
+        }
+
+        private void close() {
+            Runnable callback;
+            synchronized (this) {
+                if (left) {
+                    return;
+                }
+                left = true;
+                callback = closeCallback;
+            }
+            if (callback != null) {
+                callback.run();
+            }
+        }
+    }
+}
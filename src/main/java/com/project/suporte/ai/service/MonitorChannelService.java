@@ -0,0 +1,112 @@
+package com.project.suporte.ai.service;
+
+import com.project.suporte.ai.config.DiagnosticsProperties;
+import com.project.suporte.ai.dto.MonitorChannelTargetDTO;
+import com.project.suporte.ai.dto.MonitorChannelTargetRequestDTO;
+import com.project.suporte.ai.exceptions.ApiException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Multiplexed monitor streams: a client keeps one SSE connection and adds or removes targets through
+ * the companion endpoints, instead of opening one stream per monitored host.
+ */
+@Service
+public class MonitorChannelService {
+
+    private final PingMonitorService monitorService;
+    private final int maxTargets;
+    private final ConcurrentMap<String, MonitorChannel> channels = new ConcurrentHashMap<>();
+
+    public MonitorChannelService(PingMonitorService monitorService, DiagnosticsProperties properties) {
+        this.monitorService = monitorService;
+        this.maxTargets = properties.getMonitor().getMaxChannelTargets();
+    }
+
+    /**
+     * Opens the channel, announces its id in a {@code channel} event and joins the initial targets.
+     * Every target is validated before anything is sent.
+     */
+    public void open(SseEmitter emitter, List<MonitorChannelTargetRequestDTO> targets) {
+        Map<String, PingMonitorService.MonitorKey> initial = new LinkedHashMap<>();
+        for (MonitorChannelTargetRequestDTO target : targets) {
+            PingMonitorService.MonitorKey key = key(target);
+            initial.putIfAbsent(tag(target, key), key);
+        }
+        if (initial.size() > maxTargets) {
+            throw new ApiException(
+                    HttpStatus.TOO_MANY_REQUESTS,
+                    "too_many_targets",
+                    "O canal aceita no máximo " + maxTargets + " alvos."
+            );
+        }
+
+        MonitorChannel channel = new MonitorChannel(UUID.randomUUID().toString(), emitter, maxTargets,
+                closed -> channels.remove(closed.id(), closed));
+        channels.put(channel.id(), channel);
+        emitter.onCompletion(channel::close);
+        emitter.onTimeout(channel::close);
+        emitter.onError(error -> channel.close());
+
+        try {
+            channel.open();
+        } catch (IOException exception) {
+            return;
+        }
+        initial.forEach((tag, key) -> monitorService.attach(key, channel.join(tag, key), null));
+    }
+
+    public MonitorChannelTargetDTO add(String channelId, MonitorChannelTargetRequestDTO target) {
+        MonitorChannel channel = find(channelId);
+        PingMonitorService.MonitorKey key = key(target);
+        MonitorChannel.Member member = channel.join(tag(target, key), key);
+        monitorService.attach(key, member, null);
+        return member.toDto();
+    }
+
+    public List<MonitorChannelTargetDTO> targets(String channelId) {
+        return find(channelId).targets();
+    }
+
+    public void remove(String channelId, String tag) {
+        find(channelId).leave(tag);
+    }
+
+    int openChannels() {
+        return channels.size();
+    }
+
+    private MonitorChannel find(String channelId) {
+        MonitorChannel channel = channels.get(channelId);
+        if (channel == null) {
+            throw MonitorChannel.notFound();
+        }
+        return channel;
+    }
+
+    private PingMonitorService.MonitorKey key(MonitorChannelTargetRequestDTO target) {
+        MonitorProbeType probeType = target.probe() != null && !target.probe().isBlank()
+                ? MonitorProbeType.parse(target.probe())
+                : null;
+        return monitorService.key(
+                target.target(),
+                target.intervalMs() != null ? target.intervalMs() : 5000,
+                target.timeoutMs() != null ? target.timeoutMs() : 2000,
+                probeType,
+                target.port()
+        );
+    }
+
+    private static String tag(MonitorChannelTargetRequestDTO target, PingMonitorService.MonitorKey key) {
+        return target.tag() != null && !target.tag().isBlank() ? target.tag().trim() : key.target();
+    }
+}
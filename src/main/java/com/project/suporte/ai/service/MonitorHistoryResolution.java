@@ -0,0 +1,42 @@
+package com.project.suporte.ai.service;
+
+import com.project.suporte.ai.exceptions.ApiException;
+import org.springframework.http.HttpStatus;
+
+import java.util.Locale;
+
+public enum MonitorHistoryResolution {
+    RAW("raw", 0),
+    MINUTE("1m", 60_000),
+    HOUR("1h", 3_600_000);
+
+    private final String label;
+    private final long bucketMs;
+
+    MonitorHistoryResolution(String label, long bucketMs) {
+        this.label = label;
+        this.bucketMs = bucketMs;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    long bucketMs() {
+        return bucketMs;
+    }
+
+    long bucketStart(long timestampMs) {
+        return timestampMs - Math.floorMod(timestampMs, bucketMs);
+    }
+
+    public static MonitorHistoryResolution parse(String value) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        for (MonitorHistoryResolution resolution : values()) {
+            if (resolution.label.equals(normalized)) {
+                return resolution;
+            }
+        }
+        throw new ApiException(HttpStatus.BAD_REQUEST, "invalid_resolution", "A resolução deve ser raw, 1m ou 1h.");
+    }
+}
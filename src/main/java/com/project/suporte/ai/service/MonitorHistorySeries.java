@@ -0,0 +1,328 @@
+package com.project.suporte.ai.service;
+
+import com.project.suporte.ai.dto.MonitorHistoryPointDTO;
+import com.project.suporte.ai.exceptions.ApiException;
+import com.project.suporte.ai.support.MappedSegment;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Segment files and open rollup buckets of one monitored target and probe. Raw records are 16 bytes
+ * (timestamp, latency in µs, exit code, success flag); 1 min and 1 h rollups are 40 bytes with count,
+ * failures, min/max and the latency sum. Only the history writer appends; readers read the committed
+ * part of each file through a channel and synchronize on the series just to see the buckets still open.
+ */
+class MonitorHistorySeries {
+
+    static final int RAW_RECORD_BYTES = 16;
+    static final int ROLLUP_RECORD_BYTES = 40;
+    static final int NO_LATENCY = -1;
+
+    private static final List<MonitorHistoryResolution> ROLLUPS = List.of(MonitorHistoryResolution.MINUTE, MonitorHistoryResolution.HOUR);
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final ByteBuffer scratch = ByteBuffer.allocate(ROLLUP_RECORD_BYTES);
+    private final Map<MonitorHistoryResolution, MappedSegment> writers = new EnumMap<>(MonitorHistoryResolution.class);
+    private final Map<MonitorHistoryResolution, Rollup> openBuckets = new EnumMap<>(MonitorHistoryResolution.class);
+    private final Map<MonitorHistoryResolution, Long> closedUntil = new EnumMap<>(MonitorHistoryResolution.class);
+
+    MonitorHistorySeries(Path directory, int segmentRecords) {
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+    }
+
+    synchronized void write(long timestampMs, boolean successful, int latencyUs, int exitCode) throws IOException {
+        scratch.clear();
+        scratch.putLong(timestampMs)
+                .putInt(latencyUs)
+                .putShort((short) exitCode)
+                .put((byte) (successful ? 1 : 0))
+                .put((byte) 0);
+        append(MonitorHistoryResolution.RAW, timestampMs);
+
+        for (MonitorHistoryResolution resolution : ROLLUPS) {
+            long start = Math.max(resolution.bucketStart(timestampMs), closedUntil.getOrDefault(resolution, Long.MIN_VALUE));
+            Rollup open = openBuckets.get(resolution);
+            if (open != null && start > open.start) {
+                persist(resolution, open);
+                open = null;
+            }
+            if (open == null) {
+                open = new Rollup(start);
+                openBuckets.put(resolution, open);
+            }
+            open.add(successful, latencyUs);
+        }
+    }
+
+    /**
+     * Persists buckets whose window ended more than {@code graceMs} ago, so samples still queued for
+     * them are not split into a second record.
+     */
+    synchronized void closeBuckets(long nowMs, long graceMs) throws IOException {
+        for (MonitorHistoryResolution resolution : ROLLUPS) {
+            Rollup open = openBuckets.get(resolution);
+            if (open != null && open.start + resolution.bucketMs() + graceMs <= nowMs) {
+                persist(resolution, open);
+            }
+        }
+    }
+
+    synchronized void closeAll() throws IOException {
+        for (MonitorHistoryResolution resolution : ROLLUPS) {
+            Rollup open = openBuckets.get(resolution);
+            if (open != null) {
+                persist(resolution, open);
+            }
+        }
+    }
+
+    /**
+     * Persists the open buckets and drops the segment writers of a series nobody writes to any more;
+     * the next write reopens the latest segments.
+     */
+    synchronized void release() throws IOException {
+        closeAll();
+        commit(true);
+        writers.clear();
+    }
+
+    synchronized void commit(boolean force) {
+        for (MappedSegment writer : writers.values()) {
+            writer.commit();
+            if (force) {
+                writer.force();
+            }
+        }
+    }
+
+    List<MonitorHistoryPointDTO> read(MonitorHistoryResolution resolution, long fromMs, long toMs, int limit) throws IOException {
+        boolean raw = resolution == MonitorHistoryResolution.RAW;
+        long firstMs = raw ? fromMs : resolution.bucketStart(fromMs);
+        List<MonitorHistoryPointDTO> points = new ArrayList<>();
+        List<Rollup> rollups = new ArrayList<>();
+        List<Path> files = segments(resolution);
+
+        for (int index = 0; index < files.size(); index++) {
+            if (segmentStart(files.get(index)) > toMs) {
+                break;
+            }
+            if (index + 1 < files.size() && segmentStart(files.get(index + 1)) < firstMs) {
+                continue;
+            }
+
+            MappedSegment.readCommitted(files.get(index), recordSize(resolution), buffer -> {
+                long timestampMs = buffer.getLong(0);
+                if (timestampMs < firstMs || timestampMs > toMs) {
+                    return;
+                }
+                if (raw) {
+                    points.add(rawPoint(buffer));
+                    checkLimit(points.size(), limit);
+                } else {
+                    addMerging(rollups, Rollup.decode(buffer), limit);
+                }
+            });
+        }
+
+        if (raw) {
+            return points;
+        }
+        synchronized (this) {
+            Rollup open = openBuckets.get(resolution);
+            if (open != null && open.start >= firstMs && open.start <= toMs) {
+                addMerging(rollups, open.copy(), limit);
+            }
+        }
+        return rollups.stream().map(Rollup::toPoint).toList();
+    }
+
+    private void append(MonitorHistoryResolution resolution, long timestampMs) throws IOException {
+        MappedSegment writer = writers.get(resolution);
+        if (writer == null) {
+            writer = openLatest(resolution);
+        }
+        if (writer == null || writer.isFull()) {
+            if (writer != null) {
+                writer.commit();
+            }
+            writer = MappedSegment.openForAppend(directory.resolve(segmentName(resolution, timestampMs)), recordSize(resolution), segmentRecords);
+        }
+        writers.put(resolution, writer);
+        writer.append(scratch);
+    }
+
+    private MappedSegment openLatest(MonitorHistoryResolution resolution) throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files = segments(resolution);
+        if (files.isEmpty()) {
+            return null;
+        }
+        return MappedSegment.openForAppend(files.get(files.size() - 1), recordSize(resolution), segmentRecords);
+    }
+
+    private void persist(MonitorHistoryResolution resolution, Rollup rollup) throws IOException {
+        scratch.clear();
+        rollup.encode(scratch);
+        append(resolution, rollup.start);
+        openBuckets.remove(resolution);
+        closedUntil.put(resolution, rollup.start + resolution.bucketMs());
+    }
+
+    private List<Path> segments(MonitorHistoryResolution resolution) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        String prefix = resolution.label() + "-";
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> path.getFileName().toString().startsWith(prefix))
+                    .filter(path -> path.getFileName().toString().endsWith(".seg"))
+                    .sorted(Comparator.comparing(path -> path.getFileName().toString()))
+                    .toList();
+        }
+    }
+
+    private static String segmentName(MonitorHistoryResolution resolution, long startMs) {
+        return resolution.label() + "-" + String.format(Locale.ROOT, "%020d", startMs) + ".seg";
+    }
+
+    private static long segmentStart(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(name.indexOf('-') + 1, name.length() - ".seg".length()));
+    }
+
+    private static int recordSize(MonitorHistoryResolution resolution) {
+        return resolution == MonitorHistoryResolution.RAW ? RAW_RECORD_BYTES : ROLLUP_RECORD_BYTES;
+    }
+
+    private static MonitorHistoryPointDTO rawPoint(ByteBuffer buffer) {
+        int latencyUs = buffer.getInt(8);
+        boolean successful = buffer.get(14) == 1;
+        Double latencyMs = latencyUs == NO_LATENCY ? null : latencyUs / 1000.0;
+        return new MonitorHistoryPointDTO(
+                Instant.ofEpochMilli(buffer.getLong(0)),
+                1,
+                successful ? 0 : 1,
+                successful ? 0.0 : 100.0,
+                latencyMs,
+                latencyMs,
+                latencyMs
+        );
+    }
+
+    /**
+     * A bucket flushed at shutdown and reopened after a restart is stored twice; queries fold them back.
+     */
+    private static void addMerging(List<Rollup> rollups, Rollup rollup, int limit) {
+        Rollup last = rollups.isEmpty() ? null : rollups.get(rollups.size() - 1);
+        if (last != null && last.start == rollup.start) {
+            last.merge(rollup);
+            return;
+        }
+        rollups.add(rollup);
+        checkLimit(rollups.size(), limit);
+    }
+
+    private static void checkLimit(int points, int limit) {
+        if (points > limit) {
+            throw new ApiException(
+                    HttpStatus.BAD_REQUEST,
+                    "range_too_large",
+                    "O intervalo pedido passa de " + limit + " pontos. Use uma resolução maior ou um intervalo menor."
+            );
+        }
+    }
+
+    private static final class Rollup {
+
+        private final long start;
+        private long count;
+        private long failures;
+        private long measured;
+        private long minUs = Long.MAX_VALUE;
+        private long maxUs = Long.MIN_VALUE;
+        private long sumUs;
+
+        private Rollup(long start) {
+            this.start = start;
+        }
+
+        void add(boolean successful, int latencyUs) {
+            count++;
+            if (!successful) {
+                failures++;
+            }
+            if (latencyUs != NO_LATENCY) {
+                measured++;
+                minUs = Math.min(minUs, latencyUs);
+                maxUs = Math.max(maxUs, latencyUs);
+                sumUs += latencyUs;
+            }
+        }
+
+        void merge(Rollup other) {
+            count += other.count;
+            failures += other.failures;
+            measured += other.measured;
+            minUs = Math.min(minUs, other.minUs);
+            maxUs = Math.max(maxUs, other.maxUs);
+            sumUs += other.sumUs;
+        }
+
+        void encode(ByteBuffer buffer) {
+            buffer.putLong(start)
+                    .putInt((int) count)
+                    .putInt((int) failures)
+                    .putInt((int) measured)
+                    .putInt(measured > 0 ? (int) minUs : NO_LATENCY)
+                    .putInt(measured > 0 ? (int) maxUs : NO_LATENCY)
+                    .putInt(0)
+                    .putLong(sumUs);
+        }
+
+        static Rollup decode(ByteBuffer buffer) {
+            Rollup rollup = new Rollup(buffer.getLong(0));
+            rollup.count = buffer.getInt(8);
+            rollup.failures = buffer.getInt(12);
+            rollup.measured = buffer.getInt(16);
+            if (rollup.measured > 0) {
+                rollup.minUs = buffer.getInt(20);
+                rollup.maxUs = buffer.getInt(24);
+            }
+            rollup.sumUs = buffer.getLong(32);
+            return rollup;
+        }
+
+        Rollup copy() {
+            Rollup copy = new Rollup(start);
+            copy.merge(this);
+            return copy;
+        }
+
+        MonitorHistoryPointDTO toPoint() {
+            return new MonitorHistoryPointDTO(
+                    Instant.ofEpochMilli(start),
+                    count,
+                    failures,
+                    count > 0 ? Math.round(failures * 10_000.0 / count) / 100.0 : 0.0,
+                    measured > 0 ? minUs / 1000.0 : null,
+                    measured > 0 ? Math.round((double) sumUs / measured) / 1000.0 : null,
+                    measured > 0 ? maxUs / 1000.0 : null
+            );
+        }
+    }
+}
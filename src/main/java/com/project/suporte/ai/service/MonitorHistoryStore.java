@@ -0,0 +1,169 @@
+package com.project.suporte.ai.service;
+
+import com.project.suporte.ai.config.DiagnosticsProperties;
+import com.project.suporte.ai.dto.MonitorHistoryPointDTO;
+import com.project.suporte.ai.exceptions.ApiException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only history of monitor samples. Probe loops only enqueue; a single writer thread drains the
+ * queue every {@code flush-interval-ms}, appends to memory-mapped segments per series and closes the
+ * 1 min / 1 h rollup buckets. When the queue is full the sample is dropped rather than blocking a probe.
+ * A series that received nothing for {@code idle-close-ms} (its monitor stopped) is released: open
+ * buckets are persisted, its mapped writers dropped, and the next sample reopens the latest segments.
+ */
+@Service
+public class MonitorHistoryStore implements AutoCloseable {
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentRecords;
+    private final long flushIntervalMs;
+    private final int maxQueryPoints;
+    private final long idleCloseMs;
+    private final BlockingQueue<PendingSample> pending;
+    private final ConcurrentMap<String, MonitorHistorySeries> series = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastWrittenMs = new HashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+    private final ScheduledExecutorService writer;
+
+    public MonitorHistoryStore(DiagnosticsProperties properties) {
+        DiagnosticsProperties.History history = properties.getHistory();
+        this.enabled = history.isEnabled();
+        this.directory = Path.of(history.getDirectory());
+        this.segmentRecords = history.getSegmentRecords();
+        this.flushIntervalMs = history.getFlushIntervalMs();
+        this.maxQueryPoints = history.getMaxQueryPoints();
+        this.idleCloseMs = history.getIdleCloseMs();
+        this.pending = new ArrayBlockingQueue<>(history.getQueueCapacity());
+        this.writer = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("monitor-history").daemon().factory());
+        if (enabled) {
+            writer.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Relative directory of one series, e.g. {@code 8.8.8.8/icmp} or {@code gateway/tcp-443}.
+     */
+    static String seriesName(String target, MonitorProbeType type, Integer port) {
+        String probe = type.name().toLowerCase(Locale.ROOT) + (port != null ? "-" + port : "");
+        return target.replaceAll("[^A-Za-z0-9._-]", "_") + "/" + probe;
+    }
+
+    void append(String seriesName, PingProbeResult result) {
+        append(seriesName, System.currentTimeMillis(), result);
+    }
+
+    void append(String seriesName, long timestampMs, PingProbeResult result) {
+        if (!enabled) {
+            return;
+        }
+        int latencyUs = result.latencyMs() == null
+                ? MonitorHistorySeries.NO_LATENCY
+                : (int) Math.min(Integer.MAX_VALUE, Math.round(result.latencyMs() * 1000.0));
+        if (!pending.offer(new PendingSample(seriesName, timestampMs, result.successful(), latencyUs, result.exitCode()))) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    List<MonitorHistoryPointDTO> query(String seriesName, Instant from, Instant to, MonitorHistoryResolution resolution) {
+        try {
+            MonitorHistorySeries existing = series.get(seriesName);
+            MonitorHistorySeries reader = existing != null
+                    ? existing
+                    : new MonitorHistorySeries(directory.resolve(seriesName), segmentRecords);
+            return reader.read(resolution, from.toEpochMilli(), to.toEpochMilli(), maxQueryPoints);
+        } catch (IOException exception) {
+            throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, "history_unavailable", "Não foi possível ler o histórico do monitor.");
+        }
+    }
+
+    long droppedSamples() {
+        return dropped.get();
+    }
+
+    int openSeries() {
+        return series.size();
+    }
+
+    synchronized void flush() {
+        List<PendingSample> batch = new ArrayList<>(pending.size());
+        pending.drainTo(batch);
+        long now = System.currentTimeMillis();
+
+        for (PendingSample sample : batch) {
+            lastWrittenMs.put(sample.series(), now);
+            try {
+                seriesFor(sample.series()).write(sample.timestampMs(), sample.successful(), sample.latencyUs(), sample.exitCode());
+            } catch (IOException | RuntimeException exception) {
+                dropped.incrementAndGet();
+            }
+        }
+        Iterator<Map.Entry<String, MonitorHistorySeries>> entries = series.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, MonitorHistorySeries> entry = entries.next();
+            MonitorHistorySeries current = entry.getValue();
+            try {
+                current.closeBuckets(now, 2 * flushIntervalMs);
+            } catch (IOException exception) {
+                dropped.incrementAndGet();
+            }
+            current.commit(false);
+            if (now - lastWrittenMs.getOrDefault(entry.getKey(), now) >= idleCloseMs) {
+                release(current);
+                entries.remove();
+                lastWrittenMs.remove(entry.getKey());
+            }
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+        synchronized (this) {
+            flush();
+            for (MonitorHistorySeries current : series.values()) {
+                try {
+                    current.closeAll();
+                } catch (IOException ignored) {
+                }
+                current.commit(true);
+            }
+        }
+    }
+
+    private void release(MonitorHistorySeries idle) {
+        try {
+            idle.release();
+        } catch (IOException exception) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private MonitorHistorySeries seriesFor(String seriesName) {
+        return series.computeIfAbsent(seriesName, name -> new MonitorHistorySeries(directory.resolve(name), segmentRecords));
+    }
+
+    private record PendingSample(String series, long timestampMs, boolean successful, int latencyUs, int exitCode) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.project.suporte.ai.service;
+
+/**
+ * One monitor sample. Implementations are bound to a target for the whole session.
+ */
+@FunctionalInterface
+interface MonitorProbe {
+
+    PingProbeResult probe(int timeoutMs) throws Exception;
+
+    static double elapsedMs(long startedAt) {
+        return Math.round((System.nanoTime() - startedAt) / 1_000.0) / 1_000.0;
+    }
+}
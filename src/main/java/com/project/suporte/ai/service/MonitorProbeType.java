@@ -0,0 +1,20 @@
+package com.project.suporte.ai.service;
+
+import com.project.suporte.ai.exceptions.ApiException;
+import org.springframework.http.HttpStatus;
+
+import java.util.Locale;
+
+public enum MonitorProbeType {
+    ICMP,
+    TCP,
+    REACHABLE;
+
+    public static MonitorProbeType parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException exception) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "invalid_probe", "O probe deve ser icmp, tcp ou reachable.");
+        }
+    }
+}
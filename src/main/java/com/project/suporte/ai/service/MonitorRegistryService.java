@@ -0,0 +1,351 @@
+package com.project.suporte.ai.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.suporte.ai.config.DiagnosticsProperties;
+import com.project.suporte.ai.dto.MonitorRegistrationRequestDTO;
+import com.project.suporte.ai.dto.RegisteredMonitorDTO;
+import com.project.suporte.ai.exceptions.ApiException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Monitors created through the API that keep probing with nobody watching. Each entry pins its shared
+ * probe loop; viewers attach to and detach from the loop's event stream. The list is written to
+ * {@code diagnostics.registry.file} on every change and restored on startup, with the first samples
+ * spread over {@code restore-spread-ms} so a restart does not probe every target at once. A loop that
+ * fails (DNS error, ping process exit) is pinned again after {@code restart-delay-ms}, doubling up to
+ * {@code restart-max-delay-ms} while it keeps failing.
+ */
+@Service
+public class MonitorRegistryService {
+
+    private static final TypeReference<List<StoredMonitor>> STORED_LIST = new TypeReference<>() {
+    };
+
+    private final PingMonitorService monitorService;
+    private final ObjectMapper objectMapper;
+    private final ScheduledExecutorService scheduler;
+    private final int maxMonitors;
+    private final Path file;
+    private final long restoreSpreadMs;
+    private final long restartDelayMs;
+    private final long restartMaxDelayMs;
+    private final LinkedHashMap<String, RegisteredMonitor> monitors = new LinkedHashMap<>();
+
+    public MonitorRegistryService(
+            PingMonitorService monitorService,
+            ObjectMapper objectMapper,
+            DiagnosticsProperties properties,
+            @Qualifier("monitorScheduler") ScheduledExecutorService scheduler
+    ) {
+        this.monitorService = monitorService;
+        this.objectMapper = objectMapper;
+        this.scheduler = scheduler;
+        this.maxMonitors = properties.getRegistry().getMaxMonitors();
+        this.file = Path.of(properties.getRegistry().getFile());
+        this.restoreSpreadMs = properties.getRegistry().getRestoreSpreadMs();
+        this.restartDelayMs = properties.getRegistry().getRestartDelayMs();
+        this.restartMaxDelayMs = properties.getRegistry().getRestartMaxDelayMs();
+    }
+
+    /**
+     * Validates and resolves the target before taking the registry lock, so a slow DNS lookup never
+     * blocks the other registry calls.
+     */
+    public RegisteredMonitorDTO register(MonitorRegistrationRequestDTO request) {
+        MonitorProbeType probeType = request.probe() != null && !request.probe().isBlank()
+                ? MonitorProbeType.parse(request.probe())
+                : null;
+        PingMonitorService.MonitorKey key = monitorService.key(
+                request.target(),
+                request.intervalMs() != null ? request.intervalMs() : 5000,
+                request.timeoutMs() != null ? request.timeoutMs() : 2000,
+                probeType,
+                request.port()
+        );
+        String name = request.name() != null && !request.name().isBlank() ? request.name().trim() : key.target();
+        RegisteredMonitor monitor = new RegisteredMonitor(
+                new StoredMonitor(UUID.randomUUID().toString(), name, key.target(), key.intervalMs(), key.timeoutMs(),
+                        key.type().name().toLowerCase(Locale.ROOT), key.port(), Instant.now()),
+                key
+        );
+
+        synchronized (this) {
+            if (monitors.size() >= maxMonitors) {
+                throw new ApiException(
+                        HttpStatus.TOO_MANY_REQUESTS,
+                        "too_many_monitors",
+                        "O limite de " + maxMonitors + " monitores cadastrados foi atingido. Remova um monitor antes de criar outro."
+                );
+            }
+            monitors.put(monitor.stored.id(), monitor);
+            try {
+                persist();
+            } catch (IOException exception) {
+                monitors.remove(monitor.stored.id());
+                throw unavailable(exception);
+            }
+            ensureRunning(monitor);
+            return toDto(monitor);
+        }
+    }
+
+    public synchronized List<RegisteredMonitorDTO> list() {
+        return monitors.values().stream().map(this::toDto).toList();
+    }
+
+    public synchronized RegisteredMonitorDTO get(String id) {
+        return toDto(find(id));
+    }
+
+    public synchronized void remove(String id) {
+        RegisteredMonitor monitor = find(id);
+        LinkedHashMap<String, RegisteredMonitor> previous = new LinkedHashMap<>(monitors);
+        monitors.remove(id);
+        try {
+            persist();
+        } catch (IOException exception) {
+            monitors.clear();
+            monitors.putAll(previous);
+            throw unavailable(exception);
+        }
+        if (monitor.session != null) {
+            monitor.session.unpin();
+        }
+    }
+
+    /**
+     * Streams the events of a registered monitor. A loop that died and is still waiting for its
+     * scheduled restart is pinned again right away; a restored monitor whose target could not be
+     * resolved yet is resolved now.
+     */
+    public void attach(String id, SseEmitter emitter, String lastEventId) {
+        RegisteredMonitor monitor;
+        PingMonitorService.MonitorKey key;
+        synchronized (this) {
+            monitor = find(id);
+            key = monitor.key;
+        }
+        if (key == null) {
+            key = resolve(monitor.stored);
+        }
+        synchronized (this) {
+            if (monitors.get(id) != monitor) {
+                throw new ApiException(HttpStatus.NOT_FOUND, "monitor_not_found", "Monitor não encontrado.");
+            }
+            monitor.key = key;
+            ensureRunning(monitor);
+        }
+        monitorService.attach(key, emitter, lastEventId);
+    }
+
+    /**
+     * Loads the stored list without resolving any target; each monitor resolves its key when its
+     * staggered start comes, and one that fails (e.g. a DNS error at boot) stays registered and is
+     * retried with the restart backoff.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void restore() {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        List<StoredMonitor> stored;
+        try {
+            stored = objectMapper.readValue(file.toFile(), STORED_LIST);
+        } catch (IOException exception) {
+            return;
+        }
+
+        int total = Math.min(stored.size(), maxMonitors);
+        for (int index = 0; index < total; index++) {
+            StoredMonitor entry = stored.get(index);
+            RegisteredMonitor monitor = new RegisteredMonitor(entry, null);
+            monitors.put(entry.id(), monitor);
+            long delayMs = restoreSpreadMs * index / total;
+            try {
+                scheduler.schedule(() -> startRestore(monitor), delayMs, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException exception) {
+                return;
+            }
+        }
+    }
+
+    synchronized int size() {
+        return monitors.size();
+    }
+
+    /**
+     * Restoring may resolve DNS, so it leaves the shared scheduler thread right away.
+     */
+    private void startRestore(RegisteredMonitor monitor) {
+        Thread.ofVirtual().name("monitor-restore").start(() -> restoreOne(monitor));
+    }
+
+    private void restoreOne(RegisteredMonitor monitor) {
+        PingMonitorService.MonitorKey key;
+        synchronized (this) {
+            if (monitors.get(monitor.stored.id()) != monitor) {
+                return;
+            }
+            key = monitor.key;
+        }
+        if (key == null) {
+            try {
+                key = resolve(monitor.stored);
+            } catch (RuntimeException exception) {
+                synchronized (this) {
+                    if (monitors.get(monitor.stored.id()) == monitor) {
+                        scheduleRetry(monitor);
+                    }
+                }
+                return;
+            }
+        }
+        synchronized (this) {
+            if (monitors.get(monitor.stored.id()) == monitor) {
+                monitor.key = key;
+                ensureRunning(monitor);
+            }
+        }
+    }
+
+    private PingMonitorService.MonitorKey resolve(StoredMonitor stored) {
+        return monitorService.key(stored.target(), stored.intervalMs(), stored.timeoutMs(), MonitorProbeType.parse(stored.probe()), stored.port());
+    }
+
+    private void ensureRunning(RegisteredMonitor monitor) {
+        if (monitor.session == null || !monitor.session.isActive()) {
+            PingMonitorSession session = monitorService.pin(monitor.key);
+            monitor.session = session;
+            monitor.startedAt = System.nanoTime();
+            session.whenStopped(() -> stopped(monitor, session));
+        }
+    }
+
+    /**
+     * Called by the session while it stops, possibly under its locks, so the registry lock is only
+     * taken on the scheduler.
+     */
+    private void stopped(RegisteredMonitor monitor, PingMonitorSession session) {
+        try {
+            scheduler.execute(() -> scheduleRestart(monitor, session));
+        } catch (RejectedExecutionException exception) {
+            // Shutting down.
+        }
+    }
+
+    private synchronized void scheduleRestart(RegisteredMonitor monitor, PingMonitorSession session) {
+        if (monitors.get(monitor.stored.id()) != monitor || monitor.session != session) {
+            return;
+        }
+        long ranForMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - monitor.startedAt);
+        if (ranForMs >= restartMaxDelayMs) {
+            monitor.failures = 0;
+        }
+        scheduleRetry(monitor);
+    }
+
+    private void scheduleRetry(RegisteredMonitor monitor) {
+        long delayMs = Math.min(restartMaxDelayMs, restartDelayMs << Math.min(monitor.failures, 20));
+        monitor.failures++;
+        try {
+            scheduler.schedule(() -> startRestore(monitor), delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException exception) {
+            // Shutting down.
+        }
+    }
+
+    private RegisteredMonitor find(String id) {
+        RegisteredMonitor monitor = monitors.get(id);
+        if (monitor == null) {
+            throw new ApiException(HttpStatus.NOT_FOUND, "monitor_not_found", "Monitor não encontrado.");
+        }
+        return monitor;
+    }
+
+    /**
+     * Writes to a temporary file and renames it, so a crash mid-write never leaves a truncated list.
+     */
+    private void persist() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            objectMapper.writeValue(temporary.toFile(), monitors.values().stream().map(monitor -> monitor.stored).toList());
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private ApiException unavailable(IOException exception) {
+        return new ApiException(
+                HttpStatus.INTERNAL_SERVER_ERROR,
+                "registry_unavailable",
+                "Não foi possível gravar a lista de monitores.",
+                exception
+        );
+    }
+
+    private RegisteredMonitorDTO toDto(RegisteredMonitor monitor) {
+        StoredMonitor stored = monitor.stored;
+        PingMonitorSession session = monitor.session;
+        boolean running = session != null && session.isActive();
+        return new RegisteredMonitorDTO(
+                stored.id(),
+                stored.name(),
+                stored.target(),
+                stored.intervalMs(),
+                stored.timeoutMs(),
+                stored.probe(),
+                stored.port(),
+                stored.createdAt(),
+                running,
+                running ? session.subscriberCount() : 0
+        );
+    }
+
+    record StoredMonitor(
+            String id,
+            String name,
+            String target,
+            int intervalMs,
+            int timeoutMs,
+            String probe,
+            Integer port,
+            Instant createdAt
+    ) {
+    }
+
+    private static final class RegisteredMonitor {
+
+        private final StoredMonitor stored;
+        private PingMonitorService.MonitorKey key;
+        private PingMonitorSession session;
+        private long startedAt;
+        private int failures;
+
+        private RegisteredMonitor(StoredMonitor stored, PingMonitorService.MonitorKey key) {
+            this.stored = stored;
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.project.suporte.ai.service;
+
+import com.project.suporte.ai.dto.PingMonitorEventDTO;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * Receiver of the events of one {@link PingMonitorSession}: a dedicated SSE stream or one target of a
+ * multiplexed {@link MonitorChannel}.
+ */
+interface MonitorSubscriber {
+
+    void send(String eventName, String id, PingMonitorEventDTO payload) throws IOException;
+
+    void complete();
+
+    /**
+     * Registers the callback to run once the receiver goes away on its own.
+     */
+    void onClose(Runnable callback);
+
+    static MonitorSubscriber of(SseEmitter emitter) {
+        return new MonitorSubscriber() {
+            @Override
+            public void send(String eventName, String id, PingMonitorEventDTO payload) throws IOException {
+                emitter.send(SseEmitter.event().id(id).name(eventName).data(payload));
+            }
+
+            @Override
+            public void complete() {
+                emitter.complete();
+            }
+
+            @Override
+            public void onClose(Runnable callback) {
+                emitter.onCompletion(callback);
+                emitter.onTimeout(callback);
+                emitter.onError(error -> callback.run());
+            }
+        };
+    }
+}
@@ -1,12 +1,17 @@
 package com.project.suporte.ai.service;
 
 import com.project.suporte.ai.dto.PingMonitorEventDTO;
+import com.project.suporte.ai.support.LatencyHistogram;
 
 import java.time.Instant;
 
 class PingMonitorAccumulator {
 
+    private static final double EWMA_ALPHA = 1.0 / 8.0;
+    private static final double JITTER_GAIN = 1.0 / 16.0;
+
     private final String target;
+    private final LatencyHistogram histogram = new LatencyHistogram();
     private long attempts;
     private long successfulAttempts;
     private long failedAttempts;
@@ -15,6 +20,9 @@ class PingMonitorAccumulator {
     private boolean connected;
     private Boolean previousConnected;
     private double totalLatencyMs;
+    private Double previousLatencyMs;
+    private double jitterMs;
+    private Double ewmaLatencyMs;
 
     PingMonitorAccumulator(String target) {
         this.target = target;
@@ -28,6 +36,12 @@ class PingMonitorAccumulator {
                 false,
                 null,
                 null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
                 attempts,
                 successfulAttempts,
                 failedAttempts,
@@ -47,7 +61,7 @@ class PingMonitorAccumulator {
             connected = true;
             consecutiveFailures = 0;
             if (probeResult.latencyMs() != null) {
-                totalLatencyMs += probeResult.latencyMs();
+                recordLatency(probeResult.latencyMs());
             }
         } else {
             failedAttempts++;
@@ -60,62 +74,96 @@ class PingMonitorAccumulator {
 
         previousConnected = probeResult.successful();
 
-        return new PingMonitorEventDTO(
-                "sample",
-                target,
-                connected ? "ONLINE" : "OFFLINE",
-                connected,
-                probeResult.latencyMs(),
-                successfulAttempts > 0 ? round(totalLatencyMs / successfulAttempts) : null,
-                attempts,
-                successfulAttempts,
-                failedAttempts,
-                outages,
-                round(attempts > 0 ? (failedAttempts * 100.0) / attempts : 0.0),
-                consecutiveFailures,
-                probeResult.message(),
-                Instant.now()
-        );
+        return withStatistics("sample", connected ? "ONLINE" : "OFFLINE", probeResult.latencyMs(), probeResult.message());
+    }
+
+    /**
+     * Tells a resuming viewer that {@code missed} events fell out of the replay ring before it came back.
+     */
+    PingMonitorEventDTO gap(long missed) {
+        return withStatistics("gap", connected ? "ONLINE" : "OFFLINE", null,
+                missed + " eventos anteriores não estão mais disponíveis para reenvio.");
     }
 
     PingMonitorEventDTO completed(String message) {
+        return withStatistics("completed", connected ? "ONLINE" : "STOPPED", null, message);
+    }
+
+    PingMonitorEventDTO error(String message) {
         return new PingMonitorEventDTO(
-                "completed",
+                "error",
                 target,
-                connected ? "ONLINE" : "STOPPED",
+                connected ? "ONLINE" : "OFFLINE",
                 connected,
                 null,
-                successfulAttempts > 0 ? round(totalLatencyMs / successfulAttempts) : null,
+                averageLatencyMs(),
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
                 attempts,
                 successfulAttempts,
                 failedAttempts,
                 outages,
-                round(attempts > 0 ? (failedAttempts * 100.0) / attempts : 0.0),
+                packetLossPercent(),
                 consecutiveFailures,
                 message,
                 Instant.now()
         );
     }
 
-    PingMonitorEventDTO error(String message) {
+    /**
+     * Jitter follows RFC 3550 (J += (|D| - J) / 16) with D taken between consecutive round trips.
+     */
+    private void recordLatency(double latencyMs) {
+        totalLatencyMs += latencyMs;
+        histogram.record(latencyMs);
+        if (previousLatencyMs != null) {
+            jitterMs += (Math.abs(latencyMs - previousLatencyMs) - jitterMs) * JITTER_GAIN;
+        }
+        previousLatencyMs = latencyMs;
+        ewmaLatencyMs = ewmaLatencyMs == null ? latencyMs : ewmaLatencyMs + EWMA_ALPHA * (latencyMs - ewmaLatencyMs);
+    }
+
+    private PingMonitorEventDTO withStatistics(String type, String status, Double currentLatencyMs, String message) {
         return new PingMonitorEventDTO(
-                "error",
+                type,
                 target,
-                connected ? "ONLINE" : "OFFLINE",
+                status,
                 connected,
-                null,
-                successfulAttempts > 0 ? round(totalLatencyMs / successfulAttempts) : null,
+                currentLatencyMs,
+                averageLatencyMs(),
+                roundOrNull(histogram.percentileMs(50)),
+                roundOrNull(histogram.percentileMs(95)),
+                roundOrNull(histogram.percentileMs(99)),
+                roundOrNull(histogram.maxMs()),
+                histogram.count() > 1 ? round(jitterMs) : null,
+                roundOrNull(ewmaLatencyMs),
                 attempts,
                 successfulAttempts,
                 failedAttempts,
                 outages,
-                round(attempts > 0 ? (failedAttempts * 100.0) / attempts : 0.0),
+                packetLossPercent(),
                 consecutiveFailures,
                 message,
                 Instant.now()
         );
     }
 
+    private Double averageLatencyMs() {
+        return successfulAttempts > 0 ? round(totalLatencyMs / successfulAttempts) : null;
+    }
+
+    private double packetLossPercent() {
+        return round(attempts > 0 ? (failedAttempts * 100.0) / attempts : 0.0);
+    }
+
+    private Double roundOrNull(Double value) {
+        return value == null ? null : round(value);
+    }
+
     private double round(double value) {
         return Math.round(value * 100.0) / 100.0;
     }
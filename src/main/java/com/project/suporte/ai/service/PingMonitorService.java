@@ -1,99 +1,189 @@
 package com.project.suporte.ai.service;
 
-import com.project.suporte.ai.dto.PingMonitorEventDTO;
+import com.project.suporte.ai.config.DiagnosticsProperties;
+import com.project.suporte.ai.dto.MonitorHistoryDTO;
+import com.project.suporte.ai.dto.MonitorHistoryPointDTO;
+import com.project.suporte.ai.support.PingOutputScanner;
 import com.project.suporte.ai.support.ProcessLauncher;
 import com.project.suporte.ai.support.TargetValidator;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
+import java.time.Instant;
 import java.util.List;
 import java.util.Locale;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
 
 @Service
 public class PingMonitorService {
 
-    private static final Pattern LATENCY_PATTERN = Pattern.compile(
-            "(?:time|tempo)\\s*[=<]?\\s*<?\\s*(\\d+(?:[\\.,]\\d+)?)\\s*ms",
-            Pattern.CASE_INSENSITIVE
-    );
-
     private final TargetValidator targetValidator;
     private final ProcessLauncher processLauncher;
-
-    public PingMonitorService(TargetValidator targetValidator, ProcessLauncher processLauncher) {
+    private final DiagnosticsProperties properties;
+    private final ScheduledExecutorService scheduler;
+    private final Executor probeExecutor;
+    private final MonitorHistoryStore historyStore;
+    private final ConcurrentMap<MonitorKey, PingMonitorSession> sessions = new ConcurrentHashMap<>();
+
+    public PingMonitorService(
+            TargetValidator targetValidator,
+            ProcessLauncher processLauncher,
+            DiagnosticsProperties properties,
+            @Qualifier("monitorScheduler") ScheduledExecutorService scheduler,
+            @Qualifier("monitorProbeExecutor") Executor probeExecutor,
+            MonitorHistoryStore historyStore
+    ) {
         this.targetValidator = targetValidator;
         this.processLauncher = processLauncher;
+        this.properties = properties;
+        this.scheduler = scheduler;
+        this.probeExecutor = probeExecutor;
+        this.historyStore = historyStore;
     }
 
-    @Async("diagnosticsExecutor")
-    public void monitor(SseEmitter emitter, String rawTarget, int intervalMs, int timeoutMs) {
-        String target = targetValidator.normalizeTarget(rawTarget);
-        AtomicBoolean active = new AtomicBoolean(true);
-        PingMonitorAccumulator accumulator = new PingMonitorAccumulator(target);
-        registerCallbacks(emitter, active);
+    public void monitor(
+            SseEmitter emitter,
+            String rawTarget,
+            int intervalMs,
+            int timeoutMs,
+            MonitorProbeType probeType,
+            Integer port,
+            String lastEventId
+    ) {
+        attach(key(rawTarget, intervalMs, timeoutMs, probeType, port), emitter, lastEventId);
+    }
+
+    /**
+     * TCP and reachable probes connect from this JVM, so their targets get the same restrictions as the
+     * port scan: no localhost, private or link-local addresses.
+     */
+    MonitorKey key(String rawTarget, int intervalMs, int timeoutMs, MonitorProbeType probeType, Integer port) {
+        MonitorProbeType type = resolveProbeType(probeType);
+        String target = type == MonitorProbeType.ICMP
+                ? targetValidator.normalizeTarget(rawTarget)
+                : targetValidator.resolvePortScanTarget(rawTarget).host();
+        return new MonitorKey(target, intervalMs, timeoutMs, type, resolveProbePort(type, port));
+    }
+
+    void attach(MonitorKey key, SseEmitter emitter, String lastEventId) {
+        attach(key, MonitorSubscriber.of(emitter), lastEventId);
+    }
 
-        if (!safeSend(emitter, "started", accumulator.started("Monitoramento iniciado."))) {
-            return;
+    void attach(MonitorKey key, MonitorSubscriber subscriber, String lastEventId) {
+        PingMonitorSession session;
+        do {
+            session = sessions.computeIfAbsent(key, this::newSession);
+        } while (!session.subscribe(subscriber, lastEventId));
+
+        if (session.markStarted()) {
+            start(session, key);
         }
+    }
 
-        try {
-            while (active.get() && !Thread.currentThread().isInterrupted()) {
-                PingProbeResult probeResult = probeOnce(target, timeoutMs);
-                if (!safeSend(emitter, "sample", accumulator.sample(probeResult))) {
-                    return;
-                }
+    /**
+     * Starts (or joins) the loop of {@code key} and keeps it running without viewers until the
+     * returned session is unpinned.
+     */
+    PingMonitorSession pin(MonitorKey key) {
+        PingMonitorSession session;
+        do {
+            session = sessions.computeIfAbsent(key, this::newSession);
+        } while (!session.pin());
+
+        if (session.markStarted()) {
+            start(session, key);
+        }
+        return session;
+    }
 
-                if (!active.get()) {
-                    break;
-                }
+    public MonitorHistoryDTO history(
+            String rawTarget,
+            MonitorProbeType probeType,
+            Integer port,
+            Instant from,
+            Instant to,
+            MonitorHistoryResolution resolution
+    ) {
+        String target = targetValidator.normalizeTarget(rawTarget);
+        MonitorProbeType type = resolveProbeType(probeType);
+        String series = MonitorHistoryStore.seriesName(target, type, resolveProbePort(type, port));
+        List<MonitorHistoryPointDTO> points = historyStore.query(series, from, to, resolution);
+        return new MonitorHistoryDTO(target, series.substring(series.lastIndexOf('/') + 1), resolution.label(), from, to, points);
+    }
 
-                Thread.sleep(intervalMs);
-            }
-        } catch (InterruptedException exception) {
-            Thread.currentThread().interrupt();
-        } catch (Exception exception) {
-            safeSend(emitter, "error", accumulator.error("Falha ao monitorar o alvo: " + exception.getMessage()));
-            emitter.complete();
-            return;
+    int activeMonitors() {
+        return sessions.size();
+    }
+
+    private PingMonitorSession newSession(MonitorKey key) {
+        String series = MonitorHistoryStore.seriesName(key.target(), key.type(), key.port());
+        return new PingMonitorSession(
+                key.target(),
+                key.intervalMs(),
+                key.timeoutMs(),
+                properties.getMonitor().getLingerMs(),
+                properties.getMonitor().getReplayBufferSize(),
+                scheduler,
+                probeExecutor,
+                result -> historyStore.append(series, result),
+                closed -> sessions.remove(key, closed)
+        );
+    }
+
+    private MonitorProbeType resolveProbeType(MonitorProbeType probeType) {
+        return probeType != null ? probeType : MonitorProbeType.parse(properties.getMonitor().getDefaultProbe());
+    }
+
+    private Integer resolveProbePort(MonitorProbeType type, Integer port) {
+        if (type != MonitorProbeType.TCP) {
+            return null;
         }
+        return port != null ? port : properties.getMonitor().getTcpPort();
+    }
 
-        if (active.compareAndSet(true, false)) {
-            safeSend(emitter, "completed", accumulator.completed("Monitoramento encerrado."));
-            emitter.complete();
+    private void start(PingMonitorSession session, MonitorKey key) {
+        if (key.type() == MonitorProbeType.ICMP && properties.getMonitor().isContinuous() && !isWindows()) {
+            session.startContinuous(() -> processLauncher.start(buildContinuousPingCommand(key.target(), key.intervalMs())));
+        } else {
+            session.startSampling(() -> newProbe(key.type(), key.target(), key.port()));
         }
     }
 
+    private MonitorProbe newProbe(MonitorProbeType type, String target, Integer port) {
+        return switch (type) {
+            case ICMP -> timeoutMs -> probeOnce(target, timeoutMs);
+            case TCP -> new TcpConnectMonitorProbe(targetValidator.resolvePortScanTarget(target).preferred(), port);
+            case REACHABLE -> new ReachableMonitorProbe(targetValidator.resolvePortScanTarget(target).preferred());
+        };
+    }
+
     PingProbeResult probeOnce(String target, int timeoutMs) throws Exception {
         Process process = processLauncher.start(buildSinglePingCommand(target, timeoutMs));
-        List<String> outputLines = new ArrayList<>();
+        Double latencyMs = null;
+        String lastMessage;
 
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                outputLines.add(line.trim());
+        try (PingOutputScanner scanner = new PingOutputScanner(process.getInputStream())) {
+            while (scanner.nextLine()) {
+                if (latencyMs == null && scanner.hasLatency()) {
+                    latencyMs = scanner.latencyMs();
+                }
             }
+            lastMessage = scanner.lastMessage();
         }
 
         int exitCode = process.waitFor();
-        Double latencyMs = extractLatencyMs(outputLines);
         boolean success = exitCode == 0;
-        String message = buildProbeMessage(target, success, latencyMs, outputLines);
+        String message = buildProbeMessage(target, success, latencyMs, lastMessage);
 
         return new PingProbeResult(success, latencyMs, message, exitCode);
     }
 
     List<String> buildSinglePingCommand(String target, int timeoutMs) {
-        boolean isWindows = System.getProperty("os.name").toLowerCase(Locale.ROOT).contains("win");
-        if (isWindows) {
+        if (isWindows()) {
             return List.of("ping", "-n", "1", "-w", String.valueOf(timeoutMs), target);
         }
 
@@ -101,17 +191,11 @@ public class PingMonitorService {
         return List.of("ping", "-c", "1", "-W", String.valueOf(timeoutSeconds), target);
     }
 
-    Double extractLatencyMs(List<String> outputLines) {
-        for (String line : outputLines) {
-            Matcher matcher = LATENCY_PATTERN.matcher(line);
-            if (matcher.find()) {
-                return Double.parseDouble(matcher.group(1).replace(',', '.'));
-            }
-        }
-        return null;
+    List<String> buildContinuousPingCommand(String target, int intervalMs) {
+        return List.of("ping", "-n", "-i", String.format(Locale.US, "%.1f", intervalMs / 1000.0), target);
     }
 
-    private String buildProbeMessage(String target, boolean success, Double latencyMs, List<String> outputLines) {
+    private String buildProbeMessage(String target, boolean success, Double latencyMs, String lastMessage) {
         if (success) {
             if (latencyMs != null) {
                 return "Ping OK em " + formatLatency(latencyMs) + " ms.";
@@ -119,11 +203,7 @@ public class PingMonitorService {
             return "Ping OK para " + target + ".";
         }
 
-        String rawLine = outputLines.stream()
-                .filter(line -> !line.isBlank())
-                .filter(line -> !line.toLowerCase(Locale.ROOT).contains("ping statistics"))
-                .reduce((first, second) -> second)
-                .orElse("Sem resposta do alvo.");
+        String rawLine = lastMessage != null ? lastMessage : "Sem resposta do alvo.";
 
         return rawLine.length() > 180 ? rawLine.substring(0, 180) : rawLine;
     }
@@ -132,19 +212,10 @@ public class PingMonitorService {
         return latencyMs % 1 == 0 ? String.valueOf(latencyMs.longValue()) : String.format(Locale.US, "%.2f", latencyMs);
     }
 
-    private void registerCallbacks(SseEmitter emitter, AtomicBoolean active) {
-        emitter.onCompletion(() -> active.set(false));
-        emitter.onTimeout(() -> active.set(false));
-        emitter.onError(error -> active.set(false));
+    private boolean isWindows() {
+        return System.getProperty("os.name").toLowerCase(Locale.ROOT).contains("win");
     }
 
-    private boolean safeSend(SseEmitter emitter, String eventName, PingMonitorEventDTO payload) {
-        try {
-            emitter.send(SseEmitter.event().name(eventName).data(payload));
-            return true;
-        } catch (Exception exception) {
-            emitter.complete();
-            return false;
-        }
+    record MonitorKey(String target, int intervalMs, int timeoutMs, MonitorProbeType type, Integer port) {
     }
 }
@@ -0,0 +1,478 @@
+package com.project.suporte.ai.service;
+
+import com.project.suporte.ai.dto.PingMonitorEventDTO;
+import com.project.suporte.ai.support.PingOutputScanner;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * One probe loop shared by every subscriber watching the same target. No thread is held between
+ * samples: the shared scheduler only fires the next sample (or the reply deadline of a continuous
+ * ping) and the work runs on the bounded probe pool. Broadcast events carry {@code <stream>:<sequence>}
+ * ids and the last ones stay in a fixed ring for replay. The loop stops once the last subscriber has
+ * been gone for the linger period, unless a registered monitor keeps it pinned. Events are only queued
+ * per viewer under the session lock; each viewer's queue is written by its own virtual thread, so a slow
+ * client never stalls the probe loop or the other viewers. A viewer that falls further behind than the
+ * replay ring is dropped and can resume with its {@code Last-Event-ID}.
+ */
+class PingMonitorSession {
+
+    private final List<Viewer> subscribers = new CopyOnWriteArrayList<>();
+    private final String target;
+    private final long intervalNanos;
+    private final long timeoutNanos;
+    private final ScheduledExecutorService scheduler;
+    private final Executor probeExecutor;
+    private final PingMonitorAccumulator accumulator;
+    private final AtomicBoolean active = new AtomicBoolean(true);
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final String streamId = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+    private final long lingerNanos;
+    private final ReplayEvent[] replay;
+    private long sequence;
+    private int pins;
+    private volatile ScheduledFuture<?> lingerTimer;
+    private final Consumer<PingProbeResult> recorder;
+    private final Consumer<PingMonitorSession> onClosed;
+    private final List<Runnable> stopListeners = new CopyOnWriteArrayList<>();
+    private volatile ScheduledFuture<?> pending;
+    private volatile Process process;
+    private PingSequenceTracker tracker;
+    private long replyDeadline;
+
+    PingMonitorSession(
+            String target,
+            int intervalMs,
+            int timeoutMs,
+            int lingerMs,
+            int replayCapacity,
+            ScheduledExecutorService scheduler,
+            Executor probeExecutor,
+            Consumer<PingProbeResult> recorder,
+            Consumer<PingMonitorSession> onClosed
+    ) {
+        this.target = target;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        this.replay = new ReplayEvent[replayCapacity];
+        this.scheduler = scheduler;
+        this.probeExecutor = probeExecutor;
+        this.accumulator = new PingMonitorAccumulator(target);
+        this.recorder = recorder;
+        this.onClosed = onClosed;
+    }
+
+    /**
+     * Attaches a viewer; returns false when the loop is already shutting down and a new one must be started.
+     * A viewer reconnecting with the {@code Last-Event-ID} of this stream gets the buffered events it missed
+     * instead of a fresh start; its {@code started} event keeps that id, so a drop during the replay resumes
+     * from the same point, and a {@code gap} event says how many events had already left the ring. Membership is guarded by the subscriber list alone so close callbacks
+     * never wait on a send in progress.
+     */
+    synchronized boolean subscribe(MonitorSubscriber subscriber, String lastEventId) {
+        boolean first;
+        Viewer viewer = new Viewer(subscriber);
+        synchronized (subscribers) {
+            if (!active.get()) {
+                return false;
+            }
+            subscribers.add(viewer);
+            first = subscribers.size() == 1 && !started.get();
+            cancelLinger();
+        }
+        subscriber.onClose(() -> unsubscribe(subscriber));
+
+        long resumeFrom = resumePosition(lastEventId);
+        String message = resumeFrom >= 0
+                ? "Acompanhamento retomado."
+                : first ? "Monitoramento iniciado." : "Acompanhando monitoramento em andamento.";
+        viewer.offer(new Outgoing("started", eventId(resumeFrom >= 0 ? resumeFrom : sequence), accumulator.started(message)));
+        if (resumeFrom < 0) {
+            return true;
+        }
+        long oldest = Math.max(1, sequence - replay.length + 1);
+        if (resumeFrom + 1 < oldest) {
+            viewer.offer(new Outgoing("gap", eventId(oldest - 1), accumulator.gap(oldest - 1 - resumeFrom)));
+        }
+        for (long next = Math.max(resumeFrom + 1, oldest); next <= sequence; next++) {
+            ReplayEvent event = replay[slot(next)];
+            viewer.offer(new Outgoing(event.name(), eventId(next), event.payload()));
+        }
+        return true;
+    }
+
+    /**
+     * Keeps the probe loop alive for the linger period after the last viewer leaves, so a reconnect
+     * within it resumes the same statistics.
+     */
+    void unsubscribe(MonitorSubscriber subscriber) {
+        synchronized (subscribers) {
+            if (subscribers.removeIf(viewer -> viewer.subscriber == subscriber) && subscribers.isEmpty() && pins == 0) {
+                idle();
+            }
+        }
+    }
+
+    /**
+     * Keeps the loop running with no viewers attached; returns false when it is already shutting down.
+     */
+    boolean pin() {
+        synchronized (subscribers) {
+            if (!active.get()) {
+                return false;
+            }
+            pins++;
+            cancelLinger();
+            return true;
+        }
+    }
+
+    void unpin() {
+        synchronized (subscribers) {
+            if (pins > 0 && --pins == 0 && subscribers.isEmpty()) {
+                idle();
+            }
+        }
+    }
+
+    boolean isActive() {
+        return active.get();
+    }
+
+    /**
+     * Runs {@code listener} once when the loop stops, or right away if it already has. It may run while
+     * the session holds its own locks, so it should only hand work off.
+     */
+    void whenStopped(Runnable listener) {
+        stopListeners.add(listener);
+        if (!active.get() && stopListeners.remove(listener)) {
+            listener.run();
+        }
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * True for the single caller that must start the probe loop after the first subscriber joined.
+     */
+    boolean markStarted() {
+        return started.compareAndSet(false, true);
+    }
+
+    void startSampling(Callable<MonitorProbe> probeFactory) {
+        submit(() -> {
+            MonitorProbe probe = probeFactory.call();
+            sample(probe);
+        });
+    }
+
+    void startContinuous(Callable<Process> processStarter) {
+        submit(() -> {
+            Process started = processStarter.call();
+            process = started;
+            if (!active.get()) {
+                started.destroy();
+                return;
+            }
+
+            synchronized (this) {
+                tracker = new PingSequenceTracker();
+                replyDeadline = System.nanoTime() + timeoutNanos;
+            }
+            scheduleDeadlineCheck(timeoutNanos);
+            Thread.ofVirtual().name("ping-monitor-" + target).start(() -> readContinuous(started));
+        });
+    }
+
+    private void idle() {
+        if (lingerNanos == 0) {
+            stop();
+            return;
+        }
+        try {
+            lingerTimer = scheduler.schedule(this::stopIfIdle, lingerNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException exception) {
+            stop();
+        }
+    }
+
+    private void cancelLinger() {
+        ScheduledFuture<?> linger = lingerTimer;
+        if (linger != null) {
+            linger.cancel(false);
+        }
+    }
+
+    private void stopIfIdle() {
+        synchronized (subscribers) {
+            if (subscribers.isEmpty() && pins == 0) {
+                stop();
+            }
+        }
+    }
+
+    void stop() {
+        if (active.getAndSet(false)) {
+            onClosed.accept(this);
+            for (Runnable listener : stopListeners) {
+                if (stopListeners.remove(listener)) {
+                    listener.run();
+                }
+            }
+        }
+        ScheduledFuture<?> scheduled = pending;
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+        Process running = process;
+        if (running != null) {
+            running.destroy();
+        }
+    }
+
+    private void sample(MonitorProbe probe) throws Exception {
+        if (!active.get()) {
+            return;
+        }
+        PingProbeResult result = probe.probe((int) TimeUnit.NANOSECONDS.toMillis(timeoutNanos));
+        boolean sent;
+        synchronized (this) {
+            sent = active.get() && broadcast("sample", record(result));
+        }
+        if (sent) {
+            pending = scheduler.schedule(() -> submit(() -> sample(probe)), intervalNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void readContinuous(Process started) {
+        PingOutputScanner scanner = new PingOutputScanner(started.getInputStream());
+        try (scanner) {
+            while (active.get() && scanner.nextLine()) {
+                onLine(scanner);
+            }
+        } catch (Exception ignored) {
+        } finally {
+            started.destroy();
+        }
+
+        if (active.get()) {
+            String lastMessage = scanner.lastMessage();
+            fail(lastMessage != null ? lastMessage : "o processo de ping foi encerrado.");
+        }
+    }
+
+    private synchronized void onLine(PingOutputScanner scanner) {
+        if (!active.get()) {
+            return;
+        }
+        List<PingProbeResult> results = tracker.accept(scanner);
+        for (PingProbeResult result : results) {
+            if (!broadcast("sample", record(result))) {
+                return;
+            }
+        }
+        if (!results.isEmpty()) {
+            replyDeadline = System.nanoTime() + intervalNanos + timeoutNanos;
+        }
+    }
+
+    private void checkReplyDeadline() {
+        long remaining;
+        synchronized (this) {
+            if (!active.get()) {
+                return;
+            }
+            remaining = replyDeadline - System.nanoTime();
+            if (remaining <= 0) {
+                if (!broadcast("sample", record(tracker.expire()))) {
+                    return;
+                }
+                replyDeadline += intervalNanos;
+                remaining = replyDeadline - System.nanoTime();
+            }
+        }
+        scheduleDeadlineCheck(Math.max(0, remaining));
+    }
+
+    private void scheduleDeadlineCheck(long delayNanos) {
+        if (active.get()) {
+            pending = scheduler.schedule(() -> submit(this::checkReplyDeadline), delayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private PingMonitorEventDTO record(PingProbeResult result) {
+        recorder.accept(result);
+        return accumulator.sample(result);
+    }
+
+    private void submit(SessionTask task) {
+        if (!active.get()) {
+            return;
+        }
+        try {
+            probeExecutor.execute(() -> {
+                try {
+                    task.run();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    stop();
+                } catch (Exception exception) {
+                    fail(exception.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            stop();
+        }
+    }
+
+    private synchronized void fail(String reason) {
+        if (!active.get()) {
+            return;
+        }
+        PingMonitorEventDTO error = accumulator.error("Falha ao monitorar o alvo: " + reason);
+        List<Viewer> closing;
+        synchronized (subscribers) {
+            closing = List.copyOf(subscribers);
+            subscribers.clear();
+            stop();
+        }
+        for (Viewer viewer : closing) {
+            viewer.offer(new Outgoing("error", eventId(sequence), error));
+            viewer.offer(Outgoing.COMPLETE);
+        }
+    }
+
+    /**
+     * Queues one event for every subscriber; returns false once nobody is left to receive samples.
+     */
+    private synchronized boolean broadcast(String eventName, PingMonitorEventDTO payload) {
+        sequence++;
+        replay[slot(sequence)] = new ReplayEvent(eventName, payload);
+        Outgoing event = new Outgoing(eventName, eventId(sequence), payload);
+        for (Viewer viewer : subscribers) {
+            viewer.offer(event);
+        }
+        return active.get();
+    }
+
+    private long resumePosition(String lastEventId) {
+        if (lastEventId == null || !lastEventId.startsWith(streamId + ":")) {
+            return -1;
+        }
+        try {
+            long position = Long.parseLong(lastEventId.substring(streamId.length() + 1));
+            return position <= sequence ? position : -1;
+        } catch (NumberFormatException exception) {
+            return -1;
+        }
+    }
+
+    private String eventId(long position) {
+        return streamId + ":" + position;
+    }
+
+    private int slot(long position) {
+        return (int) (position % replay.length);
+    }
+
+    private record ReplayEvent(String name, PingMonitorEventDTO payload) {
+    }
+
+    /**
+     * An event waiting in a viewer's queue, or {@link #COMPLETE} to end the viewer's stream.
+     */
+    private record Outgoing(String name, String id, PingMonitorEventDTO payload) {
+
+        static final Outgoing COMPLETE = new Outgoing(null, null, null);
+    }
+
+    /**
+     * Per-subscriber queue. Offering never blocks; a writer thread is started whenever the queue goes
+     * from idle to non-empty and exits once it is drained again.
+     */
+    private final class Viewer {
+
+        private final MonitorSubscriber subscriber;
+        private final ArrayDeque<Outgoing> queue = new ArrayDeque<>();
+        private boolean writing;
+        private boolean closed;
+
+        private Viewer(MonitorSubscriber subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        void offer(Outgoing event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                // Room for a full replay plus the started and gap events of a resume.
+                if (event != Outgoing.COMPLETE && queue.size() > replay.length + 2) {
+                    queue.clear();
+                    event = Outgoing.COMPLETE;
+                }
+                if (event == Outgoing.COMPLETE) {
+                    closed = true;
+                }
+                queue.add(event);
+                if (writing) {
+                    return;
+                }
+                writing = true;
+            }
+            Thread.ofVirtual().name("monitor-writer-" + target).start(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                Outgoing next;
+                synchronized (this) {
+                    next = queue.poll();
+                    if (next == null) {
+                        writing = false;
+                        return;
+                    }
+                }
+                if (next == Outgoing.COMPLETE) {
+                    finish();
+                    return;
+                }
+                try {
+                    subscriber.send(next.name(), next.id(), next.payload());
+                } catch (Exception exception) {
+                    finish();
+                    return;
+                }
+            }
+        }
+
+        private void finish() {
+            synchronized (this) {
+                closed = true;
+                queue.clear();
+                writing = false;
+            }
+            unsubscribe(subscriber);
+            subscriber.complete();
+        }
+    }
+
+    @FunctionalInterface
+    private interface SessionTask {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,75 @@
+package com.project.suporte.ai.service;
+
+import com.project.suporte.ai.support.PingOutputScanner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Turns the output of one continuous {@code ping} process into samples, line by line. A reply
+ * whose {@code icmp_seq} skips ahead yields one lost sample per missing sequence; a reply that
+ * arrives after its sequence was already expired is dropped.
+ */
+class PingSequenceTracker {
+
+    private static final int SEQUENCE_SPACE = 1 << 16;
+
+    private int nextSequence = -1;
+
+    /**
+     * Consumes the line the scanner has just parsed.
+     */
+    List<PingProbeResult> accept(PingOutputScanner scanner) {
+        if (scanner.sequence() == PingOutputScanner.NONE) {
+            return List.of();
+        }
+
+        int sequence = scanner.sequence() % SEQUENCE_SPACE;
+        int gap = nextSequence < 0 ? 0 : Math.floorMod(sequence - nextSequence, SEQUENCE_SPACE);
+        if (gap >= SEQUENCE_SPACE / 2) {
+            return List.of();
+        }
+        if (gap == 0) {
+            nextSequence = (sequence + 1) % SEQUENCE_SPACE;
+            return List.of(reply(scanner));
+        }
+
+        List<PingProbeResult> results = new ArrayList<>(gap + 1);
+        for (int missing = 0; missing < gap; missing++) {
+            results.add(lost(nextSequence + missing));
+        }
+        nextSequence = (sequence + 1) % SEQUENCE_SPACE;
+        results.add(reply(scanner));
+        return results;
+    }
+
+    /**
+     * Called when no reply arrived within the interval plus the timeout: the pending sequence is lost.
+     */
+    PingProbeResult expire() {
+        if (nextSequence < 0) {
+            return new PingProbeResult(false, null, "Sem resposta do alvo.", 1);
+        }
+        PingProbeResult result = lost(nextSequence);
+        nextSequence = (nextSequence + 1) % SEQUENCE_SPACE;
+        return result;
+    }
+
+    private PingProbeResult reply(PingOutputScanner scanner) {
+        if (scanner.hasLatency()) {
+            double latencyMs = scanner.latencyMs();
+            return new PingProbeResult(true, latencyMs, "Ping OK em " + formatLatency(latencyMs) + " ms.", 0);
+        }
+        String line = scanner.line();
+        return new PingProbeResult(false, null, line.length() > 180 ? line.substring(0, 180) : line, 1);
+    }
+
+    private PingProbeResult lost(int sequence) {
+        return new PingProbeResult(false, null, "Sem resposta do alvo (icmp_seq=" + Math.floorMod(sequence, SEQUENCE_SPACE) + ").", 1);
+    }
+
+    private String formatLatency(double latencyMs) {
+        return latencyMs % 1 == 0 ? String.valueOf((long) latencyMs) : String.format(Locale.US, "%.2f", latencyMs);
+    }
+}
@@ -1,7 +1,6 @@
 package com.project.suporte.ai.service;
 
 import com.project.suporte.ai.support.TargetValidator;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
@@ -12,14 +11,17 @@ import java.util.Locale;
 public class PingService {
 
     private final TargetValidator targetValidator;
-    private final CommandStreamingService commandStreamingService;
+    private final CommandRunner commandRunner;
 
-    public PingService(TargetValidator targetValidator, CommandStreamingService commandStreamingService) {
+    public PingService(TargetValidator targetValidator, CommandRunner commandRunner) {
         this.targetValidator = targetValidator;
-        this.commandStreamingService = commandStreamingService;
+        this.commandRunner = commandRunner;
     }
 
-    @Async("diagnosticsExecutor")
+    /**
+     * Validates the target on the caller thread; the command itself runs on {@code diagnosticsExecutor}
+     * once {@link CommandRunner} admits it.
+     */
     public void executePing(SseEmitter emitter, String host, int count) {
         String target = targetValidator.normalizeTarget(host);
         boolean isWindows = System.getProperty("os.name").toLowerCase(Locale.ROOT).contains("win");
@@ -27,6 +29,6 @@ public class PingService {
                 ? List.of("ping", "-n", String.valueOf(count), target)
                 : List.of("ping", "-c", String.valueOf(count), target);
 
-        commandStreamingService.stream(emitter, "ping", target, command);
+        commandRunner.run(emitter, "ping", target, command);
     }
 }
@@ -0,0 +1,100 @@
+package com.project.suporte.ai.service;
+
+import com.project.suporte.ai.dto.PortScanJobDTO;
+
+import java.time.Instant;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+class PortScanJob {
+
+    enum Status { RUNNING, COMPLETED, CANCELLED }
+
+    private final String id = UUID.randomUUID().toString();
+    private final String host;
+    private final int totalPorts;
+    private final PortScanRun run;
+    private final PortScanTally tally;
+    private final Supplier<Double> smoothedRttMs;
+    private final boolean reportServices;
+    private final Instant createdAt = Instant.now();
+    private Status status = Status.RUNNING;
+    private Instant finishedAt;
+
+    PortScanJob(
+            String host,
+            int totalPorts,
+            PortScanRun run,
+            PortScanTally tally,
+            Supplier<Double> smoothedRttMs,
+            boolean reportServices
+    ) {
+        this.host = host;
+        this.totalPorts = totalPorts;
+        this.run = run;
+        this.tally = tally;
+        this.smoothedRttMs = smoothedRttMs;
+        this.reportServices = reportServices;
+    }
+
+    String id() {
+        return id;
+    }
+
+    PortScanRun run() {
+        return run;
+    }
+
+    synchronized boolean running() {
+        return status == Status.RUNNING;
+    }
+
+    synchronized boolean markCancelled() {
+        if (status != Status.RUNNING) {
+            return false;
+        }
+        status = Status.CANCELLED;
+        finishedAt = Instant.now();
+        return true;
+    }
+
+    synchronized void markCompleted() {
+        if (status == Status.RUNNING) {
+            status = Status.COMPLETED;
+            finishedAt = Instant.now();
+        }
+    }
+
+    synchronized Instant finishedAt() {
+        return finishedAt;
+    }
+
+    PortScanJobDTO snapshot() {
+        Status currentStatus;
+        Instant currentFinishedAt;
+        synchronized (this) {
+            currentStatus = status;
+            currentFinishedAt = finishedAt;
+        }
+
+        int completed = tally.openCount() + tally.closedCount() + tally.filteredCount();
+        double progress = totalPorts == 0 ? 100.0 : Math.round(completed * 1_000.0 / totalPorts) / 10.0;
+        return new PortScanJobDTO(
+                id,
+                currentStatus.name().toLowerCase(Locale.ROOT),
+                host,
+                totalPorts,
+                completed,
+                progress,
+                tally.openPorts(),
+                tally.openRanges(),
+                tally.closedRanges(),
+                tally.filteredRanges(),
+                reportServices ? tally.services() : null,
+                smoothedRttMs.get(),
+                createdAt,
+                currentFinishedAt
+        );
+    }
+}
@@ -0,0 +1,69 @@
+package com.project.suporte.ai.service;
+
+import com.project.suporte.ai.exceptions.ApiException;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Recent scan jobs in submission order. Finished jobs are evicted after {@code retention}, or
+ * oldest-first when the registry is full; running jobs are never evicted.
+ */
+class PortScanJobRegistry {
+
+    private final int maxJobs;
+    private final Duration retention;
+    private final LinkedHashMap<String, PortScanJob> jobs = new LinkedHashMap<>();
+
+    PortScanJobRegistry(int maxJobs, Duration retention) {
+        this.maxJobs = maxJobs;
+        this.retention = retention;
+    }
+
+    synchronized void register(PortScanJob job) {
+        evictExpired(Instant.now());
+        if (jobs.size() >= maxJobs) {
+            evictOldestFinished();
+        }
+        if (jobs.size() >= maxJobs) {
+            throw new ApiException(
+                    HttpStatus.TOO_MANY_REQUESTS,
+                    "too_many_jobs",
+                    "Há varreduras demais em andamento. Aguarde ou cancele uma delas."
+            );
+        }
+        jobs.put(job.id(), job);
+    }
+
+    synchronized PortScanJob find(String id) {
+        evictExpired(Instant.now());
+        PortScanJob job = jobs.get(id);
+        if (job == null) {
+            throw new ApiException(HttpStatus.NOT_FOUND, "job_not_found", "Varredura não encontrada ou já expirada.");
+        }
+        return job;
+    }
+
+    synchronized int size() {
+        return jobs.size();
+    }
+
+    private void evictExpired(Instant now) {
+        Instant cutoff = now.minus(retention);
+        jobs.values().removeIf(job -> job.finishedAt() != null && job.finishedAt().isBefore(cutoff));
+    }
+
+    private void evictOldestFinished() {
+        Iterator<Map.Entry<String, PortScanJob>> iterator = jobs.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (!iterator.next().getValue().running()) {
+                iterator.remove();
+                return;
+            }
+        }
+    }
+}
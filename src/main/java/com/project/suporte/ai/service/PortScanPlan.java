@@ -0,0 +1,30 @@
+package com.project.suporte.ai.service;
+
+import com.project.suporte.ai.support.PortSet;
+import com.project.suporte.ai.support.RttEstimator;
+
+import java.net.InetAddress;
+import java.util.List;
+
+record PortScanPlan(
+        String host,
+        List<InetAddress> addresses,
+        PortSet ports,
+        int timeout,
+        RttEstimator rttEstimator,
+        int readTimeoutMs,
+        boolean readCache,
+        int attemptDelayMs
+) {
+
+    boolean dualStack() {
+        return addresses.size() > 1;
+    }
+
+    Double smoothedRttMs() {
+        if (rttEstimator == null || rttEstimator.smoothedRttMs() == null) {
+            return null;
+        }
+        return Math.round(rttEstimator.smoothedRttMs() * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,360 @@
+package com.project.suporte.ai.service;
+
+import com.project.suporte.ai.dto.PortScanFamilyDTO;
+import com.project.suporte.ai.support.PortProbe;
+import com.project.suporte.ai.support.PortProbeCache;
+import com.project.suporte.ai.support.PortProbeResult;
+import com.project.suporte.ai.support.PortSet;
+import com.project.suporte.ai.support.PortState;
+import com.project.suporte.ai.support.RttEstimator;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.IntSupplier;
+
+class PortScanRun {
+
+    private final PortScanPlan plan;
+    private final PortProbeCache cache;
+    private final int window;
+    private final BiConsumer<Integer, PortProbeResult> onResult;
+    private final Map<InetAddress, PortScanTally> familyTallies = new LinkedHashMap<>();
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+    private final Set<CompletableFuture<PortProbeResult>> inFlightProbes = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+    private int cursor = PortSet.MIN_PORT;
+    private int inFlight;
+    private boolean parked;
+
+    PortScanRun(PortScanPlan plan, PortProbeCache cache, int window, BiConsumer<Integer, PortProbeResult> onResult) {
+        this.plan = plan;
+        this.cache = cache;
+        this.window = window;
+        this.onResult = onResult;
+        if (plan.dualStack()) {
+            plan.addresses().forEach(address -> familyTallies.put(address, new PortScanTally()));
+        }
+    }
+
+    PortScanPlan plan() {
+        return plan;
+    }
+
+    String host() {
+        return plan.host();
+    }
+
+    List<PortScanFamilyDTO> families() {
+        if (familyTallies.isEmpty()) {
+            return null;
+        }
+        return familyTallies.entrySet().stream()
+                .map(entry -> entry.getValue().family(entry.getKey()))
+                .toList();
+    }
+
+    CompletableFuture<Void> completion() {
+        return done;
+    }
+
+    boolean hasNext() {
+        return !cancelled && plan.ports().nextPort(cursor) >= 0;
+    }
+
+    boolean cancelled() {
+        return cancelled;
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    void track(CompletableFuture<PortProbeResult> probe) {
+        inFlightProbes.add(probe);
+        if (cancelled) {
+            probe.cancel(false);
+        }
+    }
+
+    void untrack(CompletableFuture<PortProbeResult> probe) {
+        inFlightProbes.remove(probe);
+    }
+
+    void cancelInFlight() {
+        inFlightProbes.forEach(probe -> probe.cancel(false));
+    }
+
+    boolean hasCapacity() {
+        return inFlight < window;
+    }
+
+    int next() {
+        int port = plan.ports().nextPort(cursor);
+        cursor = port + 1;
+        inFlight++;
+        return port;
+    }
+
+    void released() {
+        inFlight--;
+    }
+
+    boolean idle() {
+        return inFlight == 0;
+    }
+
+    boolean parked() {
+        return parked;
+    }
+
+    void parked(boolean parked) {
+        this.parked = parked;
+    }
+
+    CompletableFuture<PortProbeResult> probe(int port, PortScanScheduler scheduler, PortProbe portProbe, Executor executor) {
+        if (plan.dualStack()) {
+            return new AttemptRace(port, scheduler, portProbe, executor).start();
+        }
+        return probe(new InetSocketAddress(plan.addresses().get(0), port), portProbe, executor);
+    }
+
+    private CompletableFuture<PortProbeResult> probe(InetSocketAddress address, PortProbe portProbe, Executor executor) {
+        AtomicInteger usedTimeoutMs = new AtomicInteger(plan.timeout());
+        if (cache == null) {
+            return probeUncached(address, portProbe, executor, usedTimeoutMs);
+        }
+
+        if (plan.readCache()) {
+            PortProbeResult cached = cache.get(address, plan.timeout(), plan.readTimeoutMs() > 0);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
+        CompletableFuture<PortProbeResult> future = probeUncached(address, portProbe, executor, usedTimeoutMs);
+        future.thenAccept(result -> cache.put(address, result, usedTimeoutMs.get()));
+        return future;
+    }
+
+    /**
+     * {@code usedTimeoutMs} ends up holding the connect timeout the probe actually ran with, which the
+     * adaptive estimator may have lowered below {@link PortScanPlan#timeout()}.
+     */
+    private CompletableFuture<PortProbeResult> probeUncached(
+            InetSocketAddress address,
+            PortProbe portProbe,
+            Executor executor,
+            AtomicInteger usedTimeoutMs
+    ) {
+        RttEstimator rttEstimator = plan.rttEstimator();
+        IntSupplier adaptiveTimeout = rttEstimator == null ? null : () -> {
+            int timeoutMs = rttEstimator.timeoutMs();
+            usedTimeoutMs.set(timeoutMs);
+            return timeoutMs;
+        };
+        if (plan.readTimeoutMs() > 0) {
+            IntSupplier timeout = adaptiveTimeout == null ? plan::timeout : adaptiveTimeout;
+            return portProbe.probeServiceAsync(address, timeout, plan.readTimeoutMs(), executor);
+        }
+        return adaptiveTimeout == null
+                ? portProbe.probeAsync(address, plan.timeout(), executor)
+                : portProbe.probeAsync(address, adaptiveTimeout, executor);
+    }
+
+    void deliver(int port, PortProbeResult result) {
+        RttEstimator rttEstimator = plan.rttEstimator();
+        if (rttEstimator != null && !result.cached() && result.state() != PortState.FILTERED) {
+            rttEstimator.sample(result.elapsedNanos());
+        }
+        onResult.accept(port, result);
+    }
+
+    /**
+     * RFC 8305 style attempt race for one port: the next address family is tried as soon as the
+     * previous attempt fails, or after the connection attempt delay while it is still pending. The
+     * first open attempt wins; attempts still in flight are cancelled and later ones never start, so
+     * a family only reports the ports it probed before the race was decided.
+     * <p>
+     * Every connect holds one scheduler permit. The first attempt uses the permit the port was
+     * launched with; a delayed attempt waits for one of its own, and a failed attempt hands its permit
+     * straight to the next family.
+     */
+    private final class AttemptRace {
+
+        private final int port;
+        private final PortScanScheduler scheduler;
+        private final PortProbe portProbe;
+        private final Executor executor;
+        private final List<InetAddress> addresses = plan.addresses();
+        private final PortProbeResult[] results = new PortProbeResult[addresses.size()];
+        private final List<CompletableFuture<PortProbeResult>> attempts = new CopyOnWriteArrayList<>();
+        private final CompletableFuture<PortProbeResult> combined = new CompletableFuture<>();
+        private int nextIndex;
+        private int running;
+        private int permits = 1;
+        private Runnable waiting;
+
+        private AttemptRace(int port, PortScanScheduler scheduler, PortProbe portProbe, Executor executor) {
+            this.port = port;
+            this.scheduler = scheduler;
+            this.portProbe = portProbe;
+            this.executor = executor;
+        }
+
+        private CompletableFuture<PortProbeResult> start() {
+            combined.whenComplete((result, error) -> {
+                attempts.forEach(attempt -> attempt.cancel(false));
+                Runnable pending;
+                synchronized (this) {
+                    pending = waiting;
+                    waiting = null;
+                }
+                if (pending != null) {
+                    scheduler.withdrawConnect(pending);
+                }
+            });
+            synchronized (this) {
+                running++;
+                nextIndex = 1;
+            }
+            launch(0);
+            return combined;
+        }
+
+        /**
+         * Starts attempt {@code index} on a permit the caller already counted in {@link #permits}.
+         */
+        private void launch(int index) {
+            if (index + 1 < addresses.size()) {
+                CompletableFuture.delayedExecutor(plan.attemptDelayMs(), TimeUnit.MILLISECONDS, executor)
+                        .execute(() -> delayed(index + 1));
+            }
+
+            InetAddress address = addresses.get(index);
+            CompletableFuture<PortProbeResult> attempt = probe(new InetSocketAddress(address, port), portProbe, executor);
+            attempts.add(attempt);
+            if (combined.isDone()) {
+                attempt.cancel(false);
+            }
+            attempt.whenComplete((result, error) -> completed(index, address, result, error));
+        }
+
+        private void delayed(int index) {
+            Runnable granted = new Runnable() {
+                @Override
+                public void run() {
+                    granted(index, this);
+                }
+            };
+            synchronized (this) {
+                if (combined.isDone() || nextIndex != index) {
+                    return;
+                }
+                waiting = granted;
+            }
+            scheduler.acquireConnect(granted);
+        }
+
+        private void granted(int index, Runnable request) {
+            synchronized (this) {
+                if (waiting == request && !combined.isDone() && nextIndex == index) {
+                    waiting = null;
+                    permits++;
+                    running++;
+                    nextIndex = index + 1;
+                } else {
+                    request = null;
+                }
+            }
+            if (request == null) {
+                scheduler.releaseConnect();
+                return;
+            }
+            launch(index);
+        }
+
+        private void completed(int index, InetAddress address, PortProbeResult result, Throwable error) {
+            if (result != null && !cancelled) {
+                familyTallies.get(address).record(port, result);
+            }
+
+            int handOver = -1;
+            boolean release = false;
+            boolean exhausted;
+            PortProbeResult outcome;
+            Runnable withdrawn = null;
+            synchronized (this) {
+                running--;
+                results[index] = result;
+                boolean lost = error != null || !result.open();
+                if (lost && !combined.isDone() && nextIndex < addresses.size()) {
+                    handOver = nextIndex++;
+                    running++;
+                    withdrawn = waiting;
+                    waiting = null;
+                } else if (permits > 1) {
+                    permits--;
+                    release = true;
+                }
+                exhausted = lost && running == 0 && nextIndex == addresses.size();
+                outcome = !lost ? result : exhausted ? combine() : null;
+            }
+
+            if (withdrawn != null) {
+                scheduler.withdrawConnect(withdrawn);
+            }
+            if (release) {
+                scheduler.releaseConnect();
+            }
+            if (outcome != null) {
+                combined.complete(outcome);
+            } else if (exhausted) {
+                combined.completeExceptionally(error);
+            }
+            if (handOver >= 0) {
+                launch(handOver);
+            }
+        }
+
+        /**
+         * Best state among the attempts that returned a result, or null when all of them failed.
+         */
+        private PortProbeResult combine() {
+            PortProbeResult best = null;
+            boolean allCached = true;
+            for (PortProbeResult result : results) {
+                if (result == null) {
+                    continue;
+                }
+                if (best == null || rank(result.state()) > rank(best.state())) {
+                    best = result;
+                }
+                allCached &= result.cached();
+            }
+            if (best == null) {
+                return null;
+            }
+            return best.cached() == allCached
+                    ? best
+                    : new PortProbeResult(best.state(), best.elapsedNanos(), best.service(), allCached);
+        }
+
+        private int rank(PortState state) {
+            return switch (state) {
+                case OPEN -> 2;
+                case CLOSED -> 1;
+                case FILTERED -> 0;
+            };
+        }
+    }
+}
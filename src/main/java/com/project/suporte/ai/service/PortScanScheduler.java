@@ -0,0 +1,164 @@
+package com.project.suporte.ai.service;
+
+import com.project.suporte.ai.support.PortProbe;
+import com.project.suporte.ai.support.PortProbeResult;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class PortScanScheduler {
+
+    private final PortProbe portProbe;
+    private final Executor executor;
+    private final ArrayDeque<PortScanRun> ready = new ArrayDeque<>();
+    private final ArrayDeque<Runnable> extraConnects = new ArrayDeque<>();
+    private final AtomicInteger pumping = new AtomicInteger();
+    private int available;
+
+    PortScanScheduler(PortProbe portProbe, Executor executor, int globalBudget) {
+        this.portProbe = portProbe;
+        this.executor = executor;
+        this.available = globalBudget;
+    }
+
+    CompletableFuture<Void> schedule(List<PortScanRun> runs) {
+        List<PortScanRun> empty = new ArrayList<>();
+        synchronized (this) {
+            for (PortScanRun run : runs) {
+                if (run.hasNext()) {
+                    ready.addLast(run);
+                } else {
+                    empty.add(run);
+                }
+            }
+        }
+        empty.forEach(run -> run.completion().complete(null));
+        pump();
+
+        return CompletableFuture.allOf(runs.stream().map(PortScanRun::completion).toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Stops handing out ports to {@code run} and cancels its in-flight probes; the run completes
+     * once those probes have released their permits.
+     */
+    void cancel(PortScanRun run) {
+        boolean finished;
+        synchronized (this) {
+            run.cancel();
+            ready.remove(run);
+            finished = run.idle();
+        }
+
+        run.cancelInFlight();
+        if (finished) {
+            run.completion().complete(null);
+        }
+        pump();
+    }
+
+    synchronized int available() {
+        return available;
+    }
+
+    /**
+     * Queues a connect beyond the one each port starts with, such as the next address family of a
+     * dual-stack race. {@code granted} runs once a permit is free, ahead of new ports, and its owner
+     * returns the permit with {@link #releaseConnect()}.
+     */
+    void acquireConnect(Runnable granted) {
+        synchronized (this) {
+            extraConnects.addLast(granted);
+        }
+        pump();
+    }
+
+    /**
+     * Drops a queued {@link #acquireConnect} request; false when its permit was already granted.
+     */
+    synchronized boolean withdrawConnect(Runnable granted) {
+        return extraConnects.remove(granted);
+    }
+
+    void releaseConnect() {
+        synchronized (this) {
+            available++;
+        }
+        pump();
+    }
+
+    private void pump() {
+        if (pumping.getAndIncrement() != 0) {
+            return;
+        }
+
+        do {
+            while (true) {
+                Runnable extraConnect;
+                PortScanRun run = null;
+                int port = 0;
+                synchronized (this) {
+                    if (available == 0 || (extraConnects.isEmpty() && ready.isEmpty())) {
+                        break;
+                    }
+
+                    available--;
+                    extraConnect = extraConnects.pollFirst();
+                    if (extraConnect == null) {
+                        run = ready.pollFirst();
+                        port = run.next();
+                        if (run.hasNext()) {
+                            if (run.hasCapacity()) {
+                                ready.addLast(run);
+                            } else {
+                                run.parked(true);
+                            }
+                        }
+                    }
+                }
+                if (extraConnect != null) {
+                    extraConnect.run();
+                } else {
+                    launch(run, port);
+                }
+            }
+        } while (pumping.decrementAndGet() != 0);
+    }
+
+    private void launch(PortScanRun run, int port) {
+        CompletableFuture<PortProbeResult> probe = run.probe(port, this, portProbe, executor);
+        run.track(probe);
+        probe.whenComplete((result, error) -> {
+            run.untrack(probe);
+            try {
+                if (result != null && !run.cancelled()) {
+                    run.deliver(port, result);
+                }
+            } finally {
+                release(run);
+            }
+        });
+    }
+
+    private void release(PortScanRun run) {
+        boolean finished;
+        synchronized (this) {
+            available++;
+            run.released();
+            if (run.parked() && run.hasNext()) {
+                run.parked(false);
+                ready.addLast(run);
+            }
+            finished = run.idle() && !run.hasNext();
+        }
+
+        if (finished) {
+            run.completion().complete(null);
+        }
+        pump();
+    }
+}
@@ -1,27 +1,44 @@
 package com.project.suporte.ai.service;
 
 import com.project.suporte.ai.config.DiagnosticsProperties;
+import com.project.suporte.ai.dto.PortScanBatchRequestDTO;
+import com.project.suporte.ai.dto.PortScanEventDTO;
+import com.project.suporte.ai.dto.PortScanJobDTO;
 import com.project.suporte.ai.dto.PortScanRequestDTO;
 import com.project.suporte.ai.dto.PortScanResponseDTO;
 import com.project.suporte.ai.exceptions.ApiException;
 import com.project.suporte.ai.support.PortProbe;
+import com.project.suporte.ai.support.PortProbeCache;
+import com.project.suporte.ai.support.PortProbeResult;
+import com.project.suporte.ai.support.PortScanTarget;
+import com.project.suporte.ai.support.PortSet;
+import com.project.suporte.ai.support.PortState;
+import com.project.suporte.ai.support.RttEstimator;
+import com.project.suporte.ai.support.ServiceBanner;
 import com.project.suporte.ai.support.TargetValidator;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
 
 @Service
 public class PortScanService {
 
     private final TargetValidator targetValidator;
-    private final PortProbe portProbe;
-    private final Executor executor;
     private final DiagnosticsProperties properties;
+    private final PortScanScheduler scheduler;
+    private final PortProbeCache probeCache;
+    private final PortScanJobRegistry jobRegistry;
 
     public PortScanService(
             TargetValidator targetValidator,
@@ -30,40 +47,337 @@ public class PortScanService {
             DiagnosticsProperties properties
     ) {
         this.targetValidator = targetValidator;
-        this.portProbe = portProbe;
-        this.executor = executor;
         this.properties = properties;
+        this.scheduler = new PortScanScheduler(portProbe, executor, properties.getPortscan().getGlobalMaxInFlight());
+        this.probeCache = new PortProbeCache(
+                Duration.ofSeconds(properties.getCache().getPortscanOpenTtlSeconds()),
+                Duration.ofSeconds(properties.getCache().getPortscanClosedTtlSeconds()),
+                Duration.ofSeconds(properties.getCache().getPortscanFilteredTtlSeconds()),
+                properties.getCache().getPortscanMaxEntries()
+        );
+        this.jobRegistry = new PortScanJobRegistry(
+                properties.getPortscan().getMaxJobs(),
+                Duration.ofSeconds(properties.getPortscan().getJobRetentionSeconds())
+        );
     }
 
     public PortScanResponseDTO scanPorts(PortScanRequestDTO request) {
-        String host = targetValidator.normalizePortScanTarget(request.host());
-        List<Integer> ports = request.ports().stream().distinct().sorted().toList();
-        if (ports.size() > properties.getPortscan().getMaxPorts()) {
+        PortScanPlan plan = prepare(request);
+        PortScanTally tally = new PortScanTally();
+        PortScanRun run = newRun(plan, tally::record);
+
+        scheduler.schedule(List.of(run)).join();
+
+        return new PortScanResponseDTO(
+                plan.host(),
+                tally.openPorts(),
+                plan.ports().size(),
+                tally.openRanges(),
+                tally.closedRanges(),
+                tally.filteredRanges(),
+                plan.smoothedRttMs(),
+                plan.readTimeoutMs() > 0 ? tally.services() : null,
+                tally.cachedCount(),
+                run.families()
+        );
+    }
+
+    public void streamScan(SseEmitter emitter, PortScanRequestDTO request) {
+        PortScanPlan plan = prepare(request);
+        AtomicBoolean active = new AtomicBoolean(true);
+        PortScanTally tally = new PortScanTally();
+        int totalPorts = plan.ports().size();
+        PortScanRun run = newRun(plan, (port, result) -> {
+            tally.record(port, result);
+            if (active.get()) {
+                safeSend(emitter, active, portEvent(plan.host(), port, result));
+            }
+        });
+        registerCallbacks(emitter, active, () -> scheduler.cancel(run));
+
+        safeSend(emitter, active, PortScanEventDTO.started(plan.host(), totalPorts, null, "Varredura iniciada."));
+
+        scheduler.schedule(List.of(run)).whenComplete((ignored, error) -> {
+            if (active.compareAndSet(true, false)) {
+                sendFinal(emitter, summaryEvent("completed", run, tally, "Varredura concluída.", true));
+                emitter.complete();
+            }
+        });
+    }
+
+    public void streamBatchScan(SseEmitter emitter, PortScanBatchRequestDTO request) {
+        List<PortScanTarget> hosts = resolveBatchHosts(request);
+        PortSet ports = preparePorts(request.ports(), request.range());
+        if ((long) hosts.size() * ports.size() > properties.getPortscan().getMaxBatchProbes()) {
             throw new ApiException(
                     HttpStatus.BAD_REQUEST,
-                    "too_many_ports",
-                    "A quantidade de portas excede o limite permitido por requisição."
+                    "too_many_probes",
+                    "A combinação de hosts e portas excede o limite de sondagens por varredura."
             );
         }
+        int timeout = resolveTimeout(request.timeout());
+        boolean adaptive = request.adaptiveTimeout() != null
+                ? request.adaptiveTimeout()
+                : properties.getPortscan().isAdaptiveTimeout();
+        int readTimeoutMs = resolveReadTimeout(request.detectServices());
+        boolean dualStack = resolveDualStack(request.dualStack());
+
+        AtomicBoolean active = new AtomicBoolean(true);
+        List<PortScanRun> runs = new ArrayList<>(hosts.size());
+        List<PortScanTally> tallies = new ArrayList<>(hosts.size());
+        for (PortScanTarget target : hosts) {
+            String host = target.host();
+            PortScanPlan plan = newPlan(
+                    target, ports, timeout, adaptive, readTimeoutMs, !Boolean.TRUE.equals(request.bypassCache()), dualStack
+            );
+            PortScanTally tally = new PortScanTally();
+            PortScanRun run = newRun(plan, (port, result) -> {
+                tally.record(port, result);
+                if (active.get()) {
+                    safeSend(emitter, active, portEvent(host, port, result));
+                }
+            });
+            run.completion().whenComplete((ignored, error) -> {
+                if (active.get()) {
+                    safeSend(emitter, active, summaryEvent(
+                            "host_completed", run, tally, "Varredura de " + host + " concluída.", false
+                    ));
+                }
+            });
+            runs.add(run);
+            tallies.add(tally);
+        }
+
+        // Registered only once runs is complete: the callback iterates it from the container thread.
+        registerCallbacks(emitter, active, () -> runs.forEach(scheduler::cancel));
+        safeSend(emitter, active, PortScanEventDTO.started(
+                null, ports.size(), hosts.size(), "Varredura de " + hosts.size() + " hosts iniciada."
+        ));
+
+        scheduler.schedule(runs).whenComplete((ignored, error) -> {
+            if (active.compareAndSet(true, false)) {
+                sendFinal(emitter, PortScanEventDTO.batchCompleted(
+                        ports.size(), hosts.size(),
+                        tallies.stream().mapToInt(PortScanTally::openCount).sum(),
+                        tallies.stream().mapToInt(PortScanTally::closedCount).sum(),
+                        tallies.stream().mapToInt(PortScanTally::filteredCount).sum(),
+                        tallies.stream().mapToInt(PortScanTally::cachedCount).sum(),
+                        "Varredura de " + hosts.size() + " hosts concluída."
+                ));
+                emitter.complete();
+            }
+        });
+    }
+
+    public PortScanJobDTO submitJob(PortScanRequestDTO request) {
+        PortScanPlan plan = prepare(request);
+        PortScanTally tally = new PortScanTally();
+        PortScanRun run = newRun(plan, tally::record);
+        PortScanJob job = new PortScanJob(
+                plan.host(), plan.ports().size(), run, tally, plan::smoothedRttMs, plan.readTimeoutMs() > 0
+        );
+
+        jobRegistry.register(job);
+        scheduler.schedule(List.of(run)).whenComplete((ignored, error) -> job.markCompleted());
+        return job.snapshot();
+    }
+
+    public PortScanJobDTO getJob(String id) {
+        return jobRegistry.find(id).snapshot();
+    }
+
+    public PortScanJobDTO cancelJob(String id) {
+        PortScanJob job = jobRegistry.find(id);
+        if (job.markCancelled()) {
+            scheduler.cancel(job.run());
+        }
+        return job.snapshot();
+    }
+
+    private List<PortScanTarget> resolveBatchHosts(PortScanBatchRequestDTO request) {
+        int maxHosts = properties.getPortscan().getMaxHosts();
+        Map<String, PortScanTarget> hosts = new LinkedHashMap<>();
+        if (request.hosts() != null) {
+            for (String host : request.hosts()) {
+                PortScanTarget target = targetValidator.resolvePortScanTarget(host);
+                hosts.putIfAbsent(target.host(), target);
+            }
+        }
+        if (request.cidr() != null && !request.cidr().isBlank()) {
+            targetValidator.expandPortScanCidr(request.cidr(), maxHosts)
+                    .forEach(target -> hosts.putIfAbsent(target.host(), target));
+        }
+
+        if (hosts.isEmpty()) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "invalid_target", "Informe ao menos um host para a varredura.");
+        }
+        if (hosts.size() > maxHosts) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "too_many_hosts", "A quantidade de hosts excede o limite permitido por requisição.");
+        }
+        return List.copyOf(hosts.values());
+    }
+
+    private PortScanPlan prepare(PortScanRequestDTO request) {
+        PortScanTarget target = targetValidator.resolvePortScanTarget(request.host());
+        PortSet ports = preparePorts(request.ports(), request.range());
+        int timeout = resolveTimeout(request.timeout());
+        boolean adaptive = request.adaptiveTimeout() != null
+                ? request.adaptiveTimeout()
+                : properties.getPortscan().isAdaptiveTimeout();
+
+        return newPlan(
+                target,
+                ports,
+                timeout,
+                adaptive,
+                resolveReadTimeout(request.detectServices()),
+                !Boolean.TRUE.equals(request.bypassCache()),
+                resolveDualStack(request.dualStack())
+        );
+    }
+
+    private PortScanPlan newPlan(
+            PortScanTarget target,
+            PortSet ports,
+            int timeout,
+            boolean adaptive,
+            int readTimeoutMs,
+            boolean readCache,
+            boolean dualStack
+    ) {
+        return new PortScanPlan(
+                target.host(),
+                dualStack ? target.dualStack() : List.of(target.preferred()),
+                ports,
+                timeout,
+                newRttEstimator(adaptive, timeout),
+                readTimeoutMs,
+                readCache,
+                properties.getPortscan().getConnectionAttemptDelayMs()
+        );
+    }
+
+    private PortSet preparePorts(List<Integer> explicit, String range) {
+        PortSet ports = new PortSet();
+
+        if (explicit != null) {
+            PortSet explicitPorts = PortSet.of(explicit);
+            if (explicitPorts.size() > properties.getPortscan().getMaxPorts()) {
+                throw tooManyPorts();
+            }
+            ports.addAll(explicitPorts);
+        }
+        if (range != null && !range.isBlank()) {
+            ports.addAll(PortSet.parse(range));
+        }
+
+        if (ports.isEmpty()) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "invalid_ports", "Informe ao menos uma porta para a varredura.");
+        }
+        if (ports.size() > properties.getPortscan().getMaxRangePorts()) {
+            throw tooManyPorts();
+        }
+        return ports;
+    }
 
-        int timeout = request.timeout() != null ? request.timeout() : properties.getPortscan().getDefaultTimeoutMs();
+    private int resolveTimeout(Integer requested) {
+        int timeout = requested != null ? requested : properties.getPortscan().getDefaultTimeoutMs();
         if (timeout > properties.getPortscan().getMaxTimeoutMs()) {
             throw new ApiException(HttpStatus.BAD_REQUEST, "invalid_timeout", "O timeout informado excede o máximo permitido.");
         }
+        return timeout;
+    }
+
+    private int resolveReadTimeout(Boolean detectServices) {
+        boolean enabled = detectServices != null ? detectServices : properties.getPortscan().isServiceDetection();
+        return enabled ? properties.getPortscan().getBannerTimeoutMs() : 0;
+    }
+
+    private boolean resolveDualStack(Boolean requested) {
+        return requested != null ? requested : properties.getPortscan().isDualStack();
+    }
 
-        List<CompletableFuture<Integer>> futures = ports.stream()
-                .map(port -> CompletableFuture.supplyAsync(
-                        () -> portProbe.isOpen(new InetSocketAddress(host, port), timeout) ? port : null,
-                        executor
-                ))
-                .toList();
+    private RttEstimator newRttEstimator(boolean adaptive, int timeout) {
+        return adaptive
+                ? new RttEstimator(
+                        timeout,
+                        properties.getPortscan().getAdaptiveMinTimeoutMs(),
+                        properties.getPortscan().getMaxTimeoutMs(),
+                        properties.getPortscan().getTimerTickMs())
+                : null;
+    }
+
+    private PortScanRun newRun(PortScanPlan plan, BiConsumer<Integer, PortProbeResult> onResult) {
+        return new PortScanRun(plan, probeCache, properties.getPortscan().getScanWindow(), onResult);
+    }
+
+    private ApiException tooManyPorts() {
+        return new ApiException(
+                HttpStatus.BAD_REQUEST,
+                "too_many_ports",
+                "A quantidade de portas excede o limite permitido por requisição."
+        );
+    }
+
+    private PortScanEventDTO portEvent(String host, int port, PortProbeResult result) {
+        String type = result.state().name().toLowerCase(Locale.ROOT);
+        String message = switch (result.state()) {
+            case OPEN -> "Porta " + port + " aberta.";
+            case CLOSED -> "Porta " + port + " fechada.";
+            case FILTERED -> "Porta " + port + " filtrada ou sem resposta.";
+        };
+        Double connectMs = result.state() == PortState.FILTERED
+                ? null
+                : Math.round(result.elapsedNanos() / 10_000.0) / 100.0;
+
+        ServiceBanner service = result.service();
+
+        return PortScanEventDTO.port(
+                type, host, port, connectMs,
+                service != null ? service.service() : null, service != null ? service.banner() : null,
+                result.cached() ? Boolean.TRUE : null,
+                message
+        );
+    }
+
+    private PortScanEventDTO summaryEvent(String type, PortScanRun run, PortScanTally tally, String message, boolean finished) {
+        PortScanPlan plan = run.plan();
+        return PortScanEventDTO.summary(
+                type, plan.host(),
+                tally.openPorts(), tally.openRanges(), tally.closedRanges(), tally.filteredRanges(), run.families(),
+                plan.ports().size(), tally.openCount(), tally.closedCount(), tally.filteredCount(), tally.cachedCount(),
+                plan.smoothedRttMs(), message, finished
+        );
+    }
+
+    private void registerCallbacks(SseEmitter emitter, AtomicBoolean active, Runnable cancelScan) {
+        emitter.onCompletion(() -> {
+            active.set(false);
+            cancelScan.run();
+        });
+        emitter.onTimeout(() -> {
+            active.set(false);
+            cancelScan.run();
+        });
+        emitter.onError(error -> {
+            active.set(false);
+            cancelScan.run();
+        });
+    }
 
-        List<Integer> openPorts = futures.stream()
-                .map(CompletableFuture::join)
-                .filter(port -> port != null)
-                .sorted()
-                .toList();
+    private void safeSend(SseEmitter emitter, AtomicBoolean active, PortScanEventDTO payload) {
+        try {
+            emitter.send(SseEmitter.event().name(payload.type()).data(payload));
+        } catch (Exception exception) {
+            active.set(false);
+            emitter.complete();
+        }
+    }
 
-        return new PortScanResponseDTO(host, openPorts);
+    private void sendFinal(SseEmitter emitter, PortScanEventDTO payload) {
+        try {
+            emitter.send(SseEmitter.event().name(payload.type()).data(payload));
+        } catch (Exception ignored) {
+        }
     }
 }
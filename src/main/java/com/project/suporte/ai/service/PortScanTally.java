@@ -0,0 +1,90 @@
+package com.project.suporte.ai.service;
+
+import com.project.suporte.ai.dto.PortScanFamilyDTO;
+import com.project.suporte.ai.dto.PortServiceDTO;
+import com.project.suporte.ai.support.PortProbeResult;
+import com.project.suporte.ai.support.PortScanTarget;
+import com.project.suporte.ai.support.PortSet;
+import com.project.suporte.ai.support.ServiceBanner;
+
+import java.net.InetAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+class PortScanTally {
+
+    /**
+     * Cap on the boxed {@code portas_abertas} list; the open ranges always carry the complete set.
+     */
+    static final int MAX_LISTED_OPEN_PORTS = 256;
+
+    private final PortSet open = new PortSet();
+    private final PortSet closed = new PortSet();
+    private final PortSet filtered = new PortSet();
+    private final Map<Integer, ServiceBanner> services = new TreeMap<>();
+    private int cached;
+
+    synchronized void record(int port, PortProbeResult result) {
+        if (result.cached()) {
+            cached++;
+        }
+        if (result.service() != null) {
+            services.put(port, result.service());
+        }
+        switch (result.state()) {
+            case OPEN -> open.add(port);
+            case CLOSED -> closed.add(port);
+            case FILTERED -> filtered.add(port);
+        }
+    }
+
+    synchronized int openCount() {
+        return open.size();
+    }
+
+    synchronized int closedCount() {
+        return closed.size();
+    }
+
+    synchronized int filteredCount() {
+        return filtered.size();
+    }
+
+    synchronized int cachedCount() {
+        return cached;
+    }
+
+    synchronized List<Integer> openPorts() {
+        return open.toList(MAX_LISTED_OPEN_PORTS);
+    }
+
+    synchronized List<String> openRanges() {
+        return open.toRanges();
+    }
+
+    synchronized List<String> closedRanges() {
+        return closed.toRanges();
+    }
+
+    synchronized List<String> filteredRanges() {
+        return filtered.toRanges();
+    }
+
+    synchronized List<PortServiceDTO> services() {
+        return services.entrySet().stream()
+                .map(entry -> new PortServiceDTO(entry.getKey(), entry.getValue().service(), entry.getValue().banner()))
+                .toList();
+    }
+
+    synchronized PortScanFamilyDTO family(InetAddress address) {
+        return new PortScanFamilyDTO(
+                PortScanTarget.family(address),
+                address.getHostAddress(),
+                open.toList(MAX_LISTED_OPEN_PORTS),
+                open.toRanges(),
+                closed.toRanges(),
+                filtered.toRanges()
+        );
+    }
+}
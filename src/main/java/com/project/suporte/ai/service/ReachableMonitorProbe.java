@@ -0,0 +1,26 @@
+package com.project.suporte.ai.service;
+
+import java.io.IOException;
+import java.net.InetAddress;
+
+/**
+ * {@link InetAddress#isReachable(int)}: ICMP echo when the JVM has the privilege, TCP echo (port 7) otherwise.
+ */
+class ReachableMonitorProbe implements MonitorProbe {
+
+    private final InetAddress address;
+
+    ReachableMonitorProbe(InetAddress address) {
+        this.address = address;
+    }
+
+    @Override
+    public PingProbeResult probe(int timeoutMs) throws IOException {
+        long startedAt = System.nanoTime();
+        if (address.isReachable(timeoutMs)) {
+            double latencyMs = MonitorProbe.elapsedMs(startedAt);
+            return new PingProbeResult(true, latencyMs, "Alvo alcançável em " + latencyMs + " ms.", 0);
+        }
+        return new PingProbeResult(false, null, "Sem resposta do alvo.", 1);
+    }
+}
@@ -0,0 +1,34 @@
+package com.project.suporte.ai.service;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+
+class TcpConnectMonitorProbe implements MonitorProbe {
+
+    private final InetSocketAddress address;
+
+    TcpConnectMonitorProbe(InetAddress address, int port) {
+        this.address = new InetSocketAddress(address, port);
+    }
+
+    @Override
+    public PingProbeResult probe(int timeoutMs) {
+        long startedAt = System.nanoTime();
+        try (Socket socket = new Socket()) {
+            socket.setTcpNoDelay(true);
+            socket.connect(address, timeoutMs);
+            double latencyMs = MonitorProbe.elapsedMs(startedAt);
+            return new PingProbeResult(true, latencyMs, "TCP " + address.getPort() + " OK em " + latencyMs + " ms.", 0);
+        } catch (SocketTimeoutException exception) {
+            return new PingProbeResult(false, null, "Sem resposta na porta " + address.getPort() + ".", 1);
+        } catch (ConnectException exception) {
+            return new PingProbeResult(false, null, "Conexão recusada na porta " + address.getPort() + ".", 1);
+        } catch (IOException exception) {
+            return new PingProbeResult(false, null, "Falha ao conectar na porta " + address.getPort() + ": " + exception.getMessage(), 1);
+        }
+    }
+}
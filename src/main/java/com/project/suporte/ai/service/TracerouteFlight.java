@@ -0,0 +1,325 @@
+package com.project.suporte.ai.service;
+
+import com.project.suporte.ai.dto.CommandStreamEventDTO;
+import com.project.suporte.ai.dto.IpGeolocationResponseDTO;
+import com.project.suporte.ai.dto.TracerouteHopEnrichmentEventDTO;
+import com.project.suporte.ai.dto.TracerouteHopEventDTO;
+import com.project.suporte.ai.support.TracerouteHop;
+import com.project.suporte.ai.support.TracerouteOutputParser;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * One running {@code traceroute} shared by every request for the same target. {@link CommandStreamingService}
+ * writes to this emitter as usual; each event is kept and fanned out to the subscribers, so a late
+ * subscriber first receives what was already produced and then follows the live output. The process is
+ * stopped when the last subscriber leaves. Output lines are also parsed as they pass, and every hop found
+ * goes out right after its line as a {@code hop} event and is handed to the enricher, whose answer follows
+ * later as an {@code enriched} event without holding back the output. Only the final event waits for the
+ * enrichments still in flight, so subscribers see them before the stream ends. Events are queued for
+ * their recipients under the monitor and written to the subscribers outside it, one draining thread at a
+ * time, so a slow client never blocks the reader or the enrichment threads on the lock and every
+ * subscriber still receives the events in the order they were produced.
+ */
+final class TracerouteFlight extends SseEmitter {
+
+    private final String target;
+    private final Function<TracerouteHop, CompletableFuture<TracerouteHopEnrichment>> enricher;
+    private final Consumer<TracerouteFlight> onFinished;
+    private final List<Set<DataWithMediaType>> produced = new ArrayList<>();
+    private final List<SseEmitter> subscribers = new ArrayList<>();
+    private final List<TracerouteHop> hops = new ArrayList<>();
+    private final List<TracerouteHopEnrichment> enrichments = new ArrayList<>();
+    private final ArrayDeque<Delivery> outbox = new ArrayDeque<>();
+    private boolean draining;
+    private int pendingEnrichments;
+    private Set<DataWithMediaType> heldTerminal;
+    private boolean completeRequested;
+    private boolean succeeded;
+    private Result result;
+    private Runnable stopCallback;
+    private boolean finished;
+
+    TracerouteFlight(
+            String target,
+            Function<TracerouteHop, CompletableFuture<TracerouteHopEnrichment>> enricher,
+            Consumer<TracerouteFlight> onFinished
+    ) {
+        this.target = target;
+        this.enricher = enricher;
+        this.onFinished = onFinished;
+    }
+
+    String target() {
+        return target;
+    }
+
+    /**
+     * Replays the events produced so far and follows the live output; false once the flight has finished,
+     * in which case the caller starts a new one.
+     */
+    boolean subscribe(SseEmitter subscriber) {
+        synchronized (this) {
+            if (finished) {
+                return false;
+            }
+            subscribers.add(subscriber);
+            outbox.add(new Delivery(List.copyOf(produced), List.of(subscriber), false));
+        }
+        subscriber.onCompletion(() -> unsubscribe(subscriber));
+        subscriber.onError(error -> unsubscribe(subscriber));
+        subscriber.onTimeout(() -> {
+            sendTimeout(subscriber);
+            unsubscribe(subscriber);
+            subscriber.complete();
+        });
+        drain();
+        return true;
+    }
+
+    synchronized int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Hops and enrichments of a run that ended with {@code completed}; null for a failed or abandoned run.
+     */
+    synchronized Result result() {
+        return result;
+    }
+
+    static SseEventBuilder hopEvent(String target, TracerouteHop hop, boolean cached) {
+        return SseEmitter.event()
+                .name("hop")
+                .data(new TracerouteHopEventDTO("hop", target, hop.hop(), hop.address(), hop.hostname(),
+                        hop.rttsMs(), hop.timeouts(), cached, Instant.now()));
+    }
+
+    static SseEventBuilder enrichedEvent(String target, TracerouteHopEnrichment enrichment, boolean cached) {
+        IpGeolocationResponseDTO geolocation = enrichment.geolocation();
+        TracerouteHopEnrichmentEventDTO payload = geolocation == null
+                ? new TracerouteHopEnrichmentEventDTO("enriched", target, enrichment.hop(), enrichment.address(),
+                        enrichment.hostname(), null, null, null, null, null, null, null, null, enrichment.message(), cached, Instant.now())
+                : new TracerouteHopEnrichmentEventDTO("enriched", target, enrichment.hop(), enrichment.address(),
+                        enrichment.hostname(), geolocation.as(), geolocation.country(), geolocation.regionName(), geolocation.city(),
+                        geolocation.isp(), geolocation.org(), geolocation.latitude(), geolocation.longitude(), null, cached, Instant.now());
+        return SseEmitter.event().name("enriched").data(payload);
+    }
+
+    @Override
+    public void send(SseEventBuilder builder) throws IOException {
+        Set<DataWithMediaType> event = builder.build();
+        List<CompletableFuture<TracerouteHopEnrichment>> started = new ArrayList<>();
+        synchronized (this) {
+            if (finished) {
+                throw new IOException("traceroute has no subscribers left");
+            }
+            CommandStreamEventDTO payload = payload(event);
+            if (payload != null && payload.finished()) {
+                succeeded = "completed".equals(payload.type());
+                if (pendingEnrichments > 0) {
+                    heldTerminal = event;
+                    return;
+                }
+            }
+            publish(event);
+            if (payload != null && payload.lines() != null) {
+                for (String line : payload.lines()) {
+                    TracerouteHop hop = TracerouteOutputParser.parse(line);
+                    if (hop != null) {
+                        hops.add(hop);
+                        publish(hopEvent(target, hop, false).build());
+                        CompletableFuture<TracerouteHopEnrichment> enrichment = enricher.apply(hop);
+                        if (enrichment != null) {
+                            started.add(enrichment);
+                        }
+                    }
+                }
+                pendingEnrichments += started.size();
+            }
+        }
+        drain();
+        started.forEach(enrichment -> enrichment.whenComplete((value, error) -> enriched(value)));
+    }
+
+    /**
+     * End of the command: every subscriber is completed after receiving the final event.
+     */
+    @Override
+    public void complete() {
+        synchronized (this) {
+            if (finished) {
+                return;
+            }
+            if (heldTerminal != null) {
+                completeRequested = true;
+                return;
+            }
+            finished = true;
+            if (succeeded && !hops.isEmpty()) {
+                result = new Result(List.copyOf(hops), List.copyOf(enrichments));
+            }
+            outbox.add(new Delivery(List.of(), List.copyOf(subscribers), true));
+            subscribers.clear();
+        }
+        drain();
+        onFinished.accept(this);
+    }
+
+    /**
+     * Registered by the command pipeline to stop the process (or leave the admission queue); runs when
+     * the last subscriber leaves, or right away if that already happened.
+     */
+    @Override
+    public void onCompletion(Runnable callback) {
+        boolean alreadyStopped;
+        synchronized (this) {
+            stopCallback = callback;
+            alreadyStopped = finished && subscribers.isEmpty();
+        }
+        if (alreadyStopped) {
+            callback.run();
+        }
+    }
+
+    @Override
+    public void onTimeout(Runnable callback) {
+        // Timeouts belong to each subscriber's own emitter.
+    }
+
+    @Override
+    public void onError(Consumer<Throwable> callback) {
+        // Same as onCompletion: the only failure that matters is losing every subscriber.
+    }
+
+    private void unsubscribe(SseEmitter subscriber) {
+        Runnable stop;
+        synchronized (this) {
+            if (!subscribers.remove(subscriber) || !subscribers.isEmpty() || finished) {
+                return;
+            }
+            finished = true;
+            stop = stopCallback;
+        }
+        if (stop != null) {
+            stop.run();
+        }
+        onFinished.accept(this);
+    }
+
+    private void enriched(TracerouteHopEnrichment enrichment) {
+        boolean completeNow = false;
+        synchronized (this) {
+            if (finished) {
+                return;
+            }
+            pendingEnrichments--;
+            if (enrichment != null) {
+                enrichments.add(enrichment);
+                publish(enrichedEvent(target, enrichment, false).build());
+            }
+            if (pendingEnrichments == 0 && heldTerminal != null) {
+                publish(heldTerminal);
+                heldTerminal = null;
+                completeNow = completeRequested;
+            }
+        }
+        drain();
+        if (completeNow) {
+            complete();
+        }
+    }
+
+    /**
+     * Records the event and queues it for the current subscribers; callers {@link #drain()} once they
+     * leave the monitor.
+     */
+    private void publish(Set<DataWithMediaType> event) {
+        produced.add(event);
+        if (!subscribers.isEmpty()) {
+            outbox.add(new Delivery(List.of(event), List.copyOf(subscribers), false));
+        }
+    }
+
+    /**
+     * Writes the queued deliveries outside the monitor. A thread that finds another one draining leaves
+     * its deliveries to it, which keeps them in queue order.
+     */
+    private void drain() {
+        synchronized (this) {
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+        List<SseEmitter> failed = new ArrayList<>();
+        while (true) {
+            Delivery delivery;
+            synchronized (this) {
+                delivery = outbox.poll();
+                if (delivery == null) {
+                    draining = false;
+                    break;
+                }
+            }
+            delivery.deliver(failed);
+        }
+        failed.forEach(this::unsubscribe);
+    }
+
+    private static CommandStreamEventDTO payload(Set<DataWithMediaType> event) {
+        for (DataWithMediaType item : event) {
+            if (item.getData() instanceof CommandStreamEventDTO payload) {
+                return payload;
+            }
+        }
+        return null;
+    }
+
+    private void sendTimeout(SseEmitter subscriber) {
+        try {
+            subscriber.send(SseEmitter.event()
+                    .name("timeout")
+                    .data(new CommandStreamEventDTO("timeout", "traceroute", target, "Tempo limite excedido.", null, null, true, null, Instant.now())));
+        } catch (IOException | IllegalStateException ignored) {
+            // The subscriber is being completed anyway.
+        }
+    }
+
+    /**
+     * Events for a fixed set of recipients, or the final completion of those recipients.
+     */
+    private record Delivery(List<Set<DataWithMediaType>> events, List<SseEmitter> recipients, boolean complete) {
+
+        void deliver(List<SseEmitter> failed) {
+            for (SseEmitter recipient : recipients) {
+                if (complete) {
+                    recipient.complete();
+                    continue;
+                }
+                if (failed.contains(recipient)) {
+                    continue;
+                }
+                try {
+                    for (Set<DataWithMediaType> event : events) {
+                        recipient.send(event);
+                    }
+                } catch (IOException | IllegalStateException exception) {
+                    failed.add(recipient);
+                }
+            }
+        }
+    }
+
+    record Result(List<TracerouteHop> hops, List<TracerouteHopEnrichment> enrichments) {
+    }
+}
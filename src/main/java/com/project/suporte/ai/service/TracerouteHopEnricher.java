@@ -0,0 +1,75 @@
+package com.project.suporte.ai.service;
+
+import com.project.suporte.ai.config.DiagnosticsProperties;
+import com.project.suporte.ai.dto.IpGeolocationResponseDTO;
+import com.project.suporte.ai.exceptions.ApiException;
+import com.project.suporte.ai.support.TracerouteHop;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up reverse DNS and geolocation (with ASN) for traceroute hops on its own executor, through the
+ * caches of {@link DnsLookupService} and {@link IpGeolocationService}, so repeated hops across runs cost
+ * nothing. Every submitted hop completes within {@code diagnostics.traceroute.enrichment-timeout-ms},
+ * with a message instead of data when a lookup failed or took too long.
+ */
+@Service
+public class TracerouteHopEnricher {
+
+    private final DnsLookupService dnsLookupService;
+    private final IpGeolocationService ipGeolocationService;
+    private final Executor executor;
+    private final boolean enabled;
+    private final long timeoutMs;
+
+    public TracerouteHopEnricher(
+            DnsLookupService dnsLookupService,
+            IpGeolocationService ipGeolocationService,
+            @Qualifier("tracerouteEnrichmentExecutor") Executor executor,
+            DiagnosticsProperties properties
+    ) {
+        this.dnsLookupService = dnsLookupService;
+        this.ipGeolocationService = ipGeolocationService;
+        this.executor = executor;
+        this.enabled = properties.getTraceroute().isEnrichmentEnabled();
+        this.timeoutMs = properties.getTraceroute().getEnrichmentTimeoutMs();
+    }
+
+    /**
+     * Null when there is nothing to enrich: enrichment is disabled or no probe of the hop answered.
+     */
+    CompletableFuture<TracerouteHopEnrichment> enrich(TracerouteHop hop) {
+        if (!enabled || hop.address() == null) {
+            return null;
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> lookup(hop), executor)
+                    .completeOnTimeout(failed(hop, "Tempo esgotado ao enriquecer o salto."), timeoutMs, TimeUnit.MILLISECONDS)
+                    .exceptionally(error -> failed(hop, "Falha ao enriquecer o salto."));
+        } catch (RejectedExecutionException exception) {
+            return CompletableFuture.completedFuture(failed(hop, "Enriquecimento indisponível no momento."));
+        }
+    }
+
+    private TracerouteHopEnrichment lookup(TracerouteHop hop) {
+        String hostname = hop.hostname() != null ? hop.hostname() : dnsLookupService.reverseLookup(hop.address());
+        try {
+            IpGeolocationResponseDTO geolocation = ipGeolocationService.geolocateIp(hop.address());
+            return new TracerouteHopEnrichment(hop.hop(), hop.address(), hostname, geolocation, null);
+        } catch (ApiException exception) {
+            return new TracerouteHopEnrichment(hop.hop(), hop.address(), hostname, null, exception.getMessage());
+        } catch (RestClientException exception) {
+            return new TracerouteHopEnrichment(hop.hop(), hop.address(), hostname, null, "O serviço de geolocalização não respondeu.");
+        }
+    }
+
+    private static TracerouteHopEnrichment failed(TracerouteHop hop, String message) {
+        return new TracerouteHopEnrichment(hop.hop(), hop.address(), hop.hostname(), null, message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.project.suporte.ai.service;
+
+import com.project.suporte.ai.dto.IpGeolocationResponseDTO;
+
+/**
+ * What {@link TracerouteHopEnricher} found for one hop; {@code geolocation} is null when {@code message}
+ * explains why.
+ */
+record TracerouteHopEnrichment(int hop, String address, String hostname, IpGeolocationResponseDTO geolocation, String message) {
+}
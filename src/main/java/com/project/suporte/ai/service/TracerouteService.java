@@ -1,32 +1,116 @@
 package com.project.suporte.ai.service;
 
+import com.project.suporte.ai.config.DiagnosticsProperties;
+import com.project.suporte.ai.dto.CommandStreamEventDTO;
+import com.project.suporte.ai.support.ExpiringCache;
 import com.project.suporte.ai.support.TargetValidator;
-import org.springframework.scheduling.annotation.Async;
+import com.project.suporte.ai.support.TracerouteHop;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 @Service
 public class TracerouteService {
 
     private final TargetValidator targetValidator;
-    private final CommandStreamingService commandStreamingService;
+    private final CommandRunner commandRunner;
+    private final TracerouteHopEnricher hopEnricher;
+    private final ExpiringCache<String, TracerouteFlight.Result> results;
+    private final Map<String, TracerouteFlight> flights = new HashMap<>();
 
-    public TracerouteService(TargetValidator targetValidator, CommandStreamingService commandStreamingService) {
+    public TracerouteService(
+            TargetValidator targetValidator,
+            CommandRunner commandRunner,
+            TracerouteHopEnricher hopEnricher,
+            DiagnosticsProperties properties
+    ) {
         this.targetValidator = targetValidator;
-        this.commandStreamingService = commandStreamingService;
+        this.commandRunner = commandRunner;
+        this.hopEnricher = hopEnricher;
+        this.results = new ExpiringCache<>(Duration.ofSeconds(properties.getCache().getTracerouteTtlSeconds()));
     }
 
-    @Async("diagnosticsExecutor")
-    public void executeTraceroute(SseEmitter emitter, String host) {
+    /**
+     * Requests for a target that is already being traced join the running process instead of starting
+     * another one; see {@link TracerouteFlight}. Unless {@code fresh} is set, a target traced successfully
+     * within {@code diagnostics.cache.traceroute-ttl-seconds} is answered from its cached hops and
+     * enrichments without running anything.
+     */
+    public void executeTraceroute(SseEmitter emitter, String host, boolean fresh) {
         String target = targetValidator.normalizeTarget(host);
+        if (!fresh) {
+            TracerouteFlight.Result cached = results.getIfPresent(target);
+            if (cached != null) {
+                replay(emitter, target, cached);
+                return;
+            }
+        }
+
         boolean isWindows = System.getProperty("os.name").toLowerCase(Locale.ROOT).contains("win");
         List<String> command = isWindows
                 ? List.of("tracert", target)
                 : List.of("traceroute", target);
 
-        commandStreamingService.stream(emitter, "traceroute", target, command);
+        synchronized (flights) {
+            TracerouteFlight running = flights.get(target);
+            if (running != null && running.subscribe(emitter)) {
+                return;
+            }
+
+            TracerouteFlight flight = new TracerouteFlight(target, hopEnricher::enrich, this::finished);
+            flight.subscribe(emitter);
+            flights.put(target, flight);
+            try {
+                commandRunner.run(flight, "traceroute", target, command);
+            } catch (RuntimeException exception) {
+                flights.remove(target, flight);
+                throw exception;
+            }
+        }
+    }
+
+    int runningTraceroutes() {
+        synchronized (flights) {
+            return flights.size();
+        }
+    }
+
+    private void finished(TracerouteFlight flight) {
+        TracerouteFlight.Result result = flight.result();
+        if (result != null) {
+            results.put(flight.target(), result);
+        }
+        synchronized (flights) {
+            flights.remove(flight.target(), flight);
+        }
+    }
+
+    private void replay(SseEmitter emitter, String target, TracerouteFlight.Result result) {
+        try {
+            emitter.send(commandEvent("started", target, "Resultado de um traceroute recente em cache.", null, false));
+            for (TracerouteHop hop : result.hops()) {
+                emitter.send(TracerouteFlight.hopEvent(target, hop, true));
+            }
+            for (TracerouteHopEnrichment enrichment : result.enrichments()) {
+                emitter.send(TracerouteFlight.enrichedEvent(target, enrichment, true));
+            }
+            emitter.send(commandEvent("completed", target, "Execução concluída.", 0, true));
+        } catch (IOException | IllegalStateException ignored) {
+            // The client left; nothing else to do for a replay.
+        }
+        emitter.complete();
+    }
+
+    private static SseEmitter.SseEventBuilder commandEvent(String type, String target, String message, Integer exitCode, boolean finished) {
+        return SseEmitter.event()
+                .name(type)
+                .data(new CommandStreamEventDTO(type, "traceroute", target, message, null, exitCode, finished, true, Instant.now()));
     }
 }
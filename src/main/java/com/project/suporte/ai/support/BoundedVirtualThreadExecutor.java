@@ -0,0 +1,81 @@
+package com.project.suporte.ai.support;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs each task on its own virtual thread, at most {@code maxConcurrency} at a time. Up to
+ * {@code maxQueued} further tasks wait for a permit; beyond that {@link #execute} rejects, like a
+ * thread pool with a full queue.
+ */
+public class BoundedVirtualThreadExecutor implements Executor, AutoCloseable {
+
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+    private final Semaphore slots;
+    private final int maxConcurrency;
+
+    public BoundedVirtualThreadExecutor(String threadNamePrefix, int maxConcurrency) {
+        this(threadNamePrefix, maxConcurrency, Integer.MAX_VALUE - maxConcurrency);
+    }
+
+    public BoundedVirtualThreadExecutor(String threadNamePrefix, int maxConcurrency, int maxQueued) {
+        this.delegate = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(threadNamePrefix, 0).factory());
+        this.permits = new Semaphore(maxConcurrency);
+        this.slots = new Semaphore(maxConcurrency + maxQueued);
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!slots.tryAcquire()) {
+            throw new RejectedExecutionException("Executor saturated: " + maxConcurrency + " running and queue full");
+        }
+
+        try {
+            delegate.execute(() -> {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    slots.release();
+                    return;
+                }
+
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                    slots.release();
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            slots.release();
+            throw exception;
+        }
+    }
+
+    public int getActiveCount() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    public int getWaitingCount() {
+        return permits.getQueueLength();
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void shutdown() {
+        delegate.shutdownNow();
+    }
+
+    @Override
+    public void close() {
+        shutdown();
+    }
+}
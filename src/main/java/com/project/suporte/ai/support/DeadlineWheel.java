@@ -0,0 +1,98 @@
+package com.project.suporte.ai.support;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+public class DeadlineWheel<T> {
+
+    private final long startedAt;
+    private final long tickNanos;
+    private final int mask;
+    private final ArrayDeque<Entry<T>>[] slots;
+    private final ArrayDeque<T> expired = new ArrayDeque<>();
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public DeadlineWheel(Duration tick, int slotCount, long startedAt) {
+        if (tick.isZero() || tick.isNegative() || slotCount < 1) {
+            throw new IllegalArgumentException("A roda de deadlines exige tick positivo e ao menos um slot.");
+        }
+
+        int normalizedSlots = Integer.highestOneBit(slotCount - 1) << 1;
+        if (normalizedSlots <= 0) {
+            normalizedSlots = 1;
+        }
+
+        this.startedAt = startedAt;
+        this.tickNanos = tick.toNanos();
+        this.mask = normalizedSlots - 1;
+        this.slots = new ArrayDeque[normalizedSlots];
+        for (int index = 0; index < normalizedSlots; index++) {
+            slots[index] = new ArrayDeque<>();
+        }
+    }
+
+    public void schedule(T item, long deadlineNanos) {
+        long deadlineTick = Math.max(ticksUntil(deadlineNanos, true), currentTick + 1);
+        slots[(int) (deadlineTick & mask)].addLast(new Entry<>(item, deadlineNanos));
+        size++;
+    }
+
+    public int expire(long nowNanos, Consumer<T> onExpired) {
+        long targetTick = ticksUntil(nowNanos, false);
+        if (targetTick <= currentTick) {
+            return 0;
+        }
+
+        long steps = Math.min(targetTick - currentTick, slots.length);
+        for (long step = 1; step <= steps; step++) {
+            Iterator<Entry<T>> iterator = slots[(int) ((currentTick + step) & mask)].iterator();
+            while (iterator.hasNext()) {
+                Entry<T> entry = iterator.next();
+                if (entry.deadlineNanos() - nowNanos <= 0) {
+                    iterator.remove();
+                    size--;
+                    expired.addLast(entry.item());
+                }
+            }
+        }
+        currentTick = targetTick;
+
+        int count = expired.size();
+        T item;
+        while ((item = expired.pollFirst()) != null) {
+            onExpired.accept(item);
+        }
+        return count;
+    }
+
+    public void drain(Consumer<T> consumer) {
+        for (ArrayDeque<Entry<T>> slot : slots) {
+            Entry<T> entry;
+            while ((entry = slot.pollFirst()) != null) {
+                consumer.accept(entry.item());
+            }
+        }
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long tickMillis() {
+        return Math.max(1L, Duration.ofNanos(tickNanos).toMillis());
+    }
+
+    private long ticksUntil(long nanos, boolean roundUp) {
+        long elapsed = Math.max(0L, nanos - startedAt);
+        long ticks = elapsed / tickNanos;
+        return roundUp && elapsed % tickNanos != 0 ? ticks + 1 : ticks;
+    }
+
+    private record Entry<T>(T item, long deadlineNanos) {
+    }
+}
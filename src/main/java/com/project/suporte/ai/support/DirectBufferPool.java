@@ -0,0 +1,48 @@
+package com.project.suporte.ai.support;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class DirectBufferPool {
+
+    private final Queue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger allocated = new AtomicInteger();
+    private final int bufferSize;
+    private final int capacity;
+
+    public DirectBufferPool(int bufferSize, int capacity) {
+        this.bufferSize = bufferSize;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns a cleared direct buffer, or {@code null} when all {@code capacity} buffers are in use.
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = free.poll();
+        if (buffer != null) {
+            return buffer.clear();
+        }
+        if (allocated.incrementAndGet() > capacity) {
+            allocated.decrementAndGet();
+            return null;
+        }
+        return ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    public void release(ByteBuffer buffer) {
+        if (buffer != null) {
+            free.offer(buffer.clear());
+        }
+    }
+
+    public int allocated() {
+        return allocated.get();
+    }
+
+    public int available() {
+        return free.size() + capacity - allocated.get();
+    }
+}
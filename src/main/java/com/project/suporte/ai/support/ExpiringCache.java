@@ -36,6 +36,28 @@ public class ExpiringCache<K, V> {
         return refreshed.value();
     }
 
+    /**
+     * For results that are produced elsewhere (e.g. at the end of a stream) and only read back here.
+     */
+    public V getIfPresent(K key) {
+        Entry<V> cached = storage.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAt().isAfter(Instant.now())) {
+            return cached.value();
+        }
+        storage.remove(key, cached);
+        return null;
+    }
+
+    public void put(K key, V value) {
+        if (ttl.isZero() || ttl.isNegative()) {
+            return;
+        }
+        storage.put(key, new Entry<>(value, Instant.now().plus(ttl)));
+    }
+
     private record Entry<V>(V value, Instant expiresAt) {
     }
 }
@@ -0,0 +1,76 @@
+package com.project.suporte.ai.support;
+
+/**
+ * Log-linear latency histogram with a fixed bucket array, in the spirit of HdrHistogram. Values are
+ * recorded in microseconds: below 32 µs each value has its own bucket, above that every power of two
+ * is split into 32 linear sub-buckets, so percentiles carry at most ~3% relative error. Recording never
+ * allocates and memory stays constant no matter how many samples arrive.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_MAGNITUDE = 27;
+    private static final long MAX_VALUE_US = (1L << (MAX_MAGNITUDE + 1)) - 1;
+
+    private final int[] counts = new int[SUB_BUCKETS + (MAX_MAGNITUDE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS];
+    private long total;
+    private long maxUs;
+
+    public void record(double latencyMs) {
+        long valueUs = Math.min(MAX_VALUE_US, Math.max(0, Math.round(latencyMs * 1000.0)));
+        counts[indexOf(valueUs)]++;
+        total++;
+        maxUs = Math.max(maxUs, valueUs);
+    }
+
+    /**
+     * Latency at the given percentile (0-100) in milliseconds, or null before the first sample.
+     */
+    public Double percentileMs(double percentile) {
+        if (total == 0) {
+            return null;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int index = 0; index < counts.length; index++) {
+            seen += counts[index];
+            if (seen >= rank) {
+                return Math.min(representativeOf(index), maxUs) / 1000.0;
+            }
+        }
+        return maxUs / 1000.0;
+    }
+
+    public Double maxMs() {
+        return total == 0 ? null : maxUs / 1000.0;
+    }
+
+    public long count() {
+        return total;
+    }
+
+    static int indexOf(long valueUs) {
+        if (valueUs < SUB_BUCKETS) {
+            return (int) valueUs;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(valueUs);
+        int subBucket = (int) (valueUs >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + (magnitude - SUB_BUCKET_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Midpoint of the bucket, which bounds the reporting error to half a bucket width.
+     */
+    static long representativeOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int magnitude = SUB_BUCKET_BITS + (index - SUB_BUCKETS) / SUB_BUCKETS;
+        long subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        long width = 1L << (magnitude - SUB_BUCKET_BITS);
+        long lower = (1L << magnitude) | (subBucket * width);
+        return lower + width / 2;
+    }
+}
@@ -0,0 +1,126 @@
+package com.project.suporte.ai.support;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Append-only file of fixed-size records mapped into memory. The header holds the number of committed
+ * records, so a reader (or a restart) only ever sees records written before the last {@link #commit()}.
+ */
+public class MappedSegment {
+
+    private static final int MAGIC = 0x534D504C;
+    private static final int HEADER_BYTES = 16;
+    private static final int COUNT_OFFSET = 8;
+    private static final int READ_CHUNK_RECORDS = 4_096;
+
+    private final MappedByteBuffer buffer;
+    private final int recordSize;
+    private final int capacity;
+    private int count;
+
+    private MappedSegment(MappedByteBuffer buffer, int recordSize, int capacity, int count) {
+        this.buffer = buffer;
+        this.recordSize = recordSize;
+        this.capacity = capacity;
+        this.count = count;
+    }
+
+    /**
+     * Opens the segment for appending, creating and sizing the file when it does not exist yet.
+     */
+    public static MappedSegment openForAppend(Path path, int recordSize, int capacity) throws IOException {
+        long size = HEADER_BYTES + (long) recordSize * capacity;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, channel.size()));
+            if (buffer.getInt(0) != MAGIC) {
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, recordSize);
+                buffer.putInt(COUNT_OFFSET, 0);
+                return new MappedSegment(buffer, recordSize, capacity, 0);
+            }
+            checkRecordSize(path, buffer, recordSize);
+            int existingCapacity = (int) ((buffer.capacity() - HEADER_BYTES) / recordSize);
+            return new MappedSegment(buffer, recordSize, existingCapacity, buffer.getInt(COUNT_OFFSET));
+        }
+    }
+
+    /**
+     * Hands each committed record of an existing segment to {@code visitor}, as a read-only view positioned
+     * at zero. Records are read through the channel in chunks instead of mapping the file, so queries
+     * leave no mappings behind; a file that was created but never initialised reads as empty.
+     */
+    public static void readCommitted(Path path, int recordSize, Consumer<ByteBuffer> visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            readFully(channel, header, 0);
+            if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+                return;
+            }
+            checkRecordSize(path, header, recordSize);
+            long capacity = (channel.size() - HEADER_BYTES) / recordSize;
+            int remaining = (int) Math.min(capacity, header.getInt(COUNT_OFFSET));
+            ByteBuffer chunk = ByteBuffer.allocate(recordSize * Math.max(1, Math.min(remaining, READ_CHUNK_RECORDS)));
+            long position = HEADER_BYTES;
+            while (remaining > 0) {
+                int records = Math.min(remaining, chunk.capacity() / recordSize);
+                chunk.clear().limit(records * recordSize);
+                readFully(channel, chunk, position);
+                if (chunk.hasRemaining()) {
+                    return;
+                }
+                for (int index = 0; index < records; index++) {
+                    visitor.accept(chunk.slice(index * recordSize, recordSize).asReadOnlyBuffer());
+                }
+                position += (long) records * recordSize;
+                remaining -= records;
+            }
+        }
+    }
+
+    public boolean isFull() {
+        return count >= capacity;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Copies {@code record} into the next slot; it becomes visible to readers on the next commit.
+     */
+    public void append(ByteBuffer record) {
+        if (isFull()) {
+            throw new IllegalStateException("segment is full");
+        }
+        buffer.put(HEADER_BYTES + count * recordSize, record, 0, recordSize);
+        count++;
+    }
+
+    public void commit() {
+        buffer.putInt(COUNT_OFFSET, count);
+    }
+
+    public void force() {
+        buffer.force();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return;
+            }
+        }
+    }
+
+    private static void checkRecordSize(Path path, ByteBuffer buffer, int recordSize) throws IOException {
+        if (buffer.getInt(4) != recordSize) {
+            throw new IOException("Unexpected record size in " + path);
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.project.suporte.ai.support;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Hand-written scanner for {@code ping} output (iputils, BusyBox, macOS and localized Windows). It reads
+ * the process byte stream into fixed buffers and parses each line in place, so replies produce no
+ * intermediate Strings: {@code time=}/{@code tempo=} latency, {@code ttl}, {@code icmp_seq}/{@code seq}
+ * and the transmitted/received/loss summary. Only {@link #line()} and {@link #lastMessage()} decode text,
+ * for the few callers that need a message.
+ */
+public class PingOutputScanner implements Closeable {
+
+    public static final int NONE = -1;
+
+    private static final int READ_BUFFER_BYTES = 4_096;
+    private static final int MAX_LINE_BYTES = 512;
+    private static final int MAX_DIGITS = 18;
+    private static final int AWAITING_TRANSMITTED = 0;
+    private static final int AWAITING_RECEIVED = 1;
+    private static final long[] POWERS_OF_TEN = new long[MAX_DIGITS + 1];
+
+    private static final byte[] TIME = ascii("time");
+    private static final byte[] TEMPO = ascii("tempo");
+    private static final byte[] TTL = ascii("ttl");
+    private static final byte[] SEQ = ascii("seq");
+    private static final byte[] REQ = ascii("req");
+    private static final byte[] MS = ascii("ms");
+    private static final byte[] TRANSMITTED = ascii("transmitted");
+    private static final byte[] SENT = ascii("sent");
+    private static final byte[] ENVIADOS = ascii("enviados");
+    private static final byte[] RECEIVED = ascii("received");
+    private static final byte[] RECEBIDOS = ascii("recebidos");
+    private static final byte[] PING = ascii("ping");
+    private static final byte[] STATISTICS = ascii("statistics");
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int index = 1; index < POWERS_OF_TEN.length; index++) {
+            POWERS_OF_TEN[index] = POWERS_OF_TEN[index - 1] * 10;
+        }
+    }
+
+    private final InputStream input;
+    private final byte[] buffer = new byte[READ_BUFFER_BYTES];
+    private int position;
+    private int limit;
+
+    private final byte[] line = new byte[MAX_LINE_BYTES];
+    private int lineStart;
+    private int lineEnd;
+    private final byte[] lastMessage = new byte[MAX_LINE_BYTES];
+    private int lastMessageLength = NONE;
+
+    private long number;
+    private int numberScale;
+
+    private boolean latency;
+    private long latencyValue;
+    private int latencyScale;
+    private int ttl;
+    private int sequence;
+    private boolean summary;
+    private boolean statisticsHeader;
+    private int transmitted;
+    private int received;
+    private boolean loss;
+    private long lossValue;
+    private int lossScale;
+
+    public PingOutputScanner(InputStream input) {
+        this.input = input;
+    }
+
+    /**
+     * Reads and parses the next line; returns false at the end of the stream. Bytes past
+     * {@value #MAX_LINE_BYTES} on one line are skipped.
+     */
+    public boolean nextLine() throws IOException {
+        int length = 0;
+        boolean read = false;
+        while (true) {
+            if (position == limit) {
+                int count = input.read(buffer);
+                if (count <= 0) {
+                    position = 0;
+                    limit = 0;
+                    if (!read) {
+                        return false;
+                    }
+                    break;
+                }
+                position = 0;
+                limit = count;
+            }
+            byte current = buffer[position++];
+            read = true;
+            if (current == '\n') {
+                break;
+            }
+            if (length < line.length) {
+                line[length++] = current;
+            }
+        }
+        parse(length);
+        return true;
+    }
+
+    public boolean isBlank() {
+        return lineStart == lineEnd;
+    }
+
+    public boolean hasLatency() {
+        return latency;
+    }
+
+    /**
+     * Latency of a reply line in milliseconds, exactly as {@link Double#parseDouble} would read it.
+     */
+    public double latencyMs() {
+        return (double) latencyValue / POWERS_OF_TEN[latencyScale];
+    }
+
+    public int ttl() {
+        return ttl;
+    }
+
+    public int sequence() {
+        return sequence;
+    }
+
+    /**
+     * True for the closing "packets transmitted/received" line; its {@code time} is the run duration,
+     * not a latency.
+     */
+    public boolean isSummary() {
+        return summary;
+    }
+
+    public int transmitted() {
+        return transmitted;
+    }
+
+    public int received() {
+        return received;
+    }
+
+    public boolean hasLoss() {
+        return loss;
+    }
+
+    public double lossPercent() {
+        return (double) lossValue / POWERS_OF_TEN[lossScale];
+    }
+
+    /**
+     * Trimmed text of the current line.
+     */
+    public String line() {
+        return new String(line, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Last non-blank line other than the "ping statistics" header, or null when there was none.
+     */
+    public String lastMessage() {
+        return lastMessageLength == NONE ? null : new String(lastMessage, 0, lastMessageLength, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    private void parse(int length) {
+        lineStart = 0;
+        lineEnd = length;
+        while (lineStart < lineEnd && isSpace(line[lineStart])) {
+            lineStart++;
+        }
+        while (lineEnd > lineStart && isSpace(line[lineEnd - 1])) {
+            lineEnd--;
+        }
+
+        latency = false;
+        ttl = NONE;
+        sequence = NONE;
+        summary = false;
+        statisticsHeader = false;
+        transmitted = NONE;
+        received = NONE;
+        loss = false;
+
+        int unclaimed = NONE;
+        int pending = NONE;
+        int previousWordStart = NONE;
+        int previousWordEnd = NONE;
+        int index = lineStart;
+        while (index < lineEnd) {
+            byte current = line[index];
+            if (isLetter(current)) {
+                int end = index;
+                while (end < lineEnd && isLetter(line[end])) {
+                    end++;
+                }
+                if (matches(index, end, TIME) || matches(index, end, TEMPO)) {
+                    readLatency(end);
+                } else if (matches(index, end, TTL)) {
+                    ttl = numberAfter(end, '=');
+                } else if (matches(index, end, SEQ) || matches(index, end, REQ)) {
+                    if (sequence == NONE) {
+                        sequence = end < lineEnd && line[end] == ' ' ? numberAfter(end, ' ') : numberAfter(end, '=');
+                    }
+                } else if (matches(index, end, TRANSMITTED)) {
+                    summary = true;
+                    transmitted = unclaimed;
+                    unclaimed = NONE;
+                } else if (matches(index, end, SENT) || matches(index, end, ENVIADOS)) {
+                    summary = true;
+                    pending = AWAITING_TRANSMITTED;
+                } else if (matches(index, end, RECEIVED) || matches(index, end, RECEBIDOS)) {
+                    if (unclaimed != NONE) {
+                        received = unclaimed;
+                        unclaimed = NONE;
+                    } else {
+                        pending = AWAITING_RECEIVED;
+                    }
+                } else if (matches(index, end, STATISTICS) && previousWordStart != NONE
+                        && matches(previousWordStart, previousWordEnd, PING)) {
+                    statisticsHeader = true;
+                }
+                previousWordStart = index;
+                previousWordEnd = end;
+                index = end;
+            } else if (isDigit(current)) {
+                int end = readNumber(index);
+                if (end < lineEnd && line[end] == '%') {
+                    loss = true;
+                    lossValue = number;
+                    lossScale = numberScale;
+                } else if (numberScale == 0 && number <= Integer.MAX_VALUE) {
+                    if (pending == AWAITING_TRANSMITTED) {
+                        transmitted = (int) number;
+                    } else if (pending == AWAITING_RECEIVED) {
+                        received = (int) number;
+                    } else {
+                        unclaimed = (int) number;
+                    }
+                    pending = NONE;
+                }
+                index = end;
+            } else {
+                index++;
+            }
+        }
+
+        if (summary) {
+            latency = false;
+        } else {
+            loss = false;
+        }
+        if (!isBlank() && !statisticsHeader) {
+            lastMessageLength = lineEnd - lineStart;
+            System.arraycopy(line, lineStart, lastMessage, 0, lastMessageLength);
+        }
+    }
+
+    /**
+     * Same shape the old {@code (?:time|tempo)\s*[=<]?\s*<?\s*(\d+(?:[.,]\d+)?)\s*ms} pattern accepted.
+     */
+    private void readLatency(int from) {
+        if (latency) {
+            return;
+        }
+        int index = from;
+        while (index < lineEnd && (line[index] == '=' || line[index] == '<' || isSpace(line[index]))) {
+            index++;
+        }
+        if (index == lineEnd || !isDigit(line[index])) {
+            return;
+        }
+        int end = readNumber(index);
+        while (end < lineEnd && isSpace(line[end])) {
+            end++;
+        }
+        if (end + MS.length <= lineEnd && matches(end, end + MS.length, MS)) {
+            latency = true;
+            latencyValue = number;
+            latencyScale = numberScale;
+        }
+    }
+
+    private int numberAfter(int index, char separator) {
+        if (index + 1 >= lineEnd || line[index] != separator || !isDigit(line[index + 1])) {
+            return NONE;
+        }
+        readNumber(index + 1);
+        return numberScale == 0 && number <= Integer.MAX_VALUE ? (int) number : NONE;
+    }
+
+    /**
+     * Reads {@code digits[(.|,)digits]} into {@link #number}/{@link #numberScale} and returns the end index.
+     * Digits beyond {@value #MAX_DIGITS} are consumed but ignored.
+     */
+    private int readNumber(int from) {
+        number = 0;
+        numberScale = 0;
+        int digits = 0;
+        int index = from;
+        while (index < lineEnd && isDigit(line[index])) {
+            if (digits < MAX_DIGITS) {
+                number = number * 10 + (line[index] - '0');
+                digits++;
+            }
+            index++;
+        }
+        if (index + 1 < lineEnd && (line[index] == '.' || line[index] == ',') && isDigit(line[index + 1])) {
+            index++;
+            while (index < lineEnd && isDigit(line[index])) {
+                if (digits < MAX_DIGITS) {
+                    number = number * 10 + (line[index] - '0');
+                    numberScale++;
+                    digits++;
+                }
+                index++;
+            }
+        }
+        return index;
+    }
+
+    private boolean matches(int start, int end, byte[] lowerCaseWord) {
+        if (end - start != lowerCaseWord.length) {
+            return false;
+        }
+        for (int index = 0; index < lowerCaseWord.length; index++) {
+            if ((line[start + index] | 0x20) != lowerCaseWord[index]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLetter(byte value) {
+        int lower = value | 0x20;
+        return lower >= 'a' && lower <= 'z';
+    }
+
+    private static boolean isDigit(byte value) {
+        return value >= '0' && value <= '9';
+    }
+
+    private static boolean isSpace(byte value) {
+        return value == ' ' || value == '\t' || value == '\r' || value == '\f';
+    }
+
+    private static byte[] ascii(String word) {
+        return word.getBytes(StandardCharsets.US_ASCII);
+    }
+}
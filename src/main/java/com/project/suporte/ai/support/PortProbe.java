@@ -1,7 +1,38 @@
 package com.project.suporte.ai.support;
 
 import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.IntSupplier;
 
 public interface PortProbe {
     boolean isOpen(InetSocketAddress address, int timeoutMs);
+
+    default PortProbeResult probe(InetSocketAddress address, int timeoutMs) {
+        long startedAt = System.nanoTime();
+        PortState state = isOpen(address, timeoutMs) ? PortState.OPEN : PortState.CLOSED;
+        return new PortProbeResult(state, System.nanoTime() - startedAt);
+    }
+
+    default CompletableFuture<PortProbeResult> probeAsync(InetSocketAddress address, int timeoutMs, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> probe(address, timeoutMs), executor);
+    }
+
+    default CompletableFuture<PortProbeResult> probeAsync(InetSocketAddress address, IntSupplier timeoutMs, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> probe(address, timeoutMs.getAsInt()), executor);
+    }
+
+    /**
+     * Same as {@link #probeAsync(InetSocketAddress, IntSupplier, Executor)}, and on open ports also reads
+     * the greeting or a probe response for up to {@code readTimeoutMs} to fill {@link PortProbeResult#service()}.
+     * Engines without service detection fall back to a plain probe.
+     */
+    default CompletableFuture<PortProbeResult> probeServiceAsync(
+            InetSocketAddress address,
+            IntSupplier timeoutMs,
+            int readTimeoutMs,
+            Executor executor
+    ) {
+        return probeAsync(address, timeoutMs, executor);
+    }
 }
@@ -0,0 +1,88 @@
+package com.project.suporte.ai.support;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived probe results per (address, port), with a separate TTL for each {@link PortState}.
+ * Each entry remembers the connect timeout it was probed with, because a {@link PortState#FILTERED}
+ * result only means "no answer within that timeout".
+ * Once {@code maxEntries} is reached, expired entries are swept first and then arbitrary ones,
+ * so the map never grows past its bound.
+ */
+public class PortProbeCache {
+
+    private final long openTtlNanos;
+    private final long closedTtlNanos;
+    private final long filteredTtlNanos;
+    private final int maxEntries;
+    private final ConcurrentHashMap<InetSocketAddress, Entry> storage = new ConcurrentHashMap<>();
+
+    public PortProbeCache(Duration openTtl, Duration closedTtl, Duration filteredTtl, int maxEntries) {
+        this.openTtlNanos = openTtl.toNanos();
+        this.closedTtlNanos = closedTtl.toNanos();
+        this.filteredTtlNanos = filteredTtl.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns a live cached result, or {@code null}. Open results cached without a service banner
+     * do not satisfy a lookup that needs one, and filtered results probed with a shorter timeout
+     * than {@code timeoutMs} do not satisfy a lookup that is willing to wait longer.
+     */
+    public PortProbeResult get(InetSocketAddress address, int timeoutMs, boolean requireService) {
+        Entry entry = storage.get(address);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() - System.nanoTime() <= 0) {
+            storage.remove(address, entry);
+            return null;
+        }
+        if (requireService && entry.result().open() && entry.result().service() == null) {
+            return null;
+        }
+        if (entry.result().state() == PortState.FILTERED && entry.timeoutMs() < timeoutMs) {
+            return null;
+        }
+        return entry.result().asCached();
+    }
+
+    public void put(InetSocketAddress address, PortProbeResult result, int timeoutMs) {
+        long ttl = switch (result.state()) {
+            case OPEN -> openTtlNanos;
+            case CLOSED -> closedTtlNanos;
+            case FILTERED -> filteredTtlNanos;
+        };
+        if (ttl <= 0 || result.cached()) {
+            return;
+        }
+
+        if (storage.size() >= maxEntries && !storage.containsKey(address)) {
+            evict();
+        }
+        storage.put(address, new Entry(result, timeoutMs, System.nanoTime() + ttl));
+    }
+
+    public int size() {
+        return storage.size();
+    }
+
+    private void evict() {
+        long now = System.nanoTime();
+        storage.values().removeIf(entry -> entry.expiresAt() - now <= 0);
+
+        Iterator<Map.Entry<InetSocketAddress, Entry>> iterator = storage.entrySet().iterator();
+        int target = Math.max(0, maxEntries - Math.max(1, maxEntries / 10));
+        while (storage.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private record Entry(PortProbeResult result, int timeoutMs, long expiresAt) {
+    }
+}
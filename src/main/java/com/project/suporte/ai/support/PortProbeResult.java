@@ -0,0 +1,20 @@
+package com.project.suporte.ai.support;
+
+public record PortProbeResult(PortState state, long elapsedNanos, ServiceBanner service, boolean cached) {
+
+    public PortProbeResult(PortState state, long elapsedNanos) {
+        this(state, elapsedNanos, null, false);
+    }
+
+    public PortProbeResult(PortState state, long elapsedNanos, ServiceBanner service) {
+        this(state, elapsedNanos, service, false);
+    }
+
+    public boolean open() {
+        return state == PortState.OPEN;
+    }
+
+    public PortProbeResult asCached() {
+        return new PortProbeResult(state, elapsedNanos, service, true);
+    }
+}
@@ -0,0 +1,40 @@
+package com.project.suporte.ai.support;
+
+import java.net.Inet4Address;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.util.List;
+
+/**
+ * Port scan target validated and resolved once; every probe of the scan reuses {@link #addresses()}.
+ */
+public record PortScanTarget(String host, List<InetAddress> addresses) {
+
+    public PortScanTarget {
+        addresses = List.copyOf(addresses);
+        if (addresses.isEmpty()) {
+            throw new IllegalArgumentException("addresses must not be empty");
+        }
+    }
+
+    public InetAddress preferred() {
+        return addresses.get(0);
+    }
+
+    /**
+     * First IPv6 and first IPv4 address, in the order RFC 8305 attempts them, or just the
+     * preferred address when the host has a single family.
+     */
+    public List<InetAddress> dualStack() {
+        InetAddress ipv6 = addresses.stream().filter(Inet6Address.class::isInstance).findFirst().orElse(null);
+        InetAddress ipv4 = addresses.stream().filter(Inet4Address.class::isInstance).findFirst().orElse(null);
+        if (ipv6 == null || ipv4 == null) {
+            return List.of(preferred());
+        }
+        return List.of(ipv6, ipv4);
+    }
+
+    public static String family(InetAddress address) {
+        return address instanceof Inet6Address ? "ipv6" : "ipv4";
+    }
+}
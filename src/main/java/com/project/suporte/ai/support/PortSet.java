@@ -0,0 +1,148 @@
+package com.project.suporte.ai.support;
+
+import com.project.suporte.ai.exceptions.ApiException;
+import org.springframework.http.HttpStatus;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+public final class PortSet {
+
+    public static final int MIN_PORT = 1;
+    public static final int MAX_PORT = 65_535;
+
+    private static final int[] TOP_100 = {
+            7, 9, 13, 21, 22, 23, 25, 26, 37, 53, 79, 80, 81, 88, 106, 110, 111, 113, 119, 135,
+            139, 143, 144, 179, 199, 389, 427, 443, 444, 445, 465, 513, 514, 515, 543, 544, 548, 554, 587, 631,
+            646, 873, 990, 993, 995, 1025, 1026, 1027, 1028, 1029, 1110, 1433, 1720, 1723, 1755, 1900, 2000, 2001, 2049, 2121,
+            2717, 3000, 3128, 3306, 3389, 3986, 4899, 5000, 5009, 5051, 5060, 5101, 5190, 5357, 5432, 5631, 5666, 5800, 5900, 6000,
+            6001, 6646, 7070, 8000, 8008, 8009, 8080, 8081, 8443, 8888, 9100, 9999, 10000, 32768, 49152, 49153, 49154, 49155, 49156, 49157
+    };
+
+    private final BitSet ports = new BitSet(MAX_PORT + 1);
+
+    public static PortSet of(Collection<Integer> values) {
+        PortSet portSet = new PortSet();
+        values.forEach(portSet::add);
+        return portSet;
+    }
+
+    public static PortSet parse(String specification) {
+        if (specification == null || specification.isBlank()) {
+            throw invalid();
+        }
+
+        PortSet portSet = new PortSet();
+        for (String rawToken : specification.split(",")) {
+            String token = rawToken.trim().toLowerCase(Locale.ROOT);
+            if (token.isEmpty()) {
+                continue;
+            }
+
+            switch (token) {
+                case "all" -> portSet.addRange(MIN_PORT, MAX_PORT);
+                case "top100" -> {
+                    for (int port : TOP_100) {
+                        portSet.add(port);
+                    }
+                }
+                default -> portSet.addToken(token);
+            }
+        }
+
+        if (portSet.isEmpty()) {
+            throw invalid();
+        }
+        return portSet;
+    }
+
+    public void add(int port) {
+        checkPort(port);
+        ports.set(port);
+    }
+
+    public void addRange(int from, int to) {
+        checkPort(from);
+        checkPort(to);
+        ports.set(Math.min(from, to), Math.max(from, to) + 1);
+    }
+
+    public void addAll(PortSet other) {
+        ports.or(other.ports);
+    }
+
+    public boolean contains(int port) {
+        return port >= MIN_PORT && port <= MAX_PORT && ports.get(port);
+    }
+
+    public int size() {
+        return ports.cardinality();
+    }
+
+    public boolean isEmpty() {
+        return ports.isEmpty();
+    }
+
+    public int nextPort(int from) {
+        int next = ports.nextSetBit(Math.max(from, MIN_PORT));
+        return next > MAX_PORT ? -1 : next;
+    }
+
+    public List<Integer> toList() {
+        return toList(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Lowest {@code limit} ports of the set, so callers can list a handful without boxing a full range.
+     */
+    public List<Integer> toList(int limit) {
+        return ports.stream().limit(limit).boxed().toList();
+    }
+
+    public List<String> toRanges() {
+        List<String> ranges = new ArrayList<>();
+        int start = ports.nextSetBit(MIN_PORT);
+        while (start >= 0) {
+            int end = ports.nextClearBit(start) - 1;
+            ranges.add(start == end ? String.valueOf(start) : start + "-" + end);
+            start = ports.nextSetBit(end + 1);
+        }
+        return ranges;
+    }
+
+    private void addToken(String token) {
+        int separator = token.indexOf('-');
+        try {
+            if (separator < 0) {
+                add(Integer.parseInt(token));
+                return;
+            }
+
+            int from = Integer.parseInt(token.substring(0, separator).trim());
+            int to = Integer.parseInt(token.substring(separator + 1).trim());
+            if (from > to) {
+                throw invalid();
+            }
+            addRange(from, to);
+        } catch (NumberFormatException exception) {
+            throw invalid();
+        }
+    }
+
+    private static void checkPort(int port) {
+        if (port < MIN_PORT || port > MAX_PORT) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "invalid_port_range", "As portas devem estar entre 1 e 65535.");
+        }
+    }
+
+    private static ApiException invalid() {
+        return new ApiException(
+                HttpStatus.BAD_REQUEST,
+                "invalid_port_range",
+                "Faixa de portas inválida: use portas, intervalos como 1-1024 ou os presets top100 e all."
+        );
+    }
+}
@@ -0,0 +1,7 @@
+package com.project.suporte.ai.support;
+
+public enum PortState {
+    OPEN,
+    CLOSED,
+    FILTERED
+}
@@ -0,0 +1,54 @@
+package com.project.suporte.ai.support;
+
+import java.util.concurrent.TimeUnit;
+
+public class RttEstimator {
+
+    private static final double ALPHA = 1.0 / 8.0;
+    private static final double BETA = 1.0 / 4.0;
+    private static final int K = 4;
+
+    private final int initialTimeoutMs;
+    private final int minTimeoutMs;
+    private final int maxTimeoutMs;
+    private final int granularityMs;
+    private double smoothedRttMs = -1;
+    private double rttVarianceMs;
+    private long samples;
+
+    public RttEstimator(int initialTimeoutMs, int minTimeoutMs, int maxTimeoutMs, int granularityMs) {
+        this.initialTimeoutMs = initialTimeoutMs;
+        this.minTimeoutMs = minTimeoutMs;
+        this.maxTimeoutMs = maxTimeoutMs;
+        this.granularityMs = granularityMs;
+    }
+
+    public synchronized void sample(long rttNanos) {
+        double rttMs = rttNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        if (samples == 0) {
+            smoothedRttMs = rttMs;
+            rttVarianceMs = rttMs / 2.0;
+        } else {
+            rttVarianceMs = (1 - BETA) * rttVarianceMs + BETA * Math.abs(smoothedRttMs - rttMs);
+            smoothedRttMs = (1 - ALPHA) * smoothedRttMs + ALPHA * rttMs;
+        }
+        samples++;
+    }
+
+    public synchronized int timeoutMs() {
+        if (samples == 0) {
+            return initialTimeoutMs;
+        }
+
+        long timeout = Math.round(Math.ceil(smoothedRttMs + Math.max(granularityMs, K * rttVarianceMs)));
+        return (int) Math.max(minTimeoutMs, Math.min(maxTimeoutMs, timeout));
+    }
+
+    public synchronized Double smoothedRttMs() {
+        return samples == 0 ? null : smoothedRttMs;
+    }
+
+    public synchronized long samples() {
+        return samples;
+    }
+}
@@ -0,0 +1,464 @@
+package com.project.suporte.ai.support;
+
+import com.project.suporte.ai.config.DiagnosticsProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.UnresolvedAddressException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+@Component
+@ConditionalOnProperty(prefix = "diagnostics.portscan", name = "engine", havingValue = "selector", matchIfMissing = true)
+public class SelectorPortProbe implements PortProbe, AutoCloseable {
+
+    private static final int WHEEL_SLOTS = 1024;
+    private static final int DEFAULT_BANNER_BUFFERS = 256;
+    private static final long ADAPTIVE_RECHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(25);
+
+    private final Selector selector;
+    private final DeadlineWheel<Attempt> deadlines;
+    private final Queue<Attempt> pending = new ConcurrentLinkedQueue<>();
+    private final Queue<Attempt> cancelled = new ConcurrentLinkedQueue<>();
+    private final ArrayDeque<Attempt> awaitingBuffer = new ArrayDeque<>();
+    private final DirectBufferPool buffers;
+    private final int maxInFlight;
+    private final Thread reactor;
+    private volatile boolean running = true;
+    private int inFlight;
+
+    @Autowired
+    public SelectorPortProbe(DiagnosticsProperties properties) throws IOException {
+        this(
+                properties.getPortscan().getMaxInFlight(),
+                properties.getPortscan().getTimerTickMs(),
+                properties.getPortscan().getBannerBuffers()
+        );
+    }
+
+    public SelectorPortProbe(int maxInFlight, int timerTickMs) throws IOException {
+        this(maxInFlight, timerTickMs, DEFAULT_BANNER_BUFFERS);
+    }
+
+    public SelectorPortProbe(int maxInFlight, int timerTickMs, int bannerBuffers) throws IOException {
+        this.selector = Selector.open();
+        this.buffers = new DirectBufferPool(ServiceSignatures.RESPONSE_LIMIT, bannerBuffers);
+        this.deadlines = new DeadlineWheel<>(Duration.ofMillis(timerTickMs), WHEEL_SLOTS, System.nanoTime());
+        this.maxInFlight = maxInFlight;
+        this.reactor = Thread.ofPlatform()
+                .name("portscan-reactor")
+                .daemon(true)
+                .start(this::runReactor);
+    }
+
+    @Override
+    public boolean isOpen(InetSocketAddress address, int timeoutMs) {
+        return probe(address, timeoutMs).open();
+    }
+
+    @Override
+    public PortProbeResult probe(InetSocketAddress address, int timeoutMs) {
+        return probeAsync(address, timeoutMs, Runnable::run).join();
+    }
+
+    @Override
+    public CompletableFuture<PortProbeResult> probeAsync(InetSocketAddress address, int timeoutMs, Executor executor) {
+        return submit(address, () -> timeoutMs, false, 0, executor);
+    }
+
+    @Override
+    public CompletableFuture<PortProbeResult> probeAsync(InetSocketAddress address, IntSupplier timeoutMs, Executor executor) {
+        return submit(address, timeoutMs, true, 0, executor);
+    }
+
+    @Override
+    public CompletableFuture<PortProbeResult> probeServiceAsync(
+            InetSocketAddress address,
+            IntSupplier timeoutMs,
+            int readTimeoutMs,
+            Executor executor
+    ) {
+        return submit(address, timeoutMs, true, readTimeoutMs, executor);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        selector.wakeup();
+        reactor.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private CompletableFuture<PortProbeResult> submit(
+            InetSocketAddress address,
+            IntSupplier timeoutMs,
+            boolean adaptive,
+            int readTimeoutMs,
+            Executor executor
+    ) {
+        CompletableFuture<PortProbeResult> future = new CompletableFuture<>();
+        if (!running) {
+            future.completeExceptionally(new IllegalStateException("O motor de varredura foi encerrado."));
+            return future;
+        }
+
+        Attempt attempt = new Attempt(address, timeoutMs, adaptive, readTimeoutMs, executor, future);
+        future.whenComplete((result, error) -> {
+            if (error instanceof CancellationException) {
+                cancelled.add(attempt);
+                selector.wakeup();
+            }
+        });
+        pending.add(attempt);
+        selector.wakeup();
+        return future;
+    }
+
+    private void runReactor() {
+        try {
+            while (running) {
+                closeCancelled();
+                resumeDetections();
+                startPending();
+                selector.select(deadlines.tickMillis());
+                long now = System.nanoTime();
+                completeSelected();
+                deadlines.expire(now, attempt -> {
+                    try {
+                        expire(attempt, now);
+                    } catch (RuntimeException exception) {
+                        abandon(attempt);
+                    }
+                });
+            }
+        } catch (IOException | ClosedSelectorException exception) {
+            running = false;
+        } finally {
+            shutdownReactor();
+        }
+    }
+
+    private void closeCancelled() {
+        Attempt attempt;
+        while ((attempt = cancelled.poll()) != null) {
+            finish(attempt, PortState.FILTERED);
+        }
+    }
+
+    private void startPending() {
+        Attempt attempt;
+        while (inFlight < maxInFlight && (attempt = pending.poll()) != null) {
+            if (!attempt.future.isDone()) {
+                try {
+                    start(attempt);
+                } catch (RuntimeException exception) {
+                    abandon(attempt);
+                }
+            }
+        }
+    }
+
+    private void start(Attempt attempt) {
+        attempt.startedAt = System.nanoTime();
+        try {
+            SocketChannel channel = SocketChannel.open();
+            attempt.channel = channel;
+            channel.configureBlocking(false);
+            boolean connected = channel.connect(attempt.address);
+            attempt.key = channel.register(selector, connected ? 0 : SelectionKey.OP_CONNECT, attempt);
+            attempt.registered = true;
+            inFlight++;
+            if (connected) {
+                connected(attempt, System.nanoTime());
+                return;
+            }
+            scheduleDeadline(attempt, attempt.startedAt);
+        } catch (ConnectException exception) {
+            finish(attempt, PortState.CLOSED);
+        } catch (IOException | UnresolvedAddressException exception) {
+            finish(attempt, PortState.FILTERED);
+        }
+    }
+
+    private void scheduleDeadline(Attempt attempt, long now) {
+        long deadline = attempt.startedAt + TimeUnit.MILLISECONDS.toNanos(attempt.timeoutMs.getAsInt());
+        deadlines.schedule(attempt, attempt.adaptive ? Math.min(deadline, now + ADAPTIVE_RECHECK_NANOS) : deadline);
+    }
+
+    private void expire(Attempt attempt, long now) {
+        if (attempt.finished) {
+            return;
+        }
+
+        if (attempt.stage != Stage.CONNECT) {
+            expireDetection(attempt, now);
+            return;
+        }
+
+        if (attempt.adaptive) {
+            long deadline = attempt.startedAt + TimeUnit.MILLISECONDS.toNanos(attempt.timeoutMs.getAsInt());
+            if (deadline - now > 0) {
+                scheduleDeadline(attempt, now);
+                return;
+            }
+        }
+
+        finish(attempt, PortState.FILTERED);
+    }
+
+    private void completeSelected() {
+        Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+        while (iterator.hasNext()) {
+            SelectionKey key = iterator.next();
+            iterator.remove();
+
+            Attempt attempt = (Attempt) key.attachment();
+            if (!key.isValid()) {
+                continue;
+            }
+
+            try {
+                ready(attempt, key);
+            } catch (RuntimeException exception) {
+                abandon(attempt);
+            }
+        }
+    }
+
+    private void ready(Attempt attempt, SelectionKey key) {
+        if (attempt.stage != Stage.CONNECT) {
+            exchange(attempt, key);
+            return;
+        }
+
+        try {
+            if (attempt.channel.finishConnect()) {
+                connected(attempt, System.nanoTime());
+            }
+        } catch (ConnectException exception) {
+            finish(attempt, PortState.CLOSED);
+        } catch (IOException exception) {
+            finish(attempt, PortState.FILTERED);
+        }
+    }
+
+    /**
+     * Ends an attempt whose step threw unexpectedly (a cancelled key, a failing timeout supplier), so one
+     * bad attempt never takes the reactor thread down: FILTERED before the connect, OPEN after it.
+     */
+    private void abandon(Attempt attempt) {
+        finish(attempt, attempt.stage == Stage.CONNECT ? PortState.FILTERED : PortState.OPEN);
+    }
+
+    private void connected(Attempt attempt, long now) {
+        attempt.connectNanos = now - attempt.startedAt;
+        if (attempt.readTimeoutMs <= 0) {
+            finish(attempt, PortState.OPEN);
+            return;
+        }
+
+        attempt.stage = Stage.AWAITING_BUFFER;
+        attempt.key.interestOps(0);
+        awaitingBuffer.addLast(attempt);
+    }
+
+    private void resumeDetections() {
+        while (!awaitingBuffer.isEmpty()) {
+            Attempt attempt = awaitingBuffer.peekFirst();
+            if (attempt.finished) {
+                awaitingBuffer.pollFirst();
+                continue;
+            }
+
+            ByteBuffer buffer = buffers.acquire();
+            if (buffer == null) {
+                return;
+            }
+            awaitingBuffer.pollFirst();
+            attempt.buffer = buffer;
+            try {
+                beginDetection(attempt, System.nanoTime());
+            } catch (RuntimeException exception) {
+                abandon(attempt);
+            }
+        }
+    }
+
+    private void beginDetection(Attempt attempt, long now) {
+        attempt.detectionDeadline = now + TimeUnit.MILLISECONDS.toNanos(attempt.readTimeoutMs);
+        attempt.request = ServiceSignatures.initialProbe(attempt.address.getPort());
+        if (attempt.request == null) {
+            attempt.stage = Stage.GREETING;
+            attempt.key.interestOps(SelectionKey.OP_READ);
+            schedule(attempt, now + TimeUnit.MILLISECONDS.toNanos(ServiceSignatures.greetingWaitMs(attempt.readTimeoutMs)));
+            return;
+        }
+        sendRequest(attempt);
+    }
+
+    private void sendRequest(Attempt attempt) {
+        attempt.stage = Stage.RESPONSE;
+        attempt.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        schedule(attempt, attempt.detectionDeadline);
+    }
+
+    private void schedule(Attempt attempt, long deadline) {
+        attempt.stageDeadline = deadline;
+        deadlines.schedule(attempt, deadline);
+    }
+
+    private void expireDetection(Attempt attempt, long now) {
+        if (attempt.stage == Stage.AWAITING_BUFFER || attempt.stageDeadline - now > 0) {
+            return;
+        }
+
+        if (attempt.stage == Stage.GREETING && attempt.buffer.position() == 0) {
+            attempt.request = ServiceSignatures.fallbackProbe();
+            sendRequest(attempt);
+            return;
+        }
+        finishDetection(attempt);
+    }
+
+    private void exchange(Attempt attempt, SelectionKey key) {
+        try {
+            if (key.isWritable()) {
+                attempt.channel.write(attempt.request);
+                if (!attempt.request.hasRemaining()) {
+                    key.interestOps(SelectionKey.OP_READ);
+                }
+            }
+            if (key.isValid() && key.isReadable()) {
+                int read = attempt.channel.read(attempt.buffer);
+                if (read < 0 || ServiceSignatures.isComplete(attempt.buffer)) {
+                    finishDetection(attempt);
+                } else if (read > 0 && attempt.stage == Stage.GREETING) {
+                    attempt.stage = Stage.RESPONSE;
+                    schedule(attempt, attempt.detectionDeadline);
+                }
+            }
+        } catch (IOException exception) {
+            finishDetection(attempt);
+        }
+    }
+
+    private void finishDetection(Attempt attempt) {
+        attempt.service = ServiceSignatures.match(attempt.address.getPort(), attempt.buffer);
+        finish(attempt, PortState.OPEN);
+    }
+
+    private void finish(Attempt attempt, PortState state) {
+        if (attempt.finished) {
+            return;
+        }
+
+        attempt.finished = true;
+        if (attempt.registered) {
+            inFlight--;
+        }
+        closeQuietly(attempt.channel);
+        if (attempt.buffer != null) {
+            buffers.release(attempt.buffer);
+            attempt.buffer = null;
+        }
+
+        long elapsed = attempt.stage == Stage.CONNECT ? System.nanoTime() - attempt.startedAt : attempt.connectNanos;
+        PortProbeResult result = new PortProbeResult(state, elapsed, attempt.service);
+        try {
+            attempt.executor.execute(() -> attempt.future.complete(result));
+        } catch (RuntimeException exception) {
+            attempt.future.complete(result);
+        }
+    }
+
+    private void shutdownReactor() {
+        IllegalStateException stopped = new IllegalStateException("O motor de varredura foi encerrado.");
+        deadlines.drain(attempt -> {
+            if (!attempt.finished) {
+                closeQuietly(attempt.channel);
+                attempt.future.completeExceptionally(stopped);
+            }
+        });
+
+        Attempt attempt;
+        while ((attempt = awaitingBuffer.poll()) != null) {
+            if (!attempt.finished) {
+                closeQuietly(attempt.channel);
+                attempt.future.completeExceptionally(stopped);
+            }
+        }
+        while ((attempt = pending.poll()) != null) {
+            attempt.future.completeExceptionally(stopped);
+        }
+
+        try {
+            selector.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void closeQuietly(SocketChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private enum Stage { CONNECT, AWAITING_BUFFER, GREETING, RESPONSE }
+
+    private static final class Attempt {
+        private final InetSocketAddress address;
+        private final IntSupplier timeoutMs;
+        private final boolean adaptive;
+        private final int readTimeoutMs;
+        private final Executor executor;
+        private final CompletableFuture<PortProbeResult> future;
+        private SocketChannel channel;
+        private SelectionKey key;
+        private Stage stage = Stage.CONNECT;
+        private ByteBuffer buffer;
+        private ByteBuffer request;
+        private ServiceBanner service;
+        private long startedAt;
+        private long connectNanos;
+        private long detectionDeadline;
+        private long stageDeadline;
+        private boolean registered;
+        private boolean finished;
+
+        private Attempt(
+                InetSocketAddress address,
+                IntSupplier timeoutMs,
+                boolean adaptive,
+                int readTimeoutMs,
+                Executor executor,
+                CompletableFuture<PortProbeResult> future
+        ) {
+            this.address = address;
+            this.timeoutMs = timeoutMs;
+            this.adaptive = adaptive;
+            this.readTimeoutMs = readTimeoutMs;
+            this.executor = executor;
+            this.future = future;
+        }
+    }
+}
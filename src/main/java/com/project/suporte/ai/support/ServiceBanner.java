@@ -0,0 +1,4 @@
+package com.project.suporte.ai.support;
+
+public record ServiceBanner(String service, String banner) {
+}
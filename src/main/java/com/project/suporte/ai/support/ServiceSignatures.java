@@ -0,0 +1,194 @@
+package com.project.suporte.ai.support;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Protocol probes and the signature table used to name the service behind an open port.
+ * Ports that usually greet first (SSH, FTP, SMTP, POP3, IMAP) get a short wait before any
+ * probe is written; HTTP and TLS ports are probed immediately.
+ */
+public final class ServiceSignatures {
+
+    public static final int RESPONSE_LIMIT = 1_024;
+
+    private static final int MAX_BANNER_LENGTH = 120;
+    private static final int MAX_GREETING_WAIT_MS = 500;
+    private static final Set<Integer> HTTP_PORTS = Set.of(80, 81, 591, 3000, 5000, 8000, 8008, 8080, 8081, 8888, 9000);
+    private static final Set<Integer> TLS_PORTS = Set.of(443, 465, 636, 853, 993, 995, 5986, 8443, 9443);
+    private static final byte[] HTTP_HEAD = "HEAD / HTTP/1.0\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TLS_CLIENT_HELLO = clientHello();
+    private static final Pattern HTTP_SERVER = Pattern.compile("(?im)^server:\\s*(.+)$");
+
+    private static final List<Signature> SIGNATURES = List.of(
+            new Signature("ssh", Pattern.compile("^SSH-\\d")),
+            new Signature("http", Pattern.compile("^HTTP/\\d")),
+            new Signature("ftp", Pattern.compile("^220[ -].*(ftp|filezilla)", Pattern.CASE_INSENSITIVE)),
+            new Signature("smtp", Pattern.compile("^220[ -].*(smtp|mail|postfix|exim|sendmail)", Pattern.CASE_INSENSITIVE)),
+            new Signature("pop3", Pattern.compile("^\\+OK")),
+            new Signature("imap", Pattern.compile("^\\* (OK|PREAUTH)")),
+            new Signature("vnc", Pattern.compile("^RFB \\d{3}\\.\\d{3}")),
+            new Signature("redis", Pattern.compile("^-(ERR|NOAUTH|DENIED)")),
+            new Signature("rtsp", Pattern.compile("^RTSP/\\d"))
+    );
+
+    private ServiceSignatures() {
+    }
+
+    /**
+     * Probe to write right after connecting, or {@code null} when the server is expected to speak first.
+     */
+    public static ByteBuffer initialProbe(int port) {
+        if (TLS_PORTS.contains(port)) {
+            return ByteBuffer.wrap(TLS_CLIENT_HELLO).asReadOnlyBuffer();
+        }
+        if (HTTP_PORTS.contains(port)) {
+            return fallbackProbe();
+        }
+        return null;
+    }
+
+    /**
+     * Probe written when a greeting-first port stays silent.
+     */
+    public static ByteBuffer fallbackProbe() {
+        return ByteBuffer.wrap(HTTP_HEAD).asReadOnlyBuffer();
+    }
+
+    public static int greetingWaitMs(int readTimeoutMs) {
+        return Math.min(MAX_GREETING_WAIT_MS, Math.max(1, readTimeoutMs / 2));
+    }
+
+    /**
+     * Whether enough bytes arrived to stop reading: a full line, a TLS record header or a full buffer.
+     */
+    public static boolean isComplete(ByteBuffer response) {
+        int length = response.position();
+        if (length == 0) {
+            return false;
+        }
+        if (!response.hasRemaining() || isTlsRecord(response, length)) {
+            return true;
+        }
+        if (length >= 7 && response.get(0) == 'H' && response.get(1) == 'T') {
+            return containsHeaderEnd(response, length);
+        }
+        for (int index = 0; index < length; index++) {
+            if (response.get(index) == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Names the service from the bytes in {@code [0, response.position())}.
+     */
+    public static ServiceBanner match(int port, ByteBuffer response) {
+        int length = response.position();
+        if (length == 0) {
+            return new ServiceBanner("unknown", null);
+        }
+        if (isTlsRecord(response, length)) {
+            return new ServiceBanner("tls", response.get(0) == 0x16 ? "TLS ServerHello" : "TLS alert");
+        }
+        if (isMysqlGreeting(response, length)) {
+            return new ServiceBanner("mysql", printable(response, 5, length));
+        }
+
+        String text = printable(response, 0, length);
+        for (Signature signature : SIGNATURES) {
+            if (signature.pattern().matcher(text).find()) {
+                return new ServiceBanner(signature.service(), banner(signature.service(), response, length, text));
+            }
+        }
+        if (text.startsWith("220")) {
+            return new ServiceBanner(port == 21 ? "ftp" : "smtp", text);
+        }
+        return new ServiceBanner("unknown", text.isEmpty() ? null : text);
+    }
+
+    private static String banner(String service, ByteBuffer response, int length, String firstLine) {
+        if (!"http".equals(service)) {
+            return firstLine;
+        }
+
+        byte[] bytes = new byte[length];
+        response.get(0, bytes);
+        Matcher server = HTTP_SERVER.matcher(new String(bytes, StandardCharsets.ISO_8859_1));
+        return server.find() ? truncate(firstLine + " | " + server.group(1).trim()) : firstLine;
+    }
+
+    private static boolean isTlsRecord(ByteBuffer response, int length) {
+        return length >= 5 && (response.get(0) == 0x16 || response.get(0) == 0x15) && response.get(1) == 0x03;
+    }
+
+    private static boolean isMysqlGreeting(ByteBuffer response, int length) {
+        return length > 5 && response.get(3) == 0 && response.get(4) == 0x0a;
+    }
+
+    private static boolean containsHeaderEnd(ByteBuffer response, int length) {
+        for (int index = 3; index < length; index++) {
+            if (response.get(index) == '\n' && response.get(index - 2) == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String printable(ByteBuffer response, int from, int length) {
+        StringBuilder text = new StringBuilder(Math.min(length - from, MAX_BANNER_LENGTH));
+        for (int index = from; index < length && text.length() < MAX_BANNER_LENGTH; index++) {
+            int value = Byte.toUnsignedInt(response.get(index));
+            if (value == '\r' || value == '\n' || value == 0) {
+                if (!text.isEmpty()) {
+                    break;
+                }
+                continue;
+            }
+            text.append(value >= 0x20 && value < 0x7f ? (char) value : '.');
+        }
+        return text.toString().trim();
+    }
+
+    private static String truncate(String value) {
+        return value.length() > MAX_BANNER_LENGTH ? value.substring(0, MAX_BANNER_LENGTH) : value;
+    }
+
+    private static byte[] clientHello() {
+        ByteArrayOutputStream extensions = new ByteArrayOutputStream();
+        writeBytes(extensions, 0x00, 0x0a, 0x00, 0x06, 0x00, 0x04, 0x00, 0x1d, 0x00, 0x17);
+        writeBytes(extensions, 0x00, 0x0b, 0x00, 0x02, 0x01, 0x00);
+        writeBytes(extensions, 0x00, 0x0d, 0x00, 0x08, 0x00, 0x06, 0x04, 0x03, 0x08, 0x04, 0x04, 0x01);
+
+        ByteArrayOutputStream hello = new ByteArrayOutputStream();
+        writeBytes(hello, 0x03, 0x03);
+        hello.writeBytes(new byte[32]);
+        writeBytes(hello, 0x00);
+        writeBytes(hello, 0x00, 0x0a, 0xc0, 0x2b, 0xc0, 0x2f, 0xc0, 0x30, 0x00, 0x9c, 0x00, 0x2f);
+        writeBytes(hello, 0x01, 0x00);
+        writeBytes(hello, extensions.size() >>> 8, extensions.size());
+        hello.writeBytes(extensions.toByteArray());
+
+        int handshakeLength = hello.size() + 4;
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        writeBytes(record, 0x16, 0x03, 0x01, handshakeLength >>> 8, handshakeLength);
+        writeBytes(record, 0x01, hello.size() >>> 16, hello.size() >>> 8, hello.size());
+        record.writeBytes(hello.toByteArray());
+        return record.toByteArray();
+    }
+
+    private static void writeBytes(ByteArrayOutputStream output, int... values) {
+        for (int value : values) {
+            output.write(value & 0xFF);
+        }
+    }
+
+    private record Signature(String service, Pattern pattern) {
+    }
+}
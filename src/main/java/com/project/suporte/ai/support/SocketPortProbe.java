@@ -1,21 +1,99 @@
 package com.project.suporte.ai.support;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
 import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
 
 @Component
+@ConditionalOnProperty(prefix = "diagnostics.portscan", name = "engine", havingValue = "blocking")
 public class SocketPortProbe implements PortProbe {
 
     @Override
     public boolean isOpen(InetSocketAddress address, int timeoutMs) {
+        return probe(address, timeoutMs).open();
+    }
+
+    @Override
+    public PortProbeResult probe(InetSocketAddress address, int timeoutMs) {
+        return probe(address, timeoutMs, 0);
+    }
+
+    @Override
+    public CompletableFuture<PortProbeResult> probeServiceAsync(
+            InetSocketAddress address,
+            IntSupplier timeoutMs,
+            int readTimeoutMs,
+            Executor executor
+    ) {
+        return CompletableFuture.supplyAsync(() -> probe(address, timeoutMs.getAsInt(), readTimeoutMs), executor);
+    }
+
+    private PortProbeResult probe(InetSocketAddress address, int timeoutMs, int readTimeoutMs) {
+        long startedAt = System.nanoTime();
         try (Socket socket = new Socket()) {
             socket.connect(address, timeoutMs);
-            return true;
+            long elapsed = System.nanoTime() - startedAt;
+            ServiceBanner service = readTimeoutMs > 0 ? grabBanner(socket, address.getPort(), readTimeoutMs) : null;
+            return new PortProbeResult(PortState.OPEN, elapsed, service);
+        } catch (ConnectException exception) {
+            return new PortProbeResult(PortState.CLOSED, System.nanoTime() - startedAt);
+        } catch (IOException exception) {
+            return new PortProbeResult(PortState.FILTERED, System.nanoTime() - startedAt);
+        }
+    }
+
+    private ServiceBanner grabBanner(Socket socket, int port, int readTimeoutMs) {
+        byte[] bytes = new byte[ServiceSignatures.RESPONSE_LIMIT];
+        ByteBuffer response = ByteBuffer.wrap(bytes);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(readTimeoutMs);
+        try {
+            InputStream input = socket.getInputStream();
+            ByteBuffer probe = ServiceSignatures.initialProbe(port);
+            if (probe == null) {
+                socket.setSoTimeout(ServiceSignatures.greetingWaitMs(readTimeoutMs));
+                try {
+                    fill(input, response);
+                } catch (SocketTimeoutException silent) {
+                    probe = ServiceSignatures.fallbackProbe();
+                }
+            }
+            if (probe != null) {
+                Channels.newChannel(socket.getOutputStream()).write(probe);
+            }
+
+            while (!ServiceSignatures.isComplete(response)) {
+                long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMs <= 0) {
+                    break;
+                }
+                socket.setSoTimeout((int) remainingMs);
+                if (!fill(input, response)) {
+                    break;
+                }
+            }
         } catch (IOException ignored) {
+        }
+        return ServiceSignatures.match(port, response);
+    }
+
+    private boolean fill(InputStream input, ByteBuffer response) throws IOException {
+        int read = input.read(response.array(), response.position(), response.remaining());
+        if (read < 0) {
             return false;
         }
+        response.position(response.position() + read);
+        return true;
     }
 }
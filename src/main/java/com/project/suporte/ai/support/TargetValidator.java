@@ -10,6 +10,7 @@ import java.net.InetAddress;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
@@ -76,18 +77,84 @@ public class TargetValidator {
     }
 
     public String normalizePortScanTarget(String rawTarget) {
+        return resolvePortScanTarget(rawTarget).host();
+    }
+
+    public PortScanTarget resolvePortScanTarget(String rawTarget) {
         String target = normalizeTarget(rawTarget);
 
         if ("localhost".equalsIgnoreCase(target)) {
             throw new ApiException(HttpStatus.FORBIDDEN, "restricted_target", "Port scan em localhost ou redes privadas não é permitido.");
         }
 
-        boolean hasRestrictedAddress = resolveAddresses(target).stream().anyMatch(this::isRestricted);
+        List<InetAddress> addresses = resolveAddresses(target);
+        if (addresses.isEmpty()) {
+            throw new ApiException(HttpStatus.NOT_FOUND, "target_not_found", "Não foi possível resolver o alvo informado.");
+        }
+        boolean hasRestrictedAddress = addresses.stream().anyMatch(this::isRestricted);
         if (hasRestrictedAddress) {
             throw new ApiException(HttpStatus.FORBIDDEN, "restricted_target", "Port scan em localhost ou redes privadas não é permitido.");
         }
 
-        return target;
+        return new PortScanTarget(target, addresses);
+    }
+
+    public List<PortScanTarget> expandPortScanCidr(String rawCidr, int maxHosts) {
+        String[] parts = rawCidr == null ? new String[0] : rawCidr.trim().split("/", -1);
+        if (parts.length != 2 || !isIpLiteral(parts[0].toLowerCase(Locale.ROOT))) {
+            throw invalidCidr();
+        }
+
+        byte[] network;
+        int prefix;
+        try {
+            network = InetAddress.getByName(parts[0]).getAddress();
+            prefix = Integer.parseInt(parts[1]);
+        } catch (UnknownHostException | NumberFormatException exception) {
+            throw invalidCidr();
+        }
+
+        int hostBits = network.length * 8 - prefix;
+        if (prefix < 0 || hostBits < 0) {
+            throw invalidCidr();
+        }
+        if (hostBits >= 31 || (1L << hostBits) > maxHosts) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "too_many_hosts", "O bloco CIDR excede o limite de hosts por varredura.");
+        }
+
+        for (int bit = prefix; bit < network.length * 8; bit++) {
+            network[bit / 8] &= (byte) ~(0x80 >>> (bit % 8));
+        }
+
+        List<PortScanTarget> targets = new ArrayList<>(1 << hostBits);
+        for (int offset = 0; offset < 1 << hostBits; offset++) {
+            byte[] bytes = network.clone();
+            int carry = offset;
+            for (int index = bytes.length - 1; index >= 0 && carry != 0; index--) {
+                int sum = Byte.toUnsignedInt(bytes[index]) + (carry & 0xFF);
+                bytes[index] = (byte) sum;
+                carry = (carry >>> 8) + (sum >>> 8);
+            }
+
+            InetAddress address = toAddress(bytes);
+            if (isRestricted(address)) {
+                throw new ApiException(HttpStatus.FORBIDDEN, "restricted_target", "Port scan em localhost ou redes privadas não é permitido.");
+            }
+            targets.add(new PortScanTarget(address.getHostAddress(), List.of(address)));
+        }
+        return targets;
+    }
+
+    private InetAddress toAddress(byte[] bytes) {
+        try {
+            return InetAddress.getByAddress(bytes);
+        } catch (UnknownHostException exception) {
+            throw invalidCidr();
+        }
+    }
+
+    private ApiException invalidCidr() {
+        return new ApiException(HttpStatus.BAD_REQUEST, "invalid_cidr", "Informe um bloco CIDR válido, como 203.0.113.0/28.");
     }
 
     private String extractHost(String rawTarget) {
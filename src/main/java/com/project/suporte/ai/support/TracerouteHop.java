@@ -0,0 +1,20 @@
+package com.project.suporte.ai.support;
+
+import java.util.List;
+
+/**
+ * One parsed traceroute hop. {@code rttsMs} has one entry per probe, in output order, with {@code null}
+ * for a probe that timed out ({@code *}).
+ */
+public record TracerouteHop(int hop, String address, String hostname, List<Double> rttsMs) {
+
+    public int timeouts() {
+        int timeouts = 0;
+        for (Double rtt : rttsMs) {
+            if (rtt == null) {
+                timeouts++;
+            }
+        }
+        return timeouts;
+    }
+}
@@ -0,0 +1,167 @@
+package com.project.suporte.ai.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parses one line of Linux {@code traceroute} or Windows {@code tracert} output (any locale) into a
+ * {@link TracerouteHop}. Headers, footers and blank lines are not hops and yield {@code null}, so callers
+ * can feed every line as it arrives. {@code tracert}'s {@code <1 ms} is reported as 1 ms; when Linux
+ * prints several responders for one hop only the first address is kept.
+ */
+public final class TracerouteOutputParser {
+
+    private static final int MAX_HOP = 255;
+
+    private TracerouteOutputParser() {
+    }
+
+    public static TracerouteHop parse(String line) {
+        String[] tokens = line.trim().split("\\s+");
+        if (tokens.length < 2) {
+            return null;
+        }
+        int hop = hopNumber(tokens[0]);
+        if (hop < 1) {
+            return null;
+        }
+
+        String address = null;
+        String hostname = null;
+        String previousWord = null;
+        List<Double> rtts = new ArrayList<>();
+        for (int index = 1; index < tokens.length; index++) {
+            String token = tokens[index];
+            if (token.equals("*")) {
+                rtts.add(null);
+                previousWord = null;
+                continue;
+            }
+
+            Double rtt = rtt(token, index + 1 < tokens.length ? tokens[index + 1] : null);
+            if (rtt != null) {
+                rtts.add(rtt);
+                if (!token.endsWith("ms")) {
+                    index++;
+                }
+                previousWord = null;
+                continue;
+            }
+
+            String enclosed = enclosed(token);
+            if (enclosed != null) {
+                if (address == null && isAddress(enclosed)) {
+                    address = enclosed;
+                    hostname = previousWord == null || previousWord.equals(enclosed) ? null : previousWord;
+                }
+                previousWord = null;
+                continue;
+            }
+
+            if (address == null && isAddress(token) && !isEnclosedNext(tokens, index)) {
+                address = token;
+            }
+            previousWord = token;
+        }
+
+        if (address == null && rtts.isEmpty()) {
+            return null;
+        }
+        return new TracerouteHop(hop, address, hostname, Collections.unmodifiableList(rtts));
+    }
+
+    private static int hopNumber(String token) {
+        if (token.isEmpty() || token.length() > 3) {
+            return -1;
+        }
+        int hop = 0;
+        for (int index = 0; index < token.length(); index++) {
+            char current = token.charAt(index);
+            if (current < '0' || current > '9') {
+                return -1;
+            }
+            hop = hop * 10 + (current - '0');
+        }
+        return hop <= MAX_HOP ? hop : -1;
+    }
+
+    /**
+     * A latency is a number followed by a separate {@code ms} token ({@code 0.456 ms}, {@code <1 ms}) or
+     * glued to it ({@code 12ms}).
+     */
+    private static Double rtt(String token, String next) {
+        String number;
+        if (token.endsWith("ms") && token.length() > 2) {
+            number = token.substring(0, token.length() - 2);
+        } else if ("ms".equals(next)) {
+            number = token;
+        } else {
+            return null;
+        }
+        if (number.startsWith("<")) {
+            number = number.substring(1);
+        }
+        if (number.isEmpty() || !Character.isDigit(number.charAt(0)) || !Character.isDigit(number.charAt(number.length() - 1))) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(number.replace(',', '.'));
+        } catch (NumberFormatException exception) {
+            return null;
+        }
+    }
+
+    private static String enclosed(String token) {
+        if (token.length() < 3) {
+            return null;
+        }
+        char first = token.charAt(0);
+        char last = token.charAt(token.length() - 1);
+        if ((first == '(' && last == ')') || (first == '[' && last == ']')) {
+            return token.substring(1, token.length() - 1);
+        }
+        return null;
+    }
+
+    private static boolean isEnclosedNext(String[] tokens, int index) {
+        return index + 1 < tokens.length && enclosed(tokens[index + 1]) != null;
+    }
+
+    private static boolean isAddress(String value) {
+        return isIpv4(value) || isIpv6(value);
+    }
+
+    private static boolean isIpv4(String value) {
+        int dots = 0;
+        int digits = 0;
+        for (int index = 0; index < value.length(); index++) {
+            char current = value.charAt(index);
+            if (current == '.') {
+                if (digits == 0) {
+                    return false;
+                }
+                dots++;
+                digits = 0;
+            } else if (current >= '0' && current <= '9' && digits < 3) {
+                digits++;
+            } else {
+                return false;
+            }
+        }
+        return dots == 3 && digits > 0;
+    }
+
+    private static boolean isIpv6(String value) {
+        if (value.indexOf(':') < 0) {
+            return false;
+        }
+        for (int index = 0; index < value.length(); index++) {
+            char current = value.charAt(index);
+            if (Character.digit(current, 16) < 0 && current != ':' && current != '.' && current != '%') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -9,6 +9,7 @@ const MAX_MONITOR_VISIBLE_LINES = 180;
 let activeMonitorId = null;
 let activeMonitorFilter = 'all';
 let monitorPersistTimer = null;
+const monitorChannel = { source: null, id: null };
 
 function readHistory() {
     try {
@@ -123,16 +124,24 @@ function setTerminalPlaceholder(id, message) {
 }
 
 function appendTerminalLine(id, type, message) {
+    appendTerminalLines(id, type, [message]);
+}
+
+function appendTerminalLines(id, type, messages) {
     const element = document.getElementById(id);
 
     if (element.querySelector('.stream-placeholder')) {
         element.replaceChildren();
     }
 
-    const line = document.createElement('div');
-    line.className = `stream-line type-${type}`;
-    line.textContent = message;
-    element.append(line);
+    const fragment = document.createDocumentFragment();
+    messages.forEach((message) => {
+        const line = document.createElement('div');
+        line.className = `stream-line type-${type}`;
+        line.textContent = message;
+        fragment.append(line);
+    });
+    element.append(fragment);
     element.scrollTop = element.scrollHeight;
 }
 
@@ -167,14 +176,30 @@ function startStream(key, url, outputId, historyLabel, historyValue) {
     let historyRegistered = false;
     activeStreams.set(key, source);
 
-    ['started', 'output', 'completed', 'error', 'timeout'].forEach((eventName) => {
+    ['started', 'output', 'hop', 'enriched', 'completed', 'error', 'timeout'].forEach((eventName) => {
         source.addEventListener(eventName, (event) => {
             if (!event.data) {
                 return;
             }
 
             const payload = JSON.parse(event.data);
-            appendTerminalLine(outputId, payload.type, payload.message);
+            if (payload.type === 'hop') {
+                if (payload.cached) {
+                    appendTerminalLine(outputId, 'output', formatHop(payload));
+                }
+                return;
+            }
+
+            if (payload.type === 'enriched') {
+                appendTerminalLine(outputId, 'output', formatHopEnrichment(payload));
+                return;
+            }
+
+            if (Array.isArray(payload.lines)) {
+                appendTerminalLines(outputId, payload.type, payload.lines);
+            } else {
+                appendTerminalLine(outputId, payload.type, payload.message);
+            }
 
             if (payload.type === 'started' && !historyRegistered) {
                 historyRegistered = true;
@@ -195,6 +220,18 @@ function startStream(key, url, outputId, historyLabel, historyValue) {
     };
 }
 
+function formatHop(hop) {
+    const probes = hop.rttsMs.map((rtt) => (rtt === null ? '*' : formatLatency(rtt))).join('  ');
+    const address = hop.address ? (hop.hostname ? `${hop.hostname} (${hop.address})` : hop.address) : '';
+    return `${String(hop.hop).padStart(2, ' ')}  ${address}  ${probes}`.trimEnd();
+}
+
+function formatHopEnrichment(enrichment) {
+    const place = [enrichment.city, enrichment.country].filter(Boolean).join(', ');
+    const details = [enrichment.hostname, enrichment.asn, place, enrichment.message].filter(Boolean).join(' | ');
+    return `    salto ${enrichment.hop} ${enrichment.address}: ${details || 'sem dados adicionais'}`;
+}
+
 function formatLatency(latency) {
     if (typeof latency !== 'number' || Number.isNaN(latency)) {
         return '--';
@@ -329,12 +366,17 @@ function createMonitorSidebarEmpty(message = 'Nao ha monitores registrados.') {
 function createMonitorRecord(snapshot) {
     return {
         id: snapshot.id || createMonitorId(),
+        serverId: snapshot.serverId || null,
         name: snapshot.name,
         target: snapshot.target,
         createdAt: toFiniteNumber(snapshot.createdAt, Date.now()),
         intervalMs: toFiniteNumber(snapshot.intervalMs, 5000),
         timeoutMs: toFiniteNumber(snapshot.timeoutMs, 2000),
-        source: null,
+        probe: snapshot.probe || 'icmp',
+        port: toFiniteNumber(snapshot.port, 443),
+        joined: false,
+        detaching: null,
+        historyRegistered: false,
         intentionalClose: false,
         awaitingReconnect: false,
         running: Boolean(snapshot.running),
@@ -342,6 +384,8 @@ function createMonitorRecord(snapshot) {
         connected: Boolean(snapshot.connected),
         currentLatencyMs: snapshot.currentLatencyMs == null ? null : toFiniteNumber(snapshot.currentLatencyMs, null),
         averageLatencyMs: snapshot.averageLatencyMs == null ? null : toFiniteNumber(snapshot.averageLatencyMs, null),
+        p95LatencyMs: snapshot.p95LatencyMs == null ? null : toFiniteNumber(snapshot.p95LatencyMs, null),
+        jitterMs: snapshot.jitterMs == null ? null : toFiniteNumber(snapshot.jitterMs, null),
         attempts: toFiniteNumber(snapshot.attempts, 0),
         successfulAttempts: toFiniteNumber(snapshot.successfulAttempts, 0),
         failedAttempts: toFiniteNumber(snapshot.failedAttempts, 0),
@@ -356,16 +400,21 @@ function createMonitorRecord(snapshot) {
 function serializeMonitor(monitor) {
     return {
         id: monitor.id,
+        serverId: monitor.serverId,
         name: monitor.name,
         target: monitor.target,
         createdAt: monitor.createdAt,
         intervalMs: monitor.intervalMs,
         timeoutMs: monitor.timeoutMs,
+        probe: monitor.probe,
+        port: monitor.port,
         running: monitor.running,
         status: monitor.status,
         connected: monitor.connected,
         currentLatencyMs: monitor.currentLatencyMs,
         averageLatencyMs: monitor.averageLatencyMs,
+        p95LatencyMs: monitor.p95LatencyMs,
+        jitterMs: monitor.jitterMs,
         attempts: monitor.attempts,
         successfulAttempts: monitor.successfulAttempts,
         failedAttempts: monitor.failedAttempts,
@@ -693,6 +742,8 @@ function createMonitorDetail(monitor) {
     [
         ['Ping atual', formatLatency(monitor.currentLatencyMs)],
         ['Ping medio', formatLatency(monitor.averageLatencyMs)],
+        ['Ping p95', formatLatency(monitor.p95LatencyMs)],
+        ['Jitter', formatLatency(monitor.jitterMs)],
         ['Tentativas', String(monitor.attempts)],
         ['Sucessos', String(monitor.successfulAttempts)],
         ['Falhas', String(monitor.failedAttempts)],
@@ -845,6 +896,12 @@ function updateMonitorFromPayload(monitor, payload) {
     if (hasOwn('averageLatencyMs')) {
         monitor.averageLatencyMs = payload.averageLatencyMs == null ? null : toFiniteNumber(payload.averageLatencyMs, null);
     }
+    if (hasOwn('p95LatencyMs')) {
+        monitor.p95LatencyMs = payload.p95LatencyMs == null ? null : toFiniteNumber(payload.p95LatencyMs, null);
+    }
+    if (hasOwn('jitterMs')) {
+        monitor.jitterMs = payload.jitterMs == null ? null : toFiniteNumber(payload.jitterMs, null);
+    }
     if (hasOwn('attempts')) {
         monitor.attempts = toFiniteNumber(payload.attempts, monitor.attempts);
     }
@@ -869,9 +926,141 @@ function disconnectMonitorSource(monitor, intentional = true) {
     monitor.intentionalClose = intentional;
     monitor.awaitingReconnect = false;
 
-    if (monitor.source) {
-        monitor.source.close();
-        monitor.source = null;
+    if (monitor.joined) {
+        monitor.joined = false;
+        detachMonitorFromChannel(monitor);
+    }
+}
+
+function hasRunningMonitors(except = null) {
+    return getMonitorEntries().some((monitor) => monitor !== except && monitor.running);
+}
+
+function closeMonitorChannel() {
+    if (monitorChannel.source) {
+        monitorChannel.source.close();
+    }
+    monitorChannel.source = null;
+    monitorChannel.id = null;
+}
+
+function ensureMonitorChannel() {
+    if (monitorChannel.source) {
+        return;
+    }
+
+    const source = new EventSource('/api/v1/ping/monitor/channels');
+    monitorChannel.source = source;
+
+    source.addEventListener('channel', (event) => {
+        if (!event.data || monitorChannel.source !== source) {
+            return;
+        }
+
+        monitorChannel.id = JSON.parse(event.data).channel;
+        getMonitorEntries()
+            .filter((monitor) => monitor.running)
+            .forEach((monitor) => {
+                monitor.joined = false;
+                attachMonitorToChannel(monitor);
+            });
+    });
+
+    ['started', 'sample', 'gap', 'completed', 'error'].forEach((eventName) => {
+        source.addEventListener(eventName, (event) => {
+            if (!event.data || monitorChannel.source !== source) {
+                return;
+            }
+
+            const payload = JSON.parse(event.data);
+            const monitor = monitorStore.get(payload.monitor);
+            if (!monitor || !monitor.running || !monitor.joined || !payload.event) {
+                return;
+            }
+            handleMonitorEvent(monitor, eventName, payload.event);
+        });
+    });
+
+    source.onerror = () => {
+        if (monitorChannel.source !== source) {
+            return;
+        }
+
+        monitorChannel.id = null;
+        getMonitorEntries()
+            .filter((monitor) => monitor.running && !monitor.intentionalClose)
+            .forEach((monitor) => {
+                monitor.joined = false;
+                if (!monitor.awaitingReconnect) {
+                    monitor.awaitingReconnect = true;
+                    monitor.connected = false;
+                    monitor.status = 'CONNECTING';
+                    appendMonitorLog(monitor, 'info', { message: 'Conexao com o stream instavel. Tentando reconectar...' });
+                }
+            });
+        refreshMonitorUI();
+        schedulePersistMonitors();
+    };
+}
+
+async function attachMonitorToChannel(monitor) {
+    if (monitor.detaching) {
+        await monitor.detaching;
+    }
+
+    const channelId = monitorChannel.id;
+    if (!channelId || !monitor.running || monitor.joined) {
+        return;
+    }
+
+    monitor.joined = true;
+    try {
+        const response = await fetch(`/api/v1/ping/monitor/channels/${encodeURIComponent(channelId)}/targets`, {
+            method: 'POST',
+            headers: { 'Content-Type': 'application/json' },
+            body: JSON.stringify({
+                tag: monitor.id,
+                target: monitor.target,
+                intervalMs: monitor.intervalMs,
+                timeoutMs: monitor.timeoutMs,
+                probe: monitor.probe,
+                port: monitor.probe === 'tcp' ? monitor.port : null
+            })
+        });
+
+        if (response.ok || response.status === 409 || monitorChannel.id !== channelId) {
+            return;
+        }
+
+        const payload = await response.json().catch(() => ({}));
+        monitor.joined = false;
+        if (response.status === 404) {
+            return;
+        }
+        handleMonitorEvent(monitor, 'error', { message: payload.message || 'Falha ao iniciar o monitoramento.' });
+    } catch (error) {
+        monitor.joined = false;
+    }
+}
+
+function detachMonitorFromChannel(monitor) {
+    const channelId = monitorChannel.id;
+    if (channelId) {
+        const url = `/api/v1/ping/monitor/channels/${encodeURIComponent(channelId)}/targets/${encodeURIComponent(monitor.id)}`;
+        const detaching = fetch(url, { method: 'DELETE' })
+            .catch(() => {
+                // The target is dropped with the channel anyway.
+            })
+            .finally(() => {
+                if (monitor.detaching === detaching) {
+                    monitor.detaching = null;
+                }
+            });
+        monitor.detaching = detaching;
+    }
+
+    if (!hasRunningMonitors(monitor)) {
+        closeMonitorChannel();
     }
 }
 
@@ -888,103 +1077,111 @@ function stopMonitorSession(monitor, message) {
     schedulePersistMonitors();
 }
 
+async function registerServerMonitor(monitor) {
+    try {
+        const response = await fetch('/api/v1/monitors', {
+            method: 'POST',
+            headers: { 'Content-Type': 'application/json' },
+            body: JSON.stringify({
+                name: monitor.name,
+                target: monitor.target,
+                intervalMs: monitor.intervalMs,
+                timeoutMs: monitor.timeoutMs,
+                probe: monitor.probe,
+                port: monitor.probe === 'tcp' ? monitor.port : null
+            })
+        });
+        const payload = await response.json();
+
+        if (!response.ok) {
+            appendMonitorLog(monitor, 'info', { message: `Monitor nao registrado no servidor (${payload.message || response.status}). Acompanhando apenas nesta aba.` });
+            return;
+        }
+
+        monitor.serverId = payload.id;
+    } catch (error) {
+        appendMonitorLog(monitor, 'info', { message: 'Falha ao registrar o monitor no servidor. Acompanhando apenas nesta aba.' });
+    }
+}
+
+function unregisterServerMonitor(monitor) {
+    if (!monitor.serverId) {
+        return;
+    }
+
+    fetch(`/api/v1/monitors/${encodeURIComponent(monitor.serverId)}`, { method: 'DELETE' }).catch(() => {
+        // The server drops unknown monitors anyway; nothing left to clean up here.
+    });
+}
+
+async function fetchServerMonitors() {
+    try {
+        const response = await fetch('/api/v1/monitors');
+        return response.ok ? await response.json() : null;
+    } catch (error) {
+        return null;
+    }
+}
+
 function startMonitorSession(monitor) {
     disconnectMonitorSource(monitor, false);
     monitor.running = true;
     monitor.connected = false;
     monitor.status = 'CONNECTING';
     monitor.awaitingReconnect = false;
-
-    const params = new URLSearchParams({
-        target: monitor.target,
-        intervalMs: String(monitor.intervalMs),
-        timeoutMs: String(monitor.timeoutMs)
-    });
-
-    const source = new EventSource(`/api/v1/ping/monitor?${params}`);
-    monitor.source = source;
-    let historyRegistered = false;
+    monitor.historyRegistered = false;
 
     refreshMonitorUI();
     schedulePersistMonitors();
 
-    source.addEventListener('started', (event) => {
-        if (!event.data || monitor.source !== source) {
-            return;
-        }
+    ensureMonitorChannel();
+    attachMonitorToChannel(monitor);
+}
 
-        const payload = JSON.parse(event.data);
+function handleMonitorEvent(monitor, eventName, payload) {
+    if (eventName === 'started') {
         monitor.awaitingReconnect = false;
         updateMonitorFromPayload(monitor, payload);
         appendMonitorLog(monitor, 'started', payload);
         refreshMonitorUI();
         schedulePersistMonitors();
 
-        if (!historyRegistered) {
-            historyRegistered = true;
+        if (!monitor.historyRegistered) {
+            monitor.historyRegistered = true;
             pushHistory('Acompanhamento', `${monitor.name} -> ${monitor.target}`);
         }
-    });
-
-    source.addEventListener('sample', (event) => {
-        if (!event.data || monitor.source !== source) {
-            return;
-        }
-
-        const payload = JSON.parse(event.data);
-        monitor.awaitingReconnect = false;
-        updateMonitorFromPayload(monitor, payload);
-        appendMonitorLog(monitor, payload.connected ? 'completed' : 'error', payload);
-        refreshMonitorUI();
-        schedulePersistMonitors();
-    });
-
-    source.addEventListener('completed', (event) => {
-        if (!event.data || monitor.source !== source) {
-            return;
-        }
+        return;
+    }
 
-        const payload = JSON.parse(event.data);
+    if (eventName === 'gap') {
         updateMonitorFromPayload(monitor, payload);
-        appendMonitorLog(monitor, 'completed', payload);
-        disconnectMonitorSource(monitor, true);
-        monitor.running = false;
-        monitor.connected = false;
-        monitor.status = 'STOPPED';
+        appendMonitorLog(monitor, 'error', payload);
         refreshMonitorUI();
-        schedulePersistMonitors();
-    });
-
-    source.addEventListener('error', (event) => {
-        if (!event.data || monitor.source !== source) {
-            return;
-        }
+        return;
+    }
 
-        const payload = JSON.parse(event.data);
+    if (eventName === 'sample') {
+        monitor.awaitingReconnect = false;
         updateMonitorFromPayload(monitor, payload);
-        appendMonitorLog(monitor, 'error', payload);
-        disconnectMonitorSource(monitor, true);
-        monitor.running = false;
-        monitor.connected = false;
-        monitor.status = 'STOPPED';
+        appendMonitorLog(monitor, payload.connected ? 'completed' : 'error', payload);
         refreshMonitorUI();
         schedulePersistMonitors();
-    });
-
-    source.onerror = () => {
-        if (monitor.source !== source || !monitor.running || monitor.intentionalClose) {
-            return;
-        }
+        return;
+    }
 
-        if (!monitor.awaitingReconnect) {
-            monitor.awaitingReconnect = true;
-            monitor.connected = false;
-            monitor.status = 'CONNECTING';
-            appendMonitorLog(monitor, 'info', { message: 'Conexao com o stream instavel. Tentando reconectar...' });
-            refreshMonitorUI();
-            schedulePersistMonitors();
-        }
-    };
+    // completed/error end the target on the server side; the channel itself stays open.
+    monitor.joined = false;
+    updateMonitorFromPayload(monitor, payload);
+    appendMonitorLog(monitor, eventName, payload);
+    disconnectMonitorSource(monitor, true);
+    monitor.running = false;
+    monitor.connected = false;
+    monitor.status = 'STOPPED';
+    if (!hasRunningMonitors()) {
+        closeMonitorChannel();
+    }
+    refreshMonitorUI();
+    schedulePersistMonitors();
 }
 
 function exportMonitorLogs(id) {
@@ -1055,6 +1252,7 @@ function removeMonitorSession(id) {
     }
 
     disconnectMonitorSource(monitor, true);
+    unregisterServerMonitor(monitor);
     monitorStore.delete(id);
 
     if (activeMonitorId === id) {
@@ -1078,6 +1276,7 @@ function clearAllMonitors() {
 
     getMonitorEntries().forEach((monitor) => {
         disconnectMonitorSource(monitor, true);
+        unregisterServerMonitor(monitor);
     });
 
     monitorStore.clear();
@@ -1091,17 +1290,22 @@ function clearAllMonitors() {
     }
 }
 
-function addMonitor(name, target, intervalMs, timeoutMs) {
-    const monitor = createMonitorRecord({ name, target, intervalMs, timeoutMs, createdAt: Date.now() });
+async function addMonitor(name, target, intervalMs, timeoutMs, probe, port) {
+    const monitor = createMonitorRecord({ name, target, intervalMs, timeoutMs, probe, port, createdAt: Date.now() });
     monitorStore.set(monitor.id, monitor);
     activeMonitorFilter = 'all';
     activeMonitorId = monitor.id;
     refreshMonitorUI();
+    await registerServerMonitor(monitor);
+    if (!monitorStore.has(monitor.id)) {
+        unregisterServerMonitor(monitor);
+        return;
+    }
     schedulePersistMonitors();
     startMonitorSession(monitor);
 }
 
-function restorePersistedMonitors() {
+async function restorePersistedMonitors() {
     const { monitors, activeMonitorId: persistedActiveMonitorId } = readPersistedMonitorState();
 
     monitors.forEach((snapshot) => {
@@ -1113,6 +1317,35 @@ function restorePersistedMonitors() {
         monitorStore.set(monitor.id, monitor);
     });
 
+    const serverMonitors = await fetchServerMonitors();
+    if (serverMonitors) {
+        const serverIds = new Set(serverMonitors.map((entry) => entry.id));
+        const knownIds = new Set();
+        getMonitorEntries().forEach((monitor) => {
+            if (monitor.serverId && !serverIds.has(monitor.serverId)) {
+                monitor.serverId = null;
+            }
+            knownIds.add(monitor.serverId);
+        });
+
+        serverMonitors
+            .filter((entry) => !knownIds.has(entry.id))
+            .forEach((entry) => {
+                const monitor = createMonitorRecord({
+                    serverId: entry.id,
+                    name: entry.nome,
+                    target: entry.alvo,
+                    intervalMs: entry.intervalo_ms,
+                    timeoutMs: entry.timeout_ms,
+                    probe: entry.probe,
+                    port: entry.porta,
+                    createdAt: Date.parse(entry.criado_em),
+                    running: true
+                });
+                monitorStore.set(monitor.id, monitor);
+            });
+    }
+
     if (persistedActiveMonitorId && monitorStore.has(persistedActiveMonitorId)) {
         activeMonitorId = persistedActiveMonitorId;
     }
@@ -1208,12 +1441,14 @@ document.getElementById('monitor-form').addEventListener('submit', (event) => {
     const target = String(form.get('target') || '').trim();
     const intervalSeconds = Number(form.get('intervalSeconds'));
     const timeoutMs = Number(form.get('timeoutMs'));
+    const probe = String(form.get('probe') || 'icmp');
+    const port = Number(form.get('port') || 443);
 
     if (!name || !target) {
         return;
     }
 
-    addMonitor(name, target, intervalSeconds * 1000, timeoutMs);
+    addMonitor(name, target, intervalSeconds * 1000, timeoutMs, probe, port);
     event.currentTarget.reset();
     event.currentTarget.elements.intervalSeconds.value = '5';
     event.currentTarget.elements.timeoutMs.value = '2000';
@@ -1265,20 +1500,26 @@ document.getElementById('portscan-form').addEventListener('submit', (event) => {
     const form = new FormData(event.currentTarget);
     const host = String(form.get('host') || '').trim();
     const timeout = Number(form.get('timeout'));
-    const ports = String(form.get('ports') || '')
+    const detectServices = form.get('detectServices') === 'true';
+    const portsInput = String(form.get('ports') || '').trim();
+    const tokens = portsInput
         .split(',')
-        .map((value) => Number(value.trim()))
-        .filter((value) => Number.isInteger(value));
+        .map((value) => value.trim())
+        .filter(Boolean);
+    const isExplicitList = tokens.every((value) => /^\d+$/.test(value));
+    const payload = isExplicitList
+        ? { host, ports: tokens.map(Number), timeout, detectServices }
+        : { host, range: portsInput, timeout, detectServices };
 
     requestJson(
         '/api/v1/portscan',
         'portscan-output',
         'Port Scan',
-        `${host} -> ${ports.join(', ')}`,
+        `${host} -> ${tokens.join(', ')}`,
         {
             method: 'POST',
             headers: { 'Content-Type': 'application/json' },
-            body: JSON.stringify({ host, ports, timeout })
+            body: JSON.stringify(payload)
         }
     );
 });
@@ -1292,7 +1533,7 @@ window.addEventListener('beforeunload', () => {
     persistMonitors();
     activeStreams.forEach((source) => source.close());
     activeStreams.clear();
-    getMonitorEntries().forEach((monitor) => disconnectMonitorSource(monitor, true));
+    closeMonitorChannel();
 });
 
 ['dns-output', 'geolocation-output', 'whois-output', 'portscan-output'].forEach((id) => {
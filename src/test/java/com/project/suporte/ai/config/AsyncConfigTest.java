@@ -0,0 +1,122 @@
+package com.project.suporte.ai.config;
+
+import com.project.suporte.ai.support.BoundedVirtualThreadExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncConfigTest {
+
+    private static final int SUBMITTED_TASKS = 2_000;
+
+    @Test
+    void platformModeCapsBlockingDiagnosticsAtPoolSize() throws Exception {
+        DiagnosticsProperties properties = new DiagnosticsProperties();
+        Executor executor = new AsyncConfig().diagnosticsExecutor(properties);
+
+        LoadResult result = saturate(executor, properties.getCommands().getMaxProcesses());
+
+        assertEquals(properties.getCommands().getMaxProcesses(), result.peakConcurrency());
+        assertEquals(SUBMITTED_TASKS - properties.getCommands().getMaxProcesses() - properties.getAsync().getQueueCapacity(), result.rejected());
+        ((ThreadPoolTaskExecutor) executor).shutdown();
+    }
+
+    @Test
+    void platformModeStartsEveryAdmittedCommandWithoutQueueing() throws Exception {
+        DiagnosticsProperties properties = new DiagnosticsProperties();
+        ThreadPoolTaskExecutor executor = (ThreadPoolTaskExecutor) new AsyncConfig().diagnosticsExecutor(properties);
+        int processes = properties.getCommands().getMaxProcesses();
+        CountDownLatch started = new CountDownLatch(processes);
+        CountDownLatch release = new CountDownLatch(1);
+
+        for (int index = 0; index < processes; index++) {
+            executor.execute(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals(0, executor.getQueueSize());
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void virtualModeBoundsAndQueuesBlockingDiagnosticsBySemaphore() throws Exception {
+        DiagnosticsProperties properties = new DiagnosticsProperties();
+        properties.getAsync().setMode("virtual");
+        Executor executor = new AsyncConfig().diagnosticsExecutor(properties);
+        assertInstanceOf(BoundedVirtualThreadExecutor.class, executor);
+
+        LoadResult result = saturate(executor, properties.getCommands().getMaxProcesses());
+
+        assertEquals(properties.getCommands().getMaxProcesses(), result.peakConcurrency());
+        assertEquals(SUBMITTED_TASKS - properties.getCommands().getMaxProcesses() - properties.getAsync().getQueueCapacity(), result.rejected());
+        ((BoundedVirtualThreadExecutor) executor).shutdown();
+    }
+
+    @Test
+    void virtualModeAlsoBacksPortScanExecutor() {
+        DiagnosticsProperties properties = new DiagnosticsProperties();
+        properties.getAsync().setMode("virtual");
+
+        Executor executor = new AppConfig().portScanExecutor(properties);
+
+        assertInstanceOf(BoundedVirtualThreadExecutor.class, executor);
+        assertEquals(properties.getPortscan().getMaxConcurrency(), ((BoundedVirtualThreadExecutor) executor).getMaxConcurrency());
+        ((BoundedVirtualThreadExecutor) executor).shutdown();
+    }
+
+    private LoadResult saturate(Executor executor, int expectedConcurrency) throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        int rejected = 0;
+
+        for (int index = 0; index < SUBMITTED_TASKS; index++) {
+            try {
+                executor.execute(() -> {
+                    peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        release.await();
+                    } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                });
+            } catch (RejectedExecutionException exception) {
+                rejected++;
+            }
+        }
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (running.get() < expectedConcurrency && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        TimeUnit.MILLISECONDS.sleep(100);
+        int peakConcurrency = peak.get();
+
+        release.countDown();
+        assertTrue(peakConcurrency > 0);
+        return new LoadResult(peakConcurrency, rejected);
+    }
+
+    private record LoadResult(int peakConcurrency, int rejected) {
+    }
+}
@@ -34,6 +34,7 @@ class IpGeolocationControllerTest {
                         "Mountain View",
                         "Google LLC",
                         "Google LLC",
+                        "AS15169 Google LLC",
                         "America/Los_Angeles",
                         37.4056,
                         -122.0775
@@ -42,6 +43,7 @@ class IpGeolocationControllerTest {
         mockMvc.perform(get("/api/v1/geolocation").param("target", "8.8.8.8"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.ip").value("8.8.8.8"))
+                .andExpect(jsonPath("$.asn").value("AS15169 Google LLC"))
                 .andExpect(jsonPath("$.fuso_horario").value("America/Los_Angeles"));
     }
 }
@@ -0,0 +1,87 @@
+package com.project.suporte.ai.controller;
+
+import com.project.suporte.ai.dto.MonitorRegistrationRequestDTO;
+import com.project.suporte.ai.dto.RegisteredMonitorDTO;
+import com.project.suporte.ai.exceptions.ApiException;
+import com.project.suporte.ai.service.MonitorRegistryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MonitorControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private MonitorRegistryService registryService;
+
+    @Test
+    void shouldRegisterMonitorAndListIt() throws Exception {
+        RegisteredMonitorDTO monitor = new RegisteredMonitorDTO(
+                "abc", "Gateway", "gateway", 5000, 2000, "tcp", 443, Instant.parse("2026-10-17T12:00:00Z"), true, 0
+        );
+        when(registryService.register(any(MonitorRegistrationRequestDTO.class))).thenReturn(monitor);
+        when(registryService.list()).thenReturn(List.of(monitor));
+
+        mockMvc.perform(post("/api/v1/monitors")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Gateway\",\"target\":\"gateway\",\"probe\":\"tcp\",\"port\":443}"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "/api/v1/monitors/abc"))
+                .andExpect(jsonPath("$.alvo").value("gateway"))
+                .andExpect(jsonPath("$.em_execucao").value(true));
+
+        mockMvc.perform(get("/api/v1/monitors"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("abc"))
+                .andExpect(jsonPath("$[0].porta").value(443));
+    }
+
+    @Test
+    void shouldRejectInvalidInterval() throws Exception {
+        mockMvc.perform(post("/api/v1/monitors")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"target\":\"gateway\",\"intervalMs\":10}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldStreamAndRemoveRegisteredMonitor() throws Exception {
+        mockMvc.perform(get("/api/v1/monitors/abc/stream").header("Last-Event-ID", "s:4"))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+        verify(registryService).attach(eq("abc"), any(), eq("s:4"));
+
+        doThrow(new ApiException(HttpStatus.NOT_FOUND, "monitor_not_found", "Monitor não encontrado."))
+                .when(registryService).remove("missing");
+        mockMvc.perform(delete("/api/v1/monitors/abc"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/v1/monitors/missing"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("monitor_not_found"));
+    }
+}
@@ -1,21 +1,42 @@
 package com.project.suporte.ai.controller;
 
+import com.project.suporte.ai.dto.MonitorChannelTargetDTO;
+import com.project.suporte.ai.dto.MonitorChannelTargetRequestDTO;
+import com.project.suporte.ai.dto.MonitorHistoryDTO;
+import com.project.suporte.ai.dto.MonitorHistoryPointDTO;
+import com.project.suporte.ai.exceptions.ApiException;
+import com.project.suporte.ai.exceptions.ServiceBusyException;
+import com.project.suporte.ai.service.MonitorChannelService;
+import com.project.suporte.ai.service.MonitorHistoryResolution;
+import com.project.suporte.ai.service.MonitorProbeType;
 import com.project.suporte.ai.service.PingMonitorService;
 import com.project.suporte.ai.service.PingService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -32,6 +53,9 @@ class PingControllerTest {
     @MockitoBean
     private PingMonitorService pingMonitorService;
 
+    @MockitoBean
+    private MonitorChannelService monitorChannelService;
+
     @Test
     void shouldStartPingStream() throws Exception {
         doNothing().when(pingService).executePing(any(), eq("8.8.8.8"), eq(4));
@@ -61,9 +85,20 @@ class PingControllerTest {
                 .andExpect(content().string(containsString("\"finished\":true")));
     }
 
+    @Test
+    void shouldRejectPingWithRetryAfterWhenCommandQueueIsFull() throws Exception {
+        doThrow(new ServiceBusyException("too_many_commands", "Muitas execuções em andamento. Tente novamente em instantes.", 7))
+                .when(pingService).executePing(any(), eq("1.1.1.1"), eq(4));
+
+        mockMvc.perform(get("/api/v1/ping").param("target", "1.1.1.1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "7"))
+                .andExpect(jsonPath("$.code").value("too_many_commands"));
+    }
+
     @Test
     void shouldStartMonitoringStream() throws Exception {
-        doNothing().when(pingMonitorService).monitor(any(), eq("cliente.exemplo.com.br"), eq(5000), eq(2000));
+        doNothing().when(pingMonitorService).monitor(any(), eq("cliente.exemplo.com.br"), eq(5000), eq(2000), isNull(), isNull(), isNull());
 
         mockMvc.perform(get("/api/v1/ping/monitor")
                         .param("target", "cliente.exemplo.com.br")
@@ -83,6 +118,87 @@ class PingControllerTest {
                 .andExpect(org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath("$.code").value("invalid_interval"));
     }
 
+    @Test
+    void shouldStartTcpMonitorAndRejectUnknownProbe() throws Exception {
+        doNothing().when(pingMonitorService)
+                .monitor(any(), eq("cliente.exemplo.com.br"), eq(5000), eq(2000), eq(MonitorProbeType.TCP), eq(22), isNull());
+
+        mockMvc.perform(get("/api/v1/ping/monitor")
+                        .param("target", "cliente.exemplo.com.br")
+                        .param("probe", "tcp")
+                        .param("port", "22"))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+
+        mockMvc.perform(get("/api/v1/ping/monitor")
+                        .param("target", "cliente.exemplo.com.br")
+                        .param("probe", "udp"))
+                .andExpect(status().isBadRequest())
+                .andExpect(org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath("$.code").value("invalid_probe"));
+    }
+
+    @Test
+    void shouldOpenMonitorChannelAndManageItsTargets() throws Exception {
+        mockMvc.perform(get("/api/v1/ping/monitor/channels")
+                        .param("target", "8.8.8.8", "1.1.1.1")
+                        .param("probe", "tcp"))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+        verify(monitorChannelService).open(any(), eq(List.of(
+                new MonitorChannelTargetRequestDTO(null, "8.8.8.8", 5000, 2000, "tcp", null),
+                new MonitorChannelTargetRequestDTO(null, "1.1.1.1", 5000, 2000, "tcp", null)
+        )));
+
+        MonitorChannelTargetRequestDTO gateway = new MonitorChannelTargetRequestDTO("gw", "10.0.0.1", null, null, null, null);
+        when(monitorChannelService.add("abc", gateway)).thenReturn(new MonitorChannelTargetDTO("gw", "10.0.0.1", "icmp", null));
+        mockMvc.perform(post("/api/v1/ping/monitor/channels/abc/targets")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tag\":\"gw\",\"target\":\"10.0.0.1\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.monitor").value("gw"))
+                .andExpect(jsonPath("$.alvo").value("10.0.0.1"));
+
+        mockMvc.perform(post("/api/v1/ping/monitor/channels/abc/targets")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"target\":\"10.0.0.1\",\"intervalMs\":10}"))
+                .andExpect(status().isBadRequest());
+
+        doThrow(new ApiException(HttpStatus.NOT_FOUND, "channel_not_found", "Canal de monitoramento não encontrado ou já encerrado."))
+                .when(monitorChannelService).remove("missing", "gw");
+        mockMvc.perform(delete("/api/v1/ping/monitor/channels/abc/targets/gw"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/v1/ping/monitor/channels/missing/targets/gw"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("channel_not_found"));
+    }
+
+    @Test
+    void shouldQueryMonitorHistoryAndRejectInvertedRange() throws Exception {
+        Instant from = Instant.parse("2026-10-17T06:00:00Z");
+        Instant to = Instant.parse("2026-10-17T12:00:00Z");
+        when(pingMonitorService.history("8.8.8.8", null, null, from, to, MonitorHistoryResolution.HOUR))
+                .thenReturn(new MonitorHistoryDTO("8.8.8.8", "icmp", "1h", from, to, List.of(
+                        new MonitorHistoryPointDTO(from, 3600, 36, 1.0, 9.8, 12.4, 80.1)
+                )));
+
+        mockMvc.perform(get("/api/v1/ping/history")
+                        .param("target", "8.8.8.8")
+                        .param("from", "2026-10-17T06:00:00Z")
+                        .param("to", "2026-10-17T12:00:00Z")
+                        .param("resolution", "1h"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resolucao").value("1h"))
+                .andExpect(jsonPath("$.pontos[0].amostras").value(3600))
+                .andExpect(jsonPath("$.pontos[0].latencia_media_ms").value(12.4));
+
+        mockMvc.perform(get("/api/v1/ping/history")
+                        .param("target", "8.8.8.8")
+                        .param("from", "2026-10-17T12:00:00Z")
+                        .param("to", "2026-10-17T06:00:00Z"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("invalid_range"));
+    }
+
     @Test
     void shouldIgnoreFaviconRequest() throws Exception {
         mockMvc.perform(get("/favicon.ico"))
@@ -1,6 +1,8 @@
 package com.project.suporte.ai.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.suporte.ai.dto.PortScanBatchRequestDTO;
+import com.project.suporte.ai.dto.PortScanJobDTO;
 import com.project.suporte.ai.dto.PortScanRequestDTO;
 import com.project.suporte.ai.dto.PortScanResponseDTO;
 import com.project.suporte.ai.exceptions.ApiException;
@@ -14,11 +16,19 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -48,6 +58,85 @@ class PortScanControllerTest {
                 .andExpect(jsonPath("$.portas_abertas[0]").value(80));
     }
 
+    @Test
+    void shouldAcceptPortRangeWithoutExplicitList() throws Exception {
+        PortScanRequestDTO request = new PortScanRequestDTO("scanme.nmap.org", null, 800, "1-1024", null, null, null, null);
+        when(portScanService.scanPorts(request))
+                .thenReturn(new PortScanResponseDTO("scanme.nmap.org", List.of(80), 1024, List.of("80"), List.of("1-79", "81-1024"), List.of(), null, null, null, null));
+
+        mockMvc.perform(post("/api/v1/portscan")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total_portas").value(1024))
+                .andExpect(jsonPath("$.faixas_fechadas[1]").value("81-1024"));
+    }
+
+    @Test
+    void shouldStartPortScanStream() throws Exception {
+        PortScanRequestDTO request = new PortScanRequestDTO("scanme.nmap.org", List.of(80, 443), 800);
+        doNothing().when(portScanService).streamScan(any(), eq(request));
+
+        mockMvc.perform(post("/api/v1/portscan/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    void shouldStartBatchScanStreamForCidr() throws Exception {
+        PortScanBatchRequestDTO request = new PortScanBatchRequestDTO(null, "203.0.113.0/28", null, 800, "top100", null, null, null, null);
+        doNothing().when(portScanService).streamBatchScan(any(), eq(request));
+
+        mockMvc.perform(post("/api/v1/portscan/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    void shouldRequireHostsOrCidrForBatchScan() throws Exception {
+        PortScanBatchRequestDTO request = new PortScanBatchRequestDTO(List.of(), null, List.of(80), 800, null, null, null, null, null);
+
+        mockMvc.perform(post("/api/v1/portscan/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(jsonPath("$.code").value("validation_error"));
+    }
+
+    @Test
+    void shouldSubmitPollAndCancelJobs() throws Exception {
+        PortScanRequestDTO request = new PortScanRequestDTO("scanme.nmap.org", null, 800, "1-1024", null, null, null, null);
+        PortScanJobDTO running = new PortScanJobDTO(
+                "job-1", "running", "scanme.nmap.org", 1024, 0, 0.0, List.of(), List.of(), List.of(), List.of(), null, null, Instant.now(), null
+        );
+        when(portScanService.submitJob(request)).thenReturn(running);
+        when(portScanService.cancelJob("job-1")).thenReturn(new PortScanJobDTO(
+                "job-1", "cancelled", "scanme.nmap.org", 1024, 10, 1.0, List.of(), List.of(), List.of("1-10"), List.of(), null, null,
+                Instant.now(), Instant.now()
+        ));
+        when(portScanService.getJob("missing"))
+                .thenThrow(new ApiException(HttpStatus.NOT_FOUND, "job_not_found", "Varredura não encontrada ou já expirada."));
+
+        mockMvc.perform(post("/api/v1/portscan/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/v1/portscan/jobs/job-1"))
+                .andExpect(jsonPath("$.status").value("running"));
+
+        mockMvc.perform(delete("/api/v1/portscan/jobs/job-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("cancelled"))
+                .andExpect(jsonPath("$.portas_concluidas").value(10));
+
+        mockMvc.perform(get("/api/v1/portscan/jobs/missing"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("job_not_found"));
+    }
+
     @Test
     void shouldRejectRestrictedTarget() throws Exception {
         PortScanRequestDTO request = new PortScanRequestDTO("localhost", List.of(80, 443), 800);
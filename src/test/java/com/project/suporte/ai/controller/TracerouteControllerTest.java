@@ -2,6 +2,7 @@ package com.project.suporte.ai.controller;
 
 import com.project.suporte.ai.service.TracerouteService;
 import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -11,7 +12,11 @@ import org.springframework.test.web.servlet.MockMvc;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -27,10 +32,29 @@ class TracerouteControllerTest {
 
     @Test
     void shouldStartTracerouteStream() throws Exception {
-        doNothing().when(tracerouteService).executeTraceroute(any(), eq("1.1.1.1"));
+        doNothing().when(tracerouteService).executeTraceroute(any(), eq("1.1.1.1"), eq(false));
 
         mockMvc.perform(get("/api/v1/traceroute").param("target", "1.1.1.1"))
                 .andExpect(status().isOk())
                 .andExpect(request().asyncStarted());
     }
+
+    @Test
+    void shouldPassFreshFlagToService() throws Exception {
+        mockMvc.perform(get("/api/v1/traceroute").param("target", "1.1.1.1").param("fresh", "true"))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+
+        verify(tracerouteService).executeTraceroute(any(), eq("1.1.1.1"), eq(true));
+    }
+
+    @Test
+    void shouldAnswerBusyExecutorWithRetryAfter() throws Exception {
+        doThrow(new TaskRejectedException("queue full")).when(tracerouteService).executeTraceroute(any(), eq("9.9.9.9"), eq(false));
+
+        mockMvc.perform(get("/api/v1/traceroute").param("target", "9.9.9.9"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "5"))
+                .andExpect(jsonPath("$.code").value("server_busy"));
+    }
 }
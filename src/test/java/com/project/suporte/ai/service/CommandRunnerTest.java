@@ -0,0 +1,107 @@
+package com.project.suporte.ai.service;
+
+import com.project.suporte.ai.config.DiagnosticsProperties;
+import com.project.suporte.ai.dto.CommandRunnerMetricsDTO;
+import com.project.suporte.ai.exceptions.ServiceBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class CommandRunnerTest {
+
+    private static final List<String> COMMAND = List.of("ping", "-c", "4", "8.8.8.8");
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final CommandStreamingService streamingService = mock(CommandStreamingService.class);
+    private final List<Runnable> dispatched = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void shutdownScheduler() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void shouldQueueBeyondProcessLimitsAndRejectWhenQueueIsFull() {
+        CommandRunner runner = runner(dispatched::add, 2, 1, 1, 60_000);
+        SseEmitter first = new SseEmitter();
+        SseEmitter sameTarget = new SseEmitter();
+
+        runner.run(first, "ping", "8.8.8.8", COMMAND);
+        runner.run(sameTarget, "ping", "8.8.8.8", COMMAND);
+        ServiceBusyException busy = assertThrows(ServiceBusyException.class,
+                () -> runner.run(new SseEmitter(), "ping", "8.8.8.8", COMMAND));
+        runner.run(new SseEmitter(), "traceroute", "1.1.1.1", List.of("traceroute", "1.1.1.1"));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, busy.getStatus());
+        assertEquals(5, busy.getRetryAfterSeconds());
+        assertEquals(2, dispatched.size());
+        CommandRunnerMetricsDTO metrics = runner.metrics();
+        assertEquals(2, metrics.running());
+        assertEquals(1, metrics.queued());
+        assertEquals(1, metrics.rejected());
+
+        dispatched.get(0).run();
+
+        verify(streamingService).stream(first, "ping", "8.8.8.8", COMMAND);
+        assertEquals(3, dispatched.size());
+        assertEquals(0, runner.metrics().queued());
+        dispatched.get(2).run();
+        verify(streamingService).stream(sameTarget, "ping", "8.8.8.8", COMMAND);
+        assertEquals(3, runner.metrics().admitted());
+    }
+
+    @Test
+    void shouldFailQueuedCommandAfterQueueTimeout() {
+        CommandRunner runner = runner(dispatched::add, 1, 1, 4, 50);
+        SseEmitter queued = new SseEmitter();
+
+        runner.run(new SseEmitter(), "ping", "8.8.8.8", COMMAND);
+        runner.run(queued, "ping", "8.8.8.8", COMMAND);
+
+        verify(streamingService, timeout(5000)).fail(eq(queued), eq("ping"), eq("8.8.8.8"), anyString());
+        assertEquals(1, runner.metrics().expired());
+        dispatched.get(0).run();
+        assertEquals(1, dispatched.size());
+    }
+
+    @Test
+    void shouldTurnExecutorRejectionIntoBusyError() {
+        CommandRunner runner = runner(task -> {
+            throw new TaskRejectedException("queue full");
+        }, 4, 2, 4, 60_000);
+
+        assertThrows(ServiceBusyException.class, () -> runner.run(new SseEmitter(), "ping", "8.8.8.8", COMMAND));
+
+        CommandRunnerMetricsDTO metrics = runner.metrics();
+        assertEquals(0, metrics.running());
+        assertEquals(0, metrics.admitted());
+        assertEquals(1, metrics.rejected());
+        verifyNoInteractions(streamingService);
+    }
+
+    private CommandRunner runner(Executor executor, int maxProcesses, int maxPerTarget, int maxQueued, long queueTimeoutMs) {
+        DiagnosticsProperties properties = new DiagnosticsProperties();
+        properties.getCommands().setMaxProcesses(maxProcesses);
+        properties.getCommands().setMaxPerTarget(maxPerTarget);
+        properties.getCommands().setMaxQueued(maxQueued);
+        properties.getCommands().setQueueTimeoutMs(queueTimeoutMs);
+        return new CommandRunner(streamingService, executor, scheduler, properties);
+    }
+}
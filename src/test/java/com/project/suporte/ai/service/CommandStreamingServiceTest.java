@@ -0,0 +1,167 @@
+package com.project.suporte.ai.service;
+
+import com.project.suporte.ai.config.DiagnosticsProperties;
+import com.project.suporte.ai.dto.CommandStreamEventDTO;
+import com.project.suporte.ai.support.ProcessLauncher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CommandStreamingServiceTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void shutdownScheduler() {
+        scheduler.shutdownNow();
+        flushExecutor.shutdownNow();
+    }
+
+    @Test
+    void shouldSendFirstLineAloneAndBatchTheRest() throws Exception {
+        ProcessLauncher launcher = mock(ProcessLauncher.class);
+        SseEmitter emitter = mock(SseEmitter.class);
+        List<String> output = IntStream.rangeClosed(1, 100).mapToObj(index -> "linha " + index).toList();
+        when(launcher.start(anyList())).thenReturn(fakeProcess(new ByteArrayInputStream(
+                String.join("\n", output).getBytes(StandardCharsets.UTF_8))));
+
+        service(launcher).stream(emitter, "ping", "8.8.8.8", List.of("ping", "8.8.8.8"));
+
+        List<CommandStreamEventDTO> events = sentEvents(emitter);
+        List<CommandStreamEventDTO> outputs = events.stream().filter(event -> "output".equals(event.type())).toList();
+        assertEquals("started", events.get(0).type());
+        assertEquals("completed", events.get(events.size() - 1).type());
+        assertEquals(List.of("linha 1"), outputs.get(0).lines());
+        assertEquals(List.of(1, 32, 32, 32, 3), outputs.stream().map(event -> event.lines().size()).toList());
+        assertEquals(output, outputs.stream().flatMap(event -> event.lines().stream()).toList());
+    }
+
+    @Test
+    void shouldFlushPartialBatchAfterDelayWhileCommandIsQuiet() throws Exception {
+        ProcessLauncher launcher = mock(ProcessLauncher.class);
+        SseEmitter emitter = mock(SseEmitter.class);
+        PipedOutputStream stdout = new PipedOutputStream();
+        when(launcher.start(anyList())).thenReturn(fakeProcess(new PipedInputStream(stdout)));
+        CommandStreamingService service = service(launcher);
+
+        Thread streaming = Thread.ofVirtual().start(() -> service.stream(emitter, "traceroute", "8.8.8.8", List.of("traceroute")));
+        stdout.write("1  gateway\n2  isp\n".getBytes(StandardCharsets.UTF_8));
+        stdout.flush();
+
+        verify(emitter, timeout(5000).times(3)).send(any(SseEmitter.SseEventBuilder.class));
+        assertEquals(List.of(List.of("1  gateway"), List.of("2  isp")),
+                sentEvents(emitter).stream().filter(event -> "output".equals(event.type())).map(CommandStreamEventDTO::lines).toList());
+
+        stdout.close();
+        streaming.join(5000);
+        assertEquals("completed", sentEvents(emitter).get(3).type());
+    }
+
+    @Test
+    void shouldLeaveRejectedTimedFlushToTheReaderThread() throws Exception {
+        ProcessLauncher launcher = mock(ProcessLauncher.class);
+        SseEmitter emitter = mock(SseEmitter.class);
+        PipedOutputStream stdout = new PipedOutputStream();
+        when(launcher.start(anyList())).thenReturn(fakeProcess(new PipedInputStream(stdout)));
+        CommandStreamingService service = service(launcher, task -> {
+            throw new RejectedExecutionException("full");
+        });
+
+        Thread streaming = Thread.ofVirtual().start(() -> service.stream(emitter, "traceroute", "8.8.8.8", List.of("traceroute")));
+        stdout.write("1  gateway\n2  isp\n".getBytes(StandardCharsets.UTF_8));
+        stdout.flush();
+        verify(emitter, timeout(5000).times(2)).send(any(SseEmitter.SseEventBuilder.class));
+        Thread.sleep(200);
+        verify(emitter, times(2)).send(any(SseEmitter.SseEventBuilder.class));
+
+        stdout.write("3  backbone\n".getBytes(StandardCharsets.UTF_8));
+        stdout.flush();
+        verify(emitter, timeout(5000).times(3)).send(any(SseEmitter.SseEventBuilder.class));
+        assertEquals(List.of(List.of("1  gateway"), List.of("2  isp", "3  backbone")),
+                sentEvents(emitter).stream().filter(event -> "output".equals(event.type())).map(CommandStreamEventDTO::lines).toList());
+
+        stdout.close();
+        streaming.join(5000);
+    }
+
+    private CommandStreamingService service(ProcessLauncher launcher) {
+        return service(launcher, flushExecutor);
+    }
+
+    private CommandStreamingService service(ProcessLauncher launcher, Executor executor) {
+        DiagnosticsProperties properties = new DiagnosticsProperties();
+        properties.getSse().setOutputBatchMs(50);
+        return new CommandStreamingService(launcher, properties, scheduler, executor);
+    }
+
+    private static List<CommandStreamEventDTO> sentEvents(SseEmitter emitter) throws Exception {
+        ArgumentCaptor<SseEmitter.SseEventBuilder> captor = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+        verify(emitter, atLeastOnce()).send(captor.capture());
+        return captor.getAllValues().stream()
+                .flatMap(builder -> builder.build().stream())
+                .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                .filter(CommandStreamEventDTO.class::isInstance)
+                .map(CommandStreamEventDTO.class::cast)
+                .toList();
+    }
+
+    private static Process fakeProcess(InputStream stdout) {
+        return new Process() {
+            @Override
+            public OutputStream getOutputStream() {
+                return OutputStream.nullOutputStream();
+            }
+
+            @Override
+            public InputStream getInputStream() {
+                return stdout;
+            }
+
+            @Override
+            public InputStream getErrorStream() {
+                return InputStream.nullInputStream();
+            }
+
+            @Override
+            public int waitFor() {
+                return 0;
+            }
+
+            @Override
+            public int exitValue() {
+                return 0;
+            }
+
+            @Override
+            public void destroy() {
+            }
+        };
+    }
+}
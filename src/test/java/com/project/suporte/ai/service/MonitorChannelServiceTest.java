@@ -0,0 +1,141 @@
+package com.project.suporte.ai.service;
+
+import com.project.suporte.ai.config.DiagnosticsProperties;
+import com.project.suporte.ai.dto.MonitorChannelEventDTO;
+import com.project.suporte.ai.dto.MonitorChannelTargetDTO;
+import com.project.suporte.ai.dto.MonitorChannelTargetRequestDTO;
+import com.project.suporte.ai.exceptions.ApiException;
+import com.project.suporte.ai.support.ProcessLauncher;
+import com.project.suporte.ai.support.PortScanTarget;
+import com.project.suporte.ai.support.TargetValidator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MonitorChannelServiceTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+    private final ThreadPoolExecutor probeExecutor = new ThreadPoolExecutor(
+            8, 8, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>()
+    );
+
+    @AfterEach
+    void shutdownExecutors() {
+        scheduler.shutdownNow();
+        probeExecutor.shutdownNow();
+    }
+
+    @Test
+    void shouldCarryManyMonitorsOverOneConnectionAndChangeTargetsWithoutReconnecting() throws Exception {
+        TargetValidator validator = mock(TargetValidator.class);
+        DiagnosticsProperties properties = new DiagnosticsProperties();
+        properties.getMonitor().setLingerMs(0);
+        PingMonitorService monitorService = new PingMonitorService(
+                validator, mock(ProcessLauncher.class), properties, scheduler, probeExecutor, mock(MonitorHistoryStore.class)
+        );
+        MonitorChannelService channelService = new MonitorChannelService(monitorService, properties);
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        try (ServerSocket server = new ServerSocket(0, 50, loopback)) {
+            for (String target : List.of("gateway", "backup", "dns")) {
+                when(validator.resolvePortScanTarget(target)).thenReturn(new PortScanTarget(target, List.of(loopback)));
+            }
+
+            channelService.open(emitter, List.of(
+                    request("gateway", server.getLocalPort()),
+                    request("backup", server.getLocalPort())
+            ));
+            String channelId = emitter.events.get(0).channel();
+
+            assertEquals("channel", emitter.names.get(0));
+            assertNull(emitter.events.get(0).monitor());
+            await(() -> emitter.samplesFor("gateway") >= 2 && emitter.samplesFor("backup") >= 2);
+            assertEquals(2, monitorService.activeMonitors());
+
+            channelService.remove(channelId, "backup");
+            assertEquals(1, monitorService.activeMonitors());
+            MonitorChannelTargetDTO added = channelService.add(channelId, request("dns", server.getLocalPort()));
+            await(() -> emitter.samplesFor("dns") >= 2);
+
+            assertEquals("dns", added.tag());
+            assertEquals(List.of("gateway", "dns"), channelService.targets(channelId).stream().map(MonitorChannelTargetDTO::tag).toList());
+            ApiException duplicate = assertThrows(ApiException.class, () -> channelService.add(channelId, request("dns", server.getLocalPort())));
+            assertEquals(HttpStatus.CONFLICT, duplicate.getStatus());
+
+            emitter.close();
+        }
+
+        assertEquals(0, channelService.openChannels());
+        assertEquals(0, monitorService.activeMonitors());
+        assertEquals(1, emitter.names.stream().filter("channel"::equals).count());
+    }
+
+    private static MonitorChannelTargetRequestDTO request(String target, int port) {
+        return new MonitorChannelTargetRequestDTO(null, target, 50, 1000, "tcp", port);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out waiting for channel events");
+            Thread.sleep(20);
+        }
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> names = new CopyOnWriteArrayList<>();
+        private final List<MonitorChannelEventDTO> events = new CopyOnWriteArrayList<>();
+        private volatile Runnable completion = () -> {
+        };
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .forEach(data -> {
+                        if (data instanceof MonitorChannelEventDTO event) {
+                            events.add(event);
+                        } else if (data instanceof String text && text.startsWith("event:")) {
+                            names.add(text.substring(6, text.indexOf('\n')));
+                        }
+                    });
+        }
+
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            completion = callback;
+        }
+
+        long samplesFor(String monitor) {
+            return events.stream()
+                    .filter(event -> monitor.equals(event.monitor()) && "sample".equals(event.event().type()))
+                    .count();
+        }
+
+        void close() {
+            completion.run();
+        }
+    }
+}
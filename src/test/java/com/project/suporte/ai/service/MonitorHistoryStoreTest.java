@@ -0,0 +1,146 @@
+package com.project.suporte.ai.service;
+
+import com.project.suporte.ai.config.DiagnosticsProperties;
+import com.project.suporte.ai.dto.MonitorHistoryPointDTO;
+import com.project.suporte.ai.exceptions.ApiException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MonitorHistoryStoreTest {
+
+    private static final String SERIES = MonitorHistoryStore.seriesName("8.8.8.8", MonitorProbeType.ICMP, null);
+    private static final long START_MS = Instant.parse("2026-10-17T12:00:00Z").toEpochMilli();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldPersistRawSamplesAcrossSegmentsAndRestarts() throws Exception {
+        MonitorHistoryStore store = new MonitorHistoryStore(properties(20));
+        for (int second = 0; second < 50; second++) {
+            store.append(SERIES, START_MS + second * 1_000L, new PingProbeResult(true, 10.0 + second, "Ping OK.", 0));
+        }
+        store.flush();
+
+        List<MonitorHistoryPointDTO> raw = store.query(SERIES, instant(10_000), instant(19_000), MonitorHistoryResolution.RAW);
+        assertEquals(10, raw.size());
+        assertEquals(20.0, raw.get(0).averageLatencyMs());
+        store.close();
+
+        try (Stream<Path> files = Files.list(directory.resolve(SERIES))) {
+            assertEquals(3, files.filter(path -> path.getFileName().toString().startsWith("raw-")).count());
+        }
+
+        MonitorHistoryStore reopened = new MonitorHistoryStore(properties(20));
+        assertEquals(50, reopened.query(SERIES, instant(0), instant(60_000), MonitorHistoryResolution.RAW).size());
+        reopened.close();
+    }
+
+    @Test
+    void shouldRollUpMinutesWithMinAverageMaxAndLoss() throws Exception {
+        MonitorHistoryStore store = new MonitorHistoryStore(properties(1_000));
+        for (int second = 0; second < 180; second++) {
+            boolean lost = second % 60 == 59;
+            PingProbeResult result = lost
+                    ? new PingProbeResult(false, null, "Sem resposta do alvo.", 1)
+                    : new PingProbeResult(true, 10.0 + (second % 60), "Ping OK.", 0);
+            store.append(SERIES, START_MS + second * 1_000L, result);
+        }
+        store.flush();
+
+        List<MonitorHistoryPointDTO> minutes = store.query(SERIES, instant(0), instant(180_000), MonitorHistoryResolution.MINUTE);
+        assertEquals(3, minutes.size());
+        assertEquals(instant(60_000), minutes.get(1).timestamp());
+        assertEquals(60, minutes.get(0).samples());
+        assertEquals(1, minutes.get(0).failures());
+        assertEquals(1.67, minutes.get(0).packetLossPercent());
+        assertEquals(10.0, minutes.get(0).minLatencyMs());
+        assertEquals(68.0, minutes.get(0).maxLatencyMs());
+        assertEquals(39.0, minutes.get(0).averageLatencyMs());
+
+        List<MonitorHistoryPointDTO> hours = store.query(SERIES, instant(0), instant(180_000), MonitorHistoryResolution.HOUR);
+        assertEquals(1, hours.size());
+        assertEquals(180, hours.get(0).samples());
+        store.close();
+
+        MonitorHistoryStore reopened = new MonitorHistoryStore(properties(1_000));
+        reopened.append(SERIES, START_MS + 200_000, new PingProbeResult(false, null, "Sem resposta do alvo.", 1));
+        reopened.flush();
+        List<MonitorHistoryPointDTO> merged = reopened.query(SERIES, instant(0), instant(300_000), MonitorHistoryResolution.HOUR);
+        assertEquals(1, merged.size());
+        assertEquals(181, merged.get(0).samples());
+        assertEquals(4, merged.get(0).failures());
+        reopened.close();
+    }
+
+    @Test
+    void shouldDropSamplesInsteadOfBlockingWhenQueueIsFullAndCapQueries() throws Exception {
+        DiagnosticsProperties properties = properties(1_000);
+        properties.getHistory().setQueueCapacity(5);
+        properties.getHistory().setMaxQueryPoints(3);
+        MonitorHistoryStore store = new MonitorHistoryStore(properties);
+
+        for (int second = 0; second < 8; second++) {
+            store.append(SERIES, START_MS + second * 1_000L, new PingProbeResult(false, null, "Sem resposta do alvo.", 1));
+        }
+        store.flush();
+
+        assertEquals(3, store.droppedSamples());
+        ApiException exception = assertThrows(ApiException.class,
+                () -> store.query(SERIES, instant(0), instant(10_000), MonitorHistoryResolution.RAW));
+        assertEquals("range_too_large", exception.getCode());
+        assertNull(store.query(SERIES, instant(0), instant(1_000), MonitorHistoryResolution.RAW).get(0).averageLatencyMs());
+        assertTrue(store.query("desconhecido/icmp", instant(0), instant(10_000), MonitorHistoryResolution.MINUTE).isEmpty());
+        store.close();
+    }
+
+    @Test
+    void shouldReleaseIdleSeriesAndReopenTheirSegmentsOnTheNextSample() throws Exception {
+        DiagnosticsProperties properties = properties(1_000);
+        properties.getHistory().setIdleCloseMs(1);
+        MonitorHistoryStore store = new MonitorHistoryStore(properties);
+        store.append(SERIES, START_MS, new PingProbeResult(true, 12.0, "Ping OK.", 0));
+        store.flush();
+        assertEquals(1, store.openSeries());
+
+        Thread.sleep(10);
+        store.flush();
+
+        assertEquals(0, store.openSeries());
+        assertEquals(1, store.query(SERIES, instant(0), instant(60_000), MonitorHistoryResolution.MINUTE).get(0).samples());
+
+        store.append(SERIES, START_MS + 1_000, new PingProbeResult(true, 14.0, "Ping OK.", 0));
+        store.flush();
+        assertEquals(1, store.openSeries());
+        assertEquals(2, store.query(SERIES, instant(0), instant(60_000), MonitorHistoryResolution.RAW).size());
+        assertEquals(2, store.query(SERIES, instant(0), instant(60_000), MonitorHistoryResolution.MINUTE).get(0).samples());
+        store.close();
+
+        try (Stream<Path> files = Files.list(directory.resolve(SERIES))) {
+            assertEquals(1, files.filter(path -> path.getFileName().toString().startsWith("raw-")).count());
+        }
+    }
+
+    private DiagnosticsProperties properties(int segmentRecords) {
+        DiagnosticsProperties properties = new DiagnosticsProperties();
+        properties.getHistory().setDirectory(directory.toString());
+        properties.getHistory().setSegmentRecords(segmentRecords);
+        properties.getHistory().setFlushIntervalMs(60_000);
+        return properties;
+    }
+
+    private static Instant instant(long offsetMs) {
+        return Instant.ofEpochMilli(START_MS + offsetMs);
+    }
+}
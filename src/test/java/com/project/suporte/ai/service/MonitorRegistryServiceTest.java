@@ -0,0 +1,197 @@
+package com.project.suporte.ai.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.suporte.ai.config.DiagnosticsProperties;
+import com.project.suporte.ai.dto.MonitorRegistrationRequestDTO;
+import com.project.suporte.ai.dto.RegisteredMonitorDTO;
+import com.project.suporte.ai.exceptions.ApiException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MonitorRegistryServiceTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final PingMonitorService monitorService = mock(PingMonitorService.class);
+    private volatile PingMonitorSession lastPinned;
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void shutdownScheduler() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void shouldPersistMonitorsAndRestoreThemAfterRestart() throws Exception {
+        stubMonitorService();
+        MonitorRegistryService registry = registry(10);
+
+        RegisteredMonitorDTO created = registry.register(new MonitorRegistrationRequestDTO("Gateway", "gateway", 5000, 2000, "tcp", 443));
+        registry.register(new MonitorRegistrationRequestDTO(null, "dns", null, null, null, null));
+
+        assertTrue(created.running());
+        assertEquals("tcp", created.probe());
+        assertEquals(List.of("Gateway", "dns"), registry.list().stream().map(RegisteredMonitorDTO::name).toList());
+        assertTrue(Files.isRegularFile(directory.resolve("monitors.json")));
+
+        MonitorRegistryService restarted = registry(10);
+        restarted.restore();
+
+        assertEquals(registry.list().stream().map(RegisteredMonitorDTO::id).toList(),
+                restarted.list().stream().map(RegisteredMonitorDTO::id).toList());
+        verify(monitorService, timeout(2_000).times(4)).pin(any());
+        assertTrue(restarted.get(created.id()).running());
+        assertEquals(443, restarted.get(created.id()).port());
+    }
+
+    @Test
+    void shouldRejectMonitorsBeyondTheConfiguredLimitAndUnpinOnRemoval() {
+        stubMonitorService();
+        MonitorRegistryService registry = registry(1);
+
+        RegisteredMonitorDTO created = registry.register(new MonitorRegistrationRequestDTO(null, "gateway", null, null, null, null));
+        ApiException limit = assertThrows(ApiException.class,
+                () -> registry.register(new MonitorRegistrationRequestDTO(null, "dns", null, null, null, null)));
+        assertEquals("too_many_monitors", limit.getCode());
+
+        registry.remove(created.id());
+        assertEquals(0, registry.size());
+        ApiException missing = assertThrows(ApiException.class, () -> registry.remove(created.id()));
+        assertEquals("monitor_not_found", missing.getCode());
+
+        MonitorRegistryService restarted = registry(1);
+        restarted.restore();
+        assertEquals(0, restarted.size());
+    }
+
+    @Test
+    void shouldKeepMonitorRunningWhenRemovalCannotBePersisted() throws Exception {
+        stubMonitorService();
+        MonitorRegistryService registry = registry(10);
+        RegisteredMonitorDTO created = registry.register(new MonitorRegistrationRequestDTO(null, "gateway", null, null, null, null));
+        Path file = directory.resolve("monitors.json");
+        Files.delete(file);
+        Files.createDirectories(file.resolve("blocked"));
+
+        ApiException failure = assertThrows(ApiException.class, () -> registry.remove(created.id()));
+
+        assertEquals("registry_unavailable", failure.getCode());
+        assertEquals(List.of(created.id()), registry.list().stream().map(RegisteredMonitorDTO::id).toList());
+        assertTrue(registry.get(created.id()).running());
+    }
+
+    @Test
+    void shouldRepinFailedLoopWhenAViewerAttaches() {
+        stubMonitorService();
+        MonitorRegistryService registry = registry(10);
+        RegisteredMonitorDTO created = registry.register(new MonitorRegistrationRequestDTO(null, "gateway", null, null, null, null));
+        SseEmitter emitter = new SseEmitter();
+
+        registry.attach(created.id(), emitter, null);
+        verify(monitorService, times(1)).pin(any());
+
+        PingMonitorSession failed = lastPinned;
+        failed.stop();
+        assertFalse(failed.isActive());
+
+        registry.attach(created.id(), emitter, "stream:3");
+        verify(monitorService, times(2)).pin(any());
+        verify(monitorService).attach(any(), any(SseEmitter.class), isNull());
+        verify(monitorService).attach(any(), any(SseEmitter.class), eq("stream:3"));
+    }
+
+    @Test
+    void shouldRestartFailedLoopAfterTheRestartDelay() throws Exception {
+        stubMonitorService();
+        MonitorRegistryService registry = registry(10, 20);
+        RegisteredMonitorDTO created = registry.register(new MonitorRegistrationRequestDTO(null, "gateway", null, null, null, null));
+        PingMonitorSession failed = lastPinned;
+        RegisteredMonitorDTO removed = registry.register(new MonitorRegistrationRequestDTO(null, "dns", null, null, null, null));
+        PingMonitorSession orphan = lastPinned;
+
+        registry.remove(removed.id());
+        orphan.stop();
+        Thread.sleep(200);
+        verify(monitorService, times(2)).pin(any());
+
+        failed.stop();
+        assertFalse(registry.get(created.id()).running());
+
+        verify(monitorService, timeout(5000).times(3)).pin(any());
+        assertTrue(registry.get(created.id()).running());
+    }
+
+    @Test
+    void shouldKeepRestoredMonitorWhoseTargetFailsToResolveAndRetryIt() throws Exception {
+        stubMonitorService();
+        RegisteredMonitorDTO created = registry(10).register(new MonitorRegistrationRequestDTO(null, "gateway", null, null, "tcp", 443));
+        PingMonitorService.MonitorKey key = new PingMonitorService.MonitorKey("gateway", 5000, 2000, MonitorProbeType.TCP, 443);
+        when(monitorService.key(anyString(), anyInt(), anyInt(), any(), any()))
+                .thenThrow(new ApiException(HttpStatus.BAD_REQUEST, "invalid_target", "Não foi possível resolver o alvo."))
+                .thenReturn(key);
+
+        MonitorRegistryService restarted = registry(10, 20);
+        restarted.restore();
+
+        verify(monitorService, timeout(5000).times(2)).pin(any());
+        assertEquals(List.of(created.id()), restarted.list().stream().map(RegisteredMonitorDTO::id).toList());
+        assertTrue(restarted.get(created.id()).running());
+        restarted.register(new MonitorRegistrationRequestDTO(null, "dns", null, null, "tcp", 53));
+        assertTrue(Files.readString(directory.resolve("monitors.json")).contains(created.id()));
+    }
+
+    private void stubMonitorService() {
+        when(monitorService.key(anyString(), anyInt(), anyInt(), any(), any())).thenAnswer(invocation -> {
+            MonitorProbeType type = invocation.getArgument(3) != null ? invocation.getArgument(3) : MonitorProbeType.ICMP;
+            Integer port = type == MonitorProbeType.TCP ? invocation.getArgument(4) : null;
+            return new PingMonitorService.MonitorKey(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2), type, port);
+        });
+        when(monitorService.pin(any())).thenAnswer(invocation -> {
+            PingMonitorService.MonitorKey key = invocation.getArgument(0);
+            lastPinned = new PingMonitorSession(key.target(), key.intervalMs(), key.timeoutMs(), 0, 4, scheduler, Runnable::run,
+                    result -> {
+                    }, closed -> {
+                    });
+            return lastPinned;
+        });
+    }
+
+    private MonitorRegistryService registry(int maxMonitors) {
+        return registry(maxMonitors, 5_000);
+    }
+
+    private MonitorRegistryService registry(int maxMonitors, long restartDelayMs) {
+        DiagnosticsProperties properties = new DiagnosticsProperties();
+        properties.getRegistry().setMaxMonitors(maxMonitors);
+        properties.getRegistry().setFile(directory.resolve("monitors.json").toString());
+        properties.getRegistry().setRestoreSpreadMs(50);
+        properties.getRegistry().setRestartDelayMs(restartDelayMs);
+        return new MonitorRegistryService(monitorService, objectMapper, properties, scheduler);
+    }
+}
@@ -1,41 +1,79 @@
 package com.project.suporte.ai.service;
 
+import com.project.suporte.ai.config.DiagnosticsProperties;
 import com.project.suporte.ai.dto.PingMonitorEventDTO;
+import com.project.suporte.ai.exceptions.ApiException;
+import com.project.suporte.ai.support.PingOutputScanner;
+import com.project.suporte.ai.support.PortScanTarget;
 import com.project.suporte.ai.support.ProcessLauncher;
 import com.project.suporte.ai.support.TargetValidator;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 class PingMonitorServiceTest {
 
-    @Test
-    void shouldExtractLatencyFromLocalizedOutput() {
-        TargetValidator validator = mock(TargetValidator.class);
-        ProcessLauncher launcher = mock(ProcessLauncher.class);
-        PingMonitorService service = new PingMonitorService(validator, launcher);
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+    private final ThreadPoolExecutor probeExecutor = new ThreadPoolExecutor(
+            8, 8, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>()
+    );
+
+    @AfterEach
+    void shutdownExecutors() {
+        scheduler.shutdownNow();
+        probeExecutor.shutdownNow();
+    }
 
-        Double latency = service.extractLatencyMs(List.of("Resposta de 8.8.8.8: bytes=32 tempo=23ms TTL=117"));
+    @Test
+    void shouldExtractLatencyFromLocalizedOutput() throws Exception {
+        PingOutputScanner scanner = scanner("Resposta de 8.8.8.8: bytes=32 tempo=23ms TTL=117");
 
-        assertEquals(23.0, latency);
+        assertTrue(scanner.nextLine());
+        assertTrue(scanner.hasLatency());
+        assertEquals(23.0, scanner.latencyMs());
     }
 
     @Test
     void shouldBuildProbeResultFromPingOutput() throws Exception {
         TargetValidator validator = mock(TargetValidator.class);
         ProcessLauncher launcher = mock(ProcessLauncher.class);
-        PingMonitorService service = new PingMonitorService(validator, launcher);
+        PingMonitorService service = service(validator, launcher, new DiagnosticsProperties());
 
         when(launcher.start(anyList())).thenReturn(fakeProcess("""
                 Disparando 8.8.8.8 com 32 bytes de dados:
@@ -65,6 +103,399 @@ class PingMonitorServiceTest {
         assertEquals(2, third.consecutiveFailures());
     }
 
+    @Test
+    void shouldReportPercentilesJitterAndEwmaFromSamples() {
+        PingMonitorAccumulator accumulator = new PingMonitorAccumulator("cliente.exemplo.com.br");
+        PingMonitorEventDTO last = null;
+        for (int index = 1; index <= 100; index++) {
+            double latency = index == 100 ? 400.0 : index <= 50 ? 20.0 : 22.0;
+            last = accumulator.sample(new PingProbeResult(true, latency, "Ping OK.", 0));
+        }
+
+        assertEquals(20.0, last.p50LatencyMs(), 0.03 * 20);
+        assertEquals(22.0, last.p95LatencyMs(), 0.03 * 22);
+        assertEquals(400.0, last.maxLatencyMs());
+        assertTrue(last.jitterMs() > 2.0 && last.jitterMs() < 30.0);
+        assertTrue(last.ewmaLatencyMs() > 60.0);
+        assertEquals(last.p99LatencyMs(), accumulator.completed("Monitoramento encerrado.").p99LatencyMs());
+    }
+
+    @Test
+    void shouldParseContinuousPingFromSingleProcessAndDetectSequenceGaps() throws Exception {
+        TargetValidator validator = mock(TargetValidator.class);
+        ProcessLauncher launcher = mock(ProcessLauncher.class);
+        SseEmitter emitter = mock(SseEmitter.class);
+        DiagnosticsProperties properties = new DiagnosticsProperties();
+        properties.getMonitor().setMode("continuous");
+        PingMonitorService service = service(validator, launcher, properties);
+
+        when(validator.normalizeTarget("8.8.8.8")).thenReturn("8.8.8.8");
+        when(launcher.start(anyList())).thenReturn(fakeProcess("""
+                PING 8.8.8.8 (8.8.8.8) 56(84) bytes of data.
+                64 bytes from 8.8.8.8: icmp_seq=1 ttl=117 time=12.4 ms
+                64 bytes from 8.8.8.8: icmp_seq=3 ttl=117 time=13 ms
+                From 203.0.113.1 icmp_seq=4 Destination Host Unreachable
+                """, 1));
+
+        service.monitor(emitter, "8.8.8.8", 1000, 2000, null, null, null);
+
+        ArgumentCaptor<SseEmitter.SseEventBuilder> captor = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+        verify(emitter, timeout(5000).times(6)).send(captor.capture());
+        List<PingMonitorEventDTO> events = captor.getAllValues().stream()
+                .flatMap(builder -> builder.build().stream())
+                .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                .filter(PingMonitorEventDTO.class::isInstance)
+                .map(PingMonitorEventDTO.class::cast)
+                .toList();
+
+        assertEquals(List.of("started", "sample", "sample", "sample", "sample", "error"),
+                events.stream().map(PingMonitorEventDTO::type).toList());
+        assertEquals(12.4, events.get(1).currentLatencyMs());
+        assertEquals("Sem resposta do alvo (icmp_seq=2).", events.get(2).message());
+        assertEquals(13.0, events.get(3).currentLatencyMs());
+        assertEquals(2, events.get(4).failedAttempts());
+        verify(launcher, times(1)).start(List.of("ping", "-n", "-i", "1.0", "8.8.8.8"));
+    }
+
+    @Test
+    void shouldMonitorWithTcpConnectProbeWithoutSpawningProcesses() throws Exception {
+        TargetValidator validator = mock(TargetValidator.class);
+        ProcessLauncher launcher = mock(ProcessLauncher.class);
+        SseEmitter emitter = mock(SseEmitter.class);
+        PingMonitorService service = service(validator, launcher, new DiagnosticsProperties());
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        ArgumentCaptor<SseEmitter.SseEventBuilder> captor = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+
+        try (ServerSocket server = new ServerSocket(0, 50, loopback)) {
+            when(validator.resolvePortScanTarget("gateway")).thenReturn(new PortScanTarget("gateway", List.of(loopback)));
+            doNothing().doNothing().doNothing().doThrow(new IOException("closed")).when(emitter).send(any(SseEmitter.SseEventBuilder.class));
+
+            service.monitor(emitter, "gateway", 10, 1000, MonitorProbeType.TCP, server.getLocalPort(), null);
+
+            verify(emitter, timeout(5000).times(4)).send(captor.capture());
+        }
+
+        PingMonitorEventDTO sample = (PingMonitorEventDTO) captor.getAllValues().get(1).build().stream()
+                .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                .filter(PingMonitorEventDTO.class::isInstance)
+                .findFirst()
+                .orElseThrow();
+        assertTrue(sample.connected());
+        assertTrue(sample.currentLatencyMs() > 0);
+        verify(validator, times(2)).resolvePortScanTarget("gateway");
+        verifyNoInteractions(launcher);
+    }
+
+    @Test
+    void shouldRejectTcpAndReachableMonitorsOfRestrictedAddresses() {
+        TargetValidator validator = new TargetValidator(host -> new InetAddress[]{InetAddress.getByName(host)});
+        ProcessLauncher launcher = mock(ProcessLauncher.class);
+        PingMonitorService service = service(validator, launcher, new DiagnosticsProperties());
+
+        for (String target : List.of("127.0.0.1", "10.0.0.5", "169.254.169.254")) {
+            ApiException tcp = assertThrows(ApiException.class,
+                    () -> service.monitor(mock(SseEmitter.class), target, 1000, 1000, MonitorProbeType.TCP, 22, null));
+            assertEquals(HttpStatus.FORBIDDEN, tcp.getStatus());
+            assertThrows(ApiException.class, () -> service.key(target, 1000, 1000, MonitorProbeType.REACHABLE, null));
+        }
+        assertEquals("10.0.0.5", service.key("10.0.0.5", 1000, 1000, MonitorProbeType.ICMP, null).target());
+        assertEquals(0, service.activeMonitors());
+        verifyNoInteractions(launcher);
+    }
+
+    @Test
+    void shouldReportRefusedTcpConnectAsFailedSample() throws Exception {
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        int closedPort;
+        try (ServerSocket closed = new ServerSocket(0, 50, loopback)) {
+            closedPort = closed.getLocalPort();
+        }
+
+        PingProbeResult result = new TcpConnectMonitorProbe(loopback, closedPort).probe(1000);
+
+        assertFalse(result.successful());
+        assertEquals("Conexão recusada na porta " + closedPort + ".", result.message());
+    }
+
+    @Test
+    void shouldCountExpiredSequencesAndDropLateReplies() throws Exception {
+        PingSequenceTracker tracker = new PingSequenceTracker();
+        PingOutputScanner scanner = scanner(
+                "64 bytes from 8.8.8.8: icmp_seq=65535 ttl=117 time=20 ms",
+                "64 bytes from 8.8.8.8: icmp_seq=0 ttl=117 time=2100 ms",
+                "64 bytes from 8.8.8.8: icmp_seq=3 ttl=117 time=21 ms"
+        );
+
+        assertTrue(scanner.nextLine());
+        assertTrue(tracker.accept(scanner).get(0).successful());
+        assertEquals("Sem resposta do alvo (icmp_seq=0).", tracker.expire().message());
+        assertTrue(scanner.nextLine());
+        assertEquals(List.of(), tracker.accept(scanner));
+
+        assertTrue(scanner.nextLine());
+        List<PingProbeResult> results = tracker.accept(scanner);
+
+        assertEquals(3, results.size());
+        assertFalse(results.get(0).successful());
+        assertFalse(results.get(1).successful());
+        assertEquals(21.0, results.get(2).latencyMs());
+    }
+
+    @Test
+    void shouldKeepThousandsOfMonitorsOnSharedSchedulerAndBoundedPool() throws Exception {
+        TargetValidator validator = mock(TargetValidator.class);
+        ProcessLauncher launcher = mock(ProcessLauncher.class);
+        DiagnosticsProperties properties = new DiagnosticsProperties();
+        properties.getMonitor().setMode("single");
+        PingMonitorService service = service(validator, launcher, properties);
+        int monitors = 5_000;
+        CountDownLatch samples = new CountDownLatch(monitors);
+        List<SseEmitter> emitters = new ArrayList<>(monitors);
+
+        when(validator.normalizeTarget(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(launcher.start(anyList())).thenAnswer(invocation -> fakeProcess("bytes=32 tempo=1ms TTL=117\n", 0));
+
+        for (int index = 0; index < monitors; index++) {
+            SseEmitter emitter = new CountingEmitter(samples, 2);
+            emitters.add(emitter);
+            service.monitor(emitter, "monitor-" + index + ".exemplo.com.br", 50, 1000, null, null, null);
+        }
+
+        assertTrue(samples.await(60, TimeUnit.SECONDS), "every monitor should emit two samples");
+        emitters.forEach(SseEmitter::complete);
+        assertTrue(probeExecutor.getLargestPoolSize() <= 8);
+    }
+
+    @Test
+    void shouldShareOneProbeLoopBetweenViewersOfTheSameTarget() throws Exception {
+        TargetValidator validator = mock(TargetValidator.class);
+        ProcessLauncher launcher = mock(ProcessLauncher.class);
+        DiagnosticsProperties properties = new DiagnosticsProperties();
+        properties.getMonitor().setLingerMs(0);
+        PingMonitorService service = service(validator, launcher, properties);
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        CountDownLatch samples = new CountDownLatch(2);
+        CountingEmitter first = new CountingEmitter(samples, 3);
+        CountingEmitter second = new CountingEmitter(samples, 3);
+
+        try (ServerSocket server = new ServerSocket(0, 50, loopback)) {
+            when(validator.resolvePortScanTarget("gateway")).thenReturn(new PortScanTarget("gateway", List.of(loopback)));
+
+            service.monitor(first, "gateway", 20, 1000, MonitorProbeType.TCP, server.getLocalPort(), null);
+            service.monitor(second, "gateway", 20, 1000, MonitorProbeType.TCP, server.getLocalPort(), null);
+            assertEquals(1, service.activeMonitors());
+            assertTrue(samples.await(10, TimeUnit.SECONDS));
+
+            first.close();
+            assertEquals(1, service.activeMonitors());
+            second.close();
+        }
+
+        assertEquals(0, service.activeMonitors());
+        assertEquals(List.of("Monitoramento iniciado.", "Acompanhando monitoramento em andamento."),
+                List.of(first.startedMessage, second.startedMessage));
+        verify(validator, times(3)).resolvePortScanTarget("gateway");
+    }
+
+    @Test
+    void shouldResumeLingeringMonitorAndReplayOnlyMissedSamples() throws Exception {
+        TargetValidator validator = mock(TargetValidator.class);
+        ProcessLauncher launcher = mock(ProcessLauncher.class);
+        PingMonitorService service = service(validator, launcher, new DiagnosticsProperties());
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        CountDownLatch firstSamples = new CountDownLatch(1);
+        CountDownLatch resumedSamples = new CountDownLatch(1);
+        CountingEmitter dropped = new CountingEmitter(firstSamples, 3);
+        CountingEmitter resumed = new CountingEmitter(resumedSamples, 6);
+
+        try (ServerSocket server = new ServerSocket(0, 50, loopback)) {
+            when(validator.resolvePortScanTarget("gateway")).thenReturn(new PortScanTarget("gateway", List.of(loopback)));
+
+            service.monitor(dropped, "gateway", 20, 1000, MonitorProbeType.TCP, server.getLocalPort(), null);
+            assertTrue(firstSamples.await(10, TimeUnit.SECONDS));
+            dropped.close();
+            int received = dropped.samples.size();
+            String lastSeen = dropped.sampleIds.get(received - 1);
+            PingMonitorEventDTO lastSample = dropped.samples.get(received - 1);
+            Thread.sleep(100);
+
+            assertEquals(1, service.activeMonitors());
+            service.monitor(resumed, "gateway", 20, 1000, MonitorProbeType.TCP, server.getLocalPort(), lastSeen);
+            assertTrue(resumedSamples.await(10, TimeUnit.SECONDS));
+
+            assertEquals("Acompanhamento retomado.", resumed.startedMessage);
+            assertEquals(CountingEmitter.sequenceOf(lastSeen) + 1, CountingEmitter.sequenceOf(resumed.sampleIds.get(0)));
+            assertEquals(lastSample.attempts() + 1, resumed.samples.get(0).attempts());
+        }
+
+        for (int index = 1; index < resumed.sampleIds.size(); index++) {
+            assertEquals(CountingEmitter.sequenceOf(resumed.sampleIds.get(index - 1)) + 1, CountingEmitter.sequenceOf(resumed.sampleIds.get(index)));
+        }
+        verify(validator, times(3)).resolvePortScanTarget("gateway");
+    }
+
+    @Test
+    void shouldKeepPinnedMonitorRunningWithoutViewers() throws Exception {
+        TargetValidator validator = mock(TargetValidator.class);
+        ProcessLauncher launcher = mock(ProcessLauncher.class);
+        DiagnosticsProperties properties = new DiagnosticsProperties();
+        properties.getMonitor().setLingerMs(0);
+        PingMonitorService service = service(validator, launcher, properties);
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        CountDownLatch samples = new CountDownLatch(1);
+        CountingEmitter viewer = new CountingEmitter(samples, 2);
+
+        try (ServerSocket server = new ServerSocket(0, 50, loopback)) {
+            when(validator.resolvePortScanTarget("gateway")).thenReturn(new PortScanTarget("gateway", List.of(loopback)));
+
+            PingMonitorService.MonitorKey key = service.key("gateway", 20, 1000, MonitorProbeType.TCP, server.getLocalPort());
+            PingMonitorSession session = service.pin(key);
+            service.attach(key, viewer, null);
+            assertTrue(samples.await(10, TimeUnit.SECONDS));
+            viewer.close();
+            Thread.sleep(100);
+
+            assertTrue(session.isActive());
+            assertEquals(1, service.activeMonitors());
+            assertEquals("Acompanhando monitoramento em andamento.", viewer.startedMessage);
+
+            session.unpin();
+        }
+
+        assertEquals(0, service.activeMonitors());
+    }
+
+    @Test
+    void shouldKeepSamplingForOtherViewersWhileOneViewerIsStuck() throws Exception {
+        PingMonitorSession session = new PingMonitorSession("gateway", 10, 1000, 0, 16, scheduler, probeExecutor,
+                result -> {
+                }, closed -> {
+                });
+        CountDownLatch stuck = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch samples = new CountDownLatch(5);
+        session.subscribe(new RecordingSubscriber((name, id) -> {
+            stuck.countDown();
+            release.await();
+        }), null);
+        session.subscribe(new RecordingSubscriber((name, id) -> {
+            if ("sample".equals(name)) {
+                samples.countDown();
+            }
+        }), null);
+
+        session.startSampling(() -> timeoutMs -> new PingProbeResult(true, 1.0, "Ping OK.", 0));
+
+        assertTrue(stuck.await(5, TimeUnit.SECONDS));
+        assertTrue(samples.await(5, TimeUnit.SECONDS));
+        release.countDown();
+        session.stop();
+    }
+
+    @Test
+    void shouldResumeFromLastEventIdAndReportEventsThatLeftTheReplayRing() throws Exception {
+        PingMonitorSession session = new PingMonitorSession("gateway", 1, 1000, 0, 4, scheduler, probeExecutor,
+                result -> {
+                }, closed -> {
+                });
+        CountDownLatch tenSamples = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger probes = new AtomicInteger();
+        List<String> firstIds = new CopyOnWriteArrayList<>();
+        List<String> resumed = new CopyOnWriteArrayList<>();
+        CountDownLatch replayed = new CountDownLatch(6);
+        session.pin();
+        session.subscribe(new RecordingSubscriber((name, id) -> firstIds.add(id)), null);
+        session.startSampling(() -> timeoutMs -> {
+            if (probes.incrementAndGet() > 10) {
+                tenSamples.countDown();
+                release.await();
+            }
+            return new PingProbeResult(true, 1.0, "Ping OK.", 0);
+        });
+
+        try {
+            assertTrue(tenSamples.await(5, TimeUnit.SECONDS));
+            String stream = firstIds.get(0).substring(0, firstIds.get(0).indexOf(':'));
+            session.subscribe(new RecordingSubscriber((name, id) -> {
+                resumed.add(name + " " + id);
+                replayed.countDown();
+            }), stream + ":1");
+
+            assertTrue(replayed.await(5, TimeUnit.SECONDS));
+            assertEquals(List.of("started " + stream + ":1", "gap " + stream + ":6", "sample " + stream + ":7",
+                    "sample " + stream + ":8", "sample " + stream + ":9", "sample " + stream + ":10"), resumed);
+        } finally {
+            release.countDown();
+            session.stop();
+        }
+    }
+
+    private PingMonitorService service(TargetValidator validator, ProcessLauncher launcher, DiagnosticsProperties properties) {
+        return new PingMonitorService(validator, launcher, properties, scheduler, probeExecutor, mock(MonitorHistoryStore.class));
+    }
+
+    private static final class CountingEmitter extends SseEmitter {
+
+        private final CountDownLatch done;
+        private final AtomicInteger remaining;
+        private volatile Runnable completion = () -> {
+        };
+        private volatile String startedMessage;
+        private final List<String> sampleIds = new CopyOnWriteArrayList<>();
+        private final List<PingMonitorEventDTO> samples = new CopyOnWriteArrayList<>();
+
+        CountingEmitter(CountDownLatch done, int samples) {
+            this.done = done;
+            this.remaining = new AtomicInteger(samples);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            PingMonitorEventDTO event = builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .filter(PingMonitorEventDTO.class::isInstance)
+                    .map(PingMonitorEventDTO.class::cast)
+                    .findFirst()
+                    .orElseThrow();
+            if ("started".equals(event.type())) {
+                startedMessage = event.message();
+                return;
+            }
+            if ("sample".equals(event.type())) {
+                sampleIds.add(eventId(builder));
+                samples.add(event);
+                if (remaining.decrementAndGet() == 0) {
+                    done.countDown();
+                }
+            }
+        }
+
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            completion = callback;
+        }
+
+        void close() {
+            completion.run();
+        }
+
+        private static String eventId(SseEventBuilder builder) {
+            return builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .filter(String.class::isInstance)
+                    .map(String.class::cast)
+                    .filter(text -> text.startsWith("id:"))
+                    .map(text -> text.substring(3, text.indexOf('\n')))
+                    .findFirst()
+                    .orElse(null);
+        }
+
+        private static long sequenceOf(String id) {
+            return Long.parseLong(id.substring(id.indexOf(':') + 1));
+        }
+    }
+
     private static Process fakeProcess(String output, int exitCode) {
         return new Process() {
             @Override
@@ -107,4 +538,36 @@ class PingMonitorServiceTest {
             }
         };
     }
+
+    private static PingOutputScanner scanner(String... lines) {
+        return new PingOutputScanner(new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @FunctionalInterface
+    private interface EventHandler {
+        void accept(String name, String id) throws Exception;
+    }
+
+    private record RecordingSubscriber(EventHandler handler) implements MonitorSubscriber {
+
+        @Override
+        public void send(String eventName, String id, PingMonitorEventDTO payload) throws IOException {
+            try {
+                handler.accept(eventName, id);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new IOException(exception);
+            } catch (Exception exception) {
+                throw new IOException(exception);
+            }
+        }
+
+        @Override
+        public void complete() {
+        }
+
+        @Override
+        public void onClose(Runnable callback) {
+        }
+    }
 }
@@ -16,8 +16,8 @@ class PingServiceTest {
     @Test
     void shouldBuildCommandAndDelegateStreaming() {
         TargetValidator validator = mock(TargetValidator.class);
-        CommandStreamingService streamingService = mock(CommandStreamingService.class);
-        PingService pingService = new PingService(validator, streamingService);
+        CommandRunner commandRunner = mock(CommandRunner.class);
+        PingService pingService = new PingService(validator, commandRunner);
 
         when(validator.normalizeTarget("openai.com")).thenReturn("openai.com");
 
@@ -28,6 +28,6 @@ class PingServiceTest {
                 ? List.of("ping", "-n", "3", "openai.com")
                 : List.of("ping", "-c", "3", "openai.com");
 
-        verify(streamingService).stream(org.mockito.ArgumentMatchers.any(), org.mockito.ArgumentMatchers.eq("ping"), org.mockito.ArgumentMatchers.eq("openai.com"), org.mockito.ArgumentMatchers.eq(expected));
+        verify(commandRunner).run(org.mockito.ArgumentMatchers.any(), org.mockito.ArgumentMatchers.eq("ping"), org.mockito.ArgumentMatchers.eq("openai.com"), org.mockito.ArgumentMatchers.eq(expected));
     }
 }
@@ -0,0 +1,61 @@
+package com.project.suporte.ai.service;
+
+import com.project.suporte.ai.exceptions.ApiException;
+import com.project.suporte.ai.support.PortSet;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PortScanJobRegistryTest {
+
+    @Test
+    void shouldEvictOldestFinishedJobWhenFull() {
+        PortScanJobRegistry registry = new PortScanJobRegistry(2, Duration.ofMinutes(10));
+        PortScanJob finished = job();
+        PortScanJob running = job();
+        PortScanJob next = job();
+
+        registry.register(finished);
+        registry.register(running);
+        finished.markCompleted();
+        registry.register(next);
+
+        assertEquals(2, registry.size());
+        assertSame(running, registry.find(running.id()));
+        assertEquals("job_not_found", assertThrows(ApiException.class, () -> registry.find(finished.id())).getCode());
+    }
+
+    @Test
+    void shouldRejectNewJobsWhileAllSlotsAreRunning() {
+        PortScanJobRegistry registry = new PortScanJobRegistry(1, Duration.ofMinutes(10));
+        registry.register(job());
+
+        assertEquals("too_many_jobs", assertThrows(ApiException.class, () -> registry.register(job())).getCode());
+    }
+
+    @Test
+    void shouldDropFinishedJobsAfterRetention() {
+        PortScanJobRegistry registry = new PortScanJobRegistry(10, Duration.ZERO);
+        PortScanJob job = job();
+        registry.register(job);
+        job.markCancelled();
+
+        assertThrows(ApiException.class, () -> registry.find(job.id()));
+    }
+
+    private static PortScanJob job() {
+        PortScanTally tally = new PortScanTally();
+        PortScanPlan plan = new PortScanPlan(
+                "scanme.nmap.org", List.of(InetAddress.getLoopbackAddress()), PortSet.parse("80"), 800, null, 0, false, 250
+        );
+        PortScanRun run = new PortScanRun(plan, null, 1, (port, result) -> {
+        });
+        return new PortScanJob("scanme.nmap.org", 1, run, tally, () -> null, false);
+    }
+}
@@ -1,23 +1,51 @@
 package com.project.suporte.ai.service;
 
 import com.project.suporte.ai.config.DiagnosticsProperties;
+import com.project.suporte.ai.dto.PortScanBatchRequestDTO;
 import com.project.suporte.ai.dto.PortScanRequestDTO;
+import com.project.suporte.ai.dto.PortScanFamilyDTO;
 import com.project.suporte.ai.dto.PortScanResponseDTO;
+import com.project.suporte.ai.dto.PortServiceDTO;
 import com.project.suporte.ai.exceptions.ApiException;
 import com.project.suporte.ai.support.PortProbe;
+import com.project.suporte.ai.support.PortScanTarget;
 import com.project.suporte.ai.support.TargetValidator;
+import com.project.suporte.ai.dto.PortScanEventDTO;
+import com.project.suporte.ai.dto.PortScanJobDTO;
+import com.project.suporte.ai.support.PortProbeResult;
+import com.project.suporte.ai.support.PortState;
+import com.project.suporte.ai.support.ServiceBanner;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.net.Inet4Address;
+import java.net.Inet6Address;
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
 import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class PortScanServiceTest {
@@ -25,11 +53,11 @@ class PortScanServiceTest {
     @Test
     void shouldReturnOpenPortsOnly() {
         TargetValidator validator = mock(TargetValidator.class);
-        PortProbe portProbe = mock(PortProbe.class);
+        PortProbe portProbe = mock(PortProbe.class, CALLS_REAL_METHODS);
         Executor directExecutor = Runnable::run;
         PortScanService service = new PortScanService(validator, portProbe, directExecutor, new DiagnosticsProperties());
 
-        when(validator.normalizePortScanTarget("scanme.nmap.org")).thenReturn("scanme.nmap.org");
+        when(validator.resolvePortScanTarget("scanme.nmap.org")).thenReturn(target("scanme.nmap.org"));
         when(portProbe.isOpen(argThat(address -> matches(address, "scanme.nmap.org", 80)), eq(800))).thenReturn(true);
         when(portProbe.isOpen(argThat(address -> matches(address, "scanme.nmap.org", 443)), eq(800))).thenReturn(false);
 
@@ -42,16 +70,419 @@ class PortScanServiceTest {
     @Test
     void shouldRejectTooManyPorts() {
         TargetValidator validator = mock(TargetValidator.class);
-        PortProbe portProbe = mock(PortProbe.class);
+        PortProbe portProbe = mock(PortProbe.class, CALLS_REAL_METHODS);
         Executor directExecutor = Runnable::run;
         PortScanService service = new PortScanService(validator, portProbe, directExecutor, new DiagnosticsProperties());
 
-        when(validator.normalizePortScanTarget("scanme.nmap.org")).thenReturn("scanme.nmap.org");
+        when(validator.resolvePortScanTarget("scanme.nmap.org")).thenReturn(target("scanme.nmap.org"));
 
         List<Integer> manyPorts = IntStream.rangeClosed(1, 65).boxed().toList();
         assertThrows(ApiException.class, () -> service.scanPorts(new PortScanRequestDTO("scanme.nmap.org", manyPorts, 800)));
     }
 
+    @Test
+    void shouldStreamEventPerPortAndFinalSummary() throws Exception {
+        TargetValidator validator = mock(TargetValidator.class);
+        PortProbe portProbe = mock(PortProbe.class);
+        SseEmitter emitter = mock(SseEmitter.class);
+        Executor directExecutor = Runnable::run;
+        PortScanService service = new PortScanService(validator, portProbe, directExecutor, new DiagnosticsProperties());
+
+        when(validator.resolvePortScanTarget("scanme.nmap.org")).thenReturn(target("scanme.nmap.org"));
+        when(portProbe.probeAsync(argThat(address -> matches(address, "scanme.nmap.org", 22)), eq(800), any()))
+                .thenReturn(CompletableFuture.completedFuture(new PortProbeResult(PortState.OPEN, 5_000_000L)));
+        when(portProbe.probeAsync(argThat(address -> matches(address, "scanme.nmap.org", 23)), eq(800), any()))
+                .thenReturn(CompletableFuture.completedFuture(new PortProbeResult(PortState.CLOSED, 3_000_000L)));
+        when(portProbe.probeAsync(argThat(address -> matches(address, "scanme.nmap.org", 25)), eq(800), any()))
+                .thenReturn(CompletableFuture.completedFuture(new PortProbeResult(PortState.FILTERED, 800_000_000L)));
+
+        service.streamScan(emitter, new PortScanRequestDTO("scanme.nmap.org", List.of(25, 23, 22), 800));
+
+        ArgumentCaptor<SseEmitter.SseEventBuilder> captor = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+        verify(emitter, times(5)).send(captor.capture());
+        verify(emitter).complete();
+
+        List<PortScanEventDTO> events = captor.getAllValues().stream()
+                .flatMap(builder -> builder.build().stream())
+                .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                .filter(PortScanEventDTO.class::isInstance)
+                .map(PortScanEventDTO.class::cast)
+                .toList();
+
+        assertEquals(List.of("started", "open", "closed", "filtered", "completed"), events.stream().map(PortScanEventDTO::type).toList());
+        PortScanEventDTO summary = events.get(4);
+        assertEquals(List.of(22), summary.openPorts());
+        assertEquals(1, summary.closedCount());
+        assertEquals(1, summary.filteredCount());
+        assertTrue(summary.finished());
+    }
+
+    @Test
+    void shouldScanRangeAndSummarizeAsRanges() {
+        TargetValidator validator = mock(TargetValidator.class);
+        PortProbe portProbe = mock(PortProbe.class);
+        Executor directExecutor = Runnable::run;
+        PortScanService service = new PortScanService(validator, portProbe, directExecutor, new DiagnosticsProperties());
+
+        when(validator.resolvePortScanTarget("scanme.nmap.org")).thenReturn(target("scanme.nmap.org"));
+        when(portProbe.probeAsync(any(), eq(800), any())).thenAnswer(invocation -> {
+            int port = invocation.<InetSocketAddress>getArgument(0).getPort();
+            PortState state = port == 22 || port == 80 || port == 81 ? PortState.OPEN
+                    : port > 4_000 ? PortState.FILTERED : PortState.CLOSED;
+            return CompletableFuture.completedFuture(new PortProbeResult(state, 1_000_000L));
+        });
+
+        PortScanResponseDTO response = service.scanPorts(new PortScanRequestDTO("scanme.nmap.org", null, 800, "1-4096", null, null, null, null));
+
+        assertEquals(List.of(22, 80, 81), response.openPorts());
+        assertEquals(4_096, response.totalPorts());
+        assertEquals(List.of("22", "80-81"), response.openRanges());
+        assertEquals(List.of("1-21", "23-79", "82-4000"), response.closedRanges());
+        assertEquals(List.of("4001-4096"), response.filteredRanges());
+    }
+
+    @Test
+    void shouldShrinkTimeoutsOnceRttSamplesArriveInAdaptiveMode() {
+        TargetValidator validator = mock(TargetValidator.class);
+        PortProbe portProbe = mock(PortProbe.class);
+        Executor directExecutor = Runnable::run;
+        PortScanService service = new PortScanService(validator, portProbe, directExecutor, new DiagnosticsProperties());
+        List<Integer> timeouts = new ArrayList<>();
+
+        when(validator.resolvePortScanTarget("scanme.nmap.org")).thenReturn(target("scanme.nmap.org"));
+        when(portProbe.probeAsync(any(), any(IntSupplier.class), any())).thenAnswer(invocation -> {
+            int port = invocation.<InetSocketAddress>getArgument(0).getPort();
+            timeouts.add(invocation.<IntSupplier>getArgument(1).getAsInt());
+            PortState state = port <= 5 ? PortState.CLOSED : PortState.FILTERED;
+            return CompletableFuture.completedFuture(new PortProbeResult(state, 2_000_000L));
+        });
+
+        PortScanResponseDTO response = service.scanPorts(new PortScanRequestDTO("scanme.nmap.org", null, 800, "1-100", true, null, null, null));
+
+        assertEquals(800, timeouts.get(0));
+        assertEquals(50, timeouts.get(timeouts.size() - 1));
+        assertEquals(2.0, response.smoothedRttMs());
+        assertEquals(List.of("6-100"), response.filteredRanges());
+    }
+
+    @Test
+    void shouldReportDetectedServicesWhenRequested() {
+        TargetValidator validator = mock(TargetValidator.class);
+        PortProbe portProbe = mock(PortProbe.class);
+        PortScanService service = new PortScanService(validator, portProbe, Runnable::run, new DiagnosticsProperties());
+
+        when(validator.resolvePortScanTarget("scanme.nmap.org")).thenReturn(target("scanme.nmap.org"));
+        when(portProbe.probeServiceAsync(argThat(address -> matches(address, "scanme.nmap.org", 22)), any(), eq(1500), any()))
+                .thenReturn(CompletableFuture.completedFuture(
+                        new PortProbeResult(PortState.OPEN, 1_000_000L, new ServiceBanner("ssh", "SSH-2.0-OpenSSH_9.6"))));
+        when(portProbe.probeServiceAsync(argThat(address -> matches(address, "scanme.nmap.org", 23)), any(), eq(1500), any()))
+                .thenReturn(CompletableFuture.completedFuture(new PortProbeResult(PortState.CLOSED, 1_000_000L)));
+
+        PortScanResponseDTO response = service.scanPorts(
+                new PortScanRequestDTO("scanme.nmap.org", List.of(22, 23), 800, null, null, true, null, null)
+        );
+
+        assertEquals(List.of(new PortServiceDTO(22, "ssh", "SSH-2.0-OpenSSH_9.6")), response.services());
+    }
+
+    @Test
+    void shouldServeRepeatedScanFromCacheUnlessBypassed() {
+        TargetValidator validator = mock(TargetValidator.class);
+        PortProbe portProbe = mock(PortProbe.class);
+        PortScanService service = new PortScanService(validator, portProbe, Runnable::run, new DiagnosticsProperties());
+
+        when(validator.resolvePortScanTarget("scanme.nmap.org")).thenReturn(target("scanme.nmap.org"));
+        when(portProbe.probeAsync(any(), eq(800), any()))
+                .thenReturn(CompletableFuture.completedFuture(new PortProbeResult(PortState.FILTERED, 800_000_000L)));
+
+        PortScanResponseDTO first = service.scanPorts(new PortScanRequestDTO("scanme.nmap.org", null, 800, "1-10", null, null, null, null));
+        PortScanResponseDTO second = service.scanPorts(new PortScanRequestDTO("scanme.nmap.org", null, 800, "1-10", null, null, null, null));
+        PortScanResponseDTO bypassed = service.scanPorts(new PortScanRequestDTO("scanme.nmap.org", null, 800, "1-10", null, null, true, null));
+
+        verify(portProbe, times(20)).probeAsync(any(), eq(800), any());
+        assertEquals(0, first.cachedPorts());
+        assertEquals(10, second.cachedPorts());
+        assertEquals(List.of("1-10"), second.filteredRanges());
+        assertEquals(0, bypassed.cachedPorts());
+    }
+
+    @Test
+    void shouldExposeJobProgressAndCancelOutstandingProbes() {
+        TargetValidator validator = mock(TargetValidator.class);
+        PortProbe portProbe = mock(PortProbe.class);
+        DiagnosticsProperties properties = new DiagnosticsProperties();
+        properties.getPortscan().setScanWindow(4);
+        PortScanService service = new PortScanService(validator, portProbe, Runnable::run, properties);
+        List<CompletableFuture<PortProbeResult>> pending = new ArrayList<>();
+
+        when(validator.resolvePortScanTarget("scanme.nmap.org")).thenReturn(target("scanme.nmap.org"));
+        when(portProbe.probeAsync(any(), eq(800), any())).thenAnswer(invocation -> {
+            if (invocation.<InetSocketAddress>getArgument(0).getPort() <= 2) {
+                return CompletableFuture.completedFuture(new PortProbeResult(PortState.OPEN, 1_000_000L));
+            }
+            CompletableFuture<PortProbeResult> probe = new CompletableFuture<>();
+            pending.add(probe);
+            return probe;
+        });
+
+        PortScanJobDTO submitted = service.submitJob(new PortScanRequestDTO("scanme.nmap.org", null, 800, "1-100", null, null, null, null));
+        PortScanJobDTO running = service.getJob(submitted.id());
+
+        assertEquals("running", running.status());
+        assertEquals(100, running.totalPorts());
+        assertEquals(2, running.completedPorts());
+        assertEquals(List.of(1, 2), running.openPorts());
+
+        PortScanJobDTO cancelled = service.cancelJob(submitted.id());
+
+        assertEquals("cancelled", cancelled.status());
+        assertTrue(pending.stream().allMatch(CompletableFuture::isCancelled));
+        verify(portProbe, times(6)).probeAsync(any(), eq(800), any());
+        assertThrows(ApiException.class, () -> service.getJob("missing"));
+    }
+
+    @Test
+    void shouldCancelStreamingScanWhenClientGoesAway() {
+        TargetValidator validator = mock(TargetValidator.class);
+        PortProbe portProbe = mock(PortProbe.class);
+        SseEmitter emitter = mock(SseEmitter.class);
+        PortScanService service = new PortScanService(validator, portProbe, Runnable::run, new DiagnosticsProperties());
+        List<CompletableFuture<PortProbeResult>> pending = new ArrayList<>();
+
+        when(validator.resolvePortScanTarget("scanme.nmap.org")).thenReturn(target("scanme.nmap.org"));
+        when(portProbe.probeAsync(any(), eq(800), any())).thenAnswer(invocation -> {
+            CompletableFuture<PortProbeResult> probe = new CompletableFuture<>();
+            pending.add(probe);
+            return probe;
+        });
+
+        service.streamScan(emitter, new PortScanRequestDTO("scanme.nmap.org", null, 800, "1-10", null, null, null, null));
+
+        ArgumentCaptor<Consumer<Throwable>> onError = ArgumentCaptor.forClass(Consumer.class);
+        verify(emitter).onError(onError.capture());
+        onError.getValue().accept(new IOException("Broken pipe"));
+
+        assertEquals(10, pending.size());
+        assertTrue(pending.stream().allMatch(CompletableFuture::isCancelled));
+    }
+
+    @Test
+    void shouldInterleaveBatchHostsRoundRobinUnderGlobalBudget() throws Exception {
+        TargetValidator validator = mock(TargetValidator.class);
+        PortProbe portProbe = mock(PortProbe.class);
+        SseEmitter emitter = mock(SseEmitter.class);
+        DiagnosticsProperties properties = new DiagnosticsProperties();
+        properties.getPortscan().setGlobalMaxInFlight(1);
+        PortScanService service = new PortScanService(validator, portProbe, Runnable::run, properties);
+
+        when(validator.expandPortScanCidr("203.0.113.0/31", 256)).thenReturn(List.of(literal("203.0.113.0"), literal("203.0.113.1")));
+        when(portProbe.probeAsync(any(), eq(800), any()))
+                .thenReturn(CompletableFuture.completedFuture(new PortProbeResult(PortState.CLOSED, 1_000_000L)));
+
+        service.streamBatchScan(emitter, new PortScanBatchRequestDTO(null, "203.0.113.0/31", null, 800, "1-3", null, null, null, null));
+
+        List<PortScanEventDTO> events = capturedEvents(emitter, 10);
+        assertEquals(
+                List.of("203.0.113.0", "203.0.113.1", "203.0.113.0", "203.0.113.1", "203.0.113.0", "203.0.113.1"),
+                events.stream().filter(event -> "closed".equals(event.type())).map(PortScanEventDTO::host).toList()
+        );
+        PortScanEventDTO summary = events.get(events.size() - 1);
+        assertEquals("completed", summary.type());
+        assertEquals(2, summary.totalHosts());
+        assertEquals(6, summary.closedCount());
+    }
+
+    @Test
+    void shouldNotLetSlowHostStarveOthersInBatch() throws Exception {
+        TargetValidator validator = mock(TargetValidator.class);
+        PortProbe portProbe = mock(PortProbe.class);
+        SseEmitter emitter = mock(SseEmitter.class);
+        DiagnosticsProperties properties = new DiagnosticsProperties();
+        properties.getPortscan().setGlobalMaxInFlight(4);
+        properties.getPortscan().setScanWindow(2);
+        PortScanService service = new PortScanService(validator, portProbe, Runnable::run, properties);
+        List<CompletableFuture<PortProbeResult>> slowProbes = new ArrayList<>();
+
+        when(validator.resolvePortScanTarget("slow.example.com")).thenReturn(target("slow.example.com", "203.0.113.20"));
+        when(validator.resolvePortScanTarget("fast.example.com")).thenReturn(target("fast.example.com", "203.0.113.21"));
+        when(portProbe.probeAsync(any(), eq(800), any())).thenAnswer(invocation -> {
+            if (invocation.<InetSocketAddress>getArgument(0).getHostString().equals("slow.example.com")) {
+                CompletableFuture<PortProbeResult> pending = new CompletableFuture<>();
+                slowProbes.add(pending);
+                return pending;
+            }
+            return CompletableFuture.completedFuture(new PortProbeResult(PortState.OPEN, 1_000_000L));
+        });
+
+        service.streamBatchScan(emitter, new PortScanBatchRequestDTO(
+                List.of("slow.example.com", "fast.example.com"), null, null, 800, "1-20", null, null, null, null
+        ));
+
+        assertEquals(2, slowProbes.size());
+        List<PortScanEventDTO> events = capturedEvents(emitter, 22);
+        PortScanEventDTO fastSummary = events.get(events.size() - 1);
+        assertEquals("host_completed", fastSummary.type());
+        assertEquals("fast.example.com", fastSummary.host());
+        assertEquals(List.of("1-20"), fastSummary.openRanges());
+
+        while (slowProbes.stream().anyMatch(probe -> !probe.isDone())) {
+            List.copyOf(slowProbes).forEach(probe -> probe.complete(new PortProbeResult(PortState.FILTERED, 800_000_000L)));
+        }
+
+        verify(emitter).complete();
+        assertEquals(20, slowProbes.size());
+    }
+
+    @Test
+    void shouldScanBothAddressFamiliesAndReportThemSeparately() {
+        TargetValidator validator = mock(TargetValidator.class);
+        PortProbe portProbe = mock(PortProbe.class);
+        DiagnosticsProperties properties = new DiagnosticsProperties();
+        properties.getPortscan().setConnectionAttemptDelayMs(10);
+        PortScanService service = new PortScanService(validator, portProbe, Runnable::run, properties);
+
+        when(validator.resolvePortScanTarget("dual.example.com"))
+                .thenReturn(target("dual.example.com", "203.0.113.10", "2001:db8::10"));
+        when(portProbe.probeAsync(any(), eq(800), any())).thenAnswer(invocation -> {
+            InetSocketAddress address = invocation.getArgument(0);
+            boolean ipv6 = address.getAddress() instanceof Inet6Address;
+            PortState state = switch (address.getPort()) {
+                case 22 -> ipv6 ? PortState.OPEN : PortState.CLOSED;
+                case 23 -> ipv6 ? PortState.FILTERED : PortState.OPEN;
+                default -> PortState.CLOSED;
+            };
+            return CompletableFuture.completedFuture(new PortProbeResult(state, 1_000_000L));
+        });
+
+        PortScanResponseDTO response = service.scanPorts(
+                new PortScanRequestDTO("dual.example.com", List.of(22, 23, 24), 800, null, null, null, null, true)
+        );
+
+        assertEquals(List.of(22, 23), response.openPorts());
+        assertEquals(List.of("24"), response.closedRanges());
+        assertEquals(
+                List.of(
+                        new PortScanFamilyDTO("ipv6", "2001:db8:0:0:0:0:0:10", List.of(22), List.of("22"), List.of("24"), List.of("23")),
+                        new PortScanFamilyDTO("ipv4", "203.0.113.10", List.of(23), List.of("23"), List.of("24"), List.of())
+                ),
+                response.families()
+        );
+        verify(validator, times(1)).resolvePortScanTarget("dual.example.com");
+        verify(portProbe, times(5)).probeAsync(argThat(address -> address != null && !address.isUnresolved()), eq(800), any());
+    }
+
+    @Test
+    void shouldStartNextFamilyAsSoonAsPreferredAttemptFails() {
+        TargetValidator validator = mock(TargetValidator.class);
+        PortProbe portProbe = mock(PortProbe.class);
+        DiagnosticsProperties properties = new DiagnosticsProperties();
+        properties.getPortscan().setConnectionAttemptDelayMs(60_000);
+        PortScanService service = new PortScanService(validator, portProbe, Runnable::run, properties);
+        CompletableFuture<PortProbeResult> ipv6Attempt = new CompletableFuture<>();
+
+        when(validator.resolvePortScanTarget("dual.example.com"))
+                .thenReturn(target("dual.example.com", "203.0.113.10", "2001:db8::10"));
+        when(portProbe.probeAsync(argThat(address -> address != null && address.getAddress() instanceof Inet6Address), eq(800), any()))
+                .thenReturn(ipv6Attempt);
+        when(portProbe.probeAsync(argThat(address -> address != null && address.getAddress() instanceof Inet4Address), eq(800), any()))
+                .thenReturn(CompletableFuture.completedFuture(new PortProbeResult(PortState.OPEN, 1_000_000L)));
+
+        PortScanJobDTO submitted = service.submitJob(
+                new PortScanRequestDTO("dual.example.com", List.of(443), 800, null, null, null, null, true)
+        );
+
+        verify(portProbe, never()).probeAsync(argThat(address -> address != null && address.getAddress() instanceof Inet4Address), eq(800), any());
+        ipv6Attempt.complete(new PortProbeResult(PortState.FILTERED, 800_000_000L));
+
+        PortScanJobDTO finished = service.getJob(submitted.id());
+        assertEquals("completed", finished.status());
+        assertEquals(List.of(443), finished.openPorts());
+    }
+
+    @Test
+    void shouldCancelSlowerFamilyOnceOneAttemptConnects() {
+        TargetValidator validator = mock(TargetValidator.class);
+        PortProbe portProbe = mock(PortProbe.class);
+        DiagnosticsProperties properties = new DiagnosticsProperties();
+        properties.getPortscan().setConnectionAttemptDelayMs(10);
+        PortScanService service = new PortScanService(validator, portProbe, Runnable::run, properties);
+        CompletableFuture<PortProbeResult> ipv6Attempt = new CompletableFuture<>();
+
+        when(validator.resolvePortScanTarget("dual.example.com"))
+                .thenReturn(target("dual.example.com", "203.0.113.10", "2001:db8::10"));
+        when(portProbe.probeAsync(argThat(address -> address != null && address.getAddress() instanceof Inet6Address), eq(800), any()))
+                .thenReturn(ipv6Attempt);
+        when(portProbe.probeAsync(argThat(address -> address != null && address.getAddress() instanceof Inet4Address), eq(800), any()))
+                .thenReturn(CompletableFuture.completedFuture(new PortProbeResult(PortState.OPEN, 1_000_000L)));
+
+        PortScanResponseDTO response = service.scanPorts(
+                new PortScanRequestDTO("dual.example.com", List.of(443), 800, null, null, null, null, true)
+        );
+
+        assertEquals(List.of(443), response.openPorts());
+        assertTrue(ipv6Attempt.isCancelled());
+    }
+
+    @Test
+    void shouldTakeOneBudgetPermitPerConnectInDualStackRace() {
+        TargetValidator validator = mock(TargetValidator.class);
+        PortProbe portProbe = mock(PortProbe.class);
+        DiagnosticsProperties properties = new DiagnosticsProperties();
+        properties.getPortscan().setConnectionAttemptDelayMs(10);
+        properties.getPortscan().setGlobalMaxInFlight(1);
+        PortScanService service = new PortScanService(validator, portProbe, Runnable::run, properties);
+        CompletableFuture<PortProbeResult> ipv6Attempt = new CompletableFuture<>();
+
+        when(validator.resolvePortScanTarget("dual.example.com"))
+                .thenReturn(target("dual.example.com", "203.0.113.10", "2001:db8::10"));
+        when(portProbe.probeAsync(argThat(address -> address != null && address.getAddress() instanceof Inet6Address), eq(800), any()))
+                .thenReturn(ipv6Attempt);
+        when(portProbe.probeAsync(argThat(address -> address != null && address.getAddress() instanceof Inet4Address), eq(800), any()))
+                .thenReturn(CompletableFuture.completedFuture(new PortProbeResult(PortState.OPEN, 1_000_000L)));
+
+        PortScanJobDTO submitted = service.submitJob(
+                new PortScanRequestDTO("dual.example.com", List.of(443), 800, null, null, null, null, true)
+        );
+
+        verify(portProbe, after(200).never()).probeAsync(argThat(address -> address != null && address.getAddress() instanceof Inet4Address), eq(800), any());
+        ipv6Attempt.complete(new PortProbeResult(PortState.FILTERED, 800_000_000L));
+
+        PortScanJobDTO finished = service.getJob(submitted.id());
+        assertEquals("completed", finished.status());
+        assertEquals(List.of(443), finished.openPorts());
+    }
+
+    private static List<PortScanEventDTO> capturedEvents(SseEmitter emitter, int expected) throws Exception {
+        ArgumentCaptor<SseEmitter.SseEventBuilder> captor = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+        verify(emitter, times(expected)).send(captor.capture());
+        return captor.getAllValues().stream()
+                .flatMap(builder -> builder.build().stream())
+                .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                .filter(PortScanEventDTO.class::isInstance)
+                .map(PortScanEventDTO.class::cast)
+                .toList();
+    }
+
+    private static PortScanTarget target(String host, String... literals) {
+        try {
+            List<InetAddress> addresses = new ArrayList<>();
+            for (String literal : literals.length == 0 ? new String[]{"203.0.113.10"} : literals) {
+                addresses.add(InetAddress.getByAddress(host, InetAddress.getByName(literal).getAddress()));
+            }
+            return new PortScanTarget(host, addresses);
+        } catch (UnknownHostException exception) {
+            throw new IllegalArgumentException(exception);
+        }
+    }
+
+    private static PortScanTarget literal(String address) {
+        try {
+            return new PortScanTarget(address, List.of(InetAddress.getByName(address)));
+        } catch (UnknownHostException exception) {
+            throw new IllegalArgumentException(exception);
+        }
+    }
+
     private static boolean matches(InetSocketAddress address, String host, int port) {
         return address != null && address.getHostString().equals(host) && address.getPort() == port;
     }
@@ -0,0 +1,88 @@
+package com.project.suporte.ai.service;
+
+import com.project.suporte.ai.config.DiagnosticsProperties;
+import com.project.suporte.ai.dto.IpGeolocationResponseDTO;
+import com.project.suporte.ai.exceptions.ApiException;
+import com.project.suporte.ai.support.TracerouteHop;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class TracerouteHopEnricherTest {
+
+    private final DnsLookupService dnsLookupService = mock(DnsLookupService.class);
+    private final IpGeolocationService ipGeolocationService = mock(IpGeolocationService.class);
+
+    @Test
+    void shouldResolveMissingHostnameAndGeolocatePublicHop() {
+        IpGeolocationResponseDTO geolocation = new IpGeolocationResponseDTO("8.8.8.8", "United States", "California",
+                "Mountain View", "Google LLC", "Google LLC", "AS15169 Google LLC", "America/Los_Angeles", 37.4056, -122.0775);
+        when(dnsLookupService.reverseLookup("8.8.8.8")).thenReturn("dns.google");
+        when(ipGeolocationService.geolocateIp("8.8.8.8")).thenReturn(geolocation);
+
+        TracerouteHopEnrichment enrichment = enricher(new DiagnosticsProperties()).enrich(hop(6, "8.8.8.8", null)).join();
+
+        assertEquals("dns.google", enrichment.hostname());
+        assertEquals(geolocation, enrichment.geolocation());
+        assertNull(enrichment.message());
+    }
+
+    @Test
+    void shouldKeepTracerouteHostnameAndExplainMissingGeolocation() {
+        when(ipGeolocationService.geolocateIp("192.168.0.1")).thenThrow(new ApiException(
+                HttpStatus.BAD_REQUEST, "public_ip_required", "A geolocalização requer um IP público."));
+
+        TracerouteHopEnrichment enrichment = enricher(new DiagnosticsProperties()).enrich(hop(1, "192.168.0.1", "_gateway")).join();
+
+        assertEquals("_gateway", enrichment.hostname());
+        assertNull(enrichment.geolocation());
+        assertEquals("A geolocalização requer um IP público.", enrichment.message());
+        verifyNoInteractions(dnsLookupService);
+    }
+
+    @Test
+    void shouldGiveUpOnSlowLookupAfterTimeout() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        DiagnosticsProperties properties = new DiagnosticsProperties();
+        properties.getTraceroute().setEnrichmentTimeoutMs(50);
+        when(ipGeolocationService.geolocateIp("1.1.1.1")).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+
+        CompletableFuture<TracerouteHopEnrichment> enrichment = enricher(properties).enrich(hop(3, "1.1.1.1", "one.one.one.one"));
+
+        assertEquals("Tempo esgotado ao enriquecer o salto.", enrichment.get(5, TimeUnit.SECONDS).message());
+        release.countDown();
+        verify(ipGeolocationService).geolocateIp("1.1.1.1");
+    }
+
+    @Test
+    void shouldSkipHopsWithoutAddressOrWhenDisabled() {
+        DiagnosticsProperties disabled = new DiagnosticsProperties();
+        disabled.getTraceroute().setEnrichmentEnabled(false);
+
+        assertNull(enricher(new DiagnosticsProperties()).enrich(new TracerouteHop(2, null, null, Arrays.asList(null, null, null))));
+        assertNull(enricher(disabled).enrich(hop(1, "8.8.8.8", null)));
+    }
+
+    private TracerouteHopEnricher enricher(DiagnosticsProperties properties) {
+        return new TracerouteHopEnricher(dnsLookupService, ipGeolocationService, Thread.ofVirtual()::start, properties);
+    }
+
+    private static TracerouteHop hop(int number, String address, String hostname) {
+        return new TracerouteHop(number, address, hostname, List.of(10.0, 11.0, 12.0));
+    }
+}
@@ -1,13 +1,36 @@
 package com.project.suporte.ai.service;
 
+import com.project.suporte.ai.config.DiagnosticsProperties;
+import com.project.suporte.ai.dto.CommandStreamEventDTO;
+import com.project.suporte.ai.dto.IpGeolocationResponseDTO;
+import com.project.suporte.ai.dto.TracerouteHopEnrichmentEventDTO;
+import com.project.suporte.ai.dto.TracerouteHopEventDTO;
 import com.project.suporte.ai.support.TargetValidator;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -16,18 +39,216 @@ class TracerouteServiceTest {
     @Test
     void shouldBuildCommandAndDelegateStreaming() {
         TargetValidator validator = mock(TargetValidator.class);
-        CommandStreamingService streamingService = mock(CommandStreamingService.class);
-        TracerouteService tracerouteService = new TracerouteService(validator, streamingService);
+        CommandRunner commandRunner = mock(CommandRunner.class);
+        TracerouteService tracerouteService = new TracerouteService(validator, commandRunner, mock(TracerouteHopEnricher.class), new DiagnosticsProperties());
 
         when(validator.normalizeTarget("1.1.1.1")).thenReturn("1.1.1.1");
 
-        tracerouteService.executeTraceroute(new SseEmitter(), "1.1.1.1");
+        tracerouteService.executeTraceroute(new SseEmitter(), "1.1.1.1", false);
 
         boolean isWindows = System.getProperty("os.name").toLowerCase(Locale.ROOT).contains("win");
         List<String> expected = isWindows
                 ? List.of("tracert", "1.1.1.1")
                 : List.of("traceroute", "1.1.1.1");
 
-        verify(streamingService).stream(org.mockito.ArgumentMatchers.any(), org.mockito.ArgumentMatchers.eq("traceroute"), org.mockito.ArgumentMatchers.eq("1.1.1.1"), org.mockito.ArgumentMatchers.eq(expected));
+        verify(commandRunner).run(org.mockito.ArgumentMatchers.any(), org.mockito.ArgumentMatchers.eq("traceroute"), org.mockito.ArgumentMatchers.eq("1.1.1.1"), org.mockito.ArgumentMatchers.eq(expected));
+    }
+
+    @Test
+    void shouldShareOneRunningTracerouteBetweenConcurrentRequests() throws Exception {
+        TargetValidator validator = mock(TargetValidator.class);
+        CommandRunner commandRunner = mock(CommandRunner.class);
+        TracerouteService tracerouteService = new TracerouteService(validator, commandRunner, mock(TracerouteHopEnricher.class), new DiagnosticsProperties());
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter late = new RecordingEmitter();
+        AtomicBoolean stopped = new AtomicBoolean();
+        when(validator.normalizeTarget(any())).thenReturn("1.1.1.1");
+
+        tracerouteService.executeTraceroute(first, "1.1.1.1", false);
+        ArgumentCaptor<SseEmitter> flight = ArgumentCaptor.forClass(SseEmitter.class);
+        verify(commandRunner).run(flight.capture(), eq("traceroute"), eq("1.1.1.1"), anyList());
+        flight.getValue().onCompletion(() -> stopped.set(true));
+        flight.getValue().send(event("1  gateway"));
+
+        tracerouteService.executeTraceroute(late, "https://1.1.1.1/", false);
+        flight.getValue().send(event("2  isp"));
+
+        verify(commandRunner, times(1)).run(any(), eq("traceroute"), eq("1.1.1.1"), anyList());
+        assertEquals(List.of("1  gateway", "2  isp"), first.messages);
+        assertEquals(List.of("1  gateway", "2  isp"), late.messages);
+        assertEquals(1, tracerouteService.runningTraceroutes());
+
+        first.disconnect();
+        assertFalse(stopped.get());
+        late.disconnect();
+        assertTrue(stopped.get());
+        assertEquals(0, tracerouteService.runningTraceroutes());
+
+        tracerouteService.executeTraceroute(new RecordingEmitter(), "1.1.1.1", false);
+        verify(commandRunner, times(2)).run(any(), eq("traceroute"), eq("1.1.1.1"), anyList());
+    }
+
+    @Test
+    void shouldEmitHopEventsAndReplayCompletedRunFromCacheUnlessFresh() throws Exception {
+        TargetValidator validator = mock(TargetValidator.class);
+        CommandRunner commandRunner = mock(CommandRunner.class);
+        TracerouteService tracerouteService = new TracerouteService(validator, commandRunner, mock(TracerouteHopEnricher.class), new DiagnosticsProperties());
+        RecordingEmitter live = new RecordingEmitter();
+        when(validator.normalizeTarget(any())).thenReturn("1.1.1.1");
+
+        tracerouteService.executeTraceroute(live, "1.1.1.1", false);
+        ArgumentCaptor<SseEmitter> flight = ArgumentCaptor.forClass(SseEmitter.class);
+        verify(commandRunner).run(flight.capture(), eq("traceroute"), eq("1.1.1.1"), anyList());
+        flight.getValue().send(event("traceroute to 1.1.1.1 (1.1.1.1), 30 hops max, 60 byte packets"));
+        flight.getValue().send(event(List.of(" 1  _gateway (192.168.0.1)  0.456 ms  0.400 ms *", " 2  * * *")));
+        flight.getValue().send(SseEmitter.event().name("completed")
+                .data(new CommandStreamEventDTO("completed", "traceroute", "1.1.1.1", null, null, 0, true, null, Instant.now())));
+        flight.getValue().complete();
+
+        assertEquals(List.of("hop 1 192.168.0.1 _gateway 1 false", "hop 2 null null 3 false"), live.hops);
+
+        RecordingEmitter cached = new RecordingEmitter();
+        tracerouteService.executeTraceroute(cached, "1.1.1.1", false);
+
+        verify(commandRunner, times(1)).run(any(), eq("traceroute"), eq("1.1.1.1"), anyList());
+        assertEquals(List.of("hop 1 192.168.0.1 _gateway 1 true", "hop 2 null null 3 true"), cached.hops);
+        assertEquals(List.of("started", "completed"), cached.types);
+        assertTrue(cached.allCached);
+
+        tracerouteService.executeTraceroute(new RecordingEmitter(), "1.1.1.1", true);
+        verify(commandRunner, times(2)).run(any(), eq("traceroute"), eq("1.1.1.1"), anyList());
+    }
+
+    @Test
+    void shouldSendEnrichmentAfterHopAndHoldFinalEventUntilItArrives() throws Exception {
+        TargetValidator validator = mock(TargetValidator.class);
+        CommandRunner commandRunner = mock(CommandRunner.class);
+        TracerouteHopEnricher enricher = mock(TracerouteHopEnricher.class);
+        TracerouteService tracerouteService = new TracerouteService(validator, commandRunner, enricher, new DiagnosticsProperties());
+        CompletableFuture<TracerouteHopEnrichment> lookup = new CompletableFuture<>();
+        RecordingEmitter live = new RecordingEmitter();
+        when(validator.normalizeTarget(any())).thenReturn("8.8.8.8");
+        when(enricher.enrich(any())).thenReturn(lookup);
+
+        tracerouteService.executeTraceroute(live, "8.8.8.8", false);
+        ArgumentCaptor<SseEmitter> flight = ArgumentCaptor.forClass(SseEmitter.class);
+        verify(commandRunner).run(flight.capture(), eq("traceroute"), eq("8.8.8.8"), anyList());
+        flight.getValue().send(event(" 1  dns.google (8.8.8.8)  14.1 ms  13.9 ms  14.0 ms"));
+        flight.getValue().send(SseEmitter.event().name("completed")
+                .data(new CommandStreamEventDTO("completed", "traceroute", "8.8.8.8", null, null, 0, true, null, Instant.now())));
+        flight.getValue().complete();
+
+        assertEquals(List.of("output", "hop"), live.events);
+        assertEquals(1, tracerouteService.runningTraceroutes());
+
+        lookup.complete(new TracerouteHopEnrichment(1, "8.8.8.8", "dns.google", new IpGeolocationResponseDTO(
+                "8.8.8.8", "United States", "California", "Mountain View", "Google LLC", "Google LLC",
+                "AS15169 Google LLC", "America/Los_Angeles", 37.4056, -122.0775), null));
+
+        assertEquals(List.of("output", "hop", "enriched AS15169 Google LLC", "completed"), live.events);
+        assertEquals(0, tracerouteService.runningTraceroutes());
+
+        RecordingEmitter cached = new RecordingEmitter();
+        tracerouteService.executeTraceroute(cached, "8.8.8.8", false);
+        assertEquals(List.of("started", "hop", "enriched AS15169 Google LLC", "completed"), cached.events);
+    }
+
+    @Test
+    void shouldNotHoldTheFlightWhileASubscriberIsSlow() throws Exception {
+        TargetValidator validator = mock(TargetValidator.class);
+        CommandRunner commandRunner = mock(CommandRunner.class);
+        TracerouteService tracerouteService = new TracerouteService(validator, commandRunner, mock(TracerouteHopEnricher.class), new DiagnosticsProperties());
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SseEmitter slow = new SseEmitter() {
+            @Override
+            public void send(Set<DataWithMediaType> items) {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        RecordingEmitter late = new RecordingEmitter();
+        when(validator.normalizeTarget(any())).thenReturn("1.1.1.1");
+
+        tracerouteService.executeTraceroute(slow, "1.1.1.1", false);
+        ArgumentCaptor<SseEmitter> captor = ArgumentCaptor.forClass(SseEmitter.class);
+        verify(commandRunner).run(captor.capture(), eq("traceroute"), eq("1.1.1.1"), anyList());
+        TracerouteFlight flight = (TracerouteFlight) captor.getValue();
+        Thread reader = Thread.ofVirtual().start(() -> {
+            try {
+                flight.send(event("1  gateway"));
+                flight.send(event("2  isp"));
+            } catch (IOException exception) {
+                throw new IllegalStateException(exception);
+            }
+        });
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            tracerouteService.executeTraceroute(late, "1.1.1.1", false);
+            assertEquals(2, flight.subscriberCount());
+        });
+
+        release.countDown();
+        reader.join(5000);
+        assertEquals(List.of("1  gateway", "2  isp"), late.messages);
+    }
+
+    private static SseEmitter.SseEventBuilder event(String line) {
+        return event(List.of(line));
+    }
+
+    private static SseEmitter.SseEventBuilder event(List<String> lines) {
+        return SseEmitter.event()
+                .name("output")
+                .data(new CommandStreamEventDTO("output", "traceroute", "1.1.1.1", null, lines, null, false, null, Instant.now()));
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+        private final List<String> types = new CopyOnWriteArrayList<>();
+        private final List<String> hops = new CopyOnWriteArrayList<>();
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private volatile boolean allCached = true;
+        private volatile Runnable completion = () -> {
+        };
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            send(builder.build());
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) {
+            for (DataWithMediaType item : items) {
+                if (item.getData() instanceof CommandStreamEventDTO event) {
+                    types.add(event.type());
+                    events.add(event.type());
+                    allCached &= Boolean.TRUE.equals(event.cached());
+                    if (event.lines() != null) {
+                        messages.addAll(event.lines());
+                    }
+                } else if (item.getData() instanceof TracerouteHopEventDTO hop) {
+                    hops.add(hop.type() + " " + hop.hop() + " " + hop.address() + " " + hop.hostname() + " " + hop.timeouts() + " " + hop.cached());
+                    events.add(hop.type());
+                } else if (item.getData() instanceof TracerouteHopEnrichmentEventDTO enriched) {
+                    events.add(enriched.type() + " " + enriched.asn());
+                }
+            }
+        }
+
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            completion = callback;
+        }
+
+        void disconnect() {
+            completion.run();
+        }
     }
 }
@@ -0,0 +1,48 @@
+package com.project.suporte.ai.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DeadlineWheelTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void shouldExpireEntriesOnlyAfterTheirDeadline() {
+        DeadlineWheel<String> wheel = new DeadlineWheel<>(Duration.ofMillis(10), 8, 0L);
+        List<String> expired = new ArrayList<>();
+
+        wheel.schedule("fast", 25 * MS);
+        wheel.schedule("slow", 500 * MS);
+
+        wheel.expire(20 * MS, expired::add);
+        assertEquals(List.of(), expired);
+
+        wheel.expire(30 * MS, expired::add);
+        assertEquals(List.of("fast"), expired);
+
+        wheel.expire(499 * MS, expired::add);
+        assertEquals(List.of("fast"), expired);
+
+        wheel.expire(510 * MS, expired::add);
+        assertEquals(List.of("fast", "slow"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void shouldExpireOverdueEntriesOnNextTick() {
+        DeadlineWheel<String> wheel = new DeadlineWheel<>(Duration.ofMillis(10), 8, 0L);
+        List<String> expired = new ArrayList<>();
+
+        wheel.expire(100 * MS, expired::add);
+        wheel.schedule("overdue", 50 * MS);
+        wheel.expire(110 * MS, expired::add);
+
+        assertEquals(List.of("overdue"), expired);
+    }
+}
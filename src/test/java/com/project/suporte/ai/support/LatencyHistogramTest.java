@@ -0,0 +1,49 @@
+package com.project.suporte.ai.support;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void shouldReportPercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertNull(histogram.percentileMs(50));
+
+        for (int latency = 1; latency <= 1000; latency++) {
+            histogram.record(latency);
+        }
+
+        assertEquals(500.0, histogram.percentileMs(50), 500 * 0.03);
+        assertEquals(950.0, histogram.percentileMs(95), 950 * 0.03);
+        assertEquals(990.0, histogram.percentileMs(99), 990 * 0.03);
+        assertEquals(1000.0, histogram.maxMs());
+        assertEquals(1000, histogram.count());
+    }
+
+    @Test
+    void shouldMapEveryValueToABucketThatContainsIt() {
+        long previous = -1;
+        for (long value = 0; value < 1L << 20; value += 7) {
+            int index = LatencyHistogram.indexOf(value);
+            long representative = LatencyHistogram.representativeOf(index);
+
+            assertTrue(index >= previous);
+            assertTrue(Math.abs(representative - value) <= Math.max(1, value / 32));
+            previous = index;
+        }
+    }
+
+    @Test
+    void shouldClampOutOfRangeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(10_000_000);
+
+        assertEquals(0.0, histogram.percentileMs(1));
+        assertTrue(histogram.maxMs() > 200_000);
+    }
+}
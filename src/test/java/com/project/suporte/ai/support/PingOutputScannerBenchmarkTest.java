@@ -0,0 +1,116 @@
+package com.project.suporte.ai.support;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the regex/String parsing the monitor used before with {@link PingOutputScanner} on the same
+ * output. Run with {@code -Dbenchmark=true}; reports throughput and bytes allocated per run.
+ * <p>
+ * This is a warmed-up timing loop in the style of {@link PortProbeBenchmarkTest}, not a JMH benchmark:
+ * the build has no JMH dependency. It is a single fork without blackhole guarantees, so read the numbers
+ * as a relative comparison of the two parsers on one machine; the allocation figure is exact.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PingOutputScannerBenchmarkTest {
+
+    private static final int RUNS = Integer.getInteger("benchmark.runs", 200_000);
+    private static final int WARMUP_RUNS = RUNS / 4;
+    private static final Pattern LATENCY_PATTERN = Pattern.compile(
+            "(?:time|tempo)\\s*[=<]?\\s*<?\\s*(\\d+(?:[\\.,]\\d+)?)\\s*ms",
+            Pattern.CASE_INSENSITIVE
+    );
+    private static final Pattern SEQUENCE_PATTERN = Pattern.compile("icmp_[sr]eq[=\\s](\\d+)", Pattern.CASE_INSENSITIVE);
+    private static final byte[] OUTPUT = """
+            PING 8.8.8.8 (8.8.8.8) 56(84) bytes of data.
+            64 bytes from 8.8.8.8: icmp_seq=1 ttl=117 time=12.4 ms
+
+            --- 8.8.8.8 ping statistics ---
+            1 packets transmitted, 1 received, 0% packet loss, time 0ms
+            rtt min/avg/max/mdev = 12.400/12.400/12.400/0.000 ms
+            """.getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void shouldCompareRegexAndByteScanner() throws Exception {
+        for (int run = 0; run < WARMUP_RUNS; run++) {
+            regex();
+            scanner();
+        }
+
+        double regexLatency = measure("regex + String lines", this::regex);
+        double scannerLatency = measure("byte scanner", this::scanner);
+
+        assertEquals(regexLatency, scannerLatency);
+    }
+
+    private double measure(String label, Parser parser) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long startedAt = System.nanoTime();
+        double sink = 0;
+        for (int run = 0; run < RUNS; run++) {
+            sink += parser.parse();
+        }
+        long elapsedNs = System.nanoTime() - startedAt;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        System.out.printf(Locale.ROOT, "%-22s runs=%d ns/run=%.0f bytes/run=%d%n",
+                label, RUNS, elapsedNs / (double) RUNS, allocated / RUNS);
+        return sink / RUNS;
+    }
+
+    /**
+     * The previous {@code probeOnce} path: decode, trim and keep every line, then match the regexes.
+     */
+    private double regex() throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(OUTPUT), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line.trim());
+            }
+        }
+        double latency = 0;
+        for (String line : lines) {
+            Matcher sequence = SEQUENCE_PATTERN.matcher(line);
+            Matcher matcher = LATENCY_PATTERN.matcher(line);
+            if (sequence.find() && matcher.find()) {
+                latency = Double.parseDouble(matcher.group(1).replace(',', '.'));
+            }
+            line.toLowerCase(Locale.ROOT).contains("ping statistics");
+        }
+        return latency;
+    }
+
+    private double scanner() throws IOException {
+        double latency = 0;
+        try (PingOutputScanner scanner = new PingOutputScanner(new ByteArrayInputStream(OUTPUT))) {
+            while (scanner.nextLine()) {
+                if (scanner.sequence() != PingOutputScanner.NONE && scanner.hasLatency()) {
+                    latency = scanner.latencyMs();
+                }
+            }
+        }
+        return latency;
+    }
+
+    @FunctionalInterface
+    private interface Parser {
+        double parse() throws Exception;
+    }
+}
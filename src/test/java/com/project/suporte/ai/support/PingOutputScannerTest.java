@@ -0,0 +1,110 @@
+package com.project.suporte.ai.support;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PingOutputScannerTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"linux-iputils", "linux-timeout", "busybox", "macos", "windows-en", "windows-pt"})
+    void shouldMatchGoldenOutput(String fixture) throws IOException {
+        List<String> expected = new String(resource(fixture + ".expected").readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+
+        assertEquals(expected, describe(new PingOutputScanner(resource(fixture + ".txt"))));
+        assertEquals(expected, describe(new PingOutputScanner(new OneByteInputStream(resource(fixture + ".txt")))));
+    }
+
+    @Test
+    void shouldKeepLastMessageWithoutStatisticsHeader() throws IOException {
+        PingOutputScanner scanner = new PingOutputScanner(resource("linux-timeout.txt"));
+        while (scanner.nextLine()) {
+            assertFalse(scanner.hasLatency());
+        }
+
+        assertEquals("1 packets transmitted, 0 received, 100% packet loss, time 0ms", scanner.lastMessage());
+        assertNull(new PingOutputScanner(InputStream.nullInputStream()).lastMessage());
+    }
+
+    @Test
+    void shouldReadLatencyExactlyAndIgnoreWordsThatOnlyStartWithTime() throws IOException {
+        PingOutputScanner scanner = new PingOutputScanner(new ByteArrayInputStream("""
+                64 bytes from 10.0.0.1: icmp_seq=7 ttl=64 time=0,123 ms
+                Request timed out.
+                runtime=5ms ttl=abc
+                """.getBytes(StandardCharsets.UTF_8)));
+
+        assertTrue(scanner.nextLine());
+        assertEquals(Double.parseDouble("0.123"), scanner.latencyMs());
+        assertEquals(7, scanner.sequence());
+
+        assertTrue(scanner.nextLine());
+        assertFalse(scanner.hasLatency());
+        assertEquals(PingOutputScanner.NONE, scanner.sequence());
+
+        assertTrue(scanner.nextLine());
+        assertFalse(scanner.hasLatency());
+        assertEquals(PingOutputScanner.NONE, scanner.ttl());
+        assertFalse(scanner.nextLine());
+    }
+
+    private static List<String> describe(PingOutputScanner scanner) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (scanner) {
+            while (scanner.nextLine()) {
+                List<String> fields = new ArrayList<>();
+                if (scanner.sequence() != PingOutputScanner.NONE) {
+                    fields.add("seq=" + scanner.sequence());
+                }
+                if (scanner.ttl() != PingOutputScanner.NONE) {
+                    fields.add("ttl=" + scanner.ttl());
+                }
+                if (scanner.hasLatency()) {
+                    fields.add("time=" + scanner.latencyMs());
+                }
+                if (scanner.isSummary()) {
+                    fields.add("transmitted=" + scanner.transmitted());
+                    fields.add("received=" + scanner.received());
+                }
+                if (scanner.hasLoss()) {
+                    fields.add("loss=" + scanner.lossPercent());
+                }
+                lines.add(fields.isEmpty() ? "-" : String.join(" ", fields));
+            }
+        }
+        return lines;
+    }
+
+    private static InputStream resource(String name) {
+        return Objects.requireNonNull(PingOutputScannerTest.class.getResourceAsStream("/ping/" + name), name);
+    }
+
+    /**
+     * Hands out one byte per read, so every line crosses buffer refills.
+     */
+    private static final class OneByteInputStream extends FilterInputStream {
+
+        private OneByteInputStream(InputStream input) {
+            super(input);
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            return super.read(buffer, offset, Math.min(1, length));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.project.suporte.ai.support;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PortProbeBenchmarkTest {
+
+    private static final int PROBES = Integer.getInteger("benchmark.probes", 2_000);
+    private static final int TIMEOUT_MS = Integer.getInteger("benchmark.timeoutMs", 500);
+    private static final String FILTERED_HOST = System.getProperty("benchmark.filteredHost", "192.0.2.1");
+
+    @Test
+    void shouldCompareBlockingAndSelectorEngines() throws Exception {
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        int closedPort;
+        try (ServerSocket closed = new ServerSocket(0, 50, loopback)) {
+            closedPort = closed.getLocalPort();
+        }
+
+        try (ServerSocket server = new ServerSocket(0, PROBES, loopback)) {
+            List<InetSocketAddress> targets = new ArrayList<>();
+            InetSocketAddress filtered = new InetSocketAddress(FILTERED_HOST, 80);
+            for (int index = 0; index < PROBES; index++) {
+                targets.add(switch (index % 4) {
+                    case 0 -> new InetSocketAddress(loopback, server.getLocalPort());
+                    case 1, 2 -> new InetSocketAddress(loopback, closedPort);
+                    default -> filtered;
+                });
+            }
+
+            ExecutorService pool = Executors.newFixedThreadPool(32, Thread.ofPlatform().name("bench-portscan-", 0).factory());
+            try {
+                long blocking = run("blocking (32 threads)", new SocketPortProbe(), targets, pool);
+                long selector;
+                try (SelectorPortProbe probe = new SelectorPortProbe(4_096, 10)) {
+                    selector = run("selector (1 reactor)", probe, targets, pool);
+                }
+                System.out.printf(Locale.ROOT, "speedup: %.1fx%n", blocking / (double) Math.max(1, selector));
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    private long run(String label, PortProbe probe, List<InetSocketAddress> targets, ExecutorService pool) {
+        long startedAt = System.nanoTime();
+        List<CompletableFuture<PortProbeResult>> futures = targets.stream()
+                .map(address -> probe.probeAsync(address, TIMEOUT_MS, pool))
+                .toList();
+        long completed = futures.stream().map(CompletableFuture::join).count();
+        long elapsedMs = (System.nanoTime() - startedAt) / 1_000_000L;
+
+        assertEquals(targets.size(), completed);
+        System.out.printf(Locale.ROOT, "%-22s probes=%d timeout=%dms wall=%dms rate=%.0f/s%n",
+                label, completed, TIMEOUT_MS, elapsedMs, completed * 1000.0 / Math.max(1, elapsedMs));
+        return elapsedMs;
+    }
+}
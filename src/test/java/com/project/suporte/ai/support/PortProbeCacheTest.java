@@ -0,0 +1,69 @@
+package com.project.suporte.ai.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PortProbeCacheTest {
+
+    private static final InetAddress ADDRESS = InetAddress.getLoopbackAddress();
+
+    @Test
+    void shouldApplyTtlPerState() {
+        PortProbeCache cache = new PortProbeCache(Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ZERO, 100);
+
+        cache.put(address(80), new PortProbeResult(PortState.OPEN, 1_000L), 500);
+        cache.put(address(81), new PortProbeResult(PortState.FILTERED, 1_000L), 500);
+
+        PortProbeResult cached = cache.get(address(80), 500, false);
+        assertEquals(PortState.OPEN, cached.state());
+        assertTrue(cached.cached());
+        assertNull(cache.get(address(81), 500, false));
+    }
+
+    @Test
+    void shouldMissWhenServiceIsRequiredButWasNotDetected() {
+        PortProbeCache cache = new PortProbeCache(Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofMinutes(1), 100);
+
+        cache.put(address(22), new PortProbeResult(PortState.OPEN, 1_000L), 500);
+        cache.put(address(23), new PortProbeResult(PortState.CLOSED, 1_000L), 500);
+
+        assertNull(cache.get(address(22), 500, true));
+        assertEquals(PortState.CLOSED, cache.get(address(23), 500, true).state());
+    }
+
+    @Test
+    void shouldServeFilteredResultOnlyToLookupsThatWouldNotWaitLonger() {
+        PortProbeCache cache = new PortProbeCache(Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofMinutes(1), 100);
+
+        cache.put(address(443), new PortProbeResult(PortState.FILTERED, 50_000_000L), 50);
+        cache.put(address(444), new PortProbeResult(PortState.CLOSED, 1_000L), 50);
+
+        assertEquals(PortState.FILTERED, cache.get(address(443), 50, false).state());
+        assertEquals(PortState.FILTERED, cache.get(address(443), 20, false).state());
+        assertNull(cache.get(address(443), 5_000, false));
+        assertEquals(PortState.CLOSED, cache.get(address(444), 5_000, false).state());
+    }
+
+    @Test
+    void shouldStayWithinMaxEntries() {
+        PortProbeCache cache = new PortProbeCache(Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofMinutes(1), 100);
+
+        for (int port = 1; port <= 1_000; port++) {
+            cache.put(address(port), new PortProbeResult(PortState.CLOSED, 1_000L), 500);
+        }
+
+        assertTrue(cache.size() <= 100);
+        assertEquals(PortState.CLOSED, cache.get(address(1_000), 500, false).state());
+    }
+
+    private static InetSocketAddress address(int port) {
+        return new InetSocketAddress(ADDRESS, port);
+    }
+}
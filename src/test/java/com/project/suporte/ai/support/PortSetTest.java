@@ -0,0 +1,49 @@
+package com.project.suporte.ai.support;
+
+import com.project.suporte.ai.exceptions.ApiException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PortSetTest {
+
+    @Test
+    void shouldParseRangesListsAndPresets() {
+        PortSet ports = PortSet.parse("1-1024, 8080");
+
+        assertEquals(1025, ports.size());
+        assertEquals(1, ports.nextPort(0));
+        assertEquals(8080, ports.nextPort(1025));
+        assertEquals(100, PortSet.parse("top100").size());
+        assertTrue(PortSet.parse("top100").contains(3389));
+    }
+
+    @Test
+    void shouldCoverEveryPortWithAllPreset() {
+        PortSet ports = PortSet.parse("all");
+
+        assertEquals(65_535, ports.size());
+        assertEquals(List.of("1-65535"), ports.toRanges());
+        assertEquals(List.of(1, 2, 3), ports.toList(3));
+        assertEquals(-1, ports.nextPort(65_536));
+    }
+
+    @Test
+    void shouldCollapseConsecutivePortsIntoRanges() {
+        PortSet ports = PortSet.of(List.of(22, 80, 81, 82, 443));
+
+        assertEquals(List.of("22", "80-82", "443"), ports.toRanges());
+    }
+
+    @Test
+    void shouldRejectInvalidSpecifications() {
+        assertThrows(ApiException.class, () -> PortSet.parse("0-80"));
+        assertThrows(ApiException.class, () -> PortSet.parse("100-10"));
+        assertThrows(ApiException.class, () -> PortSet.parse("http"));
+        assertThrows(ApiException.class, () -> PortSet.parse(" , "));
+    }
+}
@@ -0,0 +1,54 @@
+package com.project.suporte.ai.support;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RttEstimatorTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void shouldUseInitialTimeoutUntilFirstSample() {
+        RttEstimator estimator = new RttEstimator(500, 50, 5_000, 10);
+
+        assertEquals(500, estimator.timeoutMs());
+        assertNull(estimator.smoothedRttMs());
+    }
+
+    @Test
+    void shouldShrinkTimeoutForFastHostsDownToMinimum() {
+        RttEstimator estimator = new RttEstimator(500, 50, 5_000, 10);
+
+        for (int index = 0; index < 10; index++) {
+            estimator.sample(2 * MS);
+        }
+
+        assertEquals(50, estimator.timeoutMs());
+        assertEquals(2.0, estimator.smoothedRttMs(), 0.01);
+    }
+
+    @Test
+    void shouldExtendTimeoutForDistantHostsUpToMaximum() {
+        RttEstimator estimator = new RttEstimator(500, 50, 5_000, 10);
+
+        estimator.sample(400 * MS);
+        assertEquals(1_200, estimator.timeoutMs());
+
+        estimator.sample(4_000 * MS);
+        assertEquals(5_000, estimator.timeoutMs());
+    }
+
+    @Test
+    void shouldFollowRfc6298Smoothing() {
+        RttEstimator estimator = new RttEstimator(500, 1, 5_000, 1);
+
+        estimator.sample(100 * MS);
+        estimator.sample(200 * MS);
+
+        assertEquals(112.5, estimator.smoothedRttMs(), 0.001);
+        assertTrue(estimator.timeoutMs() >= 112 + 4 * 62);
+    }
+}
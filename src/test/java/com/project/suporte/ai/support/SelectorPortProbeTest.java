@@ -0,0 +1,137 @@
+package com.project.suporte.ai.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SelectorPortProbeTest {
+
+    @Test
+    void shouldReportOpenAndClosedPorts() throws Exception {
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        int closedPort;
+        try (ServerSocket closed = new ServerSocket(0, 50, loopback)) {
+            closedPort = closed.getLocalPort();
+        }
+
+        try (ServerSocket server = new ServerSocket(0, 50, loopback);
+             SelectorPortProbe probe = new SelectorPortProbe(16, 10)) {
+            PortProbeResult open = probe.probeAsync(new InetSocketAddress(loopback, server.getLocalPort()), 1000, Runnable::run).join();
+            PortProbeResult closed = probe.probeAsync(new InetSocketAddress(loopback, closedPort), 1000, Runnable::run).join();
+
+            assertEquals(PortState.OPEN, open.state());
+            assertEquals(PortState.CLOSED, closed.state());
+            assertTrue(open.elapsedNanos() > 0);
+        }
+    }
+
+    @Test
+    void shouldQueueAttemptsBeyondInFlightLimit() throws Exception {
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+
+        try (ServerSocket server = new ServerSocket(0, 200, loopback);
+             SelectorPortProbe probe = new SelectorPortProbe(2, 10)) {
+            InetSocketAddress address = new InetSocketAddress(loopback, server.getLocalPort());
+            long open = IntStream.range(0, 50)
+                    .mapToObj(index -> probe.probeAsync(address, 1000, Runnable::run))
+                    .toList()
+                    .stream()
+                    .map(future -> future.join())
+                    .filter(PortProbeResult::open)
+                    .count();
+
+            assertEquals(50, open);
+        }
+    }
+
+    @Test
+    void shouldReadGreetingFromServicesThatSpeakFirst() throws Exception {
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+
+        try (ServerSocket server = new ServerSocket(0, 50, loopback);
+             SelectorPortProbe probe = new SelectorPortProbe(16, 10, 1)) {
+            Thread.ofVirtual().start(() -> serve(server, "SSH-2.0-OpenSSH_9.6\r\n", false));
+            InetSocketAddress address = new InetSocketAddress(loopback, server.getLocalPort());
+
+            PortProbeResult result = probe.probeServiceAsync(address, () -> 1000, 1000, Runnable::run).join();
+
+            assertEquals(PortState.OPEN, result.state());
+            assertEquals(new ServiceBanner("ssh", "SSH-2.0-OpenSSH_9.6"), result.service());
+        }
+    }
+
+    @Test
+    void shouldSendFallbackProbeWhenServerStaysSilent() throws Exception {
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+
+        try (ServerSocket server = new ServerSocket(0, 50, loopback);
+             SelectorPortProbe probe = new SelectorPortProbe(16, 10, 1)) {
+            Thread.ofVirtual().start(() -> serve(server, "HTTP/1.0 200 OK\r\nServer: test-httpd/1.0\r\n\r\n", true));
+            InetSocketAddress address = new InetSocketAddress(loopback, server.getLocalPort());
+
+            PortProbeResult result = probe.probeServiceAsync(address, () -> 1000, 600, Runnable::run).join();
+
+            assertEquals(new ServiceBanner("http", "HTTP/1.0 200 OK | test-httpd/1.0"), result.service());
+        }
+    }
+
+    @Test
+    void shouldCloseConnectionWhenProbeIsCancelled() throws Exception {
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+
+        try (ServerSocket server = new ServerSocket(0, 50, loopback);
+             SelectorPortProbe probe = new SelectorPortProbe(16, 10, 1)) {
+            InetSocketAddress address = new InetSocketAddress(loopback, server.getLocalPort());
+            CompletableFuture<PortProbeResult> result = probe.probeServiceAsync(address, () -> 1000, 30_000, Runnable::run);
+
+            try (Socket accepted = server.accept()) {
+                accepted.setSoTimeout(5_000);
+                accepted.getInputStream().read(new byte[64]);
+                result.cancel(false);
+
+                assertEquals(-1, accepted.getInputStream().read());
+            }
+        }
+    }
+
+    @Test
+    void shouldKeepReactorRunningWhenAnAttemptThrows() throws Exception {
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+
+        try (ServerSocket server = new ServerSocket(0, 50, loopback);
+             SelectorPortProbe probe = new SelectorPortProbe(16, 10)) {
+            InetSocketAddress address = new InetSocketAddress(loopback, server.getLocalPort());
+            CompletableFuture<PortProbeResult> broken = probe.probeAsync(address, () -> {
+                throw new IllegalStateException("timeout indisponivel");
+            }, Runnable::run);
+
+            broken.get(5, TimeUnit.SECONDS);
+            PortProbeResult next = probe.probeAsync(address, 1000, Runnable::run).get(5, TimeUnit.SECONDS);
+
+            assertEquals(PortState.OPEN, next.state());
+        }
+    }
+
+    private static void serve(ServerSocket server, String response, boolean waitForRequest) {
+        try (Socket socket = server.accept()) {
+            if (waitForRequest) {
+                byte[] request = new byte[64];
+                socket.getInputStream().read(request);
+            }
+            socket.getOutputStream().write(response.getBytes(StandardCharsets.US_ASCII));
+            socket.getOutputStream().flush();
+            Thread.sleep(500);
+        } catch (Exception ignored) {
+        }
+    }
+}
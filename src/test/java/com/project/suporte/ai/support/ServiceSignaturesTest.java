@@ -0,0 +1,81 @@
+package com.project.suporte.ai.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServiceSignaturesTest {
+
+    @Test
+    void shouldMatchTextGreetings() {
+        assertEquals(new ServiceBanner("ssh", "SSH-2.0-OpenSSH_9.6p1"), match(22, "SSH-2.0-OpenSSH_9.6p1\r\n"));
+        assertEquals("ftp", match(21, "220 (vsFTPd 3.0.5)\r\n").service());
+        assertEquals("smtp", match(25, "220 mx.example.com ESMTP Postfix\r\n").service());
+        assertEquals("smtp", match(2525, "220 mx.example.com ready\r\n").service());
+        assertEquals("imap", match(143, "* OK [CAPABILITY IMAP4rev1] Dovecot ready.\r\n").service());
+        assertEquals("pop3", match(110, "+OK POP3 ready\r\n").service());
+    }
+
+    @Test
+    void shouldIncludeServerHeaderInHttpBanner() {
+        ServiceBanner banner = match(80, "HTTP/1.1 301 Moved Permanently\r\nDate: today\r\nServer: nginx/1.24.0\r\n\r\n");
+
+        assertEquals(new ServiceBanner("http", "HTTP/1.1 301 Moved Permanently | nginx/1.24.0"), banner);
+    }
+
+    @Test
+    void shouldRecognizeBinaryGreetings() {
+        assertEquals(new ServiceBanner("tls", "TLS ServerHello"), match(443, new byte[]{0x16, 0x03, 0x03, 0x00, 0x5a, 0x02}));
+        assertEquals(new ServiceBanner("tls", "TLS alert"), match(443, new byte[]{0x15, 0x03, 0x03, 0x00, 0x02, 0x02, 0x28}));
+
+        byte[] mysql = {0x4a, 0x00, 0x00, 0x00, 0x0a, '8', '.', '0', '.', '3', '6', 0x00, 0x01};
+        assertEquals(new ServiceBanner("mysql", "8.0.36"), match(3306, mysql));
+    }
+
+    @Test
+    void shouldWaitForFullLineOrHeaders() {
+        ByteBuffer partial = ByteBuffer.allocate(ServiceSignatures.RESPONSE_LIMIT).put("SSH-2.0".getBytes(StandardCharsets.US_ASCII));
+        ByteBuffer headers = ByteBuffer.allocate(ServiceSignatures.RESPONSE_LIMIT).put("HTTP/1.1 200 OK\r\n".getBytes(StandardCharsets.US_ASCII));
+
+        assertFalse(ServiceSignatures.isComplete(partial));
+        assertFalse(ServiceSignatures.isComplete(headers));
+        assertTrue(ServiceSignatures.isComplete(headers.put("\r\n".getBytes(StandardCharsets.US_ASCII))));
+    }
+
+    @Test
+    void shouldProbeHttpAndTlsPortsImmediately() {
+        ByteBuffer clientHello = ServiceSignatures.initialProbe(443);
+
+        assertNull(ServiceSignatures.initialProbe(22));
+        assertNotNull(ServiceSignatures.initialProbe(8080));
+        assertEquals(0x16, clientHello.get(0));
+        assertEquals(clientHello.remaining() - 5, ((clientHello.get(3) & 0xFF) << 8) | (clientHello.get(4) & 0xFF));
+    }
+
+    @Test
+    void shouldRecycleDirectBuffers() {
+        DirectBufferPool pool = new DirectBufferPool(ServiceSignatures.RESPONSE_LIMIT, 1);
+        ByteBuffer first = pool.acquire();
+
+        assertTrue(first.isDirect());
+        assertNull(pool.acquire());
+        pool.release(first.put((byte) 1));
+        assertEquals(first, pool.acquire());
+        assertEquals(1, pool.allocated());
+    }
+
+    private static ServiceBanner match(int port, String response) {
+        return match(port, response.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static ServiceBanner match(int port, byte[] response) {
+        return ServiceSignatures.match(port, ByteBuffer.allocate(ServiceSignatures.RESPONSE_LIMIT).put(response));
+    }
+}
@@ -4,10 +4,13 @@ import com.project.suporte.ai.exceptions.ApiException;
 import org.junit.jupiter.api.Test;
 
 import java.net.InetAddress;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class TargetValidatorTest {
@@ -36,6 +39,21 @@ class TargetValidatorTest {
         assertThrows(ApiException.class, () -> validator.normalizePortScanTarget("localhost"));
     }
 
+    @Test
+    void shouldResolvePortScanTargetOnceAndOrderFamiliesForDualStack() throws Exception {
+        AddressResolver resolver = mock(AddressResolver.class);
+        TargetValidator validator = new TargetValidator(resolver);
+        InetAddress ipv4 = InetAddress.getByName("203.0.113.10");
+        InetAddress ipv6 = InetAddress.getByName("2001:db8::10");
+        when(resolver.resolveAll("dual.example.com")).thenReturn(new InetAddress[]{ipv4, ipv6});
+
+        PortScanTarget target = validator.resolvePortScanTarget("dual.example.com");
+
+        assertEquals(ipv4, target.preferred());
+        assertEquals(List.of(ipv6, ipv4), target.dualStack());
+        verify(resolver, times(1)).resolveAll("dual.example.com");
+    }
+
     @Test
     void shouldRequirePublicAddressForGeolocation() throws Exception {
         AddressResolver resolver = mock(AddressResolver.class);
@@ -44,4 +62,27 @@ class TargetValidatorTest {
 
         assertThrows(ApiException.class, () -> validator.resolvePublicAddress("internal.local"));
     }
+
+    @Test
+    void shouldExpandPublicCidrBlock() {
+        TargetValidator validator = new TargetValidator(mock(AddressResolver.class));
+
+        assertEquals(
+                List.of("203.0.113.4", "203.0.113.5", "203.0.113.6", "203.0.113.7"),
+                validator.expandPortScanCidr("203.0.113.5/30", 256).stream().map(PortScanTarget::host).toList()
+        );
+        assertEquals(16, validator.expandPortScanCidr("2001:db8::/124", 256).size());
+    }
+
+    @Test
+    void shouldRejectRestrictedOrOversizedCidrBlocks() {
+        TargetValidator validator = new TargetValidator(mock(AddressResolver.class));
+
+        assertEquals("restricted_target", assertThrows(ApiException.class,
+                () -> validator.expandPortScanCidr("10.0.0.0/30", 256)).getCode());
+        assertEquals("too_many_hosts", assertThrows(ApiException.class,
+                () -> validator.expandPortScanCidr("203.0.113.0/16", 256)).getCode());
+        assertEquals("invalid_cidr", assertThrows(ApiException.class,
+                () -> validator.expandPortScanCidr("203.0.113.0/33", 256)).getCode());
+    }
 }
@@ -0,0 +1,54 @@
+package com.project.suporte.ai.support;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TracerouteOutputParserTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"linux", "windows-en", "windows-pt"})
+    void shouldMatchGoldenOutput(String fixture) throws IOException {
+        List<String> expected = read(fixture + ".expected");
+
+        List<String> hops = read(fixture + ".txt").stream()
+                .map(TracerouteOutputParser::parse)
+                .filter(Objects::nonNull)
+                .map(TracerouteOutputParserTest::describe)
+                .toList();
+
+        assertEquals(expected, hops);
+    }
+
+    @Test
+    void shouldCountTimedOutProbesAndIgnoreNonHopLines() {
+        TracerouteHop hop = TracerouteOutputParser.parse(" 7  10.0.0.7 (10.0.0.7)  3,250 ms * *");
+
+        assertEquals(List.of(3.25), hop.rttsMs().subList(0, 1));
+        assertEquals(2, hop.timeouts());
+        assertNull(TracerouteOutputParser.parse("traceroute to 1.1.1.1 (1.1.1.1), 30 hops max, 60 byte packets"));
+        assertNull(TracerouteOutputParser.parse("over a maximum of 30 hops:"));
+        assertNull(TracerouteOutputParser.parse("300  10.0.0.1  1 ms"));
+        assertNull(TracerouteOutputParser.parse(""));
+    }
+
+    private static String describe(TracerouteHop hop) {
+        return hop.hop() + " " + hop.address() + " " + hop.hostname() + " " + hop.rttsMs();
+    }
+
+    private static List<String> read(String name) throws IOException {
+        try (InputStream input = Objects.requireNonNull(
+                TracerouteOutputParserTest.class.getResourceAsStream("/traceroute/" + name), name)) {
+            return new String(input.readAllBytes(), StandardCharsets.ISO_8859_1).lines().toList();
+        }
+    }
+}